@@ -6,7 +6,7 @@ mkdir build\classes 2>nul
 
 rem Compile main class
 echo Compiling source files...
-javac -d build\classes src\main\java\com\trading\SimpleMain.java
+javac -d build\classes -sourcepath src\main\java src\main\java\com\trading\SimpleMain.java
 
 rem Create JAR file
 echo Creating JAR file...
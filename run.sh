@@ -3,26 +3,30 @@
 # Simple script for running the trading router demo
 
 if [ $# -ne 1 ]; then
-  echo "Usage: $0 [standard|zerogc]"
+  echo "Usage: $0 [standard|zerogc|openloop|journal|pipeline|handoff|sessions|routing|sharded|marketdata|batch|aggregate|risk|gateway|ipc|gcprofile]"
   exit 1
 fi
 
 MODE=$1
 
 # Validate mode
-if [ "$MODE" != "standard" ] && [ "$MODE" != "zerogc" ]; then
-  echo "Invalid mode: $MODE. Use 'standard' or 'zerogc'"
-  exit 1
-fi
+case "$MODE" in
+  standard|zerogc|openloop|journal|pipeline|handoff|sessions|routing|sharded|marketdata|batch|aggregate|risk|gateway|ipc|gcprofile) ;;
+  *)
+    echo "Invalid mode: $MODE. Use 'standard', 'zerogc', 'openloop', 'journal', 'pipeline', 'handoff', 'sessions', 'routing', 'sharded', 'marketdata', 'batch', 'aggregate', 'risk', 'gateway', 'ipc' or 'gcprofile'"
+    exit 1
+    ;;
+esac
 
 echo "Building project..."
 
 # Create build directory
 mkdir -p build/classes
 
-# Compile main class
+# Compile main class; the vector batch kernel is only loaded by name, so it is listed explicitly
 echo "Compiling source files..."
-javac -d build/classes src/main/java/com/trading/SimpleMain.java
+javac -d build/classes --add-modules jdk.incubator.vector -sourcepath src/main/java \
+      src/main/java/com/trading/SimpleMain.java src/main/java/com/trading/batch/VectorBatchKernel.java
 
 # Create JAR file
 echo "Creating JAR file..."
@@ -30,11 +34,17 @@ jar cfe build/trading-router-demo.jar com.trading.SimpleMain -C build/classes .
 
 echo "Running in $MODE mode..."
 
-if [ "$MODE" == "standard" ]; then
+if [ "$MODE" == "batch" ]; then
+  echo "Using batch mode with the incubating Vector API"
+  java --add-modules jdk.incubator.vector -jar build/trading-router-demo.jar batch
+elif [ "$MODE" == "gcprofile" ]; then
+  echo "Using gcprofile mode; each child JVM is started with its own collector and heap"
+  java -jar build/trading-router-demo.jar gcprofile
+elif [ "$MODE" == "standard" ]; then
   echo "Using standard allocation mode with default GC settings"
   java -jar build/trading-router-demo.jar standard
 else
-  echo "Using ZeroGC mode with optimized settings for low latency"
+  echo "Using $MODE mode with optimized settings for low latency"
   java -XX:+UseZGC -XX:+AlwaysPreTouch -XX:+DisableExplicitGC \
-       -jar build/trading-router-demo.jar zerogc
+       -jar build/trading-router-demo.jar "$MODE"
 fi
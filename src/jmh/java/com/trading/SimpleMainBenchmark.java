@@ -0,0 +1,71 @@
+package com.trading;
+
+import com.trading.book.MatchingEngine;
+import com.trading.model.OrderSimulation;
+import com.trading.util.LatencyHistogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the router hot paths in {@link SimpleMain}.
+ * <p>
+ * The order path benchmarks run the same loops as the standard and zerogc modes (without
+ * the synthetic GC pressure), so {@code -prof gc} reports the allocation per order of each path.
+ * Their books, symbols, metrics and order pool are built once per trial, so an invocation
+ * measures only its orders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SimpleMainBenchmark {
+
+    private static final int ORDERS_PER_INVOCATION = 1_000;
+
+    private OrderSimulation order;
+    private MatchingEngine engine;
+    private OrderPathState orderPath;
+    private LatencyHistogram latencies;
+    private int sequence;
+
+    @Setup
+    public void setUp() {
+        order = new OrderSimulation();
+        engine = SimpleMain.createMatchingEngine();
+        orderPath = new OrderPathState();
+        latencies = new LatencyHistogram(10_000_000_000L, 3);
+    }
+
+    @Benchmark
+    public long processOrder() {
+        int i = sequence++;
+        order.reset(i, i % 10, SimpleMain.sideOf(i), SimpleMain.orderPrice(i), 100 + (i % 50));
+        SimpleMain.processOrder(order, engine);
+        return order.getExecutedValue();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+    public int standardOrderPath() {
+        return SimpleMain.runStandardDemo(orderPath, ORDERS_PER_INVOCATION, false, latencies);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+    public int pooledOrderPath() {
+        return SimpleMain.runZeroGCDemo(orderPath, ORDERS_PER_INVOCATION, false, latencies);
+    }
+}
@@ -0,0 +1,59 @@
+package com.trading.batch;
+
+import com.trading.model.Price;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for valuing a full {@link OrderBatch} with each {@link BatchKernel}, per order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+@OperationsPerInvocation(BatchKernelBenchmark.BATCH_SIZE)
+public class BatchKernelBenchmark {
+
+    static final int BATCH_SIZE = 1_024;
+    private static final int SYMBOLS = 10;
+
+    @Param({"scalar", "vector"})
+    public String kernelName;
+
+    private BatchKernel kernel;
+    private OrderBatch batch;
+    private long[] feesPerUnit;
+
+    @Setup
+    public void setUp() {
+        kernel = BatchKernel.fromName(kernelName);
+        batch = new OrderBatch(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(i % SYMBOLS, Price.of(100 + (i % 10)), 100 + (i % 50));
+        }
+        feesPerUnit = new long[SYMBOLS];
+        for (int id = 0; id < SYMBOLS; id++) {
+            feesPerUnit[id] = (1 + id % 2) * Price.CENT / 5;
+        }
+    }
+
+    @Benchmark
+    public long value() {
+        kernel.value(batch, feesPerUnit);
+        return batch.getTotalValue() + batch.getTotalFees();
+    }
+}
@@ -0,0 +1,70 @@
+package com.trading.benchmark;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.model.SymbolDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the {@link DirectBufferDemo} off-heap order store: writing a record,
+ * reading it through a flyweight, and the allocate/free cycle of a short-lived order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DirectBufferBenchmark {
+
+    private static final int CAPACITY = 1 << 16;
+    private static final long SYMBOL_CODE = SymbolDictionary.encode("AAPL");
+    private static final byte BUY = Side.BUY.code();
+
+    private DirectBufferDemo store;
+    private DirectBufferDemo.OrderFlyweight flyweight;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        // One spare slot for the allocate/free benchmark
+        store = new DirectBufferDemo(CAPACITY + 1);
+        flyweight = new DirectBufferDemo.OrderFlyweight();
+        for (int i = 0; i < CAPACITY; i++) {
+            int slot = store.allocate();
+            store.writeOrder(slot, i, SYMBOL_CODE, (byte) 1, BUY, Price.of(150 + (i % 10)), 100 + (i % 50), 42);
+        }
+    }
+
+    @Benchmark
+    public void writeOrder() {
+        int i = index++ & (CAPACITY - 1);
+        store.writeOrder(i, i, SYMBOL_CODE, (byte) 1, BUY, Price.of(150 + (i % 10)), 100 + (i % 50), 42);
+    }
+
+    @Benchmark
+    public long readOrder() {
+        DirectBufferDemo.OrderFlyweight order = store.readOrder(index++ & (CAPACITY - 1), flyweight);
+        return order.orderId() + order.symbolCode() + order.type() + order.side() + order.price()
+                + order.quantity() + order.clientCode();
+    }
+
+    @Benchmark
+    public int allocateAndFree() {
+        int slot = store.allocate();
+        store.writeOrder(slot, index++, SYMBOL_CODE, (byte) 1, BUY, Price.of(150), 100, 42);
+        store.free(slot);
+        return slot;
+    }
+}
@@ -0,0 +1,70 @@
+package com.trading.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link ObjectPoolDemo#borrow()} and {@link ObjectPoolDemo#release(Object)}
+ * compared with allocating a fresh object per operation, on one thread and with four
+ * threads sharing a pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ObjectPoolBenchmark {
+
+    private ObjectPoolDemo<long[]> pool;
+
+    @Setup
+    public void setUp() {
+        pool = new ObjectPoolDemo<>(() -> new long[4], 16, 64);
+    }
+
+    @Benchmark
+    public long[] borrowRelease() {
+        long[] order = pool.borrow();
+        order[0]++;
+        pool.release(order);
+        return order;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long[] borrowReleaseShared(SharedPool shared) {
+        long[] order = shared.pool.borrow();
+        order[0]++;
+        shared.pool.release(order);
+        return order;
+    }
+
+    @Benchmark
+    public long[] allocate() {
+        long[] order = new long[4];
+        order[0]++;
+        return order;
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedPool {
+        ObjectPoolDemo<long[]> pool;
+
+        @Setup
+        public void setUp() {
+            pool = new ObjectPoolDemo<>(() -> new long[4], 256, 1024);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.trading.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link StringInternDemo}.
+ * <p>
+ * {@code internDecoded} builds the String from wire bytes first, as a naive FIX parser would,
+ * so its allocation rate shows the garbage created before interning runs. {@code internBytes}
+ * and {@code internBuffer} look the value up straight from the bytes and should allocate nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class StringInternBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN"};
+
+    private StringInternDemo interner;
+    private byte[][] symbolBytes;
+    private ByteBuffer wire;
+    private int[] wireOffsets;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        interner = new StringInternDemo();
+        symbolBytes = new byte[SYMBOLS.length][];
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            interner.intern(SYMBOLS[i]);
+            symbolBytes[i] = SYMBOLS[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        wire = ByteBuffer.allocateDirect(64);
+        wireOffsets = new int[SYMBOLS.length + 1];
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            wireOffsets[i] = wire.position();
+            wire.put(symbolBytes[i]);
+        }
+        wireOffsets[SYMBOLS.length] = wire.position();
+    }
+
+    @Benchmark
+    public String internExisting() {
+        return interner.intern(SYMBOLS[index++ & 3]);
+    }
+
+    @Benchmark
+    public String internDecoded() {
+        byte[] bytes = symbolBytes[index++ & 3];
+        return interner.intern(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public String internBytes() {
+        byte[] bytes = symbolBytes[index++ & 3];
+        return interner.intern(bytes, 0, bytes.length);
+    }
+
+    @Benchmark
+    public String internBuffer() {
+        int i = index++ & 3;
+        return interner.intern(wire, wireOffsets[i], wireOffsets[i + 1] - wireOffsets[i]);
+    }
+}
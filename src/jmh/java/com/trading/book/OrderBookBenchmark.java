@@ -0,0 +1,63 @@
+package com.trading.book;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link OrderBook} matching and cancelling.
+ * <p>
+ * {@code submitCrossing} alternates buys and sells over ten price levels so most orders
+ * trade against resting ones; {@code restAndCancel} adds an order away from the touch and
+ * cancels it again by id.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class OrderBookBenchmark {
+
+    // Prices from 50.00 to 150.00 in 0.01 ticks
+    private static final long TICK_SIZE = Price.CENT;
+    private static final long MIN_PRICE = Price.of(50);
+    private static final long MID_PRICE = Price.of(100);
+    private static final int LEVELS = 10_001;
+    private static final int RESTING_ORDER_LIFETIME = 1_000;
+
+    private OrderBook book;
+    private long orderId;
+
+    @Setup
+    public void setUp() {
+        book = new OrderBook(0, MIN_PRICE, TICK_SIZE, LEVELS, 4_096, TradeListener.NONE);
+    }
+
+    @Benchmark
+    public long submitCrossing() {
+        long id = orderId++;
+        Side side = (id & 1) == 0 ? Side.BUY : Side.SELL;
+        long filled = book.submit(id, side, MID_PRICE + (id % 10) * TICK_SIZE, 100 + (id % 50));
+        book.cancel(id - RESTING_ORDER_LIFETIME);
+        return filled;
+    }
+
+    @Benchmark
+    public boolean restAndCancel() {
+        long id = orderId++;
+        book.submit(id, Side.BUY, MIN_PRICE + (id % 100) * TICK_SIZE, 100);
+        return book.cancel(id);
+    }
+}
@@ -0,0 +1,117 @@
+package com.trading.fix;
+
+import com.trading.model.Side;
+import com.trading.model.SymbolDictionary;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks encoding and decoding NewOrderSingle and ExecutionReport messages in
+ * both wire formats.
+ * <p>
+ * Runs in throughput mode so the {@code bytes} auxiliary counter is reported as bytes per
+ * second next to messages per second; {@code -prof gc} shows the allocation per message.
+ * Decoding reads every field so lazily parsed FIX values are included.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    private static final long SYMBOL = SymbolDictionary.encode("AAPL");
+
+    @Param({"fix", "binary"})
+    public String format;
+
+    private MessageCodec codec;
+    private ByteBuffer buffer;
+    private int newOrderSingleLength;
+    private int executionReportLength;
+    private long sequence;
+    private final FieldReader reader = new FieldReader();
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        codec = format.equals("fix") ? new FixCodec("ROUTER", "VENUE1") : new BinaryCodec();
+        buffer = ByteBuffer.allocateDirect(1024);
+        newOrderSingleLength = codec.encodeNewOrderSingle(buffer, 0, 1_000_001, 987_654_321L, 42,
+                SYMBOL, Side.BUY, 1_502_500, 300);
+        executionReportLength = codec.encodeExecutionReport(buffer, 512, 1_000_002, 55_501L, 77_001L,
+                SYMBOL, Side.BUY, MessageCodec.ORD_STATUS_PARTIALLY_FILLED, 1_502_500, 100, 200, 100);
+    }
+
+    @Benchmark
+    public int encodeNewOrderSingle(Bytes counter) {
+        long seq = sequence++;
+        int length = codec.encodeNewOrderSingle(buffer, 0, seq, 987_654_321L + seq, 42,
+                SYMBOL, Side.BUY, 1_502_500 + (seq & 1023), 100 + (seq & 255));
+        counter.bytes += length;
+        return length;
+    }
+
+    @Benchmark
+    public int encodeExecutionReport(Bytes counter) {
+        long seq = sequence++;
+        int length = codec.encodeExecutionReport(buffer, 512, seq, 55_501L + seq, 77_001L + seq,
+                SYMBOL, Side.SELL, MessageCodec.ORD_STATUS_FILLED, 1_502_500 + (seq & 1023), 100, 0, 300);
+        counter.bytes += length;
+        return length;
+    }
+
+    @Benchmark
+    public long decodeNewOrderSingle(Bytes counter) {
+        counter.bytes += codec.decode(buffer, 0, newOrderSingleLength, reader);
+        return reader.checksum;
+    }
+
+    @Benchmark
+    public long decodeExecutionReport(Bytes counter) {
+        counter.bytes += codec.decode(buffer, 512, executionReportLength, reader);
+        return reader.checksum;
+    }
+
+    private static final class FieldReader implements MessageHandler {
+        long checksum;
+
+        @Override
+        public void onNewOrderSingle(NewOrderSingle order) {
+            checksum += order.msgSeqNum() + order.clOrdId() + order.account() + order.symbolCode()
+                    + order.side().code() + order.ordType() + order.price() + order.orderQty();
+        }
+
+        @Override
+        public void onExecutionReport(ExecutionReport report) {
+            checksum += report.msgSeqNum() + report.orderId() + report.execId() + report.symbolCode()
+                    + report.side().code() + report.ordStatus() + report.lastPx() + report.lastQty()
+                    + report.leavesQty() + report.cumQty();
+        }
+    }
+}
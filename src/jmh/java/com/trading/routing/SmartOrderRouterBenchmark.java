@@ -0,0 +1,72 @@
+package com.trading.routing;
+
+import com.trading.model.OrderSimulation;
+import com.trading.model.Price;
+import com.trading.model.Side;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link SmartOrderRouter#route(OrderSimulation)} with each strategy,
+ * as the number of venues and symbols grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SmartOrderRouterBenchmark {
+
+    @Param({"best-price", "fee-adjusted", "pro-rata"})
+    public String strategy;
+
+    @Param({"2", "8", "16"})
+    public int venues;
+
+    @Param({"10", "1000"})
+    public int symbols;
+
+    private SmartOrderRouter router;
+    private OrderSimulation order;
+    private int sequence;
+
+    @Setup
+    public void setUp() {
+        VenueCache[] caches = new VenueCache[venues];
+        for (int v = 0; v < venues; v++) {
+            caches[v] = new VenueCache(v, "VENUE" + v, symbols, (2 + v) * Price.CENT / 20, 50_000 + 10_000L * v);
+            for (int symbolId = 0; symbolId < symbols; symbolId++) {
+                // Stagger the quotes so sweeps and splits touch several venues
+                long bid = Price.of(100) + (v % 4) * Price.CENT;
+                caches[v].updateQuote(symbolId, bid, 200 + 50 * v, bid + 5 * Price.CENT, 200 + 50 * v);
+            }
+        }
+        RoutingStrategy routingStrategy = switch (strategy) {
+            case "best-price" -> new BestPriceStrategy();
+            case "fee-adjusted" -> new FeeAdjustedStrategy(venues);
+            case "pro-rata" -> new ProRataStrategy();
+            default -> throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        };
+        router = new SmartOrderRouter(caches, routingStrategy);
+        order = new OrderSimulation();
+    }
+
+    @Benchmark
+    public int route() {
+        int i = sequence++;
+        order.reset(i, i % symbols, (i & 1) == 0 ? Side.BUY : Side.SELL, Price.of(100 + (i % 10)), 100 + (i % 50) * 20);
+        return router.route(order).getLegCount();
+    }
+}
@@ -0,0 +1,52 @@
+package com.trading.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link FastIntToStringDemo} against {@link Integer#toString(int)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FastIntToStringBenchmark {
+
+    private FastIntToStringDemo converter;
+    private char[] target;
+    private int value;
+
+    @Setup
+    public void setUp() {
+        converter = new FastIntToStringDemo(FastIntToStringDemo.MAX_INT_LENGTH);
+        target = new char[FastIntToStringDemo.MAX_INT_LENGTH];
+        value = 1_234_567;
+    }
+
+    @Benchmark
+    public int intToString() {
+        return converter.intToString(value++, target, 0);
+    }
+
+    @Benchmark
+    public int intToChars() {
+        return converter.intToChars(value++);
+    }
+
+    @Benchmark
+    public String integerToString() {
+        return Integer.toString(value++);
+    }
+}
@@ -0,0 +1,76 @@
+package com.trading.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link NumericCodec} against {@link Long#toString(long)},
+ * {@link Double#toString(double)} and {@link Double#parseDouble(String)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class NumericCodecBenchmark {
+
+    private static final int DECIMALS = 4;
+
+    private byte[] target;
+    private ByteBuffer buffer;
+    private long value;
+    private byte[] price;
+    private String priceText;
+
+    @Setup
+    public void setUp() {
+        target = new byte[NumericCodec.MAX_LONG_LENGTH];
+        buffer = ByteBuffer.allocateDirect(NumericCodec.MAX_LONG_LENGTH);
+        value = 1_502_512_345L;
+        priceText = "150251.2345";
+        price = priceText.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public int putLong() {
+        return NumericCodec.putLong(target, 0, value++);
+    }
+
+    @Benchmark
+    public String longToString() {
+        return Long.toString(value++);
+    }
+
+    @Benchmark
+    public int putDecimal() {
+        return NumericCodec.putDecimal(buffer, 0, value++, DECIMALS);
+    }
+
+    @Benchmark
+    public String doubleToString() {
+        return Double.toString(value++ / 10_000.0);
+    }
+
+    @Benchmark
+    public long parseDecimal() {
+        return NumericCodec.parseDecimal(price, 0, price.length, DECIMALS);
+    }
+
+    @Benchmark
+    public double parseDouble() {
+        return Double.parseDouble(priceText);
+    }
+}
@@ -0,0 +1,34 @@
+package com.trading;
+
+import com.trading.book.MatchingEngine;
+import com.trading.model.OrderMetrics;
+import com.trading.model.OrderSimulation;
+import com.trading.model.SymbolDictionary;
+
+/**
+ * The books, symbols, metrics and order pool that the standard and zerogc order paths run
+ * against, built once so that repeated runs, such as JMH invocations, measure only the orders.
+ * Order ids carry on from one run to the next, so an order never reuses the id of one that
+ * may still be resting.
+ */
+final class OrderPathState {
+
+    private static final int ORDER_POOL_SIZE = 20;
+
+    final MatchingEngine engine;
+    final int[] symbolIds;
+    final OrderMetrics[] metricsBySymbol;
+    final OrderSimulation[] orderPool;
+    int nextOrderId;
+
+    OrderPathState() {
+        SymbolDictionary symbols = new SymbolDictionary(SimpleMain.SYMBOL_COUNT);
+        this.symbolIds = SimpleMain.registerSymbols(symbols);
+        this.metricsBySymbol = SimpleMain.createMetrics(symbols);
+        this.engine = SimpleMain.createMatchingEngine();
+        this.orderPool = new OrderSimulation[ORDER_POOL_SIZE];
+        for (int i = 0; i < orderPool.length; i++) {
+            orderPool[i] = new OrderSimulation();
+        }
+    }
+}
@@ -1,10 +1,77 @@
 package com.trading;
 
+import com.trading.affinity.AffinityProvider;
+import com.trading.affinity.PinnedThreadFactory;
+import com.trading.analytics.OrderColumns;
+import com.trading.analytics.ParallelAggregator;
+import com.trading.analytics.SymbolAggregates;
+import com.trading.batch.BatchKernel;
+import com.trading.benchmark.DirectBufferDemo;
+import com.trading.batch.OrderBatch;
+import com.trading.book.MatchingEngine;
+import com.trading.book.OrderBook;
+import com.trading.book.TradeListener;
+import com.trading.disruptor.BatchEventProcessor;
+import com.trading.disruptor.RingBuffer;
+import com.trading.disruptor.WaitStrategy;
+import com.trading.gateway.LoopbackClient;
+import com.trading.gateway.OrderEntryHandler;
+import com.trading.gateway.OrderGateway;
+import com.trading.gc.GcCollector;
+import com.trading.gc.GcProfileResult;
+import com.trading.gc.GcProfileRunner;
+import com.trading.gc.GcTelemetry;
+import com.trading.ipc.IpcGateway;
+import com.trading.ipc.IpcMatching;
+import com.trading.ipc.IpcRing;
+import com.trading.journal.JournalReader;
+import com.trading.journal.OrderJournal;
+import com.trading.load.ArrivalSchedule;
+import com.trading.load.OpenLoopGenerator;
+import com.trading.load.OrderTask;
+import com.trading.marketdata.ConflatedReader;
+import com.trading.marketdata.MarketDataCache;
+import com.trading.marketdata.TopOfBook;
+import com.trading.model.OrderMetrics;
+import com.trading.model.OrderSimulation;
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.routing.BestPriceStrategy;
+import com.trading.routing.FeeAdjustedStrategy;
+import com.trading.routing.ProRataStrategy;
+import com.trading.routing.RoutingDecision;
+import com.trading.routing.RoutingStrategy;
+import com.trading.routing.SmartOrderRouter;
+import com.trading.routing.VenueCache;
+import com.trading.session.ClientSession;
+import com.trading.session.PinningRecorder;
+import com.trading.session.SessionRequest;
+import com.trading.session.SessionRouter;
+import com.trading.model.SymbolDictionary;
+import com.trading.risk.ClientLimits;
+import com.trading.risk.PreTradeRiskEngine;
+import com.trading.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
 
 /**
  * Simple main class that demonstrates zero-GC techniques versus standard allocation.
@@ -18,65 +85,215 @@ public class SimpleMain {
     private static final int ORDERS_PER_ITERATION = 50_000;
     private static final int GC_PRESSURE_OBJECTS = 5_000;
     
+    // Per-order latency recording: up to 10 seconds with 3 significant digits
+    private static final long MAX_RECORDED_LATENCY_NANOS = 10_000_000_000L;
+    private static final int LATENCY_SIGNIFICANT_DIGITS = 3;
+    
+    // Instruments traded by the simulated order flow
+    static final int SYMBOL_COUNT = 10;
+    private static final byte LIMIT_ORDER_TYPE = 1;
+    private static final int CLIENT_CODE = 42;
+    
+    // Order books: prices from 50.00 to 150.00, with symbols alternating between 0.01 and
+    // 0.05 ticks; every order that is still resting after this many newer orders is
+    // cancelled, which keeps the books bounded
+    private static final long[] TICK_SIZES = {Price.CENT, 5 * Price.CENT};
+    private static final long MIN_PRICE = Price.of(50);
+    private static final long MAX_PRICE = Price.of(150);
+    private static final int ORDERS_PER_BOOK = 4_096;
+    private static final int RESTING_ORDER_LIFETIME = 1_000;
+    
+    // Open-loop mode: target rates are swept upwards for LOAD_RUN_NANOS each, stopping after
+    // the first rate the order path cannot sustain within LOAD_SUSTAINED_FRACTION, or whose
+    // corrected p99 is more than LOAD_QUEUEING_FACTOR times the service-time p99 (and at least
+    // LOAD_MIN_QUEUEING_NANOS, so a single pause does not count as queueing)
+    private static final int[] LOAD_RATES = {100_000, 250_000, 500_000, 1_000_000, 2_000_000, 4_000_000};
+    private static final long LOAD_RUN_NANOS = 2_000_000_000L;
+    private static final double LOAD_SUSTAINED_FRACTION = 0.95;
+    private static final long LOAD_QUEUEING_FACTOR = 10;
+    private static final long LOAD_MIN_QUEUEING_NANOS = 100_000;
+    
+    // Journal segments roll over every 16MB
+    private static final int JOURNAL_SEGMENT_SIZE = 16 * 1024 * 1024;
+    
+    // Slots in the pipeline ring buffer, must be a power of 2
+    private static final int PIPELINE_BUFFER_SIZE = 1024;
+    
+    // Handoff mode: orders are published at a steady rate so consumers are idle between
+    // them, which is where wait strategies differ in latency and CPU use
+    private static final String[] WAIT_STRATEGIES = {"busy-spin", "yielding", "backoff", "blocking"};
+    private static final int HANDOFF_EVENTS = 100_000;
+    private static final long HANDOFF_INTERVAL_NANOS = 20_000;
+    
+    // Routing benchmark: decisions are measured for every combination of venue and symbol count
+    private static final int[] ROUTING_VENUE_COUNTS = {2, 4, 8, 16};
+    private static final int[] ROUTING_SYMBOL_COUNTS = {10, 100, 1_000};
+    // Typical quoted size per venue; generated quotes vary around it
+    private static final long QUOTE_SIZE = 500;
+    
+    // Sharded mode: symbols are partitioned across pinned worker threads and every shard
+    // processes the same number of orders, so throughput should grow with the shard count
+    private static final int SHARDED_SYMBOL_COUNT = 64;
+    private static final int ORDERS_PER_SHARD = 1_000_000;
+    
+    // Sessions mode: one virtual thread per client session, a few hot sessions and many
+    // mostly idle ones, all feeding one router thread through a bounded queue
+    private static final int[] SESSION_COUNTS = {1_000, 10_000, 100_000};
+    private static final int HOT_SESSIONS = 16;
+    private static final long HOT_THINK_NANOS = 100_000;
+    private static final long IDLE_THINK_NANOS = 1_000_000_000;
+    private static final int SESSION_QUEUE_CAPACITY = 4_096;
+    private static final long SESSION_SETTLE_MILLIS = 500;
+    private static final long SESSION_RUN_MILLIS = 3_000;
+    
+    // Market data mode: a feed thread applies incremental book updates as fast as it can while
+    // the router reads top of book before every order and a slow consumer polls conflated snapshots
+    private static final int MARKET_DATA_DEPTH = 10;
+    private static final int MARKET_DATA_ORDERS = 5_000_000;
+    private static final long MARKET_DATA_CONSUMER_PAUSE_NANOS = 1_000_000;
+    
+    // Batch mode: bursts of orders, as in an opening auction, are valued one order at a time
+    // and in struct-of-arrays batches of each size with the scalar and vector kernels
+    private static final int[] BATCH_SIZES = {16, 256, 4_096};
+    private static final int BATCH_BURST_ORDERS = 65_536;
+    private static final int BATCH_BURSTS = 200;
+    
+    // Aggregate mode: a day of historical orders across many symbols is aggregated serially,
+    // then on fork-join pools of growing parallelism; -Daggregate.rows changes the day's size
+    private static final int AGGREGATE_ROWS = 20_000_000;
+    private static final int AGGREGATE_SYMBOL_COUNT = 1_000;
+    private static final int AGGREGATE_REPORTED_SYMBOLS = 3;
+    
+    // Risk mode: every order passes pre-trade checks ahead of processOrder. The first client
+    // has room to trade, the others each have one tight limit, and every FAT_FINGER_INTERVAL-th
+    // order is priced ten times too high; then gateway threads all check for the same client
+    private static final int[] RISK_CLIENT_CODES = {CLIENT_CODE, CLIENT_CODE + 1, CLIENT_CODE + 2, CLIENT_CODE + 3};
+    private static final ClientLimits[] RISK_CLIENT_LIMITS = {
+            new ClientLimits(Price.of(1_000_000), Price.of(100_000_000), 1_000_000, 100_000_000),
+            new ClientLimits(Price.of(1_000_000), Price.of(100_000_000), 500, 100_000_000),
+            new ClientLimits(Price.of(1_000_000), Price.of(100_000_000), 1_000_000, 50_000),
+            new ClientLimits(Price.of(10_000), Price.of(100_000_000), 1_000_000, 100_000_000)};
+    private static final long RISK_REFERENCE_PRICE = Price.of(105);
+    private static final int RISK_BAND_BASIS_POINTS = 1_000;
+    private static final int FAT_FINGER_INTERVAL = 97;
+    private static final int RISK_ORDERS = 1_000_000;
+    private static final int RISK_GATEWAY_CHECKS = 1_000_000;
+    
+    // Gateway mode: a loopback client keeps one order in flight on each TCP connection to the
+    // order-entry gateway, which runs processOrder on its selector thread and acks every order
+    private static final int[] GATEWAY_CONNECTIONS = {1, 10, 100, 1_000};
+    private static final long GATEWAY_RUN_NANOS = 2_000_000_000L;
+    
+    // IPC mode: matching runs in a child JVM, started in the internal ipc-matching mode, and
+    // the gateway process talks to it through two shared-memory rings, orders one way and
+    // acks the other; -Dipc.dir changes where the ring files go
+    private static final String IPC_MATCHING_MODE = "ipc-matching";
+    private static final int IPC_RING_CAPACITY = 1 << 16;
+    private static final int IPC_ROUND_TRIPS = 200_000;
+    private static final int IPC_THROUGHPUT_ORDERS = 2_000_000;
+    private static final int IPC_MAX_PRODUCERS = 4;
+    
+    // GC profile mode: standard and zerogc each run in a child JVM per collector. Epsilon never
+    // frees memory, so its zerogc run only gets a heap big enough for the set-up; the other runs
+    // get the common heap, -Dgcprofile.heap, which standard mode exhausts under Epsilon
+    private static final String[] GC_PROFILE_MODES = {"standard", "zerogc"};
+    private static final String GC_PROFILE_HEAP = "1g";
+    private static final String GC_PROFILE_EPSILON_ZEROGC_HEAP = "256m";
+    private static final long GC_PROFILE_TIMEOUT_SECONDS = 600;
+    
+    // Per-thread allocation counter used to verify the zerogc order path
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    
+    // Bytes allocated by the zerogc order loop, excluding set-up and progress logging
+    private static long zeroGCAllocatedBytes;
+    private static long zeroGCMeasuredOrders;
+    
     public static void main(String[] args) {
         System.out.println("===== Low Latency Trading Router Demo =====");
         System.out.println();
         
         if (args.length < 1) {
-            System.err.println("Please specify mode: standard or zerogc");
+            System.err.println("Please specify mode: standard, zerogc, openloop, journal, pipeline, handoff, sessions, routing, sharded, marketdata, batch, aggregate, risk, gateway, ipc or gcprofile");
             System.exit(1);
         }
         
         String mode = args[0].toLowerCase();
         System.out.println("Starting trading router in " + mode + " mode");
         
-        if (!mode.equals("standard") && !mode.equals("zerogc")) {
-            System.err.println("Unknown mode: " + mode + ". Please use 'standard' or 'zerogc'");
-            System.exit(1);
+        switch (mode) {
+            case "standard", "zerogc" -> runBenchmark(mode);
+            case "openloop" -> runOpenLoopBenchmark();
+            case "journal" -> runJournalBenchmark();
+            case "pipeline" -> runPipelineBenchmark();
+            case "handoff" -> runHandoffBenchmark();
+            case "sessions" -> runSessionsBenchmark();
+            case "routing" -> runRoutingBenchmark();
+            case "sharded" -> runShardedBenchmark();
+            case "marketdata" -> runMarketDataBenchmark();
+            case "batch" -> runBatchBenchmark();
+            case "aggregate" -> runAggregateBenchmark();
+            case "risk" -> runRiskBenchmark();
+            case "gateway" -> runGatewayBenchmark();
+            case "ipc" -> runIpcBenchmark();
+            case "gcprofile" -> runGcProfileBenchmark();
+            // Started by the ipc mode in a child JVM, not meant to be run by hand
+            case IPC_MATCHING_MODE -> runIpcMatching(Path.of(args[1]), Path.of(args[2]));
+            default -> {
+                System.err.println("Unknown mode: " + mode + ". Please use 'standard', 'zerogc', 'openloop', 'journal', 'pipeline', 'handoff', 'sessions', 'routing', 'sharded', 'marketdata', 'batch', 'aggregate', 'risk', 'gateway', 'ipc' or 'gcprofile'");
+                System.exit(1);
+            }
         }
-        
-        runBenchmark(mode);
     }
     
     private static void runBenchmark(String mode) {
         System.out.println("\nRunning benchmark in " + mode + " mode");
         System.out.println("-----------------------------------");
         
-        // Warm up the JVM
+        // Pre-allocated once so recording per-order latencies never allocates
+        LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        
+        // Warm up the JVM with full-size iterations so the matching path is fully compiled
         System.out.println("Warming up JVM...");
         for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
             if (mode.equals("zerogc")) {
-                runZeroGCDemo(ORDERS_PER_ITERATION / 10, false);
+                runZeroGCDemo(ORDERS_PER_ITERATION, false, latencies);
             } else {
-                runStandardDemo(ORDERS_PER_ITERATION / 10, false);
+                runStandardDemo(ORDERS_PER_ITERATION, false, latencies);
             }
             System.out.print(".");
             System.gc();
         }
+        latencies.reset();
         System.out.println(" Done!");
         
         // Run the benchmark
         System.out.println("\nStarting measurement...");
         
+        GcTelemetry telemetry = new GcTelemetry();
+        
         if (mode.equals("zerogc")) {
             System.out.println("ZeroGC mode: Using object pooling and reuse with optimized GC");
-            benchmarkZeroGC();
+            benchmarkZeroGC(latencies, telemetry);
         } else {
             System.out.println("Standard mode: Using regular object allocation");
-            benchmarkStandard();
+            benchmarkStandard(latencies, telemetry);
         }
         
-        printSummary();
+        printSummary(telemetry);
     }
     
-    private static void benchmarkStandard() {
+    private static void benchmarkStandard(LatencyHistogram latencies, GcTelemetry telemetry) {
         long[] iterationTimes = new long[BENCHMARK_ITERATIONS];
         long totalTime = 0;
         
+        telemetry.start();
         for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            telemetry.beginIteration();
             long startTime = System.nanoTime();
-            int objects = runStandardDemo(ORDERS_PER_ITERATION, true);
+            int objects = runStandardDemo(ORDERS_PER_ITERATION, true, latencies);
             long endTime = System.nanoTime();
+            telemetry.endIteration();
             
             long duration = endTime - startTime;
             iterationTimes[i] = duration;
@@ -86,18 +303,26 @@ public class SimpleMain {
             System.out.printf("Iteration %d: %.2f ms (processed %d objects)%n", 
                     i + 1, durationMs, objects);
         }
+        telemetry.stop();
         
-        printStatistics(iterationTimes, totalTime);
+        printStatistics(iterationTimes, totalTime, latencies);
+        printGcTelemetry(telemetry);
+        saveGcProfileResult(totalTime, latencies, telemetry, -1);
     }
     
-    private static void benchmarkZeroGC() {
+    private static void benchmarkZeroGC(LatencyHistogram latencies, GcTelemetry telemetry) {
         long[] iterationTimes = new long[BENCHMARK_ITERATIONS];
         long totalTime = 0;
+        zeroGCAllocatedBytes = 0;
+        zeroGCMeasuredOrders = 0;
         
+        telemetry.start();
         for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            telemetry.beginIteration();
             long startTime = System.nanoTime();
-            int objects = runZeroGCDemo(ORDERS_PER_ITERATION, true);
+            int objects = runZeroGCDemo(ORDERS_PER_ITERATION, true, latencies);
             long endTime = System.nanoTime();
+            telemetry.endIteration();
             
             long duration = endTime - startTime;
             iterationTimes[i] = duration;
@@ -107,11 +332,84 @@ public class SimpleMain {
             System.out.printf("Iteration %d: %.2f ms (processed %d objects)%n", 
                     i + 1, durationMs, objects);
         }
+        telemetry.stop();
+        
+        printStatistics(iterationTimes, totalTime, latencies);
+        printGcTelemetry(telemetry);
+        boolean allocationSupported = THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+                && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled();
+        saveGcProfileResult(totalTime, latencies, telemetry, allocationSupported ? zeroGCAllocatedBytes : -1);
+        verifyZeroAllocation();
+    }
+    
+    private static void verifyZeroAllocation() {
+        if (!THREAD_MX_BEAN.isThreadAllocatedMemorySupported() || !THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled()) {
+            System.out.println("\nThread allocation accounting is not available, skipping zero allocation check");
+            return;
+        }
         
-        printStatistics(iterationTimes, totalTime);
+        double bytesPerOrder = zeroGCAllocatedBytes / (double) zeroGCMeasuredOrders;
+        System.out.printf("%nSteady-state allocation: %d bytes over %d orders (%.4f bytes/order)%n",
+                zeroGCAllocatedBytes, zeroGCMeasuredOrders, bytesPerOrder);
+        if (zeroGCAllocatedBytes > 0) {
+            System.err.println("ZeroGC check failed: the order path allocated " + zeroGCAllocatedBytes + " bytes");
+            System.exit(1);
+        }
+    }
+    
+    private static void printGcTelemetry(GcTelemetry telemetry) {
+        System.out.println("\nGC telemetry per iteration:");
+        System.out.println("  Iter  GCs  GC time(ms)  JFR pauses  Pause total(ms)  Pause max(ms)  Allocated(MB)  Peak heap(MB)");
+        for (GcTelemetry.IterationSample sample : telemetry.getSamples()) {
+            System.out.printf("  %4d %4d %12d %11s %16s %14s %14.1f %14.1f%n",
+                    sample.getIteration(),
+                    sample.getCollectionCount(),
+                    sample.getCollectionTimeMillis(),
+                    telemetry.isJfrAvailable() ? Long.toString(sample.getJfrCollections()) : "n/a",
+                    telemetry.isJfrAvailable() ? String.format("%.3f", sample.getPauseTotalNanos() / 1_000_000.0) : "n/a",
+                    telemetry.isJfrAvailable() ? String.format("%.3f", sample.getPauseMaxNanos() / 1_000_000.0) : "n/a",
+                    sample.getAllocatedBytes() / (1024.0 * 1024.0),
+                    sample.getPeakHeapBytes() / (1024.0 * 1024.0));
+        }
     }
     
-    private static void printStatistics(long[] times, long totalTime) {
+    /**
+     * Store the run's figures for the gcprofile mode, if this JVM was started by it.
+     *
+     * @param orderPathAllocatedBytes Steady-state allocation of the order path alone, or -1
+     */
+    private static void saveGcProfileResult(long totalTime, LatencyHistogram latencies, GcTelemetry telemetry,
+                                            long orderPathAllocatedBytes) {
+        String file = System.getProperty(GcProfileRunner.RESULTS_PROPERTY);
+        if (file == null) {
+            return;
+        }
+        long collections = 0;
+        long pauseTotalNanos = 0;
+        long pauseMaxNanos = 0;
+        long allocatedBytes = 0;
+        for (GcTelemetry.IterationSample sample : telemetry.getSamples()) {
+            collections += sample.getCollectionCount();
+            pauseTotalNanos += sample.getPauseTotalNanos();
+            pauseMaxNanos = Math.max(pauseMaxNanos, sample.getPauseMaxNanos());
+            allocatedBytes += sample.getAllocatedBytes();
+        }
+        if (!telemetry.isJfrAvailable()) {
+            pauseTotalNanos = -1;
+            pauseMaxNanos = -1;
+        }
+        GcProfileResult result = new GcProfileResult(latencies.getTotalCount(), totalTime,
+                latencies.getValueAtPercentile(50), latencies.getValueAtPercentile(99),
+                latencies.getValueAtPercentile(99.9), latencies.getMaxValue(),
+                collections, pauseTotalNanos, pauseMaxNanos, allocatedBytes, orderPathAllocatedBytes);
+        try {
+            result.store(Path.of(file));
+        } catch (IOException e) {
+            System.err.println("Could not store GC profile result: " + e.getMessage());
+        }
+    }
+    
+    private static void printStatistics(long[] times, long totalTime, LatencyHistogram latencies) {
         java.util.Arrays.sort(times);
         
         double avgMs = (totalTime / (double) times.length) / 1_000_000.0;
@@ -126,30 +424,1586 @@ public class SimpleMain {
         System.out.printf("  Avg:    %.2f ms%n", avgMs);
         System.out.printf("  95th:   %.2f ms%n", p95Ms);
         System.out.printf("  Max:    %.2f ms%n", maxMs);
+        
+        printLatencies("Per-order latency", latencies);
+    }
+    
+    private static void printLatencies(String title, LatencyHistogram latencies) {
+        System.out.println("\n" + title + " (" + latencies.getTotalCount() + " orders):");
+        System.out.printf("  p50:    %.2f us%n", latencies.getValueAtPercentile(50.0) / 1_000.0);
+        System.out.printf("  p90:    %.2f us%n", latencies.getValueAtPercentile(90.0) / 1_000.0);
+        System.out.printf("  p99:    %.2f us%n", latencies.getValueAtPercentile(99.0) / 1_000.0);
+        System.out.printf("  p99.9:  %.2f us%n", latencies.getValueAtPercentile(99.9) / 1_000.0);
+        System.out.printf("  p99.99: %.2f us%n", latencies.getValueAtPercentile(99.99) / 1_000.0);
+        System.out.printf("  Max:    %.2f us%n", latencies.getMaxValue() / 1_000.0);
+    }
+    
+    private static void runOpenLoopBenchmark() {
+        System.out.println("\nRunning open-loop benchmark");
+        System.out.println("-----------------------------------");
+        String arrivals = System.getProperty("load.arrivals", "constant");
+        String paths = System.getProperty("load.path", "both");
+        if (!paths.equals("both") && !paths.equals("standard") && !paths.equals("zerogc")) {
+            System.err.println("Unknown load.path: " + paths + ". Please use 'standard', 'zerogc' or 'both'");
+            System.exit(1);
+        }
+        System.out.println("Orders are issued on a " + arrivals + " schedule (-Dload.arrivals=constant|poisson), "
+                + "whether or not the previous order has finished");
+        System.out.println("Latency is measured from each order's intended send time; service time from its actual send time");
+        
+        LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        LatencyHistogram serviceTimes = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        OpenLoopGenerator generator = new OpenLoopGenerator(latencies, serviceTimes);
+        for (String path : new String[] {"standard", "zerogc"}) {
+            if (paths.equals("both") || paths.equals(path)) {
+                sweepRates(path, arrivals, generator, latencies, serviceTimes);
+            }
+        }
+    }
+    
+    /**
+     * Run the order path at increasing target rates until it falls behind, printing corrected
+     * latency and service time for each rate. A rate is not sustained if throughput drops
+     * short of the target or if orders spend most of their time queued rather than served.
+     */
+    private static void sweepRates(String path, String arrivals, OpenLoopGenerator generator,
+                                   LatencyHistogram latencies, LatencyHistogram serviceTimes) {
+        System.out.println("\n" + path + " order path");
+        System.out.println("Warming up JVM...");
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            generator.run(ArrivalSchedule.of(arrivals, LOAD_RATES[0]), ORDERS_PER_ITERATION, orderTask(path));
+            System.out.print(".");
+        }
+        System.out.println(" Done!");
+        
+        System.out.printf("%12s %12s %9s %9s %10s %11s %13s%n",
+                "Target/s", "Achieved/s", "p50(us)", "p99(us)", "p99.9(us)", "Max(us)", "Svc p99(us)");
+        int knee = 0;
+        for (int rate : LOAD_RATES) {
+            latencies.reset();
+            serviceTimes.reset();
+            int orderCount = (int) (rate * (LOAD_RUN_NANOS / 1_000_000_000.0));
+            long elapsed = generator.run(ArrivalSchedule.of(arrivals, rate), orderCount, orderTask(path));
+            double achieved = orderCount / (elapsed / 1_000_000_000.0);
+            long p99 = latencies.getValueAtPercentile(99);
+            long serviceP99 = serviceTimes.getValueAtPercentile(99);
+            System.out.printf("%12d %12.0f %9.2f %9.2f %10.2f %11.2f %13.2f%n",
+                    rate, achieved,
+                    latencies.getValueAtPercentile(50) / 1_000.0,
+                    p99 / 1_000.0,
+                    latencies.getValueAtPercentile(99.9) / 1_000.0,
+                    latencies.getMaxValue() / 1_000.0,
+                    serviceP99 / 1_000.0);
+            if (achieved < rate * LOAD_SUSTAINED_FRACTION) {
+                System.out.printf("%12s throughput below %.0f%% of target%n", "", LOAD_SUSTAINED_FRACTION * 100);
+                break;
+            }
+            if (p99 > Math.max(LOAD_QUEUEING_FACTOR * serviceP99, LOAD_MIN_QUEUEING_NANOS)) {
+                System.out.printf("%12s p99 is %.0fx the service-time p99, orders are queueing%n",
+                        "", p99 / (double) Math.max(serviceP99, 1));
+                break;
+            }
+            knee = rate;
+        }
+        if (knee == LOAD_RATES[LOAD_RATES.length - 1]) {
+            System.out.printf("Saturation knee: above %d orders/s, every rate was sustained%n", knee);
+        } else if (knee > 0) {
+            System.out.printf("Saturation knee: between %d and the next rate, which fell behind%n", knee);
+        } else {
+            System.out.printf("Saturation knee: below %d orders/s%n", LOAD_RATES[0]);
+        }
+    }
+    
+    /**
+     * A fresh order path with its own books, doing per order what the closed-loop
+     * {@link #runStandardDemo} or {@link #runZeroGCDemo} does.
+     */
+    private static OrderTask orderTask(String path) {
+        MatchingEngine engine = createMatchingEngine();
+        if (path.equals("zerogc")) {
+            SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+            int[] symbolIds = registerSymbols(symbols);
+            OrderMetrics[] metricsBySymbol = createMetrics(symbols);
+            OrderSimulation[] orderPool = new OrderSimulation[20];
+            for (int i = 0; i < orderPool.length; i++) {
+                orderPool[i] = new OrderSimulation();
+            }
+            return i -> {
+                OrderSimulation order = orderPool[i % orderPool.length];
+                order.reset(i, symbolIds[i % SYMBOL_COUNT], sideOf(i), orderPrice(i), 100 + (i % 50));
+                order.setTimestamp(System.nanoTime());
+                processOrder(order, engine);
+                metricsBySymbol[order.getSymbolId()].updateWith(order);
+            };
+        }
+        List<Object> temporaryObjects = new ArrayList<>();
+        Map<String, OrderMetrics> metricsCache = new HashMap<>();
+        return i -> {
+            OrderSimulation order = new OrderSimulation(i);
+            order.setSymbolId(i % SYMBOL_COUNT);
+            order.setSide(sideOf(i));
+            order.setPrice(orderPrice(i));
+            order.setQuantity(100 + (i % 50));
+            order.setTimestamp(System.nanoTime());
+            processOrder(order, engine);
+            metricsCache.computeIfAbsent("SYM" + (i % SYMBOL_COUNT), OrderMetrics::new).updateWith(order);
+            if (i % 100 == 0) {
+                for (int j = 0; j < GC_PRESSURE_OBJECTS; j++) {
+                    temporaryObjects.add(new PressureObject("data-" + j, j));
+                }
+                if (temporaryObjects.size() > GC_PRESSURE_OBJECTS * 10) {
+                    temporaryObjects.subList(0, GC_PRESSURE_OBJECTS * 5).clear();
+                }
+            }
+        };
+    }
+    
+    private static void runJournalBenchmark() {
+        System.out.println("\nRunning journal benchmark");
+        System.out.println("-----------------------------------");
+        
+        // Keep the journal if a directory is given, otherwise write to a temporary one
+        String configuredDirectory = System.getProperty("journal.dir");
+        Path directory = null;
+        try {
+            directory = configuredDirectory != null
+                    ? Path.of(configuredDirectory)
+                    : Files.createTempDirectory("order-journal");
+            
+            SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+            int[] symbolIds = registerSymbols(symbols);
+            OrderMetrics[] metricsBySymbol = createMetrics(symbols);
+            
+            int orderCount = ORDERS_PER_ITERATION * BENCHMARK_ITERATIONS;
+            OrderSimulation order = new OrderSimulation();
+            MatchingEngine engine = createMatchingEngine();
+            LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+            
+            // Journal every accepted order and its execution
+            System.out.println("Journaling " + orderCount + " orders to " + directory);
+            long writeStart = System.nanoTime();
+            long records;
+            try (OrderJournal journal = new OrderJournal(directory, JOURNAL_SEGMENT_SIZE)) {
+                long firstSequence = journal.lastSequence() + 1;
+                for (int i = 0; i < orderCount; i++) {
+                    long orderStart = System.nanoTime();
+                    
+                    order.reset(i, symbolIds[i % SYMBOL_COUNT], sideOf(i), orderPrice(i), 100 + (i % 50));
+                    long symbolCode = symbols.code(order.getSymbolId());
+                    byte side = order.getSide().code();
+                    journal.appendOrder(order.getId(), symbolCode, LIMIT_ORDER_TYPE, side,
+                            order.getPrice(), order.getQuantity(), CLIENT_CODE);
+                    
+                    processOrder(order, engine);
+                    if (order.getFilledQuantity() > 0) {
+                        // One execution record per order at its average fill price
+                        journal.appendExecution(order.getId(), symbolCode, LIMIT_ORDER_TYPE, side,
+                                order.getExecutedValue() / order.getFilledQuantity(),
+                                order.getFilledQuantity(), CLIENT_CODE);
+                    }
+                    latencies.recordValue(System.nanoTime() - orderStart);
+                }
+                records = journal.lastSequence() - firstSequence + 1;
+            }
+            long writeNanos = System.nanoTime() - writeStart;
+            System.out.printf("Journaled %d records in %.2f ms (%.0f records/s)%n",
+                    records, writeNanos / 1_000_000.0, records / (writeNanos / 1_000_000_000.0));
+            printLatencies("Per-order latency including journaling", latencies);
+            
+            JournalReader reader = new JournalReader(directory);
+            
+            // Stream the records without processing them to measure raw replay speed
+            long[] checksum = new long[1];
+            long readStart = System.nanoTime();
+            long read = reader.replay((sequence, recordType, record) -> checksum[0] += record.orderId());
+            long readNanos = System.nanoTime() - readStart;
+            System.out.printf("%nRead %d records in %.2f ms (%.0f records/s, checksum %d)%n",
+                    read, readNanos / 1_000_000.0, read / (readNanos / 1_000_000_000.0), checksum[0]);
+            
+            // Replay accepted orders back through the router into fresh books
+            MatchingEngine replayEngine = createMatchingEngine();
+            long replayStart = System.nanoTime();
+            long replayed = reader.replay((sequence, recordType, record) -> {
+                if (recordType == OrderJournal.RECORD_ORDER) {
+                    int symbolId = symbols.lookup(record.symbolCode());
+                    order.reset(record.orderId(), symbolId, Side.fromCode(record.side()),
+                            record.price(), record.quantity());
+                    processOrder(order, replayEngine);
+                    metricsBySymbol[symbolId].updateWith(order);
+                }
+            });
+            long replayNanos = System.nanoTime() - replayStart;
+            System.out.printf("Replayed %d records through processOrder in %.2f ms (%.0f records/s)%n",
+                    replayed, replayNanos / 1_000_000.0, replayed / (replayNanos / 1_000_000_000.0));
+        } catch (IOException e) {
+            System.err.println("Journal benchmark failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            if (configuredDirectory == null && directory != null) {
+                deleteDirectory(directory);
+            }
+        }
+    }
+    
+    private static void runPipelineBenchmark() {
+        System.out.println("\nRunning pipeline benchmark");
+        System.out.println("-----------------------------------");
+        System.out.println("Ingress, processOrder and metrics aggregation run on separate threads");
+        System.out.println("joined by a " + PIPELINE_BUFFER_SIZE + "-slot ring buffer");
+        String waitStrategy = System.getProperty("pipeline.wait", "yielding");
+        System.out.println("Stages wait with the " + waitStrategy + " strategy (-Dpipeline.wait=" + String.join("|", WAIT_STRATEGIES) + ")");
+        
+        LatencyHistogram ingressHandoff = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        LatencyHistogram stageHandoff = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        LatencyHistogram endToEnd = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        
+        // Warm up the JVM
+        System.out.println("Warming up JVM...");
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            runPipeline(ORDERS_PER_ITERATION / 10, WaitStrategy.fromName(waitStrategy),
+                    ingressHandoff, stageHandoff, endToEnd);
+            System.out.print(".");
+        }
+        ingressHandoff.reset();
+        stageHandoff.reset();
+        endToEnd.reset();
+        System.out.println(" Done!");
+        
+        System.out.println("\nStarting measurement...");
+        int orderCount = ORDERS_PER_ITERATION * BENCHMARK_ITERATIONS;
+        long elapsed = runPipeline(orderCount, WaitStrategy.fromName(waitStrategy),
+                ingressHandoff, stageHandoff, endToEnd);
+        System.out.printf("Processed %d orders in %.2f ms (%.0f orders/s)%n",
+                orderCount, elapsed / 1_000_000.0, orderCount / (elapsed / 1_000_000_000.0));
+        
+        printLatencies("Ingress to router handoff", ingressHandoff);
+        printLatencies("Router to aggregator handoff", stageHandoff);
+        printLatencies("End-to-end latency", endToEnd);
+    }
+    
+    /**
+     * Run one pass of orders through the three-stage pipeline.
+     *
+     * @return The time from the first publish until the last order was aggregated
+     */
+    private static long runPipeline(int orderCount, WaitStrategy waitStrategy, LatencyHistogram ingressHandoff,
+                                    LatencyHistogram stageHandoff, LatencyHistogram endToEnd) {
+        SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+        int[] symbolIds = registerSymbols(symbols);
+        OrderMetrics[] metricsBySymbol = createMetrics(symbols);
+        MatchingEngine engine = createMatchingEngine();
+        
+        // Ring slots are pre-allocated orders that are reset in place for every publish
+        RingBuffer<OrderSimulation> ring = new RingBuffer<>(OrderSimulation::new, PIPELINE_BUFFER_SIZE, waitStrategy);
+        long[] processedAt = new long[PIPELINE_BUFFER_SIZE];
+        int mask = PIPELINE_BUFFER_SIZE - 1;
+        
+        BatchEventProcessor<OrderSimulation> router = new BatchEventProcessor<>(ring, ring.newBarrier(),
+                (order, sequence, endOfBatch) -> {
+                    ingressHandoff.recordValue(System.nanoTime() - order.getTimestamp());
+                    processOrder(order, engine);
+                    processedAt[(int) sequence & mask] = System.nanoTime();
+                });
+        BatchEventProcessor<OrderSimulation> aggregator = new BatchEventProcessor<>(ring,
+                ring.newBarrier(router.getSequence()),
+                (order, sequence, endOfBatch) -> {
+                    long now = System.nanoTime();
+                    stageHandoff.recordValue(now - processedAt[(int) sequence & mask]);
+                    metricsBySymbol[order.getSymbolId()].updateWith(order);
+                    endToEnd.recordValue(now - order.getTimestamp());
+                });
+        ring.addGatingSequences(aggregator.getSequence());
+        
+        Thread routerThread = new Thread(router, "pipeline-router");
+        Thread aggregatorThread = new Thread(aggregator, "pipeline-aggregator");
+        routerThread.start();
+        aggregatorThread.start();
+        
+        // Ingress publishes from the calling thread
+        long start = System.nanoTime();
+        for (int i = 0; i < orderCount; i++) {
+            long sequence = ring.next();
+            OrderSimulation order = ring.get(sequence);
+            order.reset(i, symbolIds[i % SYMBOL_COUNT], sideOf(i), orderPrice(i), 100 + (i % 50));
+            order.setTimestamp(System.nanoTime());
+            ring.publish(sequence);
+        }
+        
+        long lastSequence = orderCount - 1;
+        while (aggregator.getSequence().get() < lastSequence) {
+            Thread.yield();
+        }
+        long elapsed = System.nanoTime() - start;
+        
+        router.halt();
+        aggregator.halt();
+        try {
+            routerThread.join();
+            aggregatorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return elapsed;
+    }
+    
+    private static void runHandoffBenchmark() {
+        System.out.println("\nRunning handoff benchmark");
+        System.out.println("-----------------------------------");
+        System.out.printf("One order every %.1f us is handed from the publishing thread to a router thread%n",
+                HANDOFF_INTERVAL_NANOS / 1_000.0);
+        int cpus = Runtime.getRuntime().availableProcessors();
+        System.out.println("Available processors: " + cpus);
+        if (cpus < 2) {
+            System.out.println("Warning: the pacing publisher and the router share one core, so spinning strategies will look slow");
+        }
+        
+        LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        System.out.printf("%n%-10s %9s %9s %10s %9s %11s %8s%n",
+                "Strategy", "p50(us)", "p99(us)", "p99.9(us)", "Max(us)", "Router CPU", "CPU(%)");
+        for (String name : WAIT_STRATEGIES) {
+            // Warm up, then measure on a fresh histogram
+            runHandoff(WaitStrategy.fromName(name), HANDOFF_EVENTS / 10, latencies);
+            latencies.reset();
+            long[] cpuAndWall = runHandoff(WaitStrategy.fromName(name), HANDOFF_EVENTS, latencies);
+            
+            System.out.printf("%-10s %9.2f %9.2f %10.2f %9.2f %8.1f ms %8.1f%n",
+                    name,
+                    latencies.getValueAtPercentile(50) / 1_000.0,
+                    latencies.getValueAtPercentile(99) / 1_000.0,
+                    latencies.getValueAtPercentile(99.9) / 1_000.0,
+                    latencies.getMaxValue() / 1_000.0,
+                    cpuAndWall[0] / 1_000_000.0,
+                    100.0 * cpuAndWall[0] / cpuAndWall[1]);
+        }
+        System.out.println("\nRouter CPU is the consuming thread's CPU time while orders were flowing; 100% is one whole core");
+    }
+    
+    /**
+     * Publish orders at a fixed interval to a single router thread that records how long
+     * each one took to reach it.
+     *
+     * @return The router thread's CPU time and the elapsed wall time, in nanoseconds
+     */
+    private static long[] runHandoff(WaitStrategy waitStrategy, int orderCount, LatencyHistogram latencies) {
+        RingBuffer<OrderSimulation> ring = new RingBuffer<>(OrderSimulation::new, PIPELINE_BUFFER_SIZE, waitStrategy);
+        BatchEventProcessor<OrderSimulation> router = new BatchEventProcessor<>(ring, ring.newBarrier(),
+                (order, sequence, endOfBatch) -> latencies.recordValue(System.nanoTime() - order.getTimestamp()));
+        ring.addGatingSequences(router.getSequence());
+        Thread routerThread = new Thread(router, "handoff-router");
+        routerThread.start();
+        
+        // CPU time can only be read while the router thread is alive, so it is sampled before halting it
+        long cpuStart = THREAD_MX_BEAN.getThreadCpuTime(routerThread.threadId());
+        long start = System.nanoTime();
+        long sendAt = start;
+        for (int i = 0; i < orderCount; i++) {
+            // Pace the publisher without sleeping, so its own wake-ups do not distort the schedule
+            sendAt += HANDOFF_INTERVAL_NANOS;
+            while (System.nanoTime() < sendAt) {
+                Thread.onSpinWait();
+            }
+            long sequence = ring.next();
+            OrderSimulation order = ring.get(sequence);
+            order.reset(i, i % SYMBOL_COUNT, sideOf(i), orderPrice(i), 100);
+            order.setTimestamp(System.nanoTime());
+            ring.publish(sequence);
+        }
+        long lastSequence = orderCount - 1;
+        while (router.getSequence().get() < lastSequence) {
+            Thread.yield();
+        }
+        long cpu = THREAD_MX_BEAN.getThreadCpuTime(routerThread.threadId()) - cpuStart;
+        long elapsed = System.nanoTime() - start;
+        
+        router.halt();
+        try {
+            routerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new long[] {cpu, elapsed};
+    }
+    
+    private static void runSessionsBenchmark() {
+        System.out.println("\nRunning sessions benchmark");
+        System.out.println("-----------------------------------");
+        boolean holdMonitor = Boolean.getBoolean("sessions.pin");
+        System.out.printf("Each client session is a virtual thread; %d hot sessions send every %.0f us, the rest every %.0f ms%n",
+                HOT_SESSIONS, HOT_THINK_NANOS / 1_000.0, IDLE_THINK_NANOS / 1_000_000.0);
+        System.out.println("Sessions submit, amend and cancel orders through a " + SESSION_QUEUE_CAPACITY
+                + "-slot queue to one router thread");
+        System.out.println("Sessions send " + (holdMonitor ? "inside synchronized, which pins carriers when the queue is full"
+                : "without holding a monitor (-Dsessions.pin=true sends inside synchronized)"));
+        System.out.println("Carrier threads: " + System.getProperty("jdk.virtualThreadScheduler.parallelism",
+                Integer.toString(Runtime.getRuntime().availableProcessors())));
+        
+        LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        System.out.println("Warming up JVM...");
+        runSessions(SESSION_COUNTS[0], holdMonitor, latencies);
+        latencies.reset();
+        System.out.println(" Done!");
+        
+        System.out.printf("%n%8s %12s %9s %9s %10s %8s %12s %11s %11s%n", "Sessions", "Requests/s",
+                "p50(us)", "p99(us)", "p99.9(us)", "Late(%)", "Pinned", "Pin max(us)", "Heap/sess");
+        for (int sessionCount : SESSION_COUNTS) {
+            SessionRun run = runSessions(sessionCount, holdMonitor, latencies);
+            System.out.printf("%8d %12.0f %9.2f %9.2f %10.2f %8.1f %12s %11s %11s%n",
+                    sessionCount, run.requestsPerSecond(),
+                    latencies.getValueAtPercentile(50) / 1_000.0,
+                    latencies.getValueAtPercentile(99) / 1_000.0,
+                    latencies.getValueAtPercentile(99.9) / 1_000.0,
+                    100.0 * run.lateRequests() / Math.max(1, run.requests()),
+                    run.pinning().isJfrAvailable() ? Long.toString(run.pinning().getPinnedCount()) : "n/a",
+                    run.pinning().isJfrAvailable() ? String.format("%.1f", run.pinning().getPinnedMaxNanos() / 1_000.0) : "n/a",
+                    run.bytesPerSession() >= 0 ? String.format("%.2f KB", run.bytesPerSession() / 1024.0) : "n/a");
+            latencies.reset();
+        }
+        System.out.println("\nLatency is from a session handing a request over until the router has applied it;");
+        System.out.println("late requests amend or cancel an order that already traded; heap per session is");
+        System.out.println("measured after a full collection with every session parked between requests");
+    }
+    
+    /**
+     * Start the sessions, measure their heap footprint once they are all parked, then record
+     * router latency and carrier pinning for {@value #SESSION_RUN_MILLIS} ms.
+     */
+    private static SessionRun runSessions(int sessionCount, boolean holdMonitor, LatencyHistogram latencies) {
+        // Every session keeps at most one live order, on its own symbol
+        SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+        registerSymbols(symbols);
+        MatchingEngine engine = new MatchingEngine(symbols, MIN_PRICE, MAX_PRICE,
+                Math.max(ORDERS_PER_BOOK, sessionCount / SYMBOL_COUNT + 1), TradeListener.NONE);
+        BlockingQueue<SessionRequest> queue = new ArrayBlockingQueue<>(SESSION_QUEUE_CAPACITY);
+        SessionRouter router = new SessionRouter(queue, engine, latencies);
+        Thread routerThread = new Thread(router, "session-router");
+        routerThread.start();
+        
+        long heapBefore = GcTelemetry.heapUsedAfterFullGc();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] sessions = new Thread[sessionCount];
+        Thread.Builder builder = Thread.ofVirtual().name("session-", 0);
+        for (int i = 0; i < sessionCount; i++) {
+            long thinkNanos = i < HOT_SESSIONS ? HOT_THINK_NANOS : IDLE_THINK_NANOS;
+            sessions[i] = builder.start(new ClientSession(i, i % SYMBOL_COUNT, thinkNanos, queue, running, holdMonitor));
+        }
+        PinningRecorder pinning = new PinningRecorder();
+        long bytesPerSession = -1;
+        long requests = 0;
+        long elapsed = 0;
+        try {
+            Thread.sleep(SESSION_SETTLE_MILLIS);
+            long heapAfter = GcTelemetry.heapUsedAfterFullGc();
+            if (heapBefore >= 0 && heapAfter >= 0) {
+                bytesPerSession = Math.max(0, heapAfter - heapBefore) / sessionCount;
+            }
+            
+            pinning.start();
+            long start = System.nanoTime();
+            router.beginMeasurement(start);
+            Thread.sleep(SESSION_RUN_MILLIS);
+            running.set(false);
+            elapsed = System.nanoTime() - start;
+            
+            // Idle sessions are parked for up to a second and a half, so wake them up
+            for (Thread session : sessions) {
+                session.interrupt();
+            }
+            for (Thread session : sessions) {
+                session.join();
+            }
+            router.halt();
+            routerThread.join();
+            requests = router.getMeasuredRequests();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pinning.stop();
+        }
+        return new SessionRun(requests / (elapsed / 1_000_000_000.0), requests, router.getLateRequests(),
+                pinning, bytesPerSession);
+    }
+    
+    private record SessionRun(double requestsPerSecond, long requests, long lateRequests,
+                              PinningRecorder pinning, long bytesPerSession) {
+    }
+    
+    private static void runRoutingBenchmark() {
+        System.out.println("\nRunning routing benchmark");
+        System.out.println("-----------------------------------");
+        System.out.println("Each order is routed from cached venue quotes; one venue quote changes per order");
+        
+        int decisionCount = ORDERS_PER_ITERATION * BENCHMARK_ITERATIONS;
+        int maxVenues = ROUTING_VENUE_COUNTS[ROUTING_VENUE_COUNTS.length - 1];
+        String[] strategyNames = {"best-price", "fee-adjusted", "pro-rata"};
+        RoutingStrategy[] strategies = {
+                new BestPriceStrategy(), new FeeAdjustedStrategy(maxVenues), new ProRataStrategy()};
+        LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        
+        System.out.printf("%n%-13s %6s %7s %14s %9s %9s %10s %9s%n",
+                "Strategy", "Venues", "Symbols", "Decisions/s", "p50(us)", "p99(us)", "p99.9(us)", "Legs/ord");
+        for (int s = 0; s < strategies.length; s++) {
+            for (int venueCount : ROUTING_VENUE_COUNTS) {
+                for (int symbolCount : ROUTING_SYMBOL_COUNTS) {
+                    SmartOrderRouter router = createRouter(strategies[s], venueCount, symbolCount);
+                    
+                    // Warm up, then measure on a fresh histogram
+                    runRouting(router, symbolCount, ORDERS_PER_ITERATION, latencies);
+                    latencies.reset();
+                    long start = System.nanoTime();
+                    long legs = runRouting(router, symbolCount, decisionCount, latencies);
+                    long elapsed = System.nanoTime() - start;
+                    
+                    System.out.printf("%-13s %6d %7d %14.0f %9.2f %9.2f %10.2f %9.2f%n",
+                            strategyNames[s], venueCount, symbolCount,
+                            decisionCount / (elapsed / 1_000_000_000.0),
+                            latencies.getValueAtPercentile(50) / 1_000.0,
+                            latencies.getValueAtPercentile(99) / 1_000.0,
+                            latencies.getValueAtPercentile(99.9) / 1_000.0,
+                            legs / (double) decisionCount);
+                }
+            }
+        }
+        System.out.println("\nDecisions/s includes the quote update before each decision; latencies time the decision only");
+    }
+    
+    private static SmartOrderRouter createRouter(RoutingStrategy strategy, int venueCount, int symbolCount) {
+        VenueCache[] venues = new VenueCache[venueCount];
+        for (int v = 0; v < venueCount; v++) {
+            // Venues get progressively more expensive and slower
+            venues[v] = new VenueCache(v, "VENUE" + v, symbolCount, (2 + v) * Price.CENT / 20, 50_000 + 10_000L * v);
+            for (int symbolId = 0; symbolId < symbolCount; symbolId++) {
+                venues[v].updateQuote(symbolId, Price.of(100) + 3 * Price.CENT, QUOTE_SIZE,
+                        Price.of(100) + 6 * Price.CENT, QUOTE_SIZE);
+            }
+        }
+        return new SmartOrderRouter(venues, strategy);
+    }
+    
+    /**
+     * Route orders while quotes move around the orders' limit prices.
+     *
+     * @return The total number of legs produced
+     */
+    private static long runRouting(SmartOrderRouter router, int symbolCount, int orderCount, LatencyHistogram latencies) {
+        OrderSimulation order = new OrderSimulation();
+        long random = 0x9E3779B97F4A7C15L;
+        long legs = 0;
+        for (int i = 0; i < orderCount; i++) {
+            int symbolId = i % symbolCount;
+            
+            // Xorshift keeps the simulated market data allocation-free
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            long bid = Price.of(100) + (random & 7) * Price.CENT;
+            VenueCache venue = router.venue((int) ((random >>> 8) & 0x7FFFFFFF) % router.getVenueCount());
+            venue.updateQuote(symbolId, bid, QUOTE_SIZE / 2 + ((random >>> 40) & 511),
+                    bid + (1 + ((random >>> 4) & 3)) * Price.CENT, QUOTE_SIZE / 2 + ((random >>> 50) & 511));
+            
+            order.reset(i, symbolId, sideOf(i), orderPrice(i), 100 + (i % 50) * 20);
+            long decisionStart = System.nanoTime();
+            RoutingDecision decision = router.route(order);
+            latencies.recordValue(System.nanoTime() - decisionStart);
+            legs += decision.getLegCount();
+        }
+        return legs;
+    }
+    
+    private static void runShardedBenchmark() {
+        System.out.println("\nRunning sharded benchmark");
+        System.out.println("-----------------------------------");
+        
+        AffinityProvider affinity = AffinityProvider.fromSystemProperty();
+        // Only the CPUs this process may run on, which may not start at CPU 0
+        int[] cpus = PinnedThreadFactory.allowedCpus();
+        int maxShards = Math.min(cpus.length, SHARDED_SYMBOL_COUNT);
+        System.out.println(SHARDED_SYMBOL_COUNT + " symbols partitioned across 1 to " + maxShards
+                + " shards, each pinned to its own CPU with " + affinity.name() + " affinity");
+        System.out.println("Every shard owns its books and metrics and processes " + ORDERS_PER_SHARD + " orders");
+        
+        System.out.println("Warming up JVM...");
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            runShards(1, new PinnedThreadFactory(affinity, cpus, "shard-"));
+            System.out.print(".");
+        }
+        System.out.println(" Done!");
+        
+        System.out.printf("%n%6s %7s %14s %8s %11s%n", "Shards", "Pinned", "Orders/s", "Speedup", "Efficiency");
+        double baseline = 0;
+        for (int shardCount = 1; shardCount <= maxShards; shardCount = nextShardCount(shardCount, maxShards)) {
+            PinnedThreadFactory threads = new PinnedThreadFactory(affinity, cpus, "shard-");
+            long elapsed = runShards(shardCount, threads);
+            double throughput = (double) shardCount * ORDERS_PER_SHARD / (elapsed / 1_000_000_000.0);
+            if (shardCount == 1) {
+                baseline = throughput;
+            }
+            System.out.printf("%6d %7d %14.0f %7.2fx %10.0f%%%n", shardCount, threads.getPinnedThreads(), throughput,
+                    throughput / baseline, throughput / baseline / shardCount * 100);
+        }
+        if (maxShards == 1) {
+            System.out.println("\nOnly one CPU is available, run on a multi-core machine to see scaling");
+        }
+    }
+    
+    // Doubles up to the maximum, then the maximum itself
+    private static int nextShardCount(int shardCount, int maxShards) {
+        return shardCount == maxShards ? maxShards + 1 : Math.min(shardCount * 2, maxShards);
+    }
+    
+    /**
+     * Run every shard on its own pinned thread, started together once all have built their state.
+     *
+     * @return The time from the start signal until the last shard finished
+     */
+    private static long runShards(int shardCount, PinnedThreadFactory threads) {
+        CountDownLatch ready = new CountDownLatch(shardCount);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[shardCount];
+        for (int k = 0; k < shardCount; k++) {
+            workers[k] = threads.newThread(new Shard(k, shardCount, ready, start));
+            workers[k].start();
+        }
+        long startTime = 0;
+        try {
+            ready.await();
+            startTime = System.nanoTime();
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return System.nanoTime() - startTime;
+    }
+    
+    private static void runMarketDataBenchmark() {
+        System.out.println("\nRunning market data benchmark");
+        System.out.println("-----------------------------------");
+        System.out.println("A feed thread applies incremental updates to " + SYMBOL_COUNT + " symbols, "
+                + MARKET_DATA_DEPTH + " levels deep, as fast as it can");
+        System.out.printf("The router reads top of book before every order; a slow consumer polls every %.1f ms%n",
+                MARKET_DATA_CONSUMER_PAUSE_NANOS / 1_000_000.0);
+        
+        LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        System.out.println("Warming up JVM...");
+        runMarketData(MARKET_DATA_ORDERS / 10, latencies);
+        latencies.reset();
+        System.out.println(" Done!");
+        
+        MarketDataRun run = runMarketData(MARKET_DATA_ORDERS, latencies);
+        double seconds = run.elapsedNanos() / 1_000_000_000.0;
+        System.out.printf("%nFeed updates:          %,d (%.0f/s)%n", run.updates(), run.updates() / seconds);
+        System.out.printf("Router reads:          %,d (%.0f/s), %d gave up and kept the previous quote%n",
+                MARKET_DATA_ORDERS, MARKET_DATA_ORDERS / seconds, run.staleReads());
+        System.out.printf("Consumer snapshots:    %,d delivered, %,d updates conflated%n",
+                run.delivered(), run.conflated());
+        printLatencies("Top-of-book read latency", latencies);
+        if (run.routerBytes() >= 0) {
+            System.out.printf("%nAllocated while measuring: router %d bytes, feed %d bytes%n",
+                    run.routerBytes(), run.feedBytes());
+        }
+    }
+    
+    /**
+     * Run the feed and the conflating consumer on their own threads while this thread reads
+     * top of book for every order.
+     */
+    private static MarketDataRun runMarketData(int orderCount, LatencyHistogram latencies) {
+        MarketDataCache cache = new MarketDataCache(SYMBOL_COUNT, MARKET_DATA_DEPTH);
+        AtomicBoolean running = new AtomicBoolean(true);
+        long[] updates = new long[1];
+        Thread feed = new Thread(() -> {
+            long random = 0x9E3779B97F4A7C15L;
+            long count = 0;
+            while (running.get()) {
+                // Xorshift keeps the simulated feed allocation-free; about one change in
+                // eight removes a level
+                random ^= random << 13;
+                random ^= random >>> 7;
+                random ^= random << 17;
+                int symbolId = (int) ((random >>> 1) % SYMBOL_COUNT);
+                Side side = (random & 1) == 0 ? Side.BUY : Side.SELL;
+                long ticks = 1 + ((random >>> 8) & 15);
+                long price = side == Side.BUY ? Price.of(100) - ticks * Price.CENT : Price.of(100) + ticks * Price.CENT;
+                long size = ((random >>> 16) & 7) == 0 ? 0 : 100 * (1 + ((random >>> 20) & 15));
+                cache.updateLevel(symbolId, side, price, size, System.nanoTime());
+                count++;
+            }
+            updates[0] = count;
+        }, "market-data-feed");
+        
+        ConflatedReader reader = new ConflatedReader(cache);
+        long[] checksum = new long[1];
+        Thread consumer = new Thread(() -> {
+            while (running.get()) {
+                reader.poll(snapshot -> checksum[0] += snapshot.getBidCount() + snapshot.getAskCount());
+                LockSupport.parkNanos(MARKET_DATA_CONSUMER_PAUSE_NANOS);
+            }
+        }, "market-data-consumer");
+        feed.start();
+        consumer.start();
+        
+        boolean allocationSupported = THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+                && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled();
+        TopOfBook topOfBook = new TopOfBook();
+        long staleReads = 0;
+        long feedBytesBefore = allocationSupported ? THREAD_MX_BEAN.getThreadAllocatedBytes(feed.threadId()) : 0;
+        long routerBytesBefore = allocationSupported ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < orderCount; i++) {
+            long readStart = System.nanoTime();
+            if (!cache.readTopOfBook(i % SYMBOL_COUNT, topOfBook)) {
+                staleReads++;
+            }
+            latencies.recordValue(System.nanoTime() - readStart);
+        }
+        long elapsed = System.nanoTime() - start;
+        long routerBytes = allocationSupported ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - routerBytesBefore : -1;
+        // Sampled while the feed is still running, as allocation can only be read for live threads
+        long feedBytes = allocationSupported ? THREAD_MX_BEAN.getThreadAllocatedBytes(feed.threadId()) - feedBytesBefore : -1;
+        
+        running.set(false);
+        try {
+            feed.join();
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new MarketDataRun(elapsed, updates[0], staleReads, reader.getDelivered(), reader.getConflated(),
+                routerBytes, feedBytes);
+    }
+    
+    /**
+     * @param updates Feed updates from start-up until the feed stopped, slightly beyond the measured reads
+     */
+    private record MarketDataRun(long elapsedNanos, long updates, long staleReads, long delivered, long conflated,
+                                 long routerBytes, long feedBytes) {
+    }
+    
+    private static void runBatchBenchmark() {
+        System.out.println("\nRunning batch benchmark");
+        System.out.println("-----------------------------------");
+        System.out.println("A burst of " + BATCH_BURST_ORDERS + " orders is valued one order object at a time, "
+                + "then as column batches filled by ingress");
+        boolean vector = BatchKernel.isVectorAvailable();
+        System.out.println(vector ? "Vector API available, comparing the scalar and vector kernels"
+                : "Vector API not available, run with --add-modules " + BatchKernel.VECTOR_MODULE + " to add the vector kernel");
+        
+        // The fee schedule is invariant, so it is computed once rather than per order or per batch
+        SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+        registerSymbols(symbols);
+        long[] feesPerUnit = new long[symbols.capacity()];
+        for (int id = 0; id < symbols.size(); id++) {
+            feesPerUnit[id] = symbols.tickSize(id) / 5;
+        }
+        OrderSimulation[] orders = new OrderSimulation[BATCH_BURST_ORDERS];
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = new OrderSimulation();
+            orders[i].reset(i, i % SYMBOL_COUNT, sideOf(i), orderPrice(i), 100 + (i % 50));
+        }
+        List<BatchKernel> kernels = new ArrayList<>();
+        kernels.add(BatchKernel.fromName("scalar"));
+        if (vector) {
+            kernels.add(BatchKernel.fromName("vector"));
+        }
+        
+        System.out.println("Warming up JVM...");
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            runPerOrderValuation(orders, BATCH_BURSTS / 4, feesPerUnit);
+            for (BatchKernel kernel : kernels) {
+                for (int batchSize : BATCH_SIZES) {
+                    runBatchValuation(kernel, toBatches(orders, batchSize), BATCH_BURSTS / 4, feesPerUnit);
+                }
+            }
+            System.out.print(".");
+        }
+        System.out.println(" Done!");
+        
+        long orderCount = (long) BATCH_BURSTS * BATCH_BURST_ORDERS;
+        System.out.printf("%n%-10s %6s %12s %9s%n", "Path", "Batch", "ns/order", "Speedup");
+        long start = System.nanoTime();
+        long expected = runPerOrderValuation(orders, BATCH_BURSTS, feesPerUnit);
+        double baseline = (System.nanoTime() - start) / (double) orderCount;
+        System.out.printf("%-10s %6s %12.2f %8.2fx%n", "per-order", "-", baseline, 1.0);
+        for (BatchKernel kernel : kernels) {
+            for (int batchSize : BATCH_SIZES) {
+                OrderBatch[] batches = toBatches(orders, batchSize);
+                start = System.nanoTime();
+                long checksum = runBatchValuation(kernel, batches, BATCH_BURSTS, feesPerUnit);
+                double nanosPerOrder = (System.nanoTime() - start) / (double) orderCount;
+                if (checksum != expected) {
+                    System.err.println("Batch check failed: the " + kernel.name() + " kernel valued the orders differently");
+                    System.exit(1);
+                }
+                System.out.printf("%-10s %6d %12.2f %8.2fx%n", kernel.name(), batchSize, nanosPerOrder,
+                        baseline / nanosPerOrder);
+            }
+        }
+        System.out.println("\nEvery batch path's totals are checked against the per-order path");
+    }
+    
+    /**
+     * Value the burst one {@link OrderSimulation} at a time, the way {@code processOrder} sees orders.
+     *
+     * @return Checksum over the total value, fees and price range
+     */
+    private static long runPerOrderValuation(OrderSimulation[] orders, int bursts, long[] feesPerUnit) {
+        long totalValue = 0;
+        long totalFees = 0;
+        long minPrice = Long.MAX_VALUE;
+        long maxPrice = Long.MIN_VALUE;
+        for (int b = 0; b < bursts; b++) {
+            for (OrderSimulation order : orders) {
+                totalValue += Price.notional(order.getPrice(), order.getQuantity());
+                totalFees += feesPerUnit[order.getSymbolId()] * order.getQuantity();
+                minPrice = Math.min(minPrice, order.getPrice());
+                maxPrice = Math.max(maxPrice, order.getPrice());
+            }
+        }
+        return valuationChecksum(totalValue, totalFees, minPrice, maxPrice);
+    }
+    
+    /**
+     * Value the burst batch by batch with the kernel.
+     *
+     * @return Checksum over the total value, fees and price range
+     */
+    private static long runBatchValuation(BatchKernel kernel, OrderBatch[] batches, int bursts, long[] feesPerUnit) {
+        long totalValue = 0;
+        long totalFees = 0;
+        long minPrice = Long.MAX_VALUE;
+        long maxPrice = Long.MIN_VALUE;
+        for (int b = 0; b < bursts; b++) {
+            for (OrderBatch batch : batches) {
+                kernel.value(batch, feesPerUnit);
+                totalValue += batch.getTotalValue();
+                totalFees += batch.getTotalFees();
+                minPrice = Math.min(minPrice, batch.getMinPrice());
+                maxPrice = Math.max(maxPrice, batch.getMaxPrice());
+            }
+        }
+        return valuationChecksum(totalValue, totalFees, minPrice, maxPrice);
+    }
+    
+    /**
+     * Split the burst into batches as ingress would fill them, one column entry per order.
+     */
+    private static OrderBatch[] toBatches(OrderSimulation[] orders, int batchSize) {
+        OrderBatch[] batches = new OrderBatch[(orders.length + batchSize - 1) / batchSize];
+        for (int i = 0; i < orders.length; i++) {
+            if (i % batchSize == 0) {
+                batches[i / batchSize] = new OrderBatch(batchSize);
+            }
+            batches[i / batchSize].add(orders[i]);
+        }
+        return batches;
+    }
+    
+    private static long valuationChecksum(long totalValue, long totalFees, long minPrice, long maxPrice) {
+        return ((totalValue * 31 + totalFees) * 31 + minPrice) * 31 + maxPrice;
+    }
+    
+    private static void runAggregateBenchmark() {
+        System.out.println("\nRunning aggregate benchmark");
+        System.out.println("-----------------------------------");
+        int rows = Integer.getInteger("aggregate.rows", AGGREGATE_ROWS);
+        int cpus = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Aggregating count, notional, VWAP, range and variance for %,d orders over %d symbols%n",
+                rows, AGGREGATE_SYMBOL_COUNT);
+        System.out.println("Loading orders into columns...");
+        OrderColumns orders = createHistoricalOrders(rows);
+        
+        ParallelAggregator serialAggregator = new ParallelAggregator(ForkJoinPool.commonPool(), AGGREGATE_SYMBOL_COUNT);
+        System.out.println("Warming up JVM...");
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            serialAggregator.aggregateSerial(orders);
+            serialAggregator.aggregate(orders);
+            System.out.print(".");
+        }
+        System.out.println(" Done!");
+        
+        long start = System.nanoTime();
+        SymbolAggregates expected = serialAggregator.aggregateSerial(orders);
+        long serialElapsed = System.nanoTime() - start;
+        System.out.printf("%n%11s %14s %10s %8s %11s%n", "Parallelism", "Orders/s", "Time(ms)", "Speedup", "Efficiency");
+        System.out.printf("%11s %14.0f %10.1f %7.2fx %11s%n", "serial",
+                rows / (serialElapsed / 1_000_000_000.0), serialElapsed / 1_000_000.0, 1.0, "-");
+        for (int parallelism = 1; parallelism <= cpus; parallelism = nextShardCount(parallelism, cpus)) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                ParallelAggregator aggregator = new ParallelAggregator(pool, AGGREGATE_SYMBOL_COUNT);
+                aggregator.aggregate(orders);
+                start = System.nanoTime();
+                SymbolAggregates aggregates = aggregator.aggregate(orders);
+                long elapsed = System.nanoTime() - start;
+                if (!sameAggregates(expected, aggregates)) {
+                    System.err.println("Aggregate check failed: parallelism " + parallelism + " differs from the serial result");
+                    System.exit(1);
+                }
+                double speedup = serialElapsed / (double) elapsed;
+                System.out.printf("%11d %14.0f %10.1f %7.2fx %10.0f%%%n", parallelism,
+                        rows / (elapsed / 1_000_000_000.0), elapsed / 1_000_000.0, speedup, speedup / parallelism * 100);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        if (cpus == 1) {
+            System.out.println("\nOnly one CPU is available, run on a multi-core machine to see scaling");
+        }
+        
+        System.out.printf("%n%-7s %10s %12s %10s %10s %10s %9s%n", "Symbol", "Orders", "Quantity", "VWAP", "Min", "Max", "Std dev");
+        for (int id = 0; id < AGGREGATE_REPORTED_SYMBOLS; id++) {
+            System.out.printf("%-7s %10d %12d %10s %10s %10s %9.4f%n", "SYM" + id, expected.count(id),
+                    expected.quantity(id), Price.toString(expected.vwap(id)), Price.toString(expected.minPrice(id)),
+                    Price.toString(expected.maxPrice(id)), Math.sqrt(expected.priceVariance(id)) / Price.SCALE);
+        }
+        System.out.println("\nEvery parallel result is checked against the serial one");
+    }
+    
+    /**
+     * A synthetic day: random symbols, prices on the cent around 100.00 and quantities up to 1,000.
+     */
+    private static OrderColumns createHistoricalOrders(int rows) {
+        OrderColumns orders = new OrderColumns(rows);
+        long random = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < rows; i++) {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            int symbolId = (int) ((random >>> 1) % AGGREGATE_SYMBOL_COUNT);
+            long price = Price.of(90) + ((random >>> 20) % 2_001) * Price.CENT;
+            int quantity = 1 + (int) ((random >>> 40) % 1_000);
+            orders.add(symbolId, price, quantity);
+        }
+        return orders;
+    }
+    
+    // Exact for the integer aggregates; the variance may differ in the last bits as partials merge in another order
+    private static boolean sameAggregates(SymbolAggregates expected, SymbolAggregates actual) {
+        for (int id = 0; id < expected.symbolCapacity(); id++) {
+            if (expected.count(id) != actual.count(id) || expected.quantity(id) != actual.quantity(id)
+                    || expected.notional(id) != actual.notional(id) || expected.minPrice(id) != actual.minPrice(id)
+                    || expected.maxPrice(id) != actual.maxPrice(id)) {
+                return false;
+            }
+            double variance = expected.priceVariance(id);
+            if (Math.abs(variance - actual.priceVariance(id)) > 1e-9 * Math.max(1, variance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void runRiskBenchmark() {
+        System.out.println("\nRunning risk benchmark");
+        System.out.println("-----------------------------------");
+        System.out.println("Every order passes price band, order notional, order rate, position and open notional");
+        System.out.println("checks ahead of processOrder; clients " + RISK_CLIENT_CODES[1] + ", " + RISK_CLIENT_CODES[2]
+                + " and " + RISK_CLIENT_CODES[3] + " have a tight position, rate and order notional limit");
+        
+        LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+        long[] results = new long[PreTradeRiskEngine.RESULT_COUNT];
+        System.out.println("Warming up JVM...");
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            runRiskStage(RISK_ORDERS / 4, latencies, results);
+            System.out.print(".");
+        }
+        latencies.reset();
+        java.util.Arrays.fill(results, 0);
+        System.out.println(" Done!");
+        
+        long allocated = runRiskStage(RISK_ORDERS, latencies, results);
+        System.out.println("\nRisk results:");
+        for (int result = 0; result < results.length; result++) {
+            System.out.printf("  %-16s %,10d%n", PreTradeRiskEngine.resultName(result), results[result]);
+        }
+        printLatencies("Risk check latency", latencies);
+        if (allocated >= 0) {
+            System.out.printf("%nAllocated by checks and processOrder: %d bytes over %d orders%n", allocated, RISK_ORDERS);
+        }
+        
+        int cpus = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%nGateway threads checking orders for client %d concurrently:%n", CLIENT_CODE);
+        System.out.printf("%7s %14s %9s %9s %10s%n", "Threads", "Checks/s", "p50(us)", "p99(us)", "p99.9(us)");
+        for (int threads = 1; threads <= Math.max(2, cpus); threads = nextShardCount(threads, Math.max(2, cpus))) {
+            runRiskGateways(threads, latencies);
+            latencies.reset();
+            long elapsed = runRiskGateways(threads, latencies);
+            System.out.printf("%7d %14.0f %9.2f %9.2f %10.2f%n", threads,
+                    (double) threads * RISK_GATEWAY_CHECKS / (elapsed / 1_000_000_000.0),
+                    latencies.getValueAtPercentile(50) / 1_000.0,
+                    latencies.getValueAtPercentile(99) / 1_000.0,
+                    latencies.getValueAtPercentile(99.9) / 1_000.0);
+            latencies.reset();
+        }
+        if (cpus == 1) {
+            System.out.println("\nOnly one CPU is available, so gateway threads take turns rather than contend");
+        }
+    }
+    
+    private static PreTradeRiskEngine createRiskEngine() {
+        PreTradeRiskEngine risk = new PreTradeRiskEngine(RISK_CLIENT_CODES.length, SYMBOL_COUNT);
+        for (int c = 0; c < RISK_CLIENT_CODES.length; c++) {
+            risk.registerClient(RISK_CLIENT_CODES[c], RISK_CLIENT_LIMITS[c]);
+        }
+        for (int symbolId = 0; symbolId < SYMBOL_COUNT; symbolId++) {
+            risk.setPriceBand(symbolId, RISK_REFERENCE_PRICE, RISK_BAND_BASIS_POINTS);
+        }
+        return risk;
+    }
+    
+    /**
+     * Check each order and pass the accepted ones to the books, as {@code processOrder} does.
+     * Taker fills are reported straight after; the remainder keeps its reservations while it
+     * rests, its fills as a maker are reported through the book's trade listener, and it is
+     * released when it is cancelled RESTING_ORDER_LIFETIME orders later, or at once if the
+     * book had no room for it.
+     *
+     * @return Bytes allocated by the loop, or -1 if that cannot be measured
+     */
+    private static long runRiskStage(int orderCount, LatencyHistogram latencies, long[] results) {
+        PreTradeRiskEngine risk = createRiskEngine();
+        RiskOrderTracker tracker = new RiskOrderTracker(risk, RESTING_ORDER_LIFETIME + 1);
+        SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+        registerSymbols(symbols);
+        MatchingEngine engine = new MatchingEngine(symbols, MIN_PRICE, MAX_PRICE, ORDERS_PER_BOOK, tracker);
+        OrderSimulation order = new OrderSimulation();
+        boolean allocationSupported = THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+                && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled();
+        long allocatedBefore = allocationSupported ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : 0;
+        for (int i = 0; i < orderCount; i++) {
+            int clientCode = RISK_CLIENT_CODES[(i / SYMBOL_COUNT) % RISK_CLIENT_CODES.length];
+            long price = i % FAT_FINGER_INTERVAL == 0 ? 10 * orderPrice(i) : orderPrice(i);
+            order.reset(i, i % SYMBOL_COUNT, sideOf(i), price, 100 + (i % 50));
+            
+            long checkStart = System.nanoTime();
+            int result = risk.check(clientCode, order.getSymbolId(), order.getSide(), price, order.getQuantity(), checkStart);
+            latencies.recordValue(System.nanoTime() - checkStart);
+            results[result]++;
+            if (result == PreTradeRiskEngine.ACCEPTED) {
+                OrderBook book = engine.book(order.getSymbolId());
+                long rejectedBefore = book.getRejectedQuantity();
+                engine.submit(order);
+                int unbooked = (int) (book.getRejectedQuantity() - rejectedBefore);
+                risk.onFill(clientCode, order.getSymbolId(), order.getSide(), price, order.getFilledQuantity());
+                if (unbooked > 0) {
+                    risk.onCancel(clientCode, order.getSymbolId(), order.getSide(), price, unbooked);
+                }
+                tracker.rest(order, clientCode, order.getQuantity() - order.getFilledQuantity() - unbooked);
+            }
+            // processOrder's clean-up, done here so the risk engine hears about the cancel
+            tracker.cancel(engine, i - RESTING_ORDER_LIFETIME);
+        }
+        return allocationSupported ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore : -1;
+    }
+    
+    /**
+     * The working orders of the risk stage, in a ring indexed by order id, so that fills
+     * against them as resting makers and their cancellation reach the risk engine.
+     */
+    private static final class RiskOrderTracker implements TradeListener {
+        private final PreTradeRiskEngine risk;
+        private final int[] clientCodes;
+        private final int[] symbolIds;
+        private final Side[] sides;
+        private final long[] prices;
+        private final int[] remaining;
+        
+        RiskOrderTracker(PreTradeRiskEngine risk, int capacity) {
+            this.risk = risk;
+            this.clientCodes = new int[capacity];
+            this.symbolIds = new int[capacity];
+            this.sides = new Side[capacity];
+            this.prices = new long[capacity];
+            this.remaining = new int[capacity];
+        }
+        
+        void rest(OrderSimulation order, int clientCode, int quantity) {
+            int slot = slotOf(order.getId());
+            clientCodes[slot] = clientCode;
+            symbolIds[slot] = order.getSymbolId();
+            sides[slot] = order.getSide();
+            prices[slot] = order.getPrice();
+            remaining[slot] = quantity;
+        }
+        
+        /**
+         * Cancel the order if it is still resting and release what is left of it.
+         */
+        void cancel(MatchingEngine engine, long orderId) {
+            if (orderId < 0) {
+                return;
+            }
+            int slot = slotOf(orderId);
+            if (remaining[slot] > 0 && engine.cancel(symbolIds[slot], orderId)) {
+                risk.onCancel(clientCodes[slot], symbolIds[slot], sides[slot], prices[slot], remaining[slot]);
+            }
+            remaining[slot] = 0;
+        }
+        
+        @Override
+        public void onTrade(int symbolId, long makerOrderId, long takerOrderId, long price, long quantity) {
+            int slot = slotOf(makerOrderId);
+            if (remaining[slot] > 0) {
+                // Makers trade at their own limit price, the price the risk engine checked
+                risk.onFill(clientCodes[slot], symbolId, sides[slot], price, (int) quantity);
+                remaining[slot] -= (int) quantity;
+            }
+        }
+        
+        private int slotOf(long orderId) {
+            return (int) (orderId % remaining.length);
+        }
+    }
+    
+    /**
+     * Check orders for one client from several threads at once, each releasing its order
+     * straight after, and merge the threads' check latencies.
+     *
+     * @return The time until the last thread finished
+     */
+    private static long runRiskGateways(int threadCount, LatencyHistogram latencies) {
+        PreTradeRiskEngine risk = createRiskEngine();
+        LatencyHistogram[] threadLatencies = new LatencyHistogram[threadCount];
+        Thread[] gateways = new Thread[threadCount];
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threadCount; t++) {
+            LatencyHistogram histogram = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+            threadLatencies[t] = histogram;
+            gateways[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < RISK_GATEWAY_CHECKS; i++) {
+                    int symbolId = i % SYMBOL_COUNT;
+                    Side side = sideOf(i);
+                    long price = orderPrice(i);
+                    long checkStart = System.nanoTime();
+                    int result = risk.check(CLIENT_CODE, symbolId, side, price, 100, checkStart);
+                    histogram.recordValue(System.nanoTime() - checkStart);
+                    if (result == PreTradeRiskEngine.ACCEPTED) {
+                        risk.onCancel(CLIENT_CODE, symbolId, side, price, 100);
+                    }
+                }
+            }, "risk-gateway-" + t);
+            gateways[t].start();
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        try {
+            for (Thread gateway : gateways) {
+                gateway.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        for (LatencyHistogram histogram : threadLatencies) {
+            latencies.add(histogram);
+        }
+        return elapsed;
+    }
+    
+    private static void runGatewayBenchmark() {
+        System.out.println("\nRunning gateway benchmark");
+        System.out.println("-----------------------------------");
+        System.out.println("Orders are sent over loopback TCP as 40-byte binary records, one in flight per connection;");
+        System.out.println("latency is the round trip from writing an order to reading its ack");
+        
+        SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+        int[] symbolIds = registerSymbols(symbols);
+        long[] symbolCodes = new long[SYMBOL_COUNT];
+        for (int k = 0; k < SYMBOL_COUNT; k++) {
+            symbolCodes[k] = symbols.code(symbolIds[k]);
+        }
+        
+        // Runs on the gateway's selector thread
+        OrderEntryHandler handler = matchingHandler(symbols);
+        LoopbackClient.OrderSource source = (orderId, connection, request) -> {
+            int i = (int) orderId;
+            request.price(orderPrice(i))
+                    .symbolCode(symbolCodes[i % SYMBOL_COUNT])
+                    .quantity(100 + (i % 50))
+                    .clientCode(CLIENT_CODE)
+                    .type(LIMIT_ORDER_TYPE)
+                    .side(sideOf(i).code());
+        };
+        
+        int maxConnections = GATEWAY_CONNECTIONS[GATEWAY_CONNECTIONS.length - 1];
+        OrderGateway gateway = null;
+        Thread gatewayThread = null;
+        try {
+            gateway = new OrderGateway(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), handler, maxConnections);
+            gatewayThread = new Thread(gateway, "order-gateway");
+            gatewayThread.start();
+            InetSocketAddress address = gateway.localAddress();
+            LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+            
+            System.out.println("Warming up JVM...");
+            for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+                try (LoopbackClient client = new LoopbackClient(address, GATEWAY_CONNECTIONS[1], source)) {
+                    client.run(GATEWAY_RUN_NANOS / 2, latencies);
+                }
+                System.out.print(".");
+            }
+            latencies.reset();
+            System.out.println(" Done!");
+            
+            System.out.printf("%n%11s %14s %12s %9s %9s %10s %9s%n", "Connections", "Round trips/s", "Orders/wake",
+                    "p50(us)", "p99(us)", "p99.9(us)", "Max(us)");
+            for (int connections : GATEWAY_CONNECTIONS) {
+                try (LoopbackClient client = new LoopbackClient(address, connections, source)) {
+                    long ordersBefore = gateway.getOrdersReceived();
+                    long wakeupsBefore = gateway.getWakeups();
+                    long start = System.nanoTime();
+                    long roundTrips = client.run(GATEWAY_RUN_NANOS, latencies);
+                    long elapsed = System.nanoTime() - start;
+                    long wakeups = Math.max(1, gateway.getWakeups() - wakeupsBefore);
+                    System.out.printf("%11d %14.0f %12.1f %9.2f %9.2f %10.2f %9.2f%n", connections,
+                            roundTrips / (elapsed / 1_000_000_000.0),
+                            (double) (gateway.getOrdersReceived() - ordersBefore) / wakeups,
+                            latencies.getValueAtPercentile(50) / 1_000.0,
+                            latencies.getValueAtPercentile(99) / 1_000.0,
+                            latencies.getValueAtPercentile(99.9) / 1_000.0,
+                            latencies.getMaxValue() / 1_000.0);
+                    if (client.getRejected() > 0) {
+                        System.out.println("  " + client.getRejected() + " orders were rejected");
+                    }
+                }
+                latencies.reset();
+            }
+            System.out.println("\nOrders per wake-up is how many orders the gateway read, processed and acked between");
+            System.out.println("two selects; with more connections each wake-up finds more of them ready");
+        } catch (IOException e) {
+            System.err.println("Gateway benchmark failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            if (gateway != null) {
+                gateway.halt();
+            }
+            if (gatewayThread != null) {
+                try {
+                    gatewayThread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Match each order that passes {@link #isValidGatewayOrder} with processOrder on a
+     * matching engine of its own, and reject the rest. Client order ids restart with every
+     * client and producer, so the books get their own sequence of ids.
+     */
+    private static OrderEntryHandler matchingHandler(SymbolDictionary symbols) {
+        MatchingEngine engine = createMatchingEngine();
+        OrderSimulation order = new OrderSimulation();
+        long[] engineOrderIds = new long[1];
+        return (request, ack) -> {
+            int symbolId = symbols.lookup(request.symbolCode());
+            if (!isValidGatewayOrder(symbols, symbolId, request)) {
+                ack.type(OrderGateway.ACK_REJECTED);
+                return;
+            }
+            order.reset(engineOrderIds[0]++, symbolId, Side.fromCode(request.side()), request.price(), request.quantity());
+            processOrder(order, engine);
+            ack.quantity(order.getFilledQuantity());
+        };
+    }
+    
+    /**
+     * @return Whether the order has a known symbol, a valid side, a positive quantity and a
+     *         price on the symbol's tick inside the books' range, so processOrder accepts it
+     */
+    private static boolean isValidGatewayOrder(SymbolDictionary symbols, int symbolId,
+                                               DirectBufferDemo.OrderFlyweight request) {
+        if (symbolId == SymbolDictionary.UNKNOWN_SYMBOL) {
+            return false;
+        }
+        byte side = request.side();
+        if (side != Side.BUY.code() && side != Side.SELL.code()) {
+            return false;
+        }
+        long price = request.price();
+        return price >= MIN_PRICE && price <= MAX_PRICE && (price - MIN_PRICE) % symbols.tickSize(symbolId) == 0
+                && request.quantity() > 0;
+    }
+    
+    private static void runIpcBenchmark() {
+        System.out.println("\nRunning IPC benchmark");
+        System.out.println("-----------------------------------");
+        System.out.println("Matching runs in a separate JVM; orders and acks cross between the processes through");
+        System.out.println("two memory-mapped rings, as 40-byte binary records with no system call per message");
+        
+        SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+        int[] symbolIds = registerSymbols(symbols);
+        long[] symbolCodes = new long[SYMBOL_COUNT];
+        for (int k = 0; k < SYMBOL_COUNT; k++) {
+            symbolCodes[k] = symbols.code(symbolIds[k]);
+        }
+        IpcGateway.OrderSource source = (orderId, request) -> {
+            int i = (int) orderId;
+            request.price(orderPrice(i))
+                    .symbolCode(symbolCodes[i % SYMBOL_COUNT])
+                    .quantity(100 + (i % 50))
+                    .clientCode(CLIENT_CODE)
+                    .type(LIMIT_ORDER_TYPE)
+                    .side(sideOf(i).code());
+        };
+        
+        Path directory = IpcGateway.defaultDirectory();
+        long pid = ProcessHandle.current().pid();
+        Path ordersFile = directory.resolve("trading-router-orders-" + pid + ".ring");
+        Path acksFile = directory.resolve("trading-router-acks-" + pid + ".ring");
+        System.out.println("Ring files: " + ordersFile + " and " + acksFile);
+        Process matching = null;
+        boolean failed = false;
+        try {
+            IpcRing orders = IpcRing.create(ordersFile, IPC_RING_CAPACITY);
+            IpcRing acks = IpcRing.create(acksFile, IPC_RING_CAPACITY);
+            matching = IpcMatching.start(SimpleMain.class, IPC_MATCHING_MODE, ordersFile.toString(), acksFile.toString());
+            IpcGateway gateway = new IpcGateway(orders, acks, matching, source);
+            LatencyHistogram latencies = new LatencyHistogram(MAX_RECORDED_LATENCY_NANOS, LATENCY_SIGNIFICANT_DIGITS);
+            
+            // The first round trip also waits for the child JVM to start
+            System.out.println("Warming up JVMs...");
+            for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+                gateway.roundTrips(IPC_ROUND_TRIPS / 4, latencies);
+                System.out.print(".");
+            }
+            latencies.reset();
+            System.out.println(" Done!");
+            
+            gateway.roundTrips(IPC_ROUND_TRIPS, latencies);
+            printLatencies("Round trip through processOrder in the matching process", latencies);
+            
+            System.out.printf("%nGateway threads publishing into the orders ring concurrently:%n");
+            System.out.printf("%9s %14s%n", "Producers", "Orders/s");
+            for (int producers = 1; producers <= IPC_MAX_PRODUCERS; producers *= 2) {
+                long elapsed = gateway.publishConcurrently(producers, IPC_THROUGHPUT_ORDERS);
+                System.out.printf("%9d %14.0f%n", producers, IPC_THROUGHPUT_ORDERS / (elapsed / 1_000_000_000.0));
+            }
+            
+            if (!gateway.stop(10, TimeUnit.SECONDS)) {
+                System.err.println("Matching process did not stop");
+            }
+            System.out.println("\nCompare the round trip with the single-connection latency of the gateway mode, which");
+            System.out.println("crosses loopback TCP within one process");
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("IPC benchmark failed: " + e.getMessage());
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (matching != null && matching.isAlive()) {
+                matching.destroy();
+            }
+            try {
+                Files.deleteIfExists(ordersFile);
+                Files.deleteIfExists(acksFile);
+            } catch (IOException e) {
+                System.err.println("Could not delete ring files: " + e.getMessage());
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * The matching side of the ipc mode, with the same validation and matching as the
+     * gateway mode.
+     */
+    private static void runIpcMatching(Path ordersFile, Path acksFile) {
+        ProcessHandle gateway = ProcessHandle.current().parent().orElse(null);
+        if (gateway == null) {
+            System.err.println("IPC matching process has no gateway process");
+            System.exit(1);
+        }
+        try {
+            SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+            registerSymbols(symbols);
+            IpcMatching.run(ordersFile, acksFile, gateway, matchingHandler(symbols));
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("IPC matching process failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    private static void runGcProfileBenchmark() {
+        System.out.println("\nRunning GC profile benchmark");
+        System.out.println("-----------------------------------");
+        System.out.println("Each mode runs in its own JVM under every collector; a zerogc run that survives Epsilon");
+        System.out.println("with a heap that only fits its set-up allocated nothing in steady state");
+        
+        String heap = System.getProperty("gcprofile.heap", GC_PROFILE_HEAP);
+        List<GcProfileRunner.Outcome> outcomes = new ArrayList<>();
+        try {
+            Path directory = System.getProperty("gcprofile.dir") != null
+                    ? Path.of(System.getProperty("gcprofile.dir"))
+                    : Files.createTempDirectory("gc-profile");
+            GcProfileRunner runner = new GcProfileRunner(SimpleMain.class.getName(), directory, GC_PROFILE_TIMEOUT_SECONDS);
+            System.out.println("Child JVM logs: " + directory);
+            for (String mode : GC_PROFILE_MODES) {
+                for (GcCollector collector : GcCollector.values()) {
+                    String runHeap = collector == GcCollector.EPSILON && mode.equals("zerogc")
+                            ? GC_PROFILE_EPSILON_ZEROGC_HEAP : heap;
+                    System.out.printf("Running %s with %s, %s heap... ", mode, collector.displayName(), runHeap);
+                    GcProfileRunner.Outcome outcome = runner.run(mode, collector, runHeap);
+                    System.out.println(outcome.status());
+                    outcomes.add(outcome);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("GC profile benchmark failed: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        
+        System.out.println("\nPer-order latency and GC activity over the measured iterations:");
+        System.out.printf("%-8s %-10s %5s %-13s %10s %8s %8s %9s %9s %5s %10s %11s %10s %12s%n",
+                "Mode", "Collector", "Heap", "Status", "Orders/s", "p50(us)", "p99(us)", "p99.9(us)", "Max(us)",
+                "GCs", "Pauses(ms)", "Longest(ms)", "Alloc(MB)", "Path(B/ord)");
+        for (GcProfileRunner.Outcome outcome : outcomes) {
+            System.out.printf("%-8s %-10s %5s %-13s", outcome.mode(), outcome.collector().displayName(),
+                    outcome.heap(), outcome.status());
+            GcProfileResult result = outcome.result();
+            if (result == null) {
+                System.out.println();
+                continue;
+            }
+            System.out.printf(" %10.0f %8.2f %8.2f %9.2f %9.2f %5d %10s %11s %10.1f %12s%n",
+                    result.ordersPerSecond(),
+                    result.p50Nanos() / 1_000.0,
+                    result.p99Nanos() / 1_000.0,
+                    result.p999Nanos() / 1_000.0,
+                    result.maxNanos() / 1_000.0,
+                    result.collections(),
+                    result.pauseTotalNanos() < 0 ? "n/a" : String.format("%.3f", result.pauseTotalNanos() / 1_000_000.0),
+                    result.pauseMaxNanos() < 0 ? "n/a" : String.format("%.3f", result.pauseMaxNanos() / 1_000_000.0),
+                    result.allocatedBytes() / (1024.0 * 1024.0),
+                    result.orderPathAllocatedBytes() < 0 ? "-"
+                            : String.format("%.4f", result.orderPathAllocatedBytes() / (double) result.orders()));
+        }
+        System.out.println("\nAlloc is everything the benchmark thread allocated while measuring, including the harness;");
+        System.out.println("Path is the steady-state allocation of the zerogc order path alone");
+        for (GcProfileRunner.Outcome outcome : outcomes) {
+            if (outcome.mode().equals("zerogc") && outcome.collector() == GcCollector.EPSILON) {
+                System.out.println(switch (outcome.status()) {
+                    case OK -> "zerogc survived Epsilon: the order path does not need a collector";
+                    case OUT_OF_MEMORY -> "zerogc ran out of heap under Epsilon: something allocates in steady state";
+                    case UNSUPPORTED -> "This JVM has no Epsilon collector, so the zerogc path could not be proven";
+                    default -> "zerogc did not complete under Epsilon, see " + outcome.log();
+                });
+            }
+        }
+    }
+    
+    static int[] registerSymbols(SymbolDictionary symbols) {
+        int[] symbolIds = new int[SYMBOL_COUNT];
+        for (int k = 0; k < SYMBOL_COUNT; k++) {
+            symbolIds[k] = symbols.register("SYM" + k, TICK_SIZES[k % TICK_SIZES.length]);
+        }
+        return symbolIds;
+    }
+    
+    static OrderMetrics[] createMetrics(SymbolDictionary symbols) {
+        OrderMetrics[] metricsBySymbol = new OrderMetrics[symbols.capacity()];
+        for (int id = 0; id < symbols.size(); id++) {
+            metricsBySymbol[id] = new OrderMetrics(symbols.name(id));
+        }
+        return metricsBySymbol;
     }
     
-    private static int runStandardDemo(int orderCount, boolean withGCPressure) {
+    static MatchingEngine createMatchingEngine() {
+        // Registration is deterministic, so the ids match every other dictionary of the run
+        SymbolDictionary symbols = new SymbolDictionary(SYMBOL_COUNT);
+        registerSymbols(symbols);
+        return new MatchingEngine(symbols, MIN_PRICE, MAX_PRICE, ORDERS_PER_BOOK, TradeListener.NONE);
+    }
+    
+    // Whole prices from 100.00 to 109.00, on every symbol's tick. Price and side follow each
+    // symbol's own order sequence, so every book sees both sides across the whole range.
+    static long orderPrice(int i) {
+        return orderPrice(i, SYMBOL_COUNT);
+    }
+    
+    static long orderPrice(int i, int symbolCount) {
+        return Price.of(100 + (i / symbolCount) % 10);
+    }
+    
+    // Alternate buys and sells per symbol so that incoming orders cross the resting ones
+    static Side sideOf(int i) {
+        return sideOf(i, SYMBOL_COUNT);
+    }
+    
+    static Side sideOf(int i, int symbolCount) {
+        return ((i / symbolCount) & 1) == 0 ? Side.BUY : Side.SELL;
+    }
+    
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not delete " + directory + ": " + e.getMessage());
+        }
+    }
+    
+    static int runStandardDemo(int orderCount, boolean withGCPressure, LatencyHistogram latencies) {
+        return runStandardDemo(new OrderPathState(), orderCount, withGCPressure, latencies);
+    }
+    
+    // Runs against the state's books, continuing its order ids so they can be reused across runs
+    static int runStandardDemo(OrderPathState state, int orderCount, boolean withGCPressure,
+                               LatencyHistogram latencies) {
         if (withGCPressure) {
             System.out.println("Processing " + orderCount + " orders with new allocations...");
         }
         
         int allocations = 0;
         List<Object> temporaryObjects = new ArrayList<>();
+        Map<String, OrderMetrics> metricsCache = new HashMap<>();
+        MatchingEngine engine = state.engine;
+        int firstOrderId = state.nextOrderId;
+        state.nextOrderId += orderCount;
         
         for (int i = 0; i < orderCount; i++) {
+            long orderStart = System.nanoTime();
+            int orderId = firstOrderId + i;
+            
             // Create a new order object each time
-            OrderSimulation order = new OrderSimulation("ORDER-" + i);
+            OrderSimulation order = new OrderSimulation(orderId);
             allocations++;
             
             // Configure the order
-            double price = 100.0 + (i % 10);
-            int quantity = 100 + (i % 50);
+            long price = orderPrice(orderId);
+            int quantity = 100 + (orderId % 50);
+            order.setSymbolId(orderId % SYMBOL_COUNT);
+            order.setSide(sideOf(orderId));
             order.setPrice(price);
             order.setQuantity(quantity);
             order.setTimestamp(System.nanoTime());
             
             // Process the order
-            processOrder(order);
+            processOrder(order, engine);
+            
+            // Update metrics keyed by the symbol String
+            String symbol = "SYM" + (orderId % SYMBOL_COUNT);
+            OrderMetrics metrics = metricsCache.get(symbol);
+            if (metrics == null) {
+                metrics = new OrderMetrics(symbol);
+                metricsCache.put(symbol, metrics);
+                allocations++;
+            }
+            metrics.updateWith(order);
+            latencies.recordValue(System.nanoTime() - orderStart);
             
             // Create GC pressure by allocating temporary objects
             if (withGCPressure && i % 100 == 0) {
@@ -176,44 +2030,60 @@ public class SimpleMain {
         return allocations;
     }
     
-    private static int runZeroGCDemo(int orderCount, boolean withGCPressure) {
+    static int runZeroGCDemo(int orderCount, boolean withGCPressure, LatencyHistogram latencies) {
+        return runZeroGCDemo(new OrderPathState(), orderCount, withGCPressure, latencies);
+    }
+    
+    // Runs against the state's books, pool and metrics, continuing its order ids so they can
+    // be reused across runs
+    static int runZeroGCDemo(OrderPathState state, int orderCount, boolean withGCPressure,
+                             LatencyHistogram latencies) {
         if (withGCPressure) {
             System.out.println("Processing " + orderCount + " orders with object reuse...");
         }
         
-        // Create a pool of reusable order objects
-        OrderSimulation[] orderPool = new OrderSimulation[20];
-        for (int i = 0; i < orderPool.length; i++) {
-            orderPool[i] = new OrderSimulation("");
-        }
+        // Symbols are resolved to dense ids and the order pool is built once, outside the order loop
+        int[] symbolIds = state.symbolIds;
+        OrderMetrics[] metricsBySymbol = state.metricsBySymbol;
+        OrderSimulation[] orderPool = state.orderPool;
+        MatchingEngine engine = state.engine;
+        int firstOrderId = state.nextOrderId;
+        state.nextOrderId += orderCount;
         
-        int allocations = orderPool.length;
-        Map<String, OrderMetrics> metricsCache = new HashMap<>(1000);
+        int allocations = orderPool.length + metricsBySymbol.length;
+        int progressStep = Math.max(1, orderCount / 4);
+        int i = 0;
         
-        for (int i = 0; i < orderCount; i++) {
-            // Reuse an order from the pool
-            OrderSimulation order = orderPool[i % orderPool.length];
-            order.reset("ORDER-" + i, 100.0 + (i % 10), 100 + (i % 50));
-            order.setTimestamp(System.nanoTime());
-            
-            // Process the order
-            processOrder(order);
+        while (i < orderCount) {
+            int end = Math.min(orderCount, i + progressStep);
+            long allocatedBefore = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
             
-            // Update metrics using a pre-allocated cache
-            String symbol = "SYM" + (i % 10);
-            OrderMetrics metrics = metricsCache.get(symbol);
-            if (metrics == null) {
-                metrics = new OrderMetrics(symbol);
-                metricsCache.put(symbol, metrics);
-                allocations++;
+            for (; i < end; i++) {
+                long orderStart = System.nanoTime();
+                
+                // Reuse an order from the pool
+                int orderId = firstOrderId + i;
+                OrderSimulation order = orderPool[orderId % orderPool.length];
+                order.reset(orderId, symbolIds[orderId % SYMBOL_COUNT], sideOf(orderId), orderPrice(orderId),
+                        100 + (orderId % 50));
+                order.setTimestamp(System.nanoTime());
+                
+                // Process the order
+                processOrder(order, engine);
+                
+                // Update metrics in a plain array indexed by symbol id
+                metricsBySymbol[order.getSymbolId()].updateWith(order);
+                latencies.recordValue(System.nanoTime() - orderStart);
             }
-            metrics.updateWith(order);
             
-            // Log progress
-            if (withGCPressure && i % (orderCount / 4) == 0 && i > 0) {
+            zeroGCAllocatedBytes += THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            
+            // Log progress outside the measured section
+            if (withGCPressure && i < orderCount) {
                 System.out.println("  Processed " + i + " orders");
             }
         }
+        zeroGCMeasuredOrders += orderCount;
         
         if (withGCPressure) {
             System.out.println("Total objects allocated: " + allocations);
@@ -222,85 +2092,89 @@ public class SimpleMain {
         return allocations;
     }
     
-    private static void processOrder(OrderSimulation order) {
-        // Simulate processing work
-        double value = order.getPrice() * order.getQuantity();
-        double fee = value * 0.0001;
-        
-        double totalValue = 0;
-        for (int i = 0; i < 100; i++) {
-            totalValue += (value + fee) * (1 + Math.sin(i * 0.01) * 0.0001);
-        }
+    static void processOrder(OrderSimulation order, MatchingEngine engine) {
+        processOrder(order, engine, RESTING_ORDER_LIFETIME);
+    }
+    
+    static void processOrder(OrderSimulation order, MatchingEngine engine, int restingOrderLifetime) {
+        // Match against the book, the fills are recorded on the order
+        engine.submit(order);
         
-        order.setExecutedValue(totalValue);
+        // Cancel the order placed restingOrderLifetime orders ago if it is still resting;
+        // with the simulated flow it trades the same symbol
+        engine.cancel(order.getSymbolId(), order.getId() - restingOrderLifetime);
     }
     
-    private static void printSummary() {
+    private static void printSummary(GcTelemetry telemetry) {
         System.out.println("\nAbout zero-GC techniques in trading systems:");
         System.out.println("1. Object pooling and reuse reduces allocation pressure");
         System.out.println("2. Pre-sized collections avoid resize/rehash operations");
         System.out.println("3. Mutable objects allow state updates without new allocations");
         System.out.println("4. ZGC tuning minimizes pause times for better tail latencies");
         System.out.println("5. Direct ByteBuffers can be used for off-heap data storage");
-        System.out.println("\nIn production high-frequency trading systems:");
-        System.out.println("- Standard mode suffers from GC pauses under sustained load");
-        System.out.println("- ZeroGC mode provides more consistent performance");
-        System.out.println("- The 99.9th percentile latency differences are significant");
-    }
-    
-    // Order simulation class
-    private static class OrderSimulation {
-        private String id;
-        private double price;
-        private int quantity;
-        private double executedValue;
-        private long timestamp;
-        
-        public OrderSimulation(String id) {
-            this.id = id;
-        }
-        
-        public void reset(String id, double price, int quantity) {
-            this.id = id;
-            this.price = price;
-            this.quantity = quantity;
-            this.executedValue = 0.0;
-        }
-        
-        // Getters and setters
-        public void setId(String id) { this.id = id; }
-        public String getId() { return id; }
-        public void setPrice(double price) { this.price = price; }
-        public double getPrice() { return price; }
-        public void setQuantity(int quantity) { this.quantity = quantity; }
-        public int getQuantity() { return quantity; }
-        public void setExecutedValue(double value) { this.executedValue = value; }
-        public double getExecutedValue() { return executedValue; }
-        public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
-        public long getTimestamp() { return timestamp; }
-    }
-    
-    // Metrics tracking class
-    private static class OrderMetrics {
-        private final String symbol;
-        private int count;
-        private double totalValue;
-        private double minPrice;
-        private double maxPrice;
-        
-        public OrderMetrics(String symbol) {
-            this.symbol = symbol;
-            this.count = 0;
-            this.totalValue = 0;
-            this.minPrice = Double.MAX_VALUE;
-            this.maxPrice = Double.MIN_VALUE;
-        }
-        
-        public void updateWith(OrderSimulation order) {
-            count++;
-            totalValue += order.getExecutedValue();
-            minPrice = Math.min(minPrice, order.getPrice());
-            maxPrice = Math.max(maxPrice, order.getPrice());
+        
+        long collections = 0;
+        long pauseTotalNanos = 0;
+        long pauseMaxNanos = 0;
+        for (GcTelemetry.IterationSample sample : telemetry.getSamples()) {
+            collections += sample.getCollectionCount();
+            pauseTotalNanos += sample.getPauseTotalNanos();
+            pauseMaxNanos = Math.max(pauseMaxNanos, sample.getPauseMaxNanos());
+        }
+        System.out.println("\nMeasured during this run:");
+        System.out.println("- Garbage collections: " + collections);
+        if (telemetry.isJfrAvailable()) {
+            System.out.printf("- GC pause time: %.3f ms total, %.3f ms longest%n",
+                    pauseTotalNanos / 1_000_000.0, pauseMaxNanos / 1_000_000.0);
+        }
+        System.out.println("- Compare these and the p99.9+ latencies against the other mode;");
+        System.out.println("  tail latency spikes that line up with GC pauses are collector hiccups");
+    }
+    
+    /**
+     * One partition of the sharded mode: every symbol whose number is congruent to the shard
+     * index, with their books and metrics. All of it is built and used by the shard's own
+     * pinned thread, so shards share nothing and take no locks.
+     */
+    private static final class Shard implements Runnable {
+        private final int index;
+        private final int shardCount;
+        private final CountDownLatch ready;
+        private final CountDownLatch start;
+        
+        Shard(int index, int shardCount, CountDownLatch ready, CountDownLatch start) {
+            this.index = index;
+            this.shardCount = shardCount;
+            this.ready = ready;
+            this.start = start;
+        }
+        
+        @Override
+        public void run() {
+            // Built on the shard's pinned thread, so its memory is local to that CPU
+            SymbolDictionary symbols = new SymbolDictionary(SHARDED_SYMBOL_COUNT);
+            for (int s = index; s < SHARDED_SYMBOL_COUNT; s += shardCount) {
+                symbols.register("SYM" + s, TICK_SIZES[s % TICK_SIZES.length]);
+            }
+            int symbolCount = symbols.size();
+            MatchingEngine engine = new MatchingEngine(symbols, MIN_PRICE, MAX_PRICE, ORDERS_PER_BOOK, TradeListener.NONE);
+            OrderMetrics[] metricsBySymbol = createMetrics(symbols);
+            OrderSimulation order = new OrderSimulation();
+            // Orders rest as long per book as in the single-threaded modes
+            int restingOrderLifetime = RESTING_ORDER_LIFETIME / SYMBOL_COUNT * symbolCount;
+            
+            ready.countDown();
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (int i = 0; i < ORDERS_PER_SHARD; i++) {
+                order.reset(i, i % symbolCount, sideOf(i, symbolCount), orderPrice(i, symbolCount), 100 + (i % 50));
+                processOrder(order, engine, restingOrderLifetime);
+                metricsBySymbol[order.getSymbolId()].updateWith(order);
+            }
         }
     }
     
@@ -0,0 +1,76 @@
+package com.trading.affinity;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pins the calling thread to a CPU.
+ * <p>
+ * The JDK has no affinity API, so implementations go through the operating system:
+ * {@link TasksetAffinityProvider} runs Linux {@code taskset} on the thread's native id, and
+ * {@link NoAffinityProvider} leaves scheduling to the OS. A JNI or FFM based library such as
+ * OpenHFT's Java-Thread-Affinity can be plugged in by implementing this interface and naming
+ * the class in the {@value #PROVIDER_PROPERTY} system property.
+ * <p>
+ * Pinning is done once when a thread starts, never on the hot path.
+ */
+public interface AffinityProvider {
+
+    String PROVIDER_PROPERTY = "affinity.provider";
+
+    /**
+     * Restrict the calling thread to one CPU.
+     *
+     * @return Whether the thread is now pinned
+     */
+    boolean pin(int cpu);
+
+    /**
+     * @return The CPU the calling thread last ran on, or -1 if it cannot be determined
+     */
+    default int currentCpu() {
+        return -1;
+    }
+
+    String name();
+
+    /**
+     * Choose a provider from the {@value #PROVIDER_PROPERTY} system property: {@code none},
+     * {@code taskset}, or the class name of an implementation with a no-argument constructor.
+     * Without the property, taskset is used where it is available.
+     */
+    static AffinityProvider fromSystemProperty() {
+        String configured = System.getProperty(PROVIDER_PROPERTY);
+        if (configured == null) {
+            return TasksetAffinityProvider.isAvailable() ? new TasksetAffinityProvider() : new NoAffinityProvider();
+        }
+        return switch (configured) {
+            case "none" -> new NoAffinityProvider();
+            case "taskset" -> new TasksetAffinityProvider();
+            default -> {
+                try {
+                    yield (AffinityProvider) Class.forName(configured).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("Cannot create affinity provider " + configured, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Read the CPU the calling thread last ran on from {@code /proc/thread-self/stat}.
+     *
+     * @return The CPU number, or -1 if not on Linux
+     */
+    static int procCurrentCpu() {
+        try {
+            String stat = Files.readString(Path.of("/proc/thread-self/stat"));
+            // The command name in parentheses may contain spaces, so count fields after it
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            // Field 39 "processor", the state after the command name is field 3
+            return Integer.parseInt(fields[39 - 3]);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.trading.affinity;
+
+/**
+ * Leaves threads unpinned, for platforms without an affinity mechanism or runs that should
+ * measure the default scheduler.
+ */
+public class NoAffinityProvider implements AffinityProvider {
+
+    @Override
+    public boolean pin(int cpu) {
+        return false;
+    }
+
+    @Override
+    public int currentCpu() {
+        return AffinityProvider.procCurrentCpu();
+    }
+
+    @Override
+    public String name() {
+        return "none";
+    }
+}
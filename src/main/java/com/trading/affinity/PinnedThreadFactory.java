@@ -0,0 +1,109 @@
+package com.trading.affinity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates threads that pin themselves to the next CPU in a list before running their task,
+ * cycling through the list when there are more threads than CPUs.
+ * <p>
+ * Pinning happens on the new thread itself, since providers pin the calling thread. A
+ * thread that cannot be pinned still runs, unpinned; {@link #getPinnedThreads()} tells how
+ * many were pinned.
+ */
+public class PinnedThreadFactory implements ThreadFactory {
+
+    private static final Path PROC_SELF_STATUS = Path.of("/proc/self/status");
+    private static final String CPUS_ALLOWED_LIST = "Cpus_allowed_list:";
+
+    private final AffinityProvider provider;
+    private final int[] cpus;
+    private final String namePrefix;
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger pinned = new AtomicInteger();
+
+    public PinnedThreadFactory(AffinityProvider provider, int[] cpus, String namePrefix) {
+        if (cpus.length == 0) {
+            throw new IllegalArgumentException("At least one CPU is required");
+        }
+        this.provider = provider;
+        this.cpus = cpus.clone();
+        this.namePrefix = namePrefix;
+    }
+
+    /**
+     * The CPUs this process may run on, from {@code Cpus_allowed_list} in
+     * {@code /proc/self/status}, so pinning stays inside a {@code taskset} or cgroup cpuset
+     * the process was started with. Elsewhere, CPUs {@code 0} to
+     * {@code availableProcessors() - 1}.
+     *
+     * @return CPU numbers in ascending order
+     */
+    public static int[] allowedCpus() {
+        try {
+            for (String line : Files.readAllLines(PROC_SELF_STATUS)) {
+                if (line.startsWith(CPUS_ALLOWED_LIST)) {
+                    int[] cpus = parseCpuList(line.substring(CPUS_ALLOWED_LIST.length()).trim());
+                    if (cpus.length > 0) {
+                        return cpus;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux, or a format this does not understand
+        }
+        int count = Runtime.getRuntime().availableProcessors();
+        int[] cpus = new int[count];
+        for (int i = 0; i < count; i++) {
+            cpus[i] = i;
+        }
+        return cpus;
+    }
+
+    /**
+     * @param list A kernel CPU list such as {@code 0-3,8,10-11}
+     */
+    static int[] parseCpuList(String list) {
+        int count = 0;
+        int[] cpus = new int[16];
+        for (String range : list.split(",")) {
+            if (range.isEmpty()) {
+                continue;
+            }
+            int dash = range.indexOf('-');
+            int first = Integer.parseInt(dash < 0 ? range : range.substring(0, dash));
+            int last = dash < 0 ? first : Integer.parseInt(range.substring(dash + 1));
+            for (int cpu = first; cpu <= last; cpu++) {
+                if (count == cpus.length) {
+                    cpus = Arrays.copyOf(cpus, count * 2);
+                }
+                cpus[count++] = cpu;
+            }
+        }
+        return Arrays.copyOf(cpus, count);
+    }
+
+    @Override
+    public Thread newThread(Runnable task) {
+        int index = created.getAndIncrement();
+        int cpu = cpus[index % cpus.length];
+        return new Thread(() -> {
+            if (provider.pin(cpu)) {
+                pinned.incrementAndGet();
+            }
+            task.run();
+        }, namePrefix + index);
+    }
+
+    public int getPinnedThreads() {
+        return pinned.get();
+    }
+
+    public AffinityProvider getProvider() {
+        return provider;
+    }
+}
@@ -0,0 +1,66 @@
+package com.trading.affinity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pins threads on Linux by running {@code taskset -p -c <cpu> <tid>}, which calls
+ * {@code sched_setaffinity} on the thread's native id.
+ * <p>
+ * Java does not expose the native thread id, so it is read from the
+ * {@code /proc/thread-self} link, which resolves to {@code <pid>/task/<tid>} for the calling
+ * thread. Starting a process costs milliseconds, which is acceptable once per worker thread.
+ */
+public class TasksetAffinityProvider implements AffinityProvider {
+
+    private static final Path THREAD_SELF = Path.of("/proc/thread-self");
+    private static final String TASKSET = "taskset";
+
+    @Override
+    public boolean pin(int cpu) {
+        try {
+            String tid = Files.readSymbolicLink(THREAD_SELF).getFileName().toString();
+            Process taskset = new ProcessBuilder(TASKSET, "-p", "-c", Integer.toString(cpu), tid)
+                    .redirectErrorStream(true)
+                    .start();
+            taskset.getInputStream().transferTo(OutputStream.nullOutputStream());
+            return taskset.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public int currentCpu() {
+        return AffinityProvider.procCurrentCpu();
+    }
+
+    @Override
+    public String name() {
+        return "taskset";
+    }
+
+    /**
+     * @return Whether this is Linux with {@code /proc/thread-self} and a working taskset
+     */
+    public static boolean isAvailable() {
+        if (!Files.isSymbolicLink(THREAD_SELF)) {
+            return false;
+        }
+        try {
+            Process taskset = new ProcessBuilder(TASKSET, "--version").redirectErrorStream(true).start();
+            taskset.getInputStream().transferTo(OutputStream.nullOutputStream());
+            return taskset.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Thread-to-CPU pinning for the router's worker threads.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>AffinityProvider - Pluggable hook that pins the calling thread, chosen by system property</li>
+ *   <li>TasksetAffinityProvider - Linux pinning through {@code taskset} on the native thread id</li>
+ *   <li>NoAffinityProvider - Leaves threads to the OS scheduler</li>
+ *   <li>PinnedThreadFactory - Threads that pin themselves to a CPU before running</li>
+ * </ul>
+ * <p>
+ * These classes have no external dependencies and are used by SimpleMain's sharded mode.
+ */
+package com.trading.affinity;
@@ -0,0 +1,39 @@
+package com.trading.analytics;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregates a row range of {@link OrderColumns}, splitting it in half until a range is
+ * small enough to scan directly, then merging the two halves' partials.
+ */
+@SuppressWarnings("serial") // Serializable only through ForkJoinTask; tasks are never serialized
+class AggregationTask extends RecursiveTask<SymbolAggregates> {
+
+    private final transient OrderColumns orders;
+    private final int from;
+    private final int to;
+    private final int symbolCapacity;
+    private final int splitThreshold;
+
+    AggregationTask(OrderColumns orders, int from, int to, int symbolCapacity, int splitThreshold) {
+        this.orders = orders;
+        this.from = from;
+        this.to = to;
+        this.symbolCapacity = symbolCapacity;
+        this.splitThreshold = splitThreshold;
+    }
+
+    @Override
+    protected SymbolAggregates compute() {
+        if (to - from <= splitThreshold) {
+            return ParallelAggregator.scan(orders, from, to, new SymbolAggregates(symbolCapacity));
+        }
+        int middle = (from + to) >>> 1;
+        AggregationTask left = new AggregationTask(orders, from, middle, symbolCapacity, splitThreshold);
+        AggregationTask right = new AggregationTask(orders, middle, to, symbolCapacity, splitThreshold);
+        left.fork();
+        SymbolAggregates aggregates = right.compute();
+        aggregates.merge(left.join());
+        return aggregates;
+    }
+}
@@ -0,0 +1,39 @@
+package com.trading.analytics;
+
+/**
+ * A large set of historical orders held as primitive columns, one entry per order.
+ * <p>
+ * Symbols are dense ids from {@code SymbolDictionary} and prices are fixed-point
+ * ({@code com.trading.model.Price}). At 16 bytes per order a day of a few hundred million
+ * orders fits in a few GB with no per-order object headers, and splits of the row range can
+ * be scanned in parallel without copying.
+ * <p>
+ * Rows are appended from a single thread while loading; once loaded the columns are only
+ * read, so any number of threads may scan them.
+ */
+public class OrderColumns {
+
+    private final int[] symbolIds;
+    private final long[] prices;
+    private final int[] quantities;
+    private int size;
+
+    public OrderColumns(int capacity) {
+        this.symbolIds = new int[capacity];
+        this.prices = new long[capacity];
+        this.quantities = new int[capacity];
+    }
+
+    public void add(int symbolId, long price, int quantity) {
+        symbolIds[size] = symbolId;
+        prices[size] = price;
+        quantities[size] = quantity;
+        size++;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return symbolIds.length; }
+    public int symbolId(int row) { return symbolIds[row]; }
+    public long price(int row) { return prices[row]; }
+    public int quantity(int row) { return quantities[row]; }
+}
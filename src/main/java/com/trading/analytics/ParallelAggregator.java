@@ -0,0 +1,56 @@
+package com.trading.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes {@link SymbolAggregates} over {@link OrderColumns} on a fork-join pool.
+ * <p>
+ * The row range is split recursively down to {@code splitThreshold} rows; each leaf scans
+ * its rows into its own partial, with no sharing and no locks, and partials are merged on
+ * the way back up. Only one partial per leaf is allocated, so memory is proportional to the
+ * number of splits times the number of symbols, not to the number of orders. Throughput
+ * scales with the pool's parallelism until memory bandwidth runs out.
+ */
+public class ParallelAggregator {
+
+    // Large enough that a leaf's scan dwarfs the cost of forking and merging it
+    public static final int DEFAULT_SPLIT_THRESHOLD = 1 << 18;
+
+    private final ForkJoinPool pool;
+    private final int symbolCapacity;
+    private final int splitThreshold;
+
+    public ParallelAggregator(ForkJoinPool pool, int symbolCapacity) {
+        this(pool, symbolCapacity, DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    public ParallelAggregator(ForkJoinPool pool, int symbolCapacity, int splitThreshold) {
+        if (splitThreshold <= 0) {
+            throw new IllegalArgumentException("Split threshold must be positive: " + splitThreshold);
+        }
+        this.pool = pool;
+        this.symbolCapacity = symbolCapacity;
+        this.splitThreshold = splitThreshold;
+    }
+
+    /**
+     * Aggregate every order in parallel, blocking until done.
+     */
+    public SymbolAggregates aggregate(OrderColumns orders) {
+        return pool.invoke(new AggregationTask(orders, 0, orders.size(), symbolCapacity, splitThreshold));
+    }
+
+    /**
+     * Aggregate every order on the calling thread, for comparison.
+     */
+    public SymbolAggregates aggregateSerial(OrderColumns orders) {
+        return scan(orders, 0, orders.size(), new SymbolAggregates(symbolCapacity));
+    }
+
+    static SymbolAggregates scan(OrderColumns orders, int from, int to, SymbolAggregates aggregates) {
+        for (int row = from; row < to; row++) {
+            aggregates.add(orders.symbolId(row), orders.price(row), orders.quantity(row));
+        }
+        return aggregates;
+    }
+}
@@ -0,0 +1,118 @@
+package com.trading.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable per-symbol aggregates over a set of orders: count, quantity, notional, VWAP,
+ * price range and price variance.
+ * <p>
+ * Each aggregate is kept in a primitive array indexed by symbol id. Count, quantity,
+ * notional and the range are exact and merge by adding or comparing. The variance is kept
+ * as a running mean and sum of squared deviations (Welford), which stays accurate for large
+ * counts, and partials merge with the pairwise formula of Chan et al. So the aggregates of
+ * disjoint splits merged in any order equal the aggregates of the whole set, up to
+ * floating-point rounding in the variance.
+ * <p>
+ * Unlike {@code com.trading.model.OrderMetrics} this is not one object per symbol in a map,
+ * and a single instance covers every symbol.
+ * <p>
+ * Instances are not thread-safe; each split builds its own and they are merged afterwards.
+ */
+public class SymbolAggregates {
+
+    private final long[] counts;
+    private final long[] quantities;
+    private final long[] notionals;
+    private final long[] minPrices;
+    private final long[] maxPrices;
+    private final double[] meanPrices;
+    private final double[] squaredDeviations;
+
+    public SymbolAggregates(int symbolCapacity) {
+        this.counts = new long[symbolCapacity];
+        this.quantities = new long[symbolCapacity];
+        this.notionals = new long[symbolCapacity];
+        this.minPrices = new long[symbolCapacity];
+        this.maxPrices = new long[symbolCapacity];
+        this.meanPrices = new double[symbolCapacity];
+        this.squaredDeviations = new double[symbolCapacity];
+        Arrays.fill(minPrices, Long.MAX_VALUE);
+        Arrays.fill(maxPrices, Long.MIN_VALUE);
+    }
+
+    /**
+     * Add one order.
+     *
+     * @param price Fixed-point price
+     */
+    public void add(int symbolId, long price, long quantity) {
+        long count = ++counts[symbolId];
+        quantities[symbolId] += quantity;
+        notionals[symbolId] += price * quantity;
+        minPrices[symbolId] = Math.min(minPrices[symbolId], price);
+        maxPrices[symbolId] = Math.max(maxPrices[symbolId], price);
+        double delta = price - meanPrices[symbolId];
+        meanPrices[symbolId] += delta / count;
+        squaredDeviations[symbolId] += delta * (price - meanPrices[symbolId]);
+    }
+
+    /**
+     * Add the aggregates of a disjoint set of orders into this one.
+     */
+    public void merge(SymbolAggregates other) {
+        int symbolCount = Math.min(counts.length, other.counts.length);
+        for (int id = 0; id < symbolCount; id++) {
+            long otherCount = other.counts[id];
+            if (otherCount == 0) {
+                continue;
+            }
+            long count = counts[id];
+            long total = count + otherCount;
+            double delta = other.meanPrices[id] - meanPrices[id];
+            meanPrices[id] += delta * otherCount / total;
+            squaredDeviations[id] += other.squaredDeviations[id] + delta * delta * count * otherCount / total;
+            counts[id] = total;
+            quantities[id] += other.quantities[id];
+            notionals[id] += other.notionals[id];
+            minPrices[id] = Math.min(minPrices[id], other.minPrices[id]);
+            maxPrices[id] = Math.max(maxPrices[id], other.maxPrices[id]);
+        }
+    }
+
+    public long count(int symbolId) { return counts[symbolId]; }
+    public long quantity(int symbolId) { return quantities[symbolId]; }
+
+    /**
+     * @return Sum of price times quantity, as a fixed-point value
+     */
+    public long notional(int symbolId) { return notionals[symbolId]; }
+
+    /**
+     * @return Lowest price, {@code Long.MAX_VALUE} for a symbol without orders
+     */
+    public long minPrice(int symbolId) { return minPrices[symbolId]; }
+
+    /**
+     * @return Highest price, {@code Long.MIN_VALUE} for a symbol without orders
+     */
+    public long maxPrice(int symbolId) { return maxPrices[symbolId]; }
+
+    /**
+     * @return Volume-weighted average price as a fixed-point price, rounded down, or zero for
+     *         a symbol without quantity
+     */
+    public long vwap(int symbolId) {
+        return quantities[symbolId] == 0 ? 0 : notionals[symbolId] / quantities[symbolId];
+    }
+
+    /**
+     * @return Population variance of the order prices, in fixed-point units squared
+     */
+    public double priceVariance(int symbolId) {
+        return counts[symbolId] == 0 ? 0 : squaredDeviations[symbolId] / counts[symbolId];
+    }
+
+    public int symbolCapacity() {
+        return counts.length;
+    }
+}
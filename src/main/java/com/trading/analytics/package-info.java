@@ -0,0 +1,14 @@
+/**
+ * Parallel aggregation of per-symbol order metrics over large historical order sets, for
+ * end-of-day and intraday risk reports.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>OrderColumns - Historical orders as primitive symbol, price and quantity columns</li>
+ *   <li>SymbolAggregates - Mergeable count, notional, VWAP, range and variance per symbol</li>
+ *   <li>ParallelAggregator - Splits the rows across a fork-join pool and merges the partials</li>
+ * </ul>
+ * <p>
+ * These classes have no external dependencies and are used by SimpleMain's aggregate mode.
+ */
+package com.trading.analytics;
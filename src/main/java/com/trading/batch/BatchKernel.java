@@ -0,0 +1,63 @@
+package com.trading.batch;
+
+/**
+ * Values a whole {@link OrderBatch}: the notional and fee of every order, and the batch's
+ * total value, total fees and price range.
+ * <p>
+ * Fees are a per-unit fee for each symbol, as a price indexed by the dense symbol id from
+ * {@code SymbolDictionary}. The schedule is invariant across batches, so it is computed once
+ * by the caller and only looked up here.
+ * <ul>
+ *   <li>{@link ScalarBatchKernel} - Plain counted loops over the columns, works everywhere</li>
+ *   <li>{@link VectorBatchKernel} - Explicit SIMD through the incubating Vector API</li>
+ * </ul>
+ * The Vector API lives in the {@code jdk.incubator.vector} module, which is only resolved
+ * when the JVM is started with {@code --add-modules jdk.incubator.vector}, so the vector
+ * kernel is only created by name and {@link #fromName(String)} falls back to the scalar one
+ * without it.
+ */
+public interface BatchKernel {
+
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Fill the batch's value and fee columns and its totals.
+     *
+     * @param feesPerUnit Fee per unit traded for each symbol id, as a price
+     */
+    void value(OrderBatch batch, long[] feesPerUnit);
+
+    String name();
+
+    /**
+     * @return Whether the Vector API module is resolved in this JVM
+     */
+    static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Create a kernel from its name: {@code scalar}, {@code vector}, or {@code auto} for the
+     * vector kernel where the Vector API is available and the scalar one otherwise.
+     */
+    static BatchKernel fromName(String name) {
+        return switch (name) {
+            case "scalar" -> new ScalarBatchKernel();
+            case "vector" -> {
+                if (!isVectorAvailable()) {
+                    throw new IllegalStateException("The vector kernel needs --add-modules " + VECTOR_MODULE);
+                }
+                try {
+                    // By name, so this interface loads without the incubator module
+                    yield (BatchKernel) Class.forName("com.trading.batch.VectorBatchKernel")
+                            .getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create the vector kernel", e);
+                }
+            }
+            case "auto" -> fromName(isVectorAvailable() ? "vector" : "scalar");
+            default -> throw new IllegalArgumentException(
+                    "Unknown batch kernel: " + name + ". Please use 'scalar', 'vector' or 'auto'");
+        };
+    }
+}
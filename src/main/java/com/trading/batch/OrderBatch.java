@@ -0,0 +1,93 @@
+package com.trading.batch;
+
+import com.trading.model.OrderSimulation;
+
+/**
+ * A batch of orders held column by column (struct of arrays) rather than as one object per
+ * order, so a {@link BatchKernel} can stream each column through SIMD registers.
+ * <p>
+ * Ingress appends orders with {@link #add}; a kernel then fills the value and fee columns
+ * and the batch totals in one pass. Prices, values and fees are fixed-point
+ * ({@code com.trading.model.Price}) and quantities are {@code long}s, so every numeric column
+ * has the same lane width. The columns are sized once, so filling and valuing a batch never
+ * allocates.
+ */
+public class OrderBatch {
+
+    final int[] symbolIds;
+    final long[] prices;
+    final long[] quantities;
+    final long[] values;
+    final long[] fees;
+    int size;
+
+    long totalValue;
+    long totalFees;
+    long minPrice;
+    long maxPrice;
+
+    public OrderBatch(int capacity) {
+        this.symbolIds = new int[capacity];
+        this.prices = new long[capacity];
+        this.quantities = new long[capacity];
+        this.values = new long[capacity];
+        this.fees = new long[capacity];
+    }
+
+    /**
+     * Append one order.
+     *
+     * @return Whether the batch is now full
+     */
+    public boolean add(int symbolId, long price, long quantity) {
+        symbolIds[size] = symbolId;
+        prices[size] = price;
+        quantities[size] = quantity;
+        return ++size == symbolIds.length;
+    }
+
+    /**
+     * Append the symbol, price and quantity of an order.
+     *
+     * @return Whether the batch is now full
+     */
+    public boolean add(OrderSimulation order) {
+        return add(order.getSymbolId(), order.getPrice(), order.getQuantity());
+    }
+
+    /**
+     * Empty the batch so the next orders can be added; the columns are kept.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return symbolIds.length; }
+    public int symbolId(int index) { return symbolIds[index]; }
+    public long price(int index) { return prices[index]; }
+    public long quantity(int index) { return quantities[index]; }
+
+    /**
+     * @return Notional of the order, price times quantity, after the batch was valued
+     */
+    public long value(int index) { return values[index]; }
+
+    /**
+     * @return Fee of the order after the batch was valued
+     */
+    public long fee(int index) { return fees[index]; }
+
+    public long getTotalValue() { return totalValue; }
+    public long getTotalFees() { return totalFees; }
+
+    /**
+     * @return The lowest price in the valued batch, {@code Long.MAX_VALUE} if it was empty
+     */
+    public long getMinPrice() { return minPrice; }
+
+    /**
+     * @return The highest price in the valued batch, {@code Long.MIN_VALUE} if it was empty
+     */
+    public long getMaxPrice() { return maxPrice; }
+}
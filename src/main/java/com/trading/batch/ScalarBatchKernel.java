@@ -0,0 +1,47 @@
+package com.trading.batch;
+
+/**
+ * Values a batch with plain loops over the columns.
+ * <p>
+ * The notional and fee loop has no branches and no cross-iteration dependencies other than
+ * the sums, so C2 can often auto-vectorize it; the price range is kept in its own loop so a
+ * min/max reduction does not stop that.
+ */
+public class ScalarBatchKernel implements BatchKernel {
+
+    @Override
+    public void value(OrderBatch batch, long[] feesPerUnit) {
+        int size = batch.size;
+        int[] symbolIds = batch.symbolIds;
+        long[] prices = batch.prices;
+        long[] quantities = batch.quantities;
+        long[] values = batch.values;
+        long[] fees = batch.fees;
+
+        long totalValue = 0;
+        long totalFees = 0;
+        for (int i = 0; i < size; i++) {
+            long value = prices[i] * quantities[i];
+            long fee = feesPerUnit[symbolIds[i]] * quantities[i];
+            values[i] = value;
+            fees[i] = fee;
+            totalValue += value;
+            totalFees += fee;
+        }
+        long minPrice = Long.MAX_VALUE;
+        long maxPrice = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minPrice = Math.min(minPrice, prices[i]);
+            maxPrice = Math.max(maxPrice, prices[i]);
+        }
+        batch.totalValue = totalValue;
+        batch.totalFees = totalFees;
+        batch.minPrice = minPrice;
+        batch.maxPrice = maxPrice;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
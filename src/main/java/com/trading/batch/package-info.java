@@ -0,0 +1,15 @@
+/**
+ * Batch valuation of orders held as columns, with a scalar and a Vector API kernel.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>OrderBatch - Orders as primitive symbol, price, quantity, value and fee columns</li>
+ *   <li>BatchKernel - Values a whole batch; chooses a kernel by name</li>
+ *   <li>ScalarBatchKernel - Plain loops, the fallback everywhere</li>
+ *   <li>VectorBatchKernel - SIMD through {@code jdk.incubator.vector}</li>
+ * </ul>
+ * <p>
+ * Only VectorBatchKernel needs {@code --add-modules jdk.incubator.vector}; everything else
+ * loads without it. Valuing a batch never allocates.
+ */
+package com.trading.batch;
@@ -1,86 +1,248 @@
 package com.trading.benchmark;
 
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.model.SymbolDictionary;
+
 import java.nio.ByteBuffer;
 
 /**
- * Demonstrates using DirectByteBuffer for off-heap memory access.
- * This is another zero-GC technique for handling large data without GC pressure.
+ * Off-heap order store built on DirectByteBuffers.
+ * <p>
+ * Resting-order state lives outside the Java heap, so the old generation (and with it the
+ * cost of every full or mixed collection) stays flat no matter how many orders are live.
+ * Orders are fixed-size, 8-byte aligned records addressed by slot number and accessed
+ * through an {@link OrderFlyweight} with absolute-index {@code getLong/putInt(index, ...)}
+ * calls, so the shared buffer {@code position()} is never touched. Prices are stored as
+ * fixed-point {@code com.trading.model.Price} longs.
+ * <p>
+ * Storage is split into chunks of {@value #SLOTS_PER_CHUNK} records that are allocated as
+ * the store grows, which keeps every chunk well inside the 2GB ByteBuffer limit and lets
+ * the store hold tens of millions of live orders. Freed slots are linked into an intrusive
+ * free list kept in the records themselves and are reused before the store grows.
+ * <p>
+ * Thread safety: slot allocation and release must be done by a single owning thread.
+ * Record accessors are position-independent, so any number of threads can read or write
+ * distinct records concurrently, each with its own flyweight.
  */
 public class DirectBufferDemo {
-    
-    // A simple order structure in binary format
-    // orderId(8) + symbol(4) + type(1) + price(8) + quantity(4) + clientId(4) = 29 bytes
-    private static final int ORDER_SIZE = 29;  
-    
-    private final ByteBuffer buffer;
+
+    // Order record layout, every field naturally aligned:
+    // orderId(8) + price(8) + symbol(8) + quantity(4) + clientId(4) + type(1) + state(1) + side(1) + padding(5) = 40 bytes
+    public static final int ORDER_SIZE = 40;
+    public static final int ORDER_ID_OFFSET = 0;
+    public static final int PRICE_OFFSET = 8;
+    public static final int SYMBOL_OFFSET = 16;
+    public static final int QUANTITY_OFFSET = 24;
+    public static final int CLIENT_OFFSET = 28;
+    public static final int TYPE_OFFSET = 32;
+    public static final int STATE_OFFSET = 33;
+    public static final int SIDE_OFFSET = 34;
+
+    public static final int NO_SLOT = -1;
+
+    private static final byte STATE_FREE = 0;
+    private static final byte STATE_LIVE = 1;
+
+    // 1M records (40MB) per direct buffer
+    private static final int CHUNK_SHIFT = 20;
+    private static final int SLOTS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = SLOTS_PER_CHUNK - 1;
+
+    private final ByteBuffer[] chunks;
     private final int capacity;
-    
+    private int highWaterMark;
+    private int freeListHead = NO_SLOT;
+    private int liveOrders;
+
     public DirectBufferDemo(int orderCapacity) {
+        if (orderCapacity <= 0) {
+            throw new IllegalArgumentException("Order capacity must be positive: " + orderCapacity);
+        }
         this.capacity = orderCapacity;
-        // Allocate direct buffer - this memory is off-heap
-        this.buffer = ByteBuffer.allocateDirect(ORDER_SIZE * orderCapacity);
-        System.out.println("Created direct buffer with capacity for " + orderCapacity + 
-                " orders (" + (ORDER_SIZE * orderCapacity) + " bytes)");
+        this.chunks = new ByteBuffer[(int) (((long) orderCapacity + SLOTS_PER_CHUNK - 1) >>> CHUNK_SHIFT)];
+        System.out.println("Created off-heap order store with capacity for " + orderCapacity +
+                " orders (up to " + ((long) ORDER_SIZE * orderCapacity) + " bytes)");
     }
-    
-    public void writeOrder(int index, long orderId, int symbolCode, byte type, 
-                           double price, int quantity, int clientCode) {
-        if (index >= capacity) {
-            throw new IndexOutOfBoundsException("Buffer index out of bounds: " + index);
+
+    /**
+     * Take a slot for a new order, reusing freed slots first.
+     *
+     * @return The slot number, or {@link #NO_SLOT} if the store is full
+     */
+    public int allocate() {
+        int slot = freeListHead;
+        if (slot != NO_SLOT) {
+            ByteBuffer chunk = chunks[slot >>> CHUNK_SHIFT];
+            freeListHead = (int) chunk.getLong(offsetOf(slot) + ORDER_ID_OFFSET);
+        } else {
+            if (highWaterMark == capacity) {
+                return NO_SLOT;
+            }
+            slot = highWaterMark++;
+            int chunkIndex = slot >>> CHUNK_SHIFT;
+            if (chunks[chunkIndex] == null) {
+                // Allocate direct buffer - this memory is off-heap
+                chunks[chunkIndex] = ByteBuffer.allocateDirect(ORDER_SIZE * Math.min(SLOTS_PER_CHUNK,
+                        capacity - (chunkIndex << CHUNK_SHIFT)));
+            }
         }
-        
-        int position = index * ORDER_SIZE;
-        buffer.position(position);
-        
-        // Write order data
-        buffer.putLong(orderId);
-        buffer.putInt(symbolCode);
-        buffer.put(type);
-        buffer.putDouble(price);
-        buffer.putInt(quantity);
-        buffer.putInt(clientCode);
+        chunks[slot >>> CHUNK_SHIFT].put(offsetOf(slot) + STATE_OFFSET, STATE_LIVE);
+        liveOrders++;
+        return slot;
+    }
+
+    /**
+     * Return a slot to the free list. The record's order id field is reused as the link.
+     */
+    public void free(int slot) {
+        ByteBuffer chunk = liveChunkFor(slot);
+        int offset = offsetOf(slot);
+        chunk.put(offset + STATE_OFFSET, STATE_FREE);
+        chunk.putLong(offset + ORDER_ID_OFFSET, freeListHead);
+        freeListHead = slot;
+        liveOrders--;
+    }
+
+    /**
+     * @param side {@link Side#code()} of the order
+     * @throws IllegalStateException If the slot is not live
+     */
+    public void writeOrder(int index, long orderId, long symbolCode, byte type, byte side,
+                           long price, int quantity, int clientCode) {
+        ByteBuffer chunk = liveChunkFor(index);
+        int offset = offsetOf(index);
+
+        // Write order data at absolute positions
+        chunk.putLong(offset + ORDER_ID_OFFSET, orderId);
+        chunk.putLong(offset + PRICE_OFFSET, price);
+        chunk.putLong(offset + SYMBOL_OFFSET, symbolCode);
+        chunk.putInt(offset + QUANTITY_OFFSET, quantity);
+        chunk.putInt(offset + CLIENT_OFFSET, clientCode);
+        chunk.put(offset + TYPE_OFFSET, type);
+        chunk.put(offset + SIDE_OFFSET, side);
+    }
+
+    /**
+     * Point a flyweight at the order in the given slot. Nothing is copied or allocated.
+     *
+     * @return The flyweight passed in, for chaining
+     * @throws IllegalStateException If the slot is not live
+     */
+    public OrderFlyweight readOrder(int index, OrderFlyweight flyweight) {
+        return flyweight.wrap(liveChunkFor(index), offsetOf(index));
+    }
+
+    public boolean isLive(int index) {
+        return chunkFor(index).get(offsetOf(index) + STATE_OFFSET) == STATE_LIVE;
+    }
+
+    public int liveOrders() {
+        return liveOrders;
+    }
+
+    public int capacity() {
+        return capacity;
     }
-    
-    public void readOrder(int index) {
-        if (index >= capacity) {
+
+    private ByteBuffer chunkFor(int index) {
+        if (index < 0 || index >= highWaterMark) {
             throw new IndexOutOfBoundsException("Buffer index out of bounds: " + index);
         }
-        
-        int position = index * ORDER_SIZE;
-        buffer.position(position);
-        
-        // Read order data
-        long orderId = buffer.getLong();
-        int symbolCode = buffer.getInt();
-        byte type = buffer.get();
-        double price = buffer.getDouble();
-        int quantity = buffer.getInt();
-        int clientCode = buffer.getInt();
-        
-        System.out.println("Read order - id: " + orderId + 
-                ", symbol: " + symbolCode + 
-                ", type: " + type + 
-                ", price: " + price + 
-                ", qty: " + quantity + 
-                ", client: " + clientCode);
+        return chunks[index >>> CHUNK_SHIFT];
+    }
+
+    // A free slot's order id field holds the free-list link, so it must never be exposed
+    private ByteBuffer liveChunkFor(int index) {
+        ByteBuffer chunk = chunkFor(index);
+        if (chunk.get(offsetOf(index) + STATE_OFFSET) != STATE_LIVE) {
+            throw new IllegalStateException("Slot is not live: " + index);
+        }
+        return chunk;
+    }
+
+    private static int offsetOf(int slot) {
+        return (slot & CHUNK_MASK) * ORDER_SIZE;
     }
-    
+
+    /**
+     * Reusable view of a single order record in any buffer that uses this layout.
+     * Wrap it once per record; the getters and setters read and write in place.
+     */
+    public static class OrderFlyweight {
+        private ByteBuffer buffer;
+        private int offset;
+
+        public OrderFlyweight wrap(ByteBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+
+        public long orderId() { return buffer.getLong(offset + ORDER_ID_OFFSET); }
+        public long price() { return buffer.getLong(offset + PRICE_OFFSET); }
+        public long symbolCode() { return buffer.getLong(offset + SYMBOL_OFFSET); }
+        public int quantity() { return buffer.getInt(offset + QUANTITY_OFFSET); }
+        public int clientCode() { return buffer.getInt(offset + CLIENT_OFFSET); }
+        public byte type() { return buffer.get(offset + TYPE_OFFSET); }
+        public byte side() { return buffer.get(offset + SIDE_OFFSET); }
+
+        public OrderFlyweight orderId(long orderId) { buffer.putLong(offset + ORDER_ID_OFFSET, orderId); return this; }
+        public OrderFlyweight price(long price) { buffer.putLong(offset + PRICE_OFFSET, price); return this; }
+        public OrderFlyweight symbolCode(long symbolCode) { buffer.putLong(offset + SYMBOL_OFFSET, symbolCode); return this; }
+        public OrderFlyweight quantity(int quantity) { buffer.putInt(offset + QUANTITY_OFFSET, quantity); return this; }
+        public OrderFlyweight clientCode(int clientCode) { buffer.putInt(offset + CLIENT_OFFSET, clientCode); return this; }
+        public OrderFlyweight type(byte type) { buffer.put(offset + TYPE_OFFSET, type); return this; }
+        public OrderFlyweight side(byte side) { buffer.put(offset + SIDE_OFFSET, side); return this; }
+
+        public ByteBuffer buffer() { return buffer; }
+        public int offset() { return offset; }
+    }
+
     public static void main(String[] args) {
-        // Create buffer for 1 million orders (~29MB)
-        DirectBufferDemo demo = new DirectBufferDemo(1_000_000);
-        
-        // Write some sample orders
-        for (int i = 0; i < 10; i++) {
-            // Use an int code to represent the symbol (e.g., first 4 bytes of ASCII)
-            int symbolCode = ('A' << 24) | ('A' << 16) | ('P' << 8) | 'L';
-            demo.writeOrder(i, 1000 + i, symbolCode, (byte)1, 150.0 + i, 100 + i, 42);
+        // Default to 10 million live orders (~400MB off-heap); large stores may need -XX:MaxDirectMemorySize
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        DirectBufferDemo store = new DirectBufferDemo(orderCount);
+        OrderFlyweight order = new OrderFlyweight();
+
+        // The symbol travels as its packed code, up to eight ASCII bytes
+        long symbolCode = SymbolDictionary.encode("AAPL");
+
+        long heapBefore = usedHeap();
+        for (int i = 0; i < orderCount; i++) {
+            int slot = store.allocate();
+            Side side = (i & 1) == 0 ? Side.BUY : Side.SELL;
+            store.writeOrder(slot, 1000 + i, symbolCode, (byte)1, side.code(),
+                    Price.of(150 + (i % 100)), 100 + (i % 50), 42);
         }
-        
-        // Read back a few orders
+        long heapAfter = usedHeap();
+        System.out.println("Stored " + store.liveOrders() + " live orders, heap grew by " +
+                ((heapAfter - heapBefore) / 1024) + " KB");
+
+        // Read back a few orders in place
         for (int i = 0; i < 5; i++) {
-            demo.readOrder(i);
+            store.readOrder(i, order);
+            System.out.println("Read order - id: " + order.orderId() +
+                    ", symbol: " + order.symbolCode() +
+                    ", type: " + order.type() +
+                    ", side: " + Side.fromCode(order.side()) +
+                    ", price: " + Price.toString(order.price()) +
+                    ", qty: " + order.quantity() +
+                    ", client: " + order.clientCode());
         }
-        
+
+        // Cancel every other order and refill, the freed slots are reused
+        for (int i = 0; i < orderCount; i += 2) {
+            store.free(i);
+        }
+        int reused = 0;
+        int slot;
+        while ((slot = store.allocate()) != NO_SLOT) {
+            store.readOrder(slot, order).orderId(2_000_000_000L + reused).quantity(1);
+            reused++;
+        }
+        System.out.println("Reused " + reused + " freed slots, live orders: " + store.liveOrders());
+
         System.out.println("Direct buffer demo completed");
         System.out.println("Benefits of direct buffers in low latency trading:");
         System.out.println("1. No GC overhead for large data structures");
@@ -88,4 +250,9 @@ public class DirectBufferDemo {
         System.out.println("3. Potential for zero-copy operations with network/disk I/O");
         System.out.println("4. Predictable memory access patterns");
     }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
 }
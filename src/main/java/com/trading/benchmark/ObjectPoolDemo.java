@@ -1,105 +1,444 @@
 package com.trading.benchmark;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
- * Demonstrates simple object pooling as one of the zero-GC techniques.
+ * Demonstrates object pooling as one of the zero-GC techniques, in a form that scales
+ * across threads.
+ * <p>
+ * Each thread borrows from and releases into its own cache (a "magazine"), so the common
+ * case touches no shared state at all. Only when a cache runs empty or full does the thread
+ * exchange a whole magazine of objects with the shared depot, which is a lock-free stack.
+ * Objects may be borrowed on one thread and released on another; they simply return to the
+ * releasing thread's cache.
+ * <p>
+ * The depot holds at most {@code maxPoolSize} objects and every thread cache at most two
+ * magazines, so the pool is bounded; objects released beyond that are dropped for the GC.
+ * Statistics are kept per thread with plain counters and only summed when reported. The
+ * cache of a thread that has ended is drained back to the depot at that point, and its
+ * counters are folded into retired totals.
+ * Optional leak detection records where every outstanding object was borrowed.
  */
 public class ObjectPoolDemo<T> {
-    
-    private final Deque<T> pool;
+
+    private static final int DEFAULT_MAGAZINE_SIZE = 16;
+
     private final Supplier<T> factory;
+    private final int magazineSize;
     private final int maxPoolSize;
-    private final AtomicInteger allocations = new AtomicInteger();
-    private final AtomicInteger reuses = new AtomicInteger();
-    
+
+    // Shared depot: magazines of objects, handed between threads through two lock-free stacks
+    private final Object[][] depot;
+    private final int[] depotCounts;
+    private final IndexStack fullMagazines;
+    private final IndexStack emptyMagazines;
+    private final AtomicInteger depotObjects = new AtomicInteger();
+
+    private final ThreadLocal<LocalCache> localCache;
+    private final List<LocalCache> caches = new CopyOnWriteArrayList<>();
+    private final Map<Object, Throwable> outstanding;
+    private final int preallocated;
+
+    // Counters of caches whose threads have ended, guarded by this
+    private long retiredAllocations;
+    private long retiredReuses;
+    private long retiredBorrows;
+    private long retiredReleases;
+    private long retiredDropped;
+    private int retiredThreads;
+
     public ObjectPoolDemo(Supplier<T> factory, int initialSize, int maxPoolSize) {
+        this(factory, initialSize, maxPoolSize, DEFAULT_MAGAZINE_SIZE, false);
+    }
+
+    /**
+     * @param magazineSize  Number of objects moved between a thread cache and the depot at once
+     * @param leakDetection Record the borrow site of every outstanding object
+     */
+    public ObjectPoolDemo(Supplier<T> factory, int initialSize, int maxPoolSize,
+                          int magazineSize, boolean leakDetection) {
+        if (magazineSize <= 0) {
+            throw new IllegalArgumentException("Magazine size must be positive: " + magazineSize);
+        }
         this.factory = factory;
+        this.magazineSize = magazineSize;
         this.maxPoolSize = maxPoolSize;
-        this.pool = new ArrayDeque<>(initialSize);
-        
-        // Pre-allocate objects
-        for (int i = 0; i < initialSize; i++) {
-            pool.add(factory.get());
-            allocations.incrementAndGet();
+        this.outstanding = leakDetection ? Collections.synchronizedMap(new IdentityHashMap<>()) : null;
+
+        int magazines = Math.max(1, (maxPoolSize + magazineSize - 1) / magazineSize);
+        this.depot = new Object[magazines][magazineSize];
+        this.depotCounts = new int[magazines];
+        this.fullMagazines = new IndexStack(magazines);
+        this.emptyMagazines = new IndexStack(magazines);
+        this.localCache = ThreadLocal.withInitial(this::registerCache);
+
+        // Pre-allocate objects straight into depot magazines
+        int remaining = Math.min(initialSize, magazines * magazineSize);
+        for (int m = 0; m < magazines; m++) {
+            int count = Math.min(remaining, magazineSize);
+            for (int i = 0; i < count; i++) {
+                depot[m][i] = factory.get();
+            }
+            remaining -= count;
+            depotCounts[m] = count;
+            if (count > 0) {
+                depotObjects.addAndGet(count);
+                fullMagazines.push(m);
+            } else {
+                emptyMagazines.push(m);
+            }
         }
+        // Objects created here are not attributed to any thread
+        this.preallocated = Math.min(initialSize, magazines * magazineSize);
     }
-    
+
     public T borrow() {
-        T obj = pool.poll();
-        if (obj == null) {
-            obj = factory.get();
-            allocations.incrementAndGet();
+        LocalCache cache = localCache.get();
+        if (cache.count == 0) {
+            cache.refill();
+        }
+        T obj;
+        if (cache.count > 0) {
+            obj = cache.pop();
+            cache.reuses++;
         } else {
-            reuses.incrementAndGet();
+            obj = factory.get();
+            cache.allocations++;
+        }
+        cache.borrows++;
+        if (outstanding != null) {
+            outstanding.put(obj, new Throwable("Borrowed on " + Thread.currentThread().getName()));
         }
         return obj;
     }
-    
+
     public void release(T obj) {
-        if (pool.size() < maxPoolSize) {
-            pool.offer(obj);
+        if (outstanding != null && outstanding.remove(obj) == null) {
+            throw new IllegalStateException("Object was not borrowed from this pool or was released twice: " + obj);
+        }
+        LocalCache cache = localCache.get();
+        cache.releases++;
+        if (cache.count == cache.items.length) {
+            cache.flush();
+        }
+        cache.items[cache.count++] = obj;
+    }
+
+    /**
+     * @return Objects borrowed and not yet released, across all threads
+     */
+    public synchronized long outstandingCount() {
+        pruneCaches();
+        long borrows = retiredBorrows;
+        long releases = retiredReleases;
+        for (LocalCache cache : caches) {
+            borrows += cache.borrows;
+            releases += cache.releases;
+        }
+        return borrows - releases;
+    }
+
+    /**
+     * Print where every outstanding object was borrowed. Requires leak detection.
+     */
+    public void reportLeaks() {
+        if (outstanding == null) {
+            System.out.println("Leak detection is disabled, " + outstandingCount() + " objects outstanding");
+            return;
+        }
+        List<Throwable> sites;
+        synchronized (outstanding) {
+            sites = new ArrayList<>(outstanding.values());
+        }
+        System.out.println("Outstanding objects: " + sites.size());
+        for (Throwable site : sites) {
+            StackTraceElement[] frames = site.getStackTrace();
+            // Skip borrow() itself and show the caller
+            System.out.println("  " + site.getMessage() + " at " + (frames.length > 1 ? frames[1] : "unknown"));
         }
     }
-    
-    public void printStats() {
+
+    public synchronized void printStats() {
+        pruneCaches();
+        long allocations = preallocated + retiredAllocations;
+        long reuses = retiredReuses;
+        long dropped = retiredDropped;
+        int cached = 0;
+        for (LocalCache cache : caches) {
+            allocations += cache.allocations;
+            reuses += cache.reuses;
+            dropped += cache.dropped;
+            cached += cache.count;
+        }
         System.out.println("Object Pool Stats:");
-        System.out.println("  Allocations: " + allocations.get());
-        System.out.println("  Reuses:      " + reuses.get());
-        System.out.println("  Pool Size:   " + pool.size());
-        System.out.println("  Reuse Ratio: " + 
-                String.format("%.2f", (reuses.get() * 100.0) / (allocations.get() + reuses.get())) + "%");
+        System.out.println("  Threads:     " + caches.size() + " (" + retiredThreads + " ended)");
+        System.out.println("  Allocations: " + allocations);
+        System.out.println("  Reuses:      " + reuses);
+        System.out.println("  Dropped:     " + dropped);
+        System.out.println("  Pool Size:   " + (depotObjects.get() + cached) +
+                " (" + depotObjects.get() + " in depot, max " + maxPoolSize + ")");
+        System.out.println("  Outstanding: " + outstandingCount());
+        System.out.println("  Reuse Ratio: " +
+                String.format("%.2f", (reuses * 100.0) / (allocations + reuses)) + "%");
+    }
+
+    private LocalCache registerCache() {
+        LocalCache cache = new LocalCache(Thread.currentThread(), 2 * magazineSize);
+        caches.add(cache);
+        return cache;
+    }
+
+    // Return the objects of caches whose threads have ended to the depot and fold their
+    // counters into the retired totals, so short-lived threads do not pin their caches
+    private void pruneCaches() {
+        for (LocalCache cache : caches) {
+            if (cache.isOwnerAlive()) {
+                continue;
+            }
+            cache.drain();
+            retiredAllocations += cache.allocations;
+            retiredReuses += cache.reuses;
+            retiredBorrows += cache.borrows;
+            retiredReleases += cache.releases;
+            retiredDropped += cache.dropped;
+            retiredThreads++;
+            caches.remove(cache);
+        }
     }
-    
+
+    /**
+     * Per-thread cache of up to two magazines. Only its owning thread mutates it; the
+     * statistics are read without synchronization when reporting and may lag slightly.
+     * Once the owner has ended, the pool drains it; seeing the thread terminated orders
+     * its last writes before the drain.
+     */
+    private final class LocalCache {
+        private final WeakReference<Thread> owner;
+        private final Object[] items;
+        private int count;
+        private long allocations;
+        private long reuses;
+        private long borrows;
+        private long releases;
+        private long dropped;
+
+        LocalCache(Thread owner, int capacity) {
+            this.owner = new WeakReference<>(owner);
+            this.items = new Object[capacity];
+        }
+
+        boolean isOwnerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        @SuppressWarnings("unchecked")
+        T pop() {
+            Object obj = items[--count];
+            items[count] = null;
+            return (T) obj;
+        }
+
+        // Swap in a full magazine from the depot
+        void refill() {
+            int m = fullMagazines.pop();
+            if (m == IndexStack.EMPTY) {
+                return;
+            }
+            Object[] magazine = depot[m];
+            int n = depotCounts[m];
+            System.arraycopy(magazine, 0, items, count, n);
+            Arrays.fill(magazine, 0, n, null);
+            count += n;
+            depotCounts[m] = 0;
+            depotObjects.addAndGet(-n);
+            emptyMagazines.push(m);
+        }
+
+        // Hand one magazine's worth of objects to the depot, or drop them if it is full
+        void flush() {
+            int m = emptyMagazines.pop();
+            count -= magazineSize;
+            if (m == IndexStack.EMPTY) {
+                Arrays.fill(items, count, count + magazineSize, null);
+                dropped += magazineSize;
+                return;
+            }
+            System.arraycopy(items, count, depot[m], 0, magazineSize);
+            Arrays.fill(items, count, count + magazineSize, null);
+            depotCounts[m] = magazineSize;
+            depotObjects.addAndGet(magazineSize);
+            fullMagazines.push(m);
+        }
+
+        // Hand every cached object to the depot, possibly as a partial magazine
+        void drain() {
+            while (count > 0) {
+                int m = emptyMagazines.pop();
+                if (m == IndexStack.EMPTY) {
+                    Arrays.fill(items, 0, count, null);
+                    dropped += count;
+                    count = 0;
+                    return;
+                }
+                int n = Math.min(count, magazineSize);
+                count -= n;
+                System.arraycopy(items, count, depot[m], 0, n);
+                Arrays.fill(items, count, count + n, null);
+                depotCounts[m] = n;
+                depotObjects.addAndGet(n);
+                fullMagazines.push(m);
+            }
+        }
+    }
+
+    /**
+     * Lock-free stack of small integer indices (a Treiber stack without node objects).
+     * The head packs a modification stamp with the top index so a pop can never succeed
+     * against a head that was popped and pushed again in between (the ABA problem).
+     */
+    private static final class IndexStack {
+        static final int EMPTY = -1;
+
+        private final AtomicLong head = new AtomicLong();
+        private final int[] next;
+
+        IndexStack(int capacity) {
+            this.next = new int[capacity];
+        }
+
+        void push(int index) {
+            while (true) {
+                long current = head.get();
+                next[index] = (int) current - 1;
+                long updated = ((current >>> 32) + 1) << 32 | (index + 1L);
+                if (head.compareAndSet(current, updated)) {
+                    return;
+                }
+            }
+        }
+
+        int pop() {
+            while (true) {
+                long current = head.get();
+                int top = (int) current - 1;
+                if (top == EMPTY) {
+                    return EMPTY;
+                }
+                long updated = ((current >>> 32) + 1) << 32 | (next[top] + 1L);
+                if (head.compareAndSet(current, updated)) {
+                    return top;
+                }
+            }
+        }
+    }
+
     /**
      * Simple demo of the object pool
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         // Create a pool with 5 initial objects
         ObjectPoolDemo<SimpleOrder> orderPool = new ObjectPoolDemo<>(
                 () -> new SimpleOrder("", "", 0.0, 0),
                 5, 20);
-        
+
         // Use and return 100 orders
         for (int i = 0; i < 100; i++) {
             SimpleOrder order = orderPool.borrow();
             order.reset("ORDER-" + i, "AAPL", 150.0 + i, 100 + i);
-            
+
             // Use the order...
             System.out.println("Processing: " + order);
-            
+
             // Return to pool
             orderPool.release(order);
         }
-        
+
         // Print stats
         orderPool.printStats();
+
+        // Gateway threads borrow orders and a router thread releases them
+        ObjectPoolDemo<SimpleOrder> sharedPool = new ObjectPoolDemo<>(
+                () -> new SimpleOrder("", "", 0.0, 0),
+                256, 1024, 32, true);
+        BlockingQueue<SimpleOrder> handoff = new ArrayBlockingQueue<>(1024);
+        int gateways = 4;
+        int ordersPerGateway = 100_000;
+
+        Thread router = new Thread(() -> {
+            try {
+                for (int i = 0; i < gateways * ordersPerGateway; i++) {
+                    sharedPool.release(handoff.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "router");
+        router.start();
+
+        List<Thread> gatewayThreads = new ArrayList<>();
+        for (int g = 0; g < gateways; g++) {
+            Thread gateway = new Thread(() -> {
+                try {
+                    for (int i = 0; i < ordersPerGateway; i++) {
+                        SimpleOrder order = sharedPool.borrow();
+                        order.reset("", "AAPL", 150.0, 100);
+                        handoff.put(order);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "gateway-" + g);
+            gatewayThreads.add(gateway);
+            gateway.start();
+        }
+        for (Thread gateway : gatewayThreads) {
+            gateway.join();
+        }
+        router.join();
+
+        // One order is never returned
+        SimpleOrder leaked = sharedPool.borrow();
+        leaked.reset("LEAKED", "MSFT", 300.0, 1);
+
+        System.out.println();
+        sharedPool.printStats();
+        sharedPool.reportLeaks();
     }
-    
+
     // Simple order class for demonstration
     private static class SimpleOrder {
         private String id;
         private String symbol;
         private double price;
         private int quantity;
-        
+
         public SimpleOrder(String id, String symbol, double price, int quantity) {
             this.id = id;
             this.symbol = symbol;
             this.price = price;
             this.quantity = quantity;
         }
-        
+
         public void reset(String id, String symbol, double price, int quantity) {
             this.id = id;
             this.symbol = symbol;
             this.price = price;
             this.quantity = quantity;
         }
-        
+
         @Override
         public String toString() {
             return "Order{id='" + id + "', symbol='" + symbol + "', price=" + price + ", quantity=" + quantity + "}";
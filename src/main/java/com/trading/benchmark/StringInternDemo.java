@@ -3,67 +3,316 @@ package com.trading.benchmark;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Demonstrates String interning as a zero-GC technique to avoid duplicate strings.
  * This is useful in FIX protocol where many field values repeat frequently.
+ * <p>
+ * Values are resolved straight from the wire: a {@code byte[]} or {@code ByteBuffer} slice,
+ * or any {@link CharSequence}, is hashed and compared in place, so a hit returns the
+ * canonical String without building one first. Bytes are treated as ISO-8859-1, which
+ * covers the ASCII values FIX uses.
+ * <p>
+ * The pool is a bounded, 4-way set-associative table. Readers never lock: entries are
+ * immutable and published through an {@link AtomicReferenceArray}. Misses are rare writers
+ * that serialize on a lock and, when a set is full, evict with the CLOCK policy (entries
+ * hit since the hand last passed get a second chance). Unique values such as order IDs
+ * therefore churn through a fixed amount of memory instead of growing the pool forever.
  */
 public class StringInternDemo {
     private static final Logger LOG = LoggerFactory.getLogger(StringInternDemo.class);
-    
-    private final Map<String, String> stringPool = new HashMap<>();
-    
+
+    private static final int WAYS = 4;
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private final AtomicReferenceArray<Entry> table;
+    private final byte[] clockHands;
+    private final int setMask;
+    private final Object writeLock = new Object();
+    private volatile int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StringInternDemo() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Maximum number of interned values, rounded up to a power of two
+     */
+    public StringInternDemo(int capacity) {
+        int sets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS) - 1) << 1;
+        sets = Math.max(1, sets);
+        this.table = new AtomicReferenceArray<>(sets * WAYS);
+        this.clockHands = new byte[sets];
+        this.setMask = sets - 1;
+    }
+
     /**
      * Return an interned string - either from the pool if it exists,
      * or add the new string to the pool
      */
     public String intern(String str) {
         if (str == null) return null;
-        
-        String existing = stringPool.get(str);
+
+        int hash = str.hashCode();
+        String existing = lookup(hash, str);
         if (existing != null) {
             return existing;
         }
-        
-        // In a production environment, you would need to handle concurrency
-        stringPool.put(str, str);
-        return str;
+        return insert(hash, str);
+    }
+
+    public String intern(CharSequence chars) {
+        if (chars == null) return null;
+
+        int hash = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        String existing = lookup(hash, chars);
+        if (existing != null) {
+            return existing;
+        }
+        return insert(hash, chars.toString());
+    }
+
+    public String intern(byte[] bytes, int offset, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + (bytes[offset + i] & 0xFF);
+        }
+        int base = setOf(hash) * WAYS;
+        for (int way = 0; way < WAYS; way++) {
+            Entry entry = table.get(base + way);
+            if (entry != null && entry.hash == hash && matches(entry.value, bytes, offset, length)) {
+                return hit(entry);
+            }
+        }
+        return insert(hash, new String(bytes, offset, length, StandardCharsets.ISO_8859_1));
     }
-    
+
+    public String intern(ByteBuffer buffer, int index, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + (buffer.get(index + i) & 0xFF);
+        }
+        int base = setOf(hash) * WAYS;
+        for (int way = 0; way < WAYS; way++) {
+            Entry entry = table.get(base + way);
+            if (entry != null && entry.hash == hash && matches(entry.value, buffer, index, length)) {
+                return hit(entry);
+            }
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(index, bytes);
+        return insert(hash, new String(bytes, StandardCharsets.ISO_8859_1));
+    }
+
     public int getPoolSize() {
-        return stringPool.size();
-    }
-    
-    public static void main(String[] args) {
-        StringInternDemo demo = new StringInternDemo();
-        
-        // Simulate processing FIX messages with repeating values
-        String[] symbols = {"AAPL", "MSFT", "GOOGL", "AMZN"};
-        String[] clients = {"CLIENT1", "CLIENT2", "CLIENT3"};
-        
-        int totalStrings = 0;
-        int uniqueStrings = 0;
-        
-        // Process 1000 orders with repeating values
-        for (int i = 0; i < 1000; i++) {
-            String symbol = symbols[i % symbols.length];
-            String internedSymbol = demo.intern(symbol);
-            
-            String client = clients[i % clients.length];
-            String internedClient = demo.intern(client);
-            
-            // Unique order ID for each order
-            String orderId = "ORDER-" + i;
-            String internedOrderId = demo.intern(orderId);
-            
-            totalStrings += 3;  // We processed 3 strings
-            uniqueStrings = demo.getPoolSize();
-        }
-        
-        LOG.info("Total strings processed: {}", totalStrings);
-        LOG.info("Unique strings in pool: {}", uniqueStrings);
-        LOG.info("Memory saving: {} strings", totalStrings - uniqueStrings);
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getCapacity() {
+        return table.length();
+    }
+
+    private String lookup(int hash, CharSequence chars) {
+        int base = setOf(hash) * WAYS;
+        for (int way = 0; way < WAYS; way++) {
+            Entry entry = table.get(base + way);
+            if (entry != null && entry.hash == hash && matches(entry.value, chars)) {
+                return hit(entry);
+            }
+        }
+        return null;
+    }
+
+    private String hit(Entry entry) {
+        // Only write the reference bit when it changes, to keep hot entries' cache lines shared
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Slow path for a miss: the candidate has already been built, since a miss has to
+     * allocate its String anyway.
+     */
+    private String insert(int hash, String candidate) {
+        misses.increment();
+        synchronized (writeLock) {
+            int set = setOf(hash);
+            int base = set * WAYS;
+
+            // Another writer may have added the value since the lock-free lookup
+            for (int way = 0; way < WAYS; way++) {
+                Entry entry = table.get(base + way);
+                if (entry != null && entry.hash == hash && entry.value.equals(candidate)) {
+                    return entry.value;
+                }
+            }
+            table.set(base + victimWay(set, base), new Entry(candidate, hash));
+            return candidate;
+        }
+    }
+
+    // CLOCK: take a free way, otherwise the first way not referenced since the hand passed it
+    private int victimWay(int set, int base) {
+        for (int way = 0; way < WAYS; way++) {
+            if (table.get(base + way) == null) {
+                size++;
+                return way;
+            }
+        }
+        int hand = clockHands[set];
+        while (true) {
+            Entry entry = table.get(base + hand);
+            if (entry.referenced) {
+                entry.referenced = false;
+                hand = (hand + 1) % WAYS;
+            } else {
+                clockHands[set] = (byte) ((hand + 1) % WAYS);
+                evictions.increment();
+                return hand;
+            }
+        }
+    }
+
+    private int setOf(int hash) {
+        return (hash ^ (hash >>> 16)) & setMask;
+    }
+
+    private static boolean matches(String value, CharSequence chars) {
+        int length = chars.length();
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != chars.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String value, byte[] bytes, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != (bytes[offset + i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String value, ByteBuffer buffer, int index, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != (buffer.get(index + i) & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Entry {
+        final String value;
+        final int hash;
+        // CLOCK reference bit; races only cost an extra second chance
+        volatile boolean referenced;
+
+        Entry(String value, int hash) {
+            this.value = value;
+            this.hash = hash;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        StringInternDemo demo = new StringInternDemo(256);
+
+        // Simulate FIX tag values arriving as raw bytes, with symbols and clients repeating
+        byte[][] symbols = toBytes("AAPL", "MSFT", "GOOGL", "AMZN");
+        byte[][] clients = toBytes("CLIENT1", "CLIENT2", "CLIENT3");
+        byte[] orderId = new byte[16];
+
+        int threads = 4;
+        int messagesPerThread = 250_000;
+        List<Thread> parsers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int threadId = t;
+            Thread parser = new Thread(() -> {
+                for (int i = 0; i < messagesPerThread; i++) {
+                    byte[] symbol = symbols[i % symbols.length];
+                    demo.intern(symbol, 0, symbol.length);
+
+                    byte[] client = clients[i % clients.length];
+                    demo.intern(client, 0, client.length);
+                }
+            }, "parser-" + threadId);
+            parsers.add(parser);
+            parser.start();
+        }
+        for (Thread parser : parsers) {
+            parser.join();
+        }
+
+        // Unique order IDs evict each other instead of growing the pool
+        for (int i = 0; i < 10_000; i++) {
+            int length = writeOrderId(orderId, i);
+            demo.intern(orderId, 0, length);
+        }
+
+        long lookups = demo.getHits() + demo.getMisses();
+        LOG.info("Total lookups: {}", lookups);
+        LOG.info("Hits: {}, misses: {}, evictions: {}", demo.getHits(), demo.getMisses(), demo.getEvictions());
+        LOG.info("Hit ratio: {}%", String.format("%.2f", demo.getHits() * 100.0 / lookups));
+        LOG.info("Strings in pool: {} (capacity {})", demo.getPoolSize(), demo.getCapacity());
+    }
+
+    private static byte[][] toBytes(String... values) {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return bytes;
+    }
+
+    // Writes "ORDER-<n>" as ASCII without building a String
+    private static int writeOrderId(byte[] target, int n) {
+        byte[] prefix = {'O', 'R', 'D', 'E', 'R', '-'};
+        System.arraycopy(prefix, 0, target, 0, prefix.length);
+        int digits = n == 0 ? 1 : (int) Math.log10(n) + 1;
+        for (int i = prefix.length + digits - 1; i >= prefix.length; i--) {
+            target[i] = (byte) ('0' + n % 10);
+            n /= 10;
+        }
+        return prefix.length + digits;
     }
 }
@@ -1,5 +1,7 @@
 package com.trading.benchmark;
 
+import com.trading.affinity.AffinityProvider;
+import com.trading.affinity.PinnedThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,25 +10,24 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Demonstrates how thread affinity could be used in low latency applications.
- * Note: This is using comments instead of actual thread affinity since that requires
- * platform-specific JNI libraries like OpenHFT's Java-Thread-Affinity.
+ * Demonstrates how thread affinity is used in low latency applications.
+ * Threads are pinned through the pluggable {@link AffinityProvider} hook: Linux
+ * {@code taskset} by default, or a JNI library like OpenHFT's Java-Thread-Affinity plugged
+ * in with {@code -Daffinity.provider=<class>}.
  */
 public class ThreadAffinityDemo {
     private static final Logger LOG = LoggerFactory.getLogger(ThreadAffinityDemo.class);
     
     public static void main(String[] args) throws InterruptedException {
-        LOG.info("Thread affinity demonstration");
-        LOG.info("Note: In a real implementation, you would use a library like OpenHFT's Java-Thread-Affinity");
+        AffinityProvider affinity = AffinityProvider.fromSystemProperty();
+        LOG.info("Thread affinity demonstration using {} affinity", affinity.name());
         
+        // Pin each pool thread to its own core, leaving core 0 to the OS when there are others
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int[] cores = cpus > 1 ? new int[] {1 % cpus, 2 % cpus, 3 % cpus} : new int[] {0};
+        PinnedThreadFactory pinnedThreads = new PinnedThreadFactory(affinity, cores, "LatencySensitiveThread-");
         ExecutorService executor = Executors.newFixedThreadPool(3, r -> {
-            Thread t = new Thread(r);
-            t.setName("LatencySensitiveThread");
-            
-            // In a real implementation with thread affinity, you would do something like:
-            // AffinityLock.acquireLock();
-            // Or specify exact CPU core:
-            // AffinityLock.acquireLock(1); // Pin to CPU core 1
+            Thread t = pinnedThreads.newThread(r);
             
             // We can also manually set thread priorities
             t.setPriority(Thread.MAX_PRIORITY);
@@ -38,8 +39,9 @@ public class ThreadAffinityDemo {
         for (int i = 0; i < 5; i++) {
             final int taskId = i;
             executor.submit(() -> {
-                LOG.info("Task {} running on thread {} with priority {}", 
-                        taskId, Thread.currentThread().getName(), Thread.currentThread().getPriority());
+                LOG.info("Task {} running on thread {} with priority {} on CPU {}",
+                        taskId, Thread.currentThread().getName(), Thread.currentThread().getPriority(),
+                        affinity.currentCpu());
                 
                 // Simulate some work
                 try {
@@ -54,7 +56,8 @@ public class ThreadAffinityDemo {
         }
         
         executor.shutdown();
-        executor.awaitTermination(5, TimeUnit.SECONDS);
+executor.awaitTermination(5, TimeUnit.SECONDS);
+        LOG.info("Pinned {} of 3 pool threads", pinnedThreads.getPinnedThreads());
         
         LOG.info("Thread affinity demonstration completed");
         LOG.info("In real low latency systems, you would:");
@@ -6,14 +6,15 @@
  * <p>
  * The classes in this package include:
  * <ul>
- *   <li>ObjectPoolDemo - Demonstrates how object pooling can reduce GC pressure</li>
- *   <li>StringInternDemo - Shows how string interning avoids duplicate strings</li>
- *   <li>ThreadAffinityDemo - Demonstrates thread-to-core pinning for reduced jitter</li>
- *   <li>DirectBufferDemo - Shows how to use off-heap memory with DirectByteBuffers</li>
+ *   <li>ObjectPoolDemo - Thread-safe object pool with per-thread magazines and a lock-free depot</li>
+ *   <li>StringInternDemo - Bounded, concurrent interner that resolves values from raw bytes without allocating</li>
+ *   <li>ThreadAffinityDemo - Pins pool threads to cores through the pluggable affinity provider</li>
+ *   <li>DirectBufferDemo - Off-heap order store with flyweight access and slot reuse</li>
  * </ul>
  * <p>
- * Note: These classes are not used by SimpleMain and are kept for educational purposes.
- * They would require external dependencies to run properly.
+ * Note: Apart from DirectBufferDemo, whose order record layout is shared with the journal,
+ * these classes are not used by SimpleMain and are kept for educational purposes.
+ * Some of them would require external dependencies to run properly.
  * <p>
  * These classes together demonstrate various techniques to achieve consistent
  * low-latency performance in Java applications.
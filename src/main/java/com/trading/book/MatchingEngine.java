@@ -0,0 +1,81 @@
+package com.trading.book;
+
+import com.trading.model.OrderSimulation;
+import com.trading.model.Price;
+import com.trading.model.SymbolDictionary;
+
+/**
+ * Matching engine holding one {@link OrderBook} per instrument, indexed by the dense symbol
+ * id from {@link SymbolDictionary}, each on the tick size registered for its symbol.
+ * <p>
+ * Orders arrive as {@link OrderSimulation}s with fixed-point {@link Price}s, which go
+ * straight into the book without conversion. The fills of each order are accumulated back
+ * onto it as the filled quantity and executed value, and forwarded to the engine's
+ * {@link TradeListener}.
+ * <p>
+ * Thread safety: an engine must only be used by a single matching thread.
+ */
+public class MatchingEngine {
+
+    private final OrderBook[] books;
+    private final FillRecorder fills;
+
+    /**
+     * @param symbols       Registered instruments, one book is created for each
+     * @param minPrice      Lowest price any book accepts, on every symbol's tick
+     * @param maxPrice      Highest price any book accepts
+     * @param ordersPerBook Maximum number of resting orders per book
+     */
+    public MatchingEngine(SymbolDictionary symbols, long minPrice, long maxPrice,
+                          int ordersPerBook, TradeListener listener) {
+        this.fills = new FillRecorder(listener);
+        this.books = new OrderBook[symbols.size()];
+        for (int symbolId = 0; symbolId < books.length; symbolId++) {
+            long tickSize = symbols.tickSize(symbolId);
+            int levels = (int) ((maxPrice - minPrice) / tickSize + 1);
+            books[symbolId] = new OrderBook(symbolId, minPrice, tickSize, levels, ordersPerBook, fills);
+        }
+    }
+
+    /**
+     * Match the order against its instrument's book, resting any remainder, and record its
+     * fills on the order.
+     */
+    public void submit(OrderSimulation order) {
+        order.setFilledQuantity(0);
+        order.setExecutedValue(0);
+        fills.current = order;
+        books[order.getSymbolId()].submit(order.getId(), order.getSide(), order.getPrice(), order.getQuantity());
+        fills.current = null;
+    }
+
+    /**
+     * @return Whether the order was resting and has been removed
+     */
+    public boolean cancel(int symbolId, long orderId) {
+        return books[symbolId].cancel(orderId);
+    }
+
+    public OrderBook book(int symbolId) {
+        return books[symbolId];
+    }
+
+    /**
+     * Adds each fill to the order being submitted, then passes it on.
+     */
+    private static final class FillRecorder implements TradeListener {
+        private final TradeListener listener;
+        private OrderSimulation current;
+
+        FillRecorder(TradeListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onTrade(int symbolId, long makerOrderId, long takerOrderId, long price, long quantity) {
+            current.setFilledQuantity(current.getFilledQuantity() + (int) quantity);
+            current.setExecutedValue(current.getExecutedValue() + Price.notional(price, quantity));
+            listener.onTrade(symbolId, makerOrderId, takerOrderId, price, quantity);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.trading.book;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.util.LongIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Price-time priority limit order book for one instrument.
+ * <p>
+ * Prices are fixed-point {@code long}s in the scale of {@link Price}, and must be whole
+ * multiples of the book's tick size. Each side is a ladder of primitive arrays indexed by
+ * {@code (price - minPrice) / tickSize}, holding the total quantity and the head and
+ * tail of a FIFO queue of resting orders at every price. Resting orders live in parallel
+ * arrays of slots linked into those queues, with freed slots kept on a free list, and an
+ * order id to slot map makes cancels O(1). Nothing is allocated after construction.
+ * <p>
+ * An incoming order first matches against the opposite side, best price first and oldest
+ * order first within a price, reporting every fill to the {@link TradeListener}. Any
+ * remainder rests at its limit price. When a level empties the best price is found by
+ * scanning the ladder towards worse prices, which is short when the book is dense near the top.
+ * <p>
+ * Thread safety: a book must only be used by a single matching thread.
+ */
+public class OrderBook {
+
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    private static final int NONE = -1;
+
+    private final int symbolId;
+    private final long minPrice;
+    private final long tickSize;
+    private final int levels;
+    private final TradeListener listener;
+
+    // Price ladders, one entry per tick
+    private final long[] bidQuantity;
+    private final int[] bidHead;
+    private final int[] bidTail;
+    private final long[] askQuantity;
+    private final int[] askHead;
+    private final int[] askTail;
+    private int bestBid = NONE;
+    private int bestAsk = NONE;
+
+    // Resting order slots
+    private final long[] orderIds;
+    private final long[] remaining;
+    private final int[] orderLevel;
+    private final boolean[] orderIsBid;
+    private final int[] next;
+    private final int[] prev;
+    private final LongIntHashMap slotsById;
+    private int freeSlot;
+    private int restingOrders;
+    private long rejectedQuantity;
+    private long duplicateOrders;
+
+    /**
+     * @param minPrice  Lowest price the book accepts
+     * @param tickSize  Minimum price increment, {@code minPrice} must be on a tick
+     * @param levels    Number of price levels per side, so the highest price is
+     *                  {@code minPrice + (levels - 1) * tickSize}
+     * @param maxOrders Maximum number of resting orders
+     */
+    public OrderBook(int symbolId, long minPrice, long tickSize, int levels, int maxOrders, TradeListener listener) {
+        if (levels <= 0 || maxOrders <= 0) {
+            throw new IllegalArgumentException("Levels and order capacity must be positive: " + levels + ", " + maxOrders);
+        }
+        if (tickSize <= 0 || !Price.isOnTick(minPrice, tickSize)) {
+            throw new IllegalArgumentException("Minimum price " + minPrice + " is not on a positive tick size " + tickSize);
+        }
+        this.symbolId = symbolId;
+        this.minPrice = minPrice;
+        this.tickSize = tickSize;
+        this.levels = levels;
+        this.listener = listener;
+
+        this.bidQuantity = new long[levels];
+        this.bidHead = filled(levels);
+        this.bidTail = filled(levels);
+        this.askQuantity = new long[levels];
+        this.askHead = filled(levels);
+        this.askTail = filled(levels);
+
+        this.orderIds = new long[maxOrders];
+        this.remaining = new long[maxOrders];
+        this.orderLevel = new int[maxOrders];
+        this.orderIsBid = new boolean[maxOrders];
+        this.next = new int[maxOrders];
+        this.prev = new int[maxOrders];
+        this.slotsById = new LongIntHashMap(maxOrders, NONE);
+        for (int slot = 0; slot < maxOrders; slot++) {
+            next[slot] = slot + 1 < maxOrders ? slot + 1 : NONE;
+        }
+        this.freeSlot = 0;
+    }
+
+    /**
+     * Match an incoming limit order and rest any remainder. If the book has no free slot
+     * the remainder is rejected and counted in {@link #getRejectedQuantity()}. An order whose
+     * id is already resting is rejected whole, counted there and in
+     * {@link #getDuplicateOrders()}, as its id could not be told apart from the resting one's.
+     *
+     * @param price Limit price, on a tick
+     * @return The quantity filled immediately
+     */
+    public long submit(long orderId, Side side, long price, long quantity) {
+        int level = levelOf(price);
+        if (slotsById.containsKey(orderId)) {
+            duplicateOrders++;
+            rejectedQuantity += quantity;
+            return 0;
+        }
+        long open = quantity;
+        if (side == Side.BUY) {
+            while (open > 0 && bestAsk != NONE && bestAsk <= level) {
+                int matched = bestAsk;
+                open -= match(askHead, askTail, askQuantity, matched, orderId, open);
+                if (askQuantity[matched] == 0) {
+                    bestAsk = nextAsk(matched);
+                }
+            }
+        } else {
+            while (open > 0 && bestBid != NONE && bestBid >= level) {
+                int matched = bestBid;
+                open -= match(bidHead, bidTail, bidQuantity, matched, orderId, open);
+                if (bidQuantity[matched] == 0) {
+                    bestBid = nextBid(matched);
+                }
+            }
+        }
+        if (open > 0) {
+            rest(orderId, side == Side.BUY, level, open);
+        }
+        return quantity - open;
+    }
+
+    /**
+     * @return Whether the order was resting and has been removed
+     */
+    public boolean cancel(long orderId) {
+        int slot = slotsById.remove(orderId);
+        if (slot == NONE) {
+            return false;
+        }
+        int level = orderLevel[slot];
+        if (orderIsBid[slot]) {
+            unlink(bidHead, bidTail, slot, level);
+            bidQuantity[level] -= remaining[slot];
+            if (bidQuantity[level] == 0 && level == bestBid) {
+                bestBid = nextBid(level);
+            }
+        } else {
+            unlink(askHead, askTail, slot, level);
+            askQuantity[level] -= remaining[slot];
+            if (askQuantity[level] == 0 && level == bestAsk) {
+                bestAsk = nextAsk(level);
+            }
+        }
+        release(slot);
+        return true;
+    }
+
+    /**
+     * @return The best bid, or {@link #NO_PRICE} if there are no bids
+     */
+    public long bestBid() {
+        return bestBid == NONE ? NO_PRICE : priceOf(bestBid);
+    }
+
+    /**
+     * @return The best ask, or {@link #NO_PRICE} if there are no asks
+     */
+    public long bestAsk() {
+        return bestAsk == NONE ? NO_PRICE : priceOf(bestAsk);
+    }
+
+    /**
+     * @return Total resting quantity at the given price on the given side
+     */
+    public long quantityAt(Side side, long price) {
+        int level = levelOf(price);
+        return side == Side.BUY ? bidQuantity[level] : askQuantity[level];
+    }
+
+    /**
+     * Copy the top price levels of one side, best first, into the given arrays.
+     *
+     * @return The number of levels copied, at most the length of the arrays
+     */
+    public int depth(Side side, long[] prices, long[] quantities) {
+        int count = 0;
+        if (side == Side.BUY) {
+            for (int level = bestBid; level != NONE && count < prices.length; level = nextBid(level)) {
+                prices[count] = priceOf(level);
+                quantities[count++] = bidQuantity[level];
+            }
+        } else {
+            for (int level = bestAsk; level != NONE && count < prices.length; level = nextAsk(level)) {
+                prices[count] = priceOf(level);
+                quantities[count++] = askQuantity[level];
+            }
+        }
+        return count;
+    }
+
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public long getTickSize() {
+        return tickSize;
+    }
+
+    public int getRestingOrders() {
+        return restingOrders;
+    }
+
+    public long getRejectedQuantity() {
+        return rejectedQuantity;
+    }
+
+    public long getDuplicateOrders() {
+        return duplicateOrders;
+    }
+
+    /**
+     * Fill against the FIFO queue at one level, removing resting orders that are filled.
+     *
+     * @return The quantity filled
+     */
+    private long match(int[] head, int[] tail, long[] levelQuantity, int level, long takerOrderId, long quantity) {
+        long price = priceOf(level);
+        long open = quantity;
+        int slot = head[level];
+        while (slot != NONE && open > 0) {
+            long fill = Math.min(remaining[slot], open);
+            remaining[slot] -= fill;
+            levelQuantity[level] -= fill;
+            open -= fill;
+            listener.onTrade(symbolId, orderIds[slot], takerOrderId, price, fill);
+
+            int following = next[slot];
+            if (remaining[slot] == 0) {
+                unlink(head, tail, slot, level);
+                slotsById.remove(orderIds[slot]);
+                release(slot);
+            }
+            slot = following;
+        }
+        return quantity - open;
+    }
+
+    private void rest(long orderId, boolean bid, int level, long quantity) {
+        int slot = freeSlot;
+        if (slot == NONE) {
+            rejectedQuantity += quantity;
+            return;
+        }
+        freeSlot = next[slot];
+        orderIds[slot] = orderId;
+        remaining[slot] = quantity;
+        orderLevel[slot] = level;
+        orderIsBid[slot] = bid;
+        slotsById.put(orderId, slot);
+        restingOrders++;
+
+        if (bid) {
+            append(bidHead, bidTail, slot, level);
+            bidQuantity[level] += quantity;
+            if (bestBid == NONE || level > bestBid) {
+                bestBid = level;
+            }
+        } else {
+            append(askHead, askTail, slot, level);
+            askQuantity[level] += quantity;
+            if (bestAsk == NONE || level < bestAsk) {
+                bestAsk = level;
+            }
+        }
+    }
+
+    private void append(int[] head, int[] tail, int slot, int level) {
+        int last = tail[level];
+        prev[slot] = last;
+        next[slot] = NONE;
+        if (last == NONE) {
+            head[level] = slot;
+        } else {
+            next[last] = slot;
+        }
+        tail[level] = slot;
+    }
+
+    private void unlink(int[] head, int[] tail, int slot, int level) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before == NONE) {
+            head[level] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NONE) {
+            tail[level] = before;
+        } else {
+            prev[after] = before;
+        }
+    }
+
+    private void release(int slot) {
+        next[slot] = freeSlot;
+        freeSlot = slot;
+        restingOrders--;
+    }
+
+    // Next lower bid level with quantity, scanning down from the given level
+    private int nextBid(int level) {
+        for (int l = level - 1; l >= 0; l--) {
+            if (bidQuantity[l] > 0) {
+                return l;
+            }
+        }
+        return NONE;
+    }
+
+    // Next higher ask level with quantity, scanning up from the given level
+    private int nextAsk(int level) {
+        for (int l = level + 1; l < levels; l++) {
+            if (askQuantity[l] > 0) {
+                return l;
+            }
+        }
+        return NONE;
+    }
+
+    private int levelOf(long price) {
+        long offset = price - minPrice;
+        long level = offset / tickSize;
+        if (offset < 0 || level >= levels) {
+            throw new IllegalArgumentException("Price " + price + " is outside the book range ["
+                    + minPrice + ", " + priceOf(levels - 1) + "]");
+        }
+        if (level * tickSize != offset) {
+            throw new IllegalArgumentException("Price " + price + " is not on a tick of " + tickSize);
+        }
+        return (int) level;
+    }
+
+    private long priceOf(int level) {
+        return minPrice + level * tickSize;
+    }
+
+    private static int[] filled(int length) {
+        int[] array = new int[length];
+        Arrays.fill(array, NONE);
+        return array;
+    }
+}
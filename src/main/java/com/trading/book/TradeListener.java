@@ -0,0 +1,19 @@
+package com.trading.book;
+
+/**
+ * Receives every fill produced by an {@link OrderBook}, synchronously on the matching thread.
+ */
+@FunctionalInterface
+public interface TradeListener {
+
+    TradeListener NONE = (symbolId, makerOrderId, takerOrderId, price, quantity) -> { };
+
+    /**
+     * @param symbolId     Dense id of the instrument the book trades
+     * @param makerOrderId The resting order that was hit
+     * @param takerOrderId The incoming order that crossed the book
+     * @param price        Execution price as a {@code Price}, always the resting order's price
+     * @param quantity     Quantity filled
+     */
+    void onTrade(int symbolId, long makerOrderId, long takerOrderId, long price, long quantity);
+}
@@ -0,0 +1,15 @@
+/**
+ * Limit order books and the matching engine that the router's {@code processOrder} drives.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>OrderBook - Price-time priority book on primitive price ladders with O(1) cancel</li>
+ *   <li>MatchingEngine - One book per instrument, records fills back onto the order</li>
+ *   <li>TradeListener - Callback for every fill</li>
+ * </ul>
+ * <p>
+ * Prices are fixed-point {@code long}s ({@code com.trading.model.Price}) on each symbol's
+ * tick size, which index the ladders directly. All state lives in arrays sized at
+ * construction, so matching and cancelling never allocate.
+ */
+package com.trading.book;
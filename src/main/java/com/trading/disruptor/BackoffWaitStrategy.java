@@ -0,0 +1,68 @@
+package com.trading.disruptor;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spins, then yields, then parks with {@link LockSupport#parkNanos(long)} for an interval
+ * that doubles on every empty check up to a maximum.
+ * <p>
+ * An idle consumer uses almost no CPU, and the producer never has to signal it. The price is
+ * latency after a quiet period: an event can wait up to the current park interval, plus the
+ * operating system's timer slack, before the consumer wakes up.
+ */
+public class BackoffWaitStrategy implements WaitStrategy {
+
+    private static final int DEFAULT_SPIN_TRIES = 100;
+    private static final int DEFAULT_YIELD_TRIES = 100;
+    private static final long DEFAULT_MIN_PARK_NANOS = 1_000;
+    private static final long DEFAULT_MAX_PARK_NANOS = 100_000;
+
+    private final int spinTries;
+    private final int yieldTries;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+
+    public BackoffWaitStrategy() {
+        this(DEFAULT_SPIN_TRIES, DEFAULT_YIELD_TRIES, DEFAULT_MIN_PARK_NANOS, DEFAULT_MAX_PARK_NANOS);
+    }
+
+    public BackoffWaitStrategy(int spinTries, int yieldTries, long minParkNanos, long maxParkNanos) {
+        if (minParkNanos < 1 || maxParkNanos < minParkNanos) {
+            throw new IllegalArgumentException(
+                    "Park interval must satisfy 1 <= min <= max: " + minParkNanos + ", " + maxParkNanos);
+        }
+        this.spinTries = spinTries;
+        this.yieldTries = yieldTries;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public long waitFor(long sequence, SequenceBarrier barrier) {
+        int spins = spinTries;
+        int yields = yieldTries;
+        long parkNanos = minParkNanos;
+        long available;
+        while ((available = barrier.availableSequence()) < sequence) {
+            if (barrier.isAlerted()) {
+                return available;
+            }
+            if (spins > 0) {
+                spins--;
+                Thread.onSpinWait();
+            } else if (yields > 0) {
+                yields--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public String name() {
+        return "backoff";
+    }
+}
@@ -0,0 +1,57 @@
+package com.trading.disruptor;
+
+/**
+ * Runs one pipeline stage: waits on its barrier, hands every available event to the
+ * handler in a batch, then publishes its own progress so downstream stages and the
+ * producer can move on.
+ */
+public class BatchEventProcessor<E> implements Runnable {
+
+    private final RingBuffer<E> ringBuffer;
+    private final SequenceBarrier barrier;
+    private final EventHandler<E> handler;
+    private final Sequence sequence = new Sequence();
+    private volatile boolean running = true;
+
+    public BatchEventProcessor(RingBuffer<E> ringBuffer, SequenceBarrier barrier, EventHandler<E> handler) {
+        this.ringBuffer = ringBuffer;
+        this.barrier = barrier;
+        this.handler = handler;
+    }
+
+    /**
+     * @return The sequence of the last event this stage has processed
+     */
+    public Sequence getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Stop the processor once it has drained the events that are already available.
+     */
+    public void halt() {
+        running = false;
+        barrier.alert();
+    }
+
+    @Override
+    public void run() {
+        long nextSequence = sequence.get() + 1;
+        while (true) {
+            long available = barrier.waitFor(nextSequence);
+            if (available < nextSequence) {
+                if (!running) {
+                    return;
+                }
+                continue;
+            }
+            while (nextSequence <= available) {
+                handler.onEvent(ringBuffer.get(nextSequence), nextSequence, nextSequence == available);
+                nextSequence++;
+            }
+            sequence.set(available);
+            // Downstream stages wait on this sequence through the same strategy
+            ringBuffer.getWaitStrategy().signalAllWhenBlocking();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.trading.disruptor;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sleeps on a lock condition until a sequence advances, like the handoff in a
+ * {@link java.util.concurrent.BlockingQueue}.
+ * <p>
+ * An idle consumer uses no CPU at all, but every handoff to a sleeping consumer costs a
+ * futex wake-up and a trip through the scheduler, typically tens of microseconds. Signalling
+ * only takes the lock when a consumer has announced that it is about to sleep, so the
+ * producer pays a fence rather than a lock while consumers are keeping up.
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition advanced = lock.newCondition();
+    private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+    @Override
+    public long waitFor(long sequence, SequenceBarrier barrier) {
+        long available = barrier.availableSequence();
+        if (available >= sequence) {
+            return available;
+        }
+        lock.lock();
+        try {
+            while (true) {
+                // Announce the wait before the final check, so a producer that advances the
+                // sequence after the check is guaranteed to see the flag and signal
+                signalNeeded.set(true);
+                VarHandle.fullFence();
+                available = barrier.availableSequence();
+                if (available >= sequence || barrier.isAlerted()) {
+                    return available;
+                }
+                advanced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        // Pairs with the fence in waitFor: either the waiter sees the new sequence or we see its flag
+        VarHandle.fullFence();
+        if (signalNeeded.getAndSet(false)) {
+            lock.lock();
+            try {
+                advanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return "blocking";
+    }
+}
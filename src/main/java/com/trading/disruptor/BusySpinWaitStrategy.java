@@ -0,0 +1,27 @@
+package com.trading.disruptor;
+
+/**
+ * Spins on the sequence with {@link Thread#onSpinWait()} and never gives up the core.
+ * <p>
+ * Gives the lowest and most consistent handoff latency, but each waiting consumer burns a
+ * whole core even when idle, so only use it with as many spare cores as consumers.
+ */
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public long waitFor(long sequence, SequenceBarrier barrier) {
+        long available;
+        while ((available = barrier.availableSequence()) < sequence) {
+            if (barrier.isAlerted()) {
+                return available;
+            }
+            Thread.onSpinWait();
+        }
+        return available;
+    }
+
+    @Override
+    public String name() {
+        return "busy-spin";
+    }
+}
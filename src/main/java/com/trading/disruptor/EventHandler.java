@@ -0,0 +1,15 @@
+package com.trading.disruptor;
+
+/**
+ * Callback for a pipeline stage, invoked on the stage's own thread for every published event.
+ */
+@FunctionalInterface
+public interface EventHandler<E> {
+
+    /**
+     * @param event      Pre-allocated ring slot; only valid for the duration of the call
+     * @param sequence   Sequence number of the event
+     * @param endOfBatch True for the last event currently available to this stage
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch);
+}
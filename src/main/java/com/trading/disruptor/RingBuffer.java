@@ -0,0 +1,121 @@
+package com.trading.disruptor;
+
+import java.util.function.Supplier;
+
+/**
+ * Single-producer ring buffer of pre-allocated, mutable events, after the pattern of the
+ * LMAX Disruptor.
+ * <p>
+ * All events are created up front by the factory and reused for the life of the ring, so
+ * publishing never allocates: the producer claims a sequence with {@link #next()}, fills the
+ * event returned by {@link #get(long)} in place and makes it visible with {@link #publish(long)}.
+ * Consumers track their progress in {@link Sequence}s; the producer waits on those gating
+ * sequences rather than overwrite an event that a consumer has not processed yet.
+ * <p>
+ * How consumers wait for new events is chosen with a {@link WaitStrategy}; without one the
+ * ring uses a {@link YieldingWaitStrategy}. A producer waiting for space always spins and then
+ * yields, since a full ring means the consumers are busy rather than idle.
+ * <p>
+ * Thread safety: exactly one thread may call {@link #next()} and {@link #publish(long)}.
+ */
+public class RingBuffer<E> {
+
+    private static final int SPIN_TRIES = 100;
+
+    private final Object[] entries;
+    private final int mask;
+    private final Sequence cursor = new Sequence();
+    private final WaitStrategy waitStrategy;
+    private Sequence[] gatingSequences = new Sequence[0];
+
+    // Producer-local state, only touched by the publishing thread
+    private long nextSequence = Sequence.INITIAL_VALUE;
+    private long cachedGatingSequence = Sequence.INITIAL_VALUE;
+
+    public RingBuffer(Supplier<E> factory, int bufferSize) {
+        this(factory, bufferSize, new YieldingWaitStrategy());
+    }
+
+    public RingBuffer(Supplier<E> factory, int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of 2: " + bufferSize);
+        }
+        this.entries = new Object[bufferSize];
+        this.mask = bufferSize - 1;
+        this.waitStrategy = waitStrategy;
+        for (int i = 0; i < bufferSize; i++) {
+            entries[i] = factory.get();
+        }
+    }
+
+    /**
+     * Register the sequences of the final consumers, which the producer must not lap.
+     */
+    public void addGatingSequences(Sequence... sequences) {
+        Sequence[] combined = new Sequence[gatingSequences.length + sequences.length];
+        System.arraycopy(gatingSequences, 0, combined, 0, gatingSequences.length);
+        System.arraycopy(sequences, 0, combined, gatingSequences.length, sequences.length);
+        gatingSequences = combined;
+    }
+
+    /**
+     * Create a barrier for a consumer that depends on the producer and, optionally, on
+     * upstream consumers.
+     */
+    public SequenceBarrier newBarrier(Sequence... dependents) {
+        return new SequenceBarrier(cursor, dependents, waitStrategy);
+    }
+
+    /**
+     * Claim the next sequence, waiting while the ring is full.
+     */
+    public long next() {
+        long next = nextSequence + 1;
+        long wrapPoint = next - entries.length;
+        if (wrapPoint > cachedGatingSequence) {
+            int counter = SPIN_TRIES;
+            long minimum;
+            while (wrapPoint > (minimum = minimumGatingSequence(next - 1))) {
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            cachedGatingSequence = minimum;
+        }
+        nextSequence = next;
+        return next;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        cursor.set(sequence);
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public int getBufferSize() {
+        return entries.length;
+    }
+
+    private long minimumGatingSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (Sequence sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+}
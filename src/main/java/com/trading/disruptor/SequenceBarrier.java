@@ -0,0 +1,56 @@
+package com.trading.disruptor;
+
+/**
+ * Lets a consumer wait until a sequence has been published by the producer and processed
+ * by every stage it depends on. How it waits is up to the ring's {@link WaitStrategy}.
+ */
+public class SequenceBarrier {
+
+    private final Sequence cursor;
+    private final Sequence[] dependents;
+    private final WaitStrategy waitStrategy;
+    private volatile boolean alerted;
+
+    SequenceBarrier(Sequence cursor, Sequence[] dependents, WaitStrategy waitStrategy) {
+        this.cursor = cursor;
+        this.dependents = dependents;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Wait until the given sequence is available.
+     *
+     * @return The highest available sequence, which may be greater than requested to allow
+     *         batching, or lower than requested if the barrier was {@link #alert() alerted}
+     */
+    public long waitFor(long sequence) {
+        long available = availableSequence();
+        if (available >= sequence) {
+            return available;
+        }
+        return waitStrategy.waitFor(sequence, this);
+    }
+
+    /**
+     * Wake waiting consumers so they can observe a shutdown request.
+     */
+    public void alert() {
+        alerted = true;
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    public boolean isAlerted() {
+        return alerted;
+    }
+
+    /**
+     * @return The lowest of the producer cursor and the sequences of the upstream stages
+     */
+    public long availableSequence() {
+        long available = cursor.get();
+        for (Sequence dependent : dependents) {
+            available = Math.min(available, dependent.get());
+        }
+        return available;
+    }
+}
@@ -0,0 +1,51 @@
+package com.trading.disruptor;
+
+/**
+ * How a consumer waits on its {@link SequenceBarrier} for the next event, trading handoff
+ * latency against the CPU burned while there is nothing to do.
+ * <p>
+ * From lowest latency and highest CPU use to highest latency and lowest CPU use:
+ * <ul>
+ *   <li>{@link BusySpinWaitStrategy} - Spins on the sequence, needs a dedicated core per consumer</li>
+ *   <li>{@link YieldingWaitStrategy} - Spins briefly, then yields the core to other threads</li>
+ *   <li>{@link BackoffWaitStrategy} - Spins, yields, then parks for growing intervals</li>
+ *   <li>{@link BlockingWaitStrategy} - Sleeps on a condition until the producer signals</li>
+ * </ul>
+ * Which one is right depends on whether the host can spare a spinning core per stage, so it
+ * is chosen per deployment with {@link #fromName(String)}.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Wait until the barrier's available sequence reaches the given sequence or the barrier
+     * is alerted.
+     *
+     * @return The highest available sequence, which may be lower than requested if the
+     *         barrier was alerted
+     */
+    long waitFor(long sequence, SequenceBarrier barrier);
+
+    /**
+     * Wake consumers blocked in {@link #waitFor(long, SequenceBarrier)} after a sequence has
+     * advanced or a barrier has been alerted. Strategies that never block do nothing.
+     */
+    default void signalAllWhenBlocking() {
+    }
+
+    String name();
+
+    /**
+     * Create a strategy with default settings from its name: {@code busy-spin},
+     * {@code yielding}, {@code backoff} or {@code blocking}.
+     */
+    static WaitStrategy fromName(String name) {
+        return switch (name) {
+            case "busy-spin" -> new BusySpinWaitStrategy();
+            case "yielding" -> new YieldingWaitStrategy();
+            case "backoff" -> new BackoffWaitStrategy();
+            case "blocking" -> new BlockingWaitStrategy();
+            default -> throw new IllegalArgumentException(
+                    "Unknown wait strategy: " + name + ". Please use 'busy-spin', 'yielding', 'backoff' or 'blocking'");
+        };
+    }
+}
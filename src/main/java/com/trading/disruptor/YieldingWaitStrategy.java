@@ -0,0 +1,47 @@
+package com.trading.disruptor;
+
+/**
+ * Spins briefly with {@link Thread#onSpinWait()}, then calls {@link Thread#yield()} between
+ * checks.
+ * <p>
+ * Latency stays close to busy spinning while the consumer has its core to itself, and other
+ * runnable threads get the core when there are more threads than cores. An idle consumer
+ * still shows as fully busy. This is the ring buffer's default.
+ */
+public class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int DEFAULT_SPIN_TRIES = 100;
+
+    private final int spinTries;
+
+    public YieldingWaitStrategy() {
+        this(DEFAULT_SPIN_TRIES);
+    }
+
+    public YieldingWaitStrategy(int spinTries) {
+        this.spinTries = spinTries;
+    }
+
+    @Override
+    public long waitFor(long sequence, SequenceBarrier barrier) {
+        int counter = spinTries;
+        long available;
+        while ((available = barrier.availableSequence()) < sequence) {
+            if (barrier.isAlerted()) {
+                return available;
+            }
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public String name() {
+        return "yielding";
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * In-house implementation of the LMAX Disruptor pattern for multi-stage, allocation-free
+ * handoff between router threads.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>RingBuffer - Single-producer ring of pre-allocated, mutable events</li>
+ *   <li>Sequence - Cache-line padded progress counter with release/acquire semantics</li>
+ *   <li>SequenceBarrier - Waits until the producer and upstream stages have reached a sequence</li>
+ *   <li>WaitStrategy - How consumers wait for events, trading handoff latency against CPU use</li>
+ *   <li>BusySpinWaitStrategy - Spins with {@code Thread.onSpinWait}, lowest latency, burns a core</li>
+ *   <li>YieldingWaitStrategy - Spins briefly then yields, the default</li>
+ *   <li>BackoffWaitStrategy - Spins, yields, then parks for growing intervals</li>
+ *   <li>BlockingWaitStrategy - Sleeps on a lock condition until signalled, no idle CPU</li>
+ *   <li>BatchEventProcessor - Runs one pipeline stage on its own thread, in batches</li>
+ *   <li>EventHandler - Callback implemented by each stage</li>
+ * </ul>
+ * <p>
+ * These classes have no external dependencies; the compileOnly LMAX Disruptor dependency in
+ * build.gradle is only kept for reference.
+ */
+package com.trading.disruptor;
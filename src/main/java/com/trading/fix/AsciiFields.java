@@ -0,0 +1,39 @@
+package com.trading.fix;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ASCII symbol values written to and read from a {@link ByteBuffer} in place. Numbers are
+ * handled by {@link com.trading.util.NumericCodec}.
+ * <p>
+ * Writers use absolute indices and return the number of bytes written; {@code *Length}
+ * methods give that length up front so FIX body lengths can be computed before encoding.
+ */
+final class AsciiFields {
+
+    private AsciiFields() {
+    }
+
+    /**
+     * @return The number of bytes in a symbol code packed by {@code SymbolDictionary.encode}
+     */
+    static int symbolLength(long symbolCode) {
+        return (71 - Long.numberOfLeadingZeros(symbolCode)) >>> 3;
+    }
+
+    static int putSymbol(ByteBuffer buffer, int index, long symbolCode) {
+        int length = symbolLength(symbolCode);
+        for (int i = 0; i < length; i++) {
+            buffer.put(index + i, (byte) (symbolCode >>> ((length - 1 - i) << 3)));
+        }
+        return length;
+    }
+
+    static long parseSymbol(ByteBuffer buffer, int index, int length) {
+        long code = 0;
+        for (int i = 0; i < length; i++) {
+            code = (code << 8) | (buffer.get(index + i) & 0xFF);
+        }
+        return code;
+    }
+}
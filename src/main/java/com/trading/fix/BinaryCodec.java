@@ -0,0 +1,173 @@
+package com.trading.fix;
+
+import com.trading.model.Side;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Compact binary wire format modelled on Simple Binary Encoding: an 8-byte message header
+ * followed by a fixed-size block with every field at a fixed offset, little-endian.
+ * <p>
+ * Header: blockLength(2) + templateId(2) + schemaId(2) + version(2). Fields are read and
+ * written in place through flyweights, so decoding a field is a single load.
+ */
+public class BinaryCodec implements MessageCodec {
+
+    public static final int HEADER_SIZE = 8;
+    public static final short SCHEMA_ID = 1;
+    public static final short SCHEMA_VERSION = 1;
+
+    static final short NEW_ORDER_SINGLE_TEMPLATE = 1;
+    static final short EXECUTION_REPORT_TEMPLATE = 2;
+
+    // NewOrderSingle block
+    static final int NOS_SEQ_NUM = 0;
+    static final int NOS_CL_ORD_ID = 8;
+    static final int NOS_SYMBOL = 16;
+    static final int NOS_PRICE = 24;
+    static final int NOS_ORDER_QTY = 32;
+    static final int NOS_ACCOUNT = 40;
+    static final int NOS_SIDE = 44;
+    static final int NOS_ORD_TYPE = 45;
+    static final int NOS_BLOCK_LENGTH = 48;
+
+    // ExecutionReport block
+    static final int ER_SEQ_NUM = 0;
+    static final int ER_ORDER_ID = 8;
+    static final int ER_EXEC_ID = 16;
+    static final int ER_SYMBOL = 24;
+    static final int ER_LAST_PX = 32;
+    static final int ER_LAST_QTY = 40;
+    static final int ER_LEAVES_QTY = 48;
+    static final int ER_CUM_QTY = 56;
+    static final int ER_SIDE = 64;
+    static final int ER_ORD_STATUS = 65;
+    static final int ER_BLOCK_LENGTH = 72;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle SHORT = MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final BinaryNewOrderSingle newOrderSingle = new BinaryNewOrderSingle();
+    private final BinaryExecutionReport executionReport = new BinaryExecutionReport();
+
+    @Override
+    public int encodeNewOrderSingle(ByteBuffer buffer, int offset, long msgSeqNum, long clOrdId, int account,
+                                    long symbolCode, Side side, long price, long orderQty) {
+        putHeader(buffer, offset, NOS_BLOCK_LENGTH, NEW_ORDER_SINGLE_TEMPLATE);
+        int block = offset + HEADER_SIZE;
+        LONG.set(buffer, block + NOS_SEQ_NUM, msgSeqNum);
+        LONG.set(buffer, block + NOS_CL_ORD_ID, clOrdId);
+        LONG.set(buffer, block + NOS_SYMBOL, symbolCode);
+        LONG.set(buffer, block + NOS_PRICE, price);
+        LONG.set(buffer, block + NOS_ORDER_QTY, orderQty);
+        INT.set(buffer, block + NOS_ACCOUNT, account);
+        buffer.put(block + NOS_SIDE, side.code());
+        buffer.put(block + NOS_ORD_TYPE, ORD_TYPE_LIMIT);
+        SHORT.set(buffer, block + NOS_ORD_TYPE + 1, (short) 0);
+        return HEADER_SIZE + NOS_BLOCK_LENGTH;
+    }
+
+    @Override
+    public int encodeExecutionReport(ByteBuffer buffer, int offset, long msgSeqNum, long orderId, long execId,
+                                     long symbolCode, Side side, byte ordStatus,
+                                     long lastPx, long lastQty, long leavesQty, long cumQty) {
+        putHeader(buffer, offset, ER_BLOCK_LENGTH, EXECUTION_REPORT_TEMPLATE);
+        int block = offset + HEADER_SIZE;
+        LONG.set(buffer, block + ER_SEQ_NUM, msgSeqNum);
+        LONG.set(buffer, block + ER_ORDER_ID, orderId);
+        LONG.set(buffer, block + ER_EXEC_ID, execId);
+        LONG.set(buffer, block + ER_SYMBOL, symbolCode);
+        LONG.set(buffer, block + ER_LAST_PX, lastPx);
+        LONG.set(buffer, block + ER_LAST_QTY, lastQty);
+        LONG.set(buffer, block + ER_LEAVES_QTY, leavesQty);
+        LONG.set(buffer, block + ER_CUM_QTY, cumQty);
+        buffer.put(block + ER_SIDE, side.code());
+        buffer.put(block + ER_ORD_STATUS, ordStatus);
+        SHORT.set(buffer, block + ER_ORD_STATUS + 1, (short) 0);
+        INT.set(buffer, block + ER_ORD_STATUS + 3, 0);
+        return HEADER_SIZE + ER_BLOCK_LENGTH;
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer, int offset, int length, MessageHandler handler) {
+        if (length < HEADER_SIZE) {
+            return 0;
+        }
+        int blockLength = Short.toUnsignedInt((short) SHORT.get(buffer, offset));
+        if (length < HEADER_SIZE + blockLength) {
+            return 0;
+        }
+        short templateId = (short) SHORT.get(buffer, offset + 2);
+        short schemaId = (short) SHORT.get(buffer, offset + 4);
+        if (schemaId != SCHEMA_ID) {
+            throw new IllegalArgumentException("Unknown schema id " + schemaId + " at offset " + offset);
+        }
+        int block = offset + HEADER_SIZE;
+        if (templateId == NEW_ORDER_SINGLE_TEMPLATE) {
+            handler.onNewOrderSingle(newOrderSingle.wrap(buffer, block));
+        } else if (templateId == EXECUTION_REPORT_TEMPLATE) {
+            handler.onExecutionReport(executionReport.wrap(buffer, block));
+        } else {
+            throw new IllegalArgumentException("Unknown template id " + templateId + " at offset " + offset);
+        }
+        return HEADER_SIZE + blockLength;
+    }
+
+    @Override
+    public String format() {
+        return "binary";
+    }
+
+    private static void putHeader(ByteBuffer buffer, int offset, int blockLength, short templateId) {
+        SHORT.set(buffer, offset, (short) blockLength);
+        SHORT.set(buffer, offset + 2, templateId);
+        SHORT.set(buffer, offset + 4, SCHEMA_ID);
+        SHORT.set(buffer, offset + 6, SCHEMA_VERSION);
+    }
+
+    private static final class BinaryNewOrderSingle implements NewOrderSingle {
+        private ByteBuffer buffer;
+        private int offset;
+
+        BinaryNewOrderSingle wrap(ByteBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+
+        @Override public long msgSeqNum() { return (long) LONG.get(buffer, offset + NOS_SEQ_NUM); }
+        @Override public long clOrdId() { return (long) LONG.get(buffer, offset + NOS_CL_ORD_ID); }
+        @Override public int account() { return (int) INT.get(buffer, offset + NOS_ACCOUNT); }
+        @Override public long symbolCode() { return (long) LONG.get(buffer, offset + NOS_SYMBOL); }
+        @Override public Side side() { return Side.fromCode(buffer.get(offset + NOS_SIDE)); }
+        @Override public byte ordType() { return buffer.get(offset + NOS_ORD_TYPE); }
+        @Override public long price() { return (long) LONG.get(buffer, offset + NOS_PRICE); }
+        @Override public long orderQty() { return (long) LONG.get(buffer, offset + NOS_ORDER_QTY); }
+    }
+
+    private static final class BinaryExecutionReport implements ExecutionReport {
+        private ByteBuffer buffer;
+        private int offset;
+
+        BinaryExecutionReport wrap(ByteBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            return this;
+        }
+
+        @Override public long msgSeqNum() { return (long) LONG.get(buffer, offset + ER_SEQ_NUM); }
+        @Override public long orderId() { return (long) LONG.get(buffer, offset + ER_ORDER_ID); }
+        @Override public long execId() { return (long) LONG.get(buffer, offset + ER_EXEC_ID); }
+        @Override public long symbolCode() { return (long) LONG.get(buffer, offset + ER_SYMBOL); }
+        @Override public Side side() { return Side.fromCode(buffer.get(offset + ER_SIDE)); }
+        @Override public byte ordStatus() { return buffer.get(offset + ER_ORD_STATUS); }
+        @Override public long lastPx() { return (long) LONG.get(buffer, offset + ER_LAST_PX); }
+        @Override public long lastQty() { return (long) LONG.get(buffer, offset + ER_LAST_QTY); }
+        @Override public long leavesQty() { return (long) LONG.get(buffer, offset + ER_LEAVES_QTY); }
+        @Override public long cumQty() { return (long) LONG.get(buffer, offset + ER_CUM_QTY); }
+    }
+}
@@ -0,0 +1,30 @@
+package com.trading.fix;
+
+import com.trading.model.Side;
+
+/**
+ * Read view of a decoded ExecutionReport (FIX MsgType 8), with the same flyweight rules as
+ * {@link NewOrderSingle}.
+ */
+public interface ExecutionReport {
+
+    long msgSeqNum();
+
+    long orderId();
+
+    long execId();
+
+    long symbolCode();
+
+    Side side();
+
+    byte ordStatus();
+
+    long lastPx();
+
+    long lastQty();
+
+    long leavesQty();
+
+    long cumQty();
+}
@@ -0,0 +1,365 @@
+package com.trading.fix;
+
+import com.trading.model.Side;
+import com.trading.util.NumericCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FIX 4.4 tag=value wire format, encoded and decoded in place.
+ * <p>
+ * Encoding computes the BodyLength(9) field up front from the digit count of every value,
+ * so the message is written front to back in a single pass, and the CheckSum(10) is summed
+ * as each byte is written. Decoding makes one pass over the message that both verifies the
+ * checksum and records where each value starts; the flyweight views then parse a value
+ * only when its getter is called.
+ */
+public class FixCodec implements MessageCodec {
+
+    static final byte SOH = 1;
+
+    static final int TAG_ACCOUNT = 1;
+    static final int TAG_BEGIN_STRING = 8;
+    static final int TAG_BODY_LENGTH = 9;
+    static final int TAG_CHECKSUM = 10;
+    static final int TAG_CL_ORD_ID = 11;
+    static final int TAG_CUM_QTY = 14;
+    static final int TAG_EXEC_ID = 17;
+    static final int TAG_LAST_PX = 31;
+    static final int TAG_LAST_QTY = 32;
+    static final int TAG_MSG_SEQ_NUM = 34;
+    static final int TAG_MSG_TYPE = 35;
+    static final int TAG_ORDER_ID = 37;
+    static final int TAG_ORDER_QTY = 38;
+    static final int TAG_ORD_STATUS = 39;
+    static final int TAG_ORD_TYPE = 40;
+    static final int TAG_PRICE = 44;
+    static final int TAG_SENDER_COMP_ID = 49;
+    static final int TAG_SIDE = 54;
+    static final int TAG_SYMBOL = 55;
+    static final int TAG_TARGET_COMP_ID = 56;
+    static final int TAG_LEAVES_QTY = 151;
+
+    private static final int MAX_TAG = TAG_LEAVES_QTY;
+
+    private static final byte[] BEGIN_STRING = ascii("8=FIX.4.4\u0001");
+    private static final byte[] BODY_LENGTH_TAG = ascii("9=");
+    private static final byte[] CHECKSUM_TAG = ascii("10=");
+    // "10=" + three digits + SOH
+    private static final int CHECKSUM_FIELD_LENGTH = 7;
+
+    private static final byte MSG_TYPE_NEW_ORDER_SINGLE = 'D';
+    private static final byte MSG_TYPE_EXECUTION_REPORT = '8';
+
+    private final byte[] senderCompId;
+    private final byte[] targetCompId;
+
+    // Body bytes that do not depend on field values: MsgType, the comp ids and one-character fields
+    private final int newOrderSingleFixedLength;
+    private final int executionReportFixedLength;
+
+    // Encoder state for the message being written
+    private ByteBuffer out;
+    private int position;
+    private int checksum;
+
+    // Decoder state: where each known tag's value starts, stamped with the message it belongs to
+    private final int[] valueOffsets = new int[MAX_TAG + 1];
+    private final int[] valueLengths = new int[MAX_TAG + 1];
+    private final int[] valueGenerations = new int[MAX_TAG + 1];
+    private int generation;
+    private ByteBuffer in;
+
+    private final FixNewOrderSingle newOrderSingle = new FixNewOrderSingle();
+    private final FixExecutionReport executionReport = new FixExecutionReport();
+
+    public FixCodec(String senderCompId, String targetCompId) {
+        this.senderCompId = ascii(senderCompId);
+        this.targetCompId = ascii(targetCompId);
+        int header = fieldLength(TAG_MSG_TYPE, 1)
+                + fieldLength(TAG_SENDER_COMP_ID, this.senderCompId.length)
+                + fieldLength(TAG_TARGET_COMP_ID, this.targetCompId.length);
+        this.newOrderSingleFixedLength = header + fieldLength(TAG_SIDE, 1) + fieldLength(TAG_ORD_TYPE, 1);
+        this.executionReportFixedLength = header + fieldLength(TAG_SIDE, 1) + fieldLength(TAG_ORD_STATUS, 1);
+    }
+
+    @Override
+    public int encodeNewOrderSingle(ByteBuffer buffer, int offset, long msgSeqNum, long clOrdId, int account,
+                                    long symbolCode, Side side, long price, long orderQty) {
+        int bodyLength = newOrderSingleFixedLength
+                + fieldLength(TAG_MSG_SEQ_NUM, NumericCodec.longLength(msgSeqNum))
+                + fieldLength(TAG_CL_ORD_ID, NumericCodec.longLength(clOrdId))
+                + fieldLength(TAG_ACCOUNT, NumericCodec.longLength(account))
+                + fieldLength(TAG_SYMBOL, AsciiFields.symbolLength(symbolCode))
+                + fieldLength(TAG_PRICE, NumericCodec.decimalLength(price, PRICE_DECIMALS))
+                + fieldLength(TAG_ORDER_QTY, NumericCodec.longLength(orderQty));
+
+        begin(buffer, offset, bodyLength, MSG_TYPE_NEW_ORDER_SINGLE, msgSeqNum);
+        putLongField(TAG_CL_ORD_ID, clOrdId);
+        putLongField(TAG_ACCOUNT, account);
+        putSymbolField(symbolCode);
+        putByteField(TAG_SIDE, (byte) ('0' + side.code()));
+        putByteField(TAG_ORD_TYPE, ORD_TYPE_LIMIT);
+        putPriceField(TAG_PRICE, price);
+        putLongField(TAG_ORDER_QTY, orderQty);
+        return finish(offset);
+    }
+
+    @Override
+    public int encodeExecutionReport(ByteBuffer buffer, int offset, long msgSeqNum, long orderId, long execId,
+                                     long symbolCode, Side side, byte ordStatus,
+                                     long lastPx, long lastQty, long leavesQty, long cumQty) {
+        int bodyLength = executionReportFixedLength
+                + fieldLength(TAG_MSG_SEQ_NUM, NumericCodec.longLength(msgSeqNum))
+                + fieldLength(TAG_ORDER_ID, NumericCodec.longLength(orderId))
+                + fieldLength(TAG_EXEC_ID, NumericCodec.longLength(execId))
+                + fieldLength(TAG_SYMBOL, AsciiFields.symbolLength(symbolCode))
+                + fieldLength(TAG_LAST_PX, NumericCodec.decimalLength(lastPx, PRICE_DECIMALS))
+                + fieldLength(TAG_LAST_QTY, NumericCodec.longLength(lastQty))
+                + fieldLength(TAG_LEAVES_QTY, NumericCodec.longLength(leavesQty))
+                + fieldLength(TAG_CUM_QTY, NumericCodec.longLength(cumQty));
+
+        begin(buffer, offset, bodyLength, MSG_TYPE_EXECUTION_REPORT, msgSeqNum);
+        putLongField(TAG_ORDER_ID, orderId);
+        putLongField(TAG_EXEC_ID, execId);
+        putSymbolField(symbolCode);
+        putByteField(TAG_SIDE, (byte) ('0' + side.code()));
+        putByteField(TAG_ORD_STATUS, ordStatus);
+        putPriceField(TAG_LAST_PX, lastPx);
+        putLongField(TAG_LAST_QTY, lastQty);
+        putLongField(TAG_LEAVES_QTY, leavesQty);
+        putLongField(TAG_CUM_QTY, cumQty);
+        return finish(offset);
+    }
+
+    @Override
+    public int decode(ByteBuffer buffer, int offset, int length, MessageHandler handler) {
+        int end = offset + length;
+
+        // Read BodyLength to find the end of the message before scanning it
+        int index = offset + BEGIN_STRING.length + BODY_LENGTH_TAG.length;
+        if (index >= end) {
+            return 0;
+        }
+        for (int i = 0; i < BEGIN_STRING.length; i++) {
+            if (buffer.get(offset + i) != BEGIN_STRING[i]) {
+                throw new IllegalArgumentException("Message does not start with BeginString FIX.4.4 at offset " + offset);
+            }
+        }
+        int bodyLength = 0;
+        byte b;
+        while ((b = buffer.get(index)) != SOH) {
+            if (b < '0' || b > '9') {
+                throw new IllegalArgumentException("Invalid BodyLength at offset " + offset);
+            }
+            bodyLength = bodyLength * 10 + (b - '0');
+            if (++index == end) {
+                return 0;
+            }
+        }
+        int bodyEnd = index + 1 + bodyLength;
+        int messageEnd = bodyEnd + CHECKSUM_FIELD_LENGTH;
+        if (messageEnd > end) {
+            return 0;
+        }
+
+        // One pass: sum every byte for the checksum and note where each value is
+        generation++;
+        in = buffer;
+        int sum = 0;
+        int tag = 0;
+        int valueStart = -1;
+        for (int i = offset; i < bodyEnd; i++) {
+            b = buffer.get(i);
+            sum += b;
+            if (valueStart < 0) {
+                if (b == '=') {
+                    if (tag == 0) {
+                        throw new IllegalArgumentException("Missing tag at offset " + i);
+                    }
+                    valueStart = i + 1;
+                } else if (b < '0' || b > '9') {
+                    throw new IllegalArgumentException("Invalid tag byte " + b + " at offset " + i);
+                } else if (tag <= MAX_TAG) {
+                    // Tags above MAX_TAG are skipped, so stop counting once past it rather than overflow
+                    tag = tag * 10 + (b - '0');
+                }
+            } else if (b == SOH) {
+                if (tag <= MAX_TAG) {
+                    valueOffsets[tag] = valueStart;
+                    valueLengths[tag] = i - valueStart;
+                    valueGenerations[tag] = generation;
+                }
+                tag = 0;
+                valueStart = -1;
+            }
+        }
+
+        int expected = (int) NumericCodec.parseLong(buffer, bodyEnd + CHECKSUM_TAG.length, 3);
+        if (buffer.get(bodyEnd) != '1' || buffer.get(bodyEnd + 1) != '0' || (sum & 0xFF) != expected) {
+            throw new IllegalArgumentException("Invalid CheckSum at offset " + offset
+                    + ": expected " + expected + ", computed " + (sum & 0xFF));
+        }
+
+        byte msgType = buffer.get(valueOffset(TAG_MSG_TYPE));
+        if (msgType == MSG_TYPE_NEW_ORDER_SINGLE) {
+            handler.onNewOrderSingle(newOrderSingle);
+        } else if (msgType == MSG_TYPE_EXECUTION_REPORT) {
+            handler.onExecutionReport(executionReport);
+        } else {
+            throw new IllegalArgumentException("Unsupported MsgType " + (char) msgType + " at offset " + offset);
+        }
+        return messageEnd - offset;
+    }
+
+    @Override
+    public String format() {
+        return "fix";
+    }
+
+    private void begin(ByteBuffer buffer, int offset, int bodyLength, byte msgType, long msgSeqNum) {
+        out = buffer;
+        position = offset;
+        checksum = 0;
+        putBytes(BEGIN_STRING);
+        putBytes(BODY_LENGTH_TAG);
+        putLong(bodyLength);
+        putByte(SOH);
+        putByteField(TAG_MSG_TYPE, msgType);
+        putBytesField(TAG_SENDER_COMP_ID, senderCompId);
+        putBytesField(TAG_TARGET_COMP_ID, targetCompId);
+        putLongField(TAG_MSG_SEQ_NUM, msgSeqNum);
+    }
+
+    private int finish(int offset) {
+        int value = checksum & 0xFF;
+        putBytes(CHECKSUM_TAG);
+        out.put(position++, (byte) ('0' + value / 100));
+        out.put(position++, (byte) ('0' + value / 10 % 10));
+        out.put(position++, (byte) ('0' + value % 10));
+        out.put(position++, SOH);
+        out = null;
+        return position - offset;
+    }
+
+    private void putTag(int tag) {
+        putLong(tag);
+        putByte((byte) '=');
+    }
+
+    private void putLongField(int tag, long value) {
+        putTag(tag);
+        putLong(value);
+        putByte(SOH);
+    }
+
+    private void putPriceField(int tag, long price) {
+        putTag(tag);
+        int length = NumericCodec.putDecimal(out, position, price, PRICE_DECIMALS);
+        sumWritten(length);
+        putByte(SOH);
+    }
+
+    private void putSymbolField(long symbolCode) {
+        putTag(TAG_SYMBOL);
+        int length = AsciiFields.putSymbol(out, position, symbolCode);
+        sumWritten(length);
+        putByte(SOH);
+    }
+
+    private void putByteField(int tag, byte value) {
+        putTag(tag);
+        putByte(value);
+        putByte(SOH);
+    }
+
+    private void putBytesField(int tag, byte[] value) {
+        putTag(tag);
+        putBytes(value);
+        putByte(SOH);
+    }
+
+    private void putLong(long value) {
+        int length = NumericCodec.putLong(out, position, value);
+        sumWritten(length);
+    }
+
+    // Add the bytes just written at the current position to the checksum and move past them
+    private void sumWritten(int length) {
+        for (int i = position; i < position + length; i++) {
+            checksum += out.get(i);
+        }
+        position += length;
+    }
+
+    private void putByte(byte value) {
+        out.put(position++, value);
+        checksum += value;
+    }
+
+    private void putBytes(byte[] bytes) {
+        for (byte value : bytes) {
+            putByte(value);
+        }
+    }
+
+    private int valueOffset(int tag) {
+        if (valueGenerations[tag] != generation) {
+            throw new IllegalArgumentException("Missing tag " + tag);
+        }
+        return valueOffsets[tag];
+    }
+
+    private long longValue(int tag) {
+        return NumericCodec.parseLong(in, valueOffset(tag), valueLengths[tag]);
+    }
+
+    private long priceValue(int tag) {
+        return NumericCodec.parseDecimal(in, valueOffset(tag), valueLengths[tag], PRICE_DECIMALS);
+    }
+
+    private byte byteValue(int tag) {
+        return in.get(valueOffset(tag));
+    }
+
+    private Side sideValue() {
+        return Side.fromCode((byte) (byteValue(TAG_SIDE) - '0'));
+    }
+
+    private long symbolValue() {
+        return AsciiFields.parseSymbol(in, valueOffset(TAG_SYMBOL), valueLengths[TAG_SYMBOL]);
+    }
+
+    private static int fieldLength(int tag, int valueLength) {
+        return NumericCodec.longLength(tag) + 1 + valueLength + 1;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private final class FixNewOrderSingle implements NewOrderSingle {
+        @Override public long msgSeqNum() { return longValue(TAG_MSG_SEQ_NUM); }
+        @Override public long clOrdId() { return longValue(TAG_CL_ORD_ID); }
+        @Override public int account() { return (int) longValue(TAG_ACCOUNT); }
+        @Override public long symbolCode() { return symbolValue(); }
+        @Override public Side side() { return sideValue(); }
+        @Override public byte ordType() { return byteValue(TAG_ORD_TYPE); }
+        @Override public long price() { return priceValue(TAG_PRICE); }
+        @Override public long orderQty() { return longValue(TAG_ORDER_QTY); }
+    }
+
+    private final class FixExecutionReport implements ExecutionReport {
+        @Override public long msgSeqNum() { return longValue(TAG_MSG_SEQ_NUM); }
+        @Override public long orderId() { return longValue(TAG_ORDER_ID); }
+        @Override public long execId() { return longValue(TAG_EXEC_ID); }
+        @Override public long symbolCode() { return symbolValue(); }
+        @Override public Side side() { return sideValue(); }
+        @Override public byte ordStatus() { return byteValue(TAG_ORD_STATUS); }
+        @Override public long lastPx() { return priceValue(TAG_LAST_PX); }
+        @Override public long lastQty() { return longValue(TAG_LAST_QTY); }
+        @Override public long leavesQty() { return longValue(TAG_LEAVES_QTY); }
+        @Override public long cumQty() { return longValue(TAG_CUM_QTY); }
+    }
+}
@@ -0,0 +1,53 @@
+package com.trading.fix;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes order entry messages directly in a {@link ByteBuffer}, in one of two
+ * interchangeable wire formats: {@link FixCodec} (FIX tag=value) and {@link BinaryCodec}
+ * (a compact SBE-like fixed layout).
+ * <p>
+ * All buffer access uses absolute indices, so the buffer's position and limit are never
+ * touched, and neither encoding nor decoding allocates. A codec instance keeps scratch state
+ * and must only be used by one thread.
+ */
+public interface MessageCodec {
+
+    // Prices travel in the order model's fixed-point scale
+    int PRICE_DECIMALS = Price.DECIMALS;
+
+    byte ORD_TYPE_LIMIT = '2';
+
+    byte ORD_STATUS_PARTIALLY_FILLED = '1';
+    byte ORD_STATUS_FILLED = '2';
+
+    /**
+     * @return The number of bytes written at {@code offset}
+     */
+    int encodeNewOrderSingle(ByteBuffer buffer, int offset, long msgSeqNum, long clOrdId, int account,
+                             long symbolCode, Side side, long price, long orderQty);
+
+    /**
+     * @return The number of bytes written at {@code offset}
+     */
+    int encodeExecutionReport(ByteBuffer buffer, int offset, long msgSeqNum, long orderId, long execId,
+                              long symbolCode, Side side, byte ordStatus,
+                              long lastPx, long lastQty, long leavesQty, long cumQty);
+
+    /**
+     * Decode one message starting at {@code offset} and pass it to the handler.
+     *
+     * @param length Number of readable bytes from {@code offset}
+     * @return The length of the decoded message, or 0 if the bytes do not yet hold a whole message
+     * @throws IllegalArgumentException If the message is malformed
+     */
+    int decode(ByteBuffer buffer, int offset, int length, MessageHandler handler);
+
+    /**
+     * @return The name of the wire format
+     */
+    String format();
+}
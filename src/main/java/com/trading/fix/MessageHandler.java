@@ -0,0 +1,12 @@
+package com.trading.fix;
+
+/**
+ * Receives messages decoded by a {@link MessageCodec}. The views passed in are only valid
+ * for the duration of the call.
+ */
+public interface MessageHandler {
+
+    void onNewOrderSingle(NewOrderSingle order);
+
+    void onExecutionReport(ExecutionReport report);
+}
@@ -0,0 +1,30 @@
+package com.trading.fix;
+
+import com.trading.model.Side;
+
+/**
+ * Read view of a decoded NewOrderSingle (FIX MsgType D).
+ * <p>
+ * Implementations are flyweights over the receive buffer: fields are read in place when
+ * called, and the view is only valid for the duration of the {@link MessageHandler} callback.
+ * Prices are {@code Price} longs with {@value MessageCodec#PRICE_DECIMALS} implied decimals and symbols
+ * are codes packed by {@code SymbolDictionary.encode}.
+ */
+public interface NewOrderSingle {
+
+    long msgSeqNum();
+
+    long clOrdId();
+
+    int account();
+
+    long symbolCode();
+
+    Side side();
+
+    byte ordType();
+
+    long price();
+
+    long orderQty();
+}
@@ -0,0 +1,17 @@
+/**
+ * Zero-copy codecs for the order entry messages the router sends and receives.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>MessageCodec - Encodes and decodes messages in place in a ByteBuffer</li>
+ *   <li>FixCodec - FIX 4.4 tag=value format with up-front BodyLength and incremental CheckSum</li>
+ *   <li>BinaryCodec - Compact SBE-like fixed layout</li>
+ *   <li>NewOrderSingle, ExecutionReport - Flyweight views over decoded messages</li>
+ *   <li>MessageHandler - Callback for decoded messages</li>
+ * </ul>
+ * <p>
+ * Unlike the QuickFIX/J message objects this replaces (still a compileOnly dependency in
+ * build.gradle for reference), nothing here builds an object graph per message: encoding
+ * and decoding never allocate.
+ */
+package com.trading.fix;
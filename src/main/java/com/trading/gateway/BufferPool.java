@@ -0,0 +1,55 @@
+package com.trading.gateway;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size direct {@link ByteBuffer}s, allocated once and handed out again after release,
+ * so connections that come and go never allocate or free native memory.
+ * <p>
+ * Buffers are kept on an array stack; if the pool runs dry it allocates a new buffer, which
+ * joins the pool when released.
+ * <p>
+ * Thread safety: a pool belongs to one thread, the gateway's selector thread.
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private ByteBuffer[] free;
+    private int freeCount;
+
+    public BufferPool(int bufferSize, int initialBuffers) {
+        this.bufferSize = bufferSize;
+        this.free = new ByteBuffer[Math.max(1, initialBuffers)];
+        for (int i = 0; i < initialBuffers; i++) {
+            free[freeCount++] = ByteBuffer.allocateDirect(bufferSize);
+        }
+    }
+
+    /**
+     * @return A cleared buffer
+     */
+    public ByteBuffer acquire() {
+        return freeCount > 0 ? free[--freeCount] : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void release(ByteBuffer buffer) {
+        buffer.clear();
+        if (freeCount == free.length) {
+            ByteBuffer[] grown = new ByteBuffer[free.length * 2];
+            System.arraycopy(free, 0, grown, 0, freeCount);
+            free = grown;
+        }
+        free[freeCount++] = buffer;
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return Buffers currently in the pool
+     */
+    public int available() {
+        return freeCount;
+    }
+}
@@ -0,0 +1,65 @@
+package com.trading.gateway;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * State of one client connection on the gateway: a pooled read buffer that may hold a
+ * partial record between reads, and a queue of pooled write buffers holding acks not yet
+ * written. While that queue is over the gateway's limit the connection is not read.
+ */
+class Connection {
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer readBuffer;
+
+    // Acks are appended to the last buffer; buffers from first to count - 1 are pending
+    ByteBuffer[] writeBuffers = new ByteBuffer[4];
+    int firstWriteBuffer;
+    int writeBufferCount;
+    boolean dirty;
+    // Set while OP_READ is off because the client is not reading its acks
+    boolean readPaused;
+
+    Connection(SocketChannel channel, SelectionKey key, ByteBuffer readBuffer) {
+        this.channel = channel;
+        this.key = key;
+        this.readBuffer = readBuffer;
+    }
+
+    /**
+     * @return The buffer to append the next ack of {@code recordSize} bytes to
+     */
+    ByteBuffer appendBuffer(BufferPool pool, int recordSize) {
+        if (writeBufferCount > firstWriteBuffer) {
+            ByteBuffer last = writeBuffers[writeBufferCount - 1];
+            if (last.remaining() >= recordSize) {
+                return last;
+            }
+        }
+        if (writeBufferCount == writeBuffers.length) {
+            if (firstWriteBuffer > 0) {
+                System.arraycopy(writeBuffers, firstWriteBuffer, writeBuffers, 0, writeBufferCount - firstWriteBuffer);
+                writeBufferCount -= firstWriteBuffer;
+                firstWriteBuffer = 0;
+            } else {
+                ByteBuffer[] grown = new ByteBuffer[writeBuffers.length * 2];
+                System.arraycopy(writeBuffers, 0, grown, 0, writeBufferCount);
+                writeBuffers = grown;
+            }
+        }
+        ByteBuffer buffer = pool.acquire();
+        writeBuffers[writeBufferCount++] = buffer;
+        return buffer;
+    }
+
+    boolean hasPendingWrites() {
+        return writeBufferCount > firstWriteBuffer;
+    }
+
+    int pendingWriteBuffers() {
+        return writeBufferCount - firstWriteBuffer;
+    }
+}
@@ -0,0 +1,164 @@
+package com.trading.gateway;
+
+import com.trading.benchmark.DirectBufferDemo;
+import com.trading.util.LatencyHistogram;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
+
+/**
+ * Load client for an {@link OrderGateway}: opens a number of connections from one selector
+ * thread and keeps exactly one order in flight on each, sending the next as soon as the ack
+ * for the previous one arrives.
+ * <p>
+ * Every round trip, from just before the order is written to just after its ack has been
+ * read, is recorded in a {@link LatencyHistogram}. With one outstanding order per connection
+ * the load is closed-loop, so it measures the gateway's response time at the concurrency
+ * given by the number of connections rather than at a fixed arrival rate.
+ * <p>
+ * Thread safety: a client is driven by one thread.
+ */
+public class LoopbackClient implements Closeable {
+
+    private static final int RECORD_SIZE = OrderGateway.RECORD_SIZE;
+
+    private final Selector selector;
+    private final SocketChannel[] channels;
+    private final ByteBuffer[] readBuffers;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(RECORD_SIZE);
+    private final DirectBufferDemo.OrderFlyweight order = new DirectBufferDemo.OrderFlyweight();
+    private final DirectBufferDemo.OrderFlyweight ack = new DirectBufferDemo.OrderFlyweight();
+    private final long[] sentAt;
+    private final OrderSource source;
+    private final Consumer<SelectionKey> onReadable = this::onReadable;
+
+    private LatencyHistogram latencies;
+    private boolean sending;
+    private long nextOrderId;
+    private long roundTrips;
+    private long rejected;
+    private int inFlight;
+
+    /**
+     * Fills in the next order to send; the flyweight's order id is already set.
+     */
+    @FunctionalInterface
+    public interface OrderSource {
+        void next(long orderId, int connection, DirectBufferDemo.OrderFlyweight order);
+    }
+
+    public LoopbackClient(InetSocketAddress gateway, int connections, OrderSource source) throws IOException {
+        this.source = source;
+        this.selector = Selector.open();
+        this.channels = new SocketChannel[connections];
+        this.readBuffers = new ByteBuffer[connections];
+        this.sentAt = new long[connections];
+        try {
+            for (int i = 0; i < connections; i++) {
+                SocketChannel channel = SocketChannel.open(gateway);
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                channel.register(selector, SelectionKey.OP_READ, i);
+                channels[i] = channel;
+                readBuffers[i] = ByteBuffer.allocateDirect(RECORD_SIZE);
+            }
+        } catch (IOException e) {
+            closeChannels();
+            throw e;
+        }
+    }
+
+    /**
+     * Send orders on every connection for the given time, then wait for the acks still in
+     * flight.
+     *
+     * @param latencies Receives the round-trip time of every order, in nanoseconds
+     * @return Round trips completed
+     */
+    public long run(long durationNanos, LatencyHistogram latencies) throws IOException {
+        this.latencies = latencies;
+        roundTrips = 0;
+        rejected = 0;
+        sending = true;
+        for (int i = 0; i < channels.length; i++) {
+            send(i);
+        }
+        long end = System.nanoTime() + durationNanos;
+        while (inFlight > 0) {
+            if (sending && System.nanoTime() - end >= 0) {
+                sending = false;
+            }
+            selector.select(onReadable, 100);
+        }
+        return roundTrips;
+    }
+
+    /**
+     * @return Acks of the last run that rejected the order
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public int getConnections() {
+        return channels.length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeChannels();
+    }
+
+    private void onReadable(SelectionKey key) {
+        int connection = (Integer) key.attachment();
+        ByteBuffer buffer = readBuffers[connection];
+        try {
+            if (channels[connection].read(buffer) < 0) {
+                throw new IOException("Gateway closed connection " + connection);
+            }
+            if (buffer.hasRemaining()) {
+                return;
+            }
+            latencies.recordValue(System.nanoTime() - sentAt[connection]);
+            roundTrips++;
+            inFlight--;
+            if (ack.wrap(buffer, 0).type() == OrderGateway.ACK_REJECTED) {
+                rejected++;
+            }
+            buffer.clear();
+            if (sending) {
+                send(connection);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeChannels() throws IOException {
+        for (SocketChannel channel : channels) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+        selector.close();
+    }
+
+    private void send(int connection) throws IOException {
+        writeBuffer.clear();
+        order.wrap(writeBuffer, 0).orderId(nextOrderId);
+        source.next(nextOrderId++, connection, order);
+        sentAt[connection] = System.nanoTime();
+        // A single record on an otherwise idle connection always fits the socket buffer
+        while (writeBuffer.hasRemaining()) {
+            channels[connection].write(writeBuffer);
+        }
+        inFlight++;
+    }
+}
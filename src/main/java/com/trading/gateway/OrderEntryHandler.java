@@ -0,0 +1,23 @@
+package com.trading.gateway;
+
+import com.trading.benchmark.DirectBufferDemo;
+
+/**
+ * Receives orders from the {@link OrderGateway} on its selector thread.
+ */
+@FunctionalInterface
+public interface OrderEntryHandler {
+
+    /**
+     * Process one order and complete its acknowledgement.
+     *
+     * @param order Flyweight over the order record in the connection's read buffer; only
+     *              valid for the duration of the call
+     * @param ack   Flyweight over the acknowledgement record in the connection's write buffer,
+     *              pre-filled with the order's id, symbol, side, client and price, type
+     *              {@link OrderGateway#ACK_ACCEPTED} and quantity zero. Set the filled quantity,
+     *              or the type to {@link OrderGateway#ACK_REJECTED}. If the handler throws a
+     *              runtime exception the order is rejected and the gateway carries on
+     */
+    void onOrder(DirectBufferDemo.OrderFlyweight order, DirectBufferDemo.OrderFlyweight ack);
+}
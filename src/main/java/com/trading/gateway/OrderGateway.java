@@ -0,0 +1,320 @@
+package com.trading.gateway;
+
+import com.trading.benchmark.DirectBufferDemo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking TCP order-entry gateway on a single selector thread.
+ * <p>
+ * Clients send orders as 40-byte records in the {@link DirectBufferDemo} layout, back to
+ * back, and get one acknowledgement record in the same layout per order. Each connection
+ * reads into a pooled direct buffer and the {@link OrderEntryHandler} sees every complete
+ * record through a flyweight over that buffer, so the bytes are never copied into a heap
+ * array. Partial records stay in the buffer until the rest arrives.
+ * <p>
+ * Work is batched per selector wake-up: every ready connection is read until its socket is
+ * drained and all of its complete orders are handled, with the acks appended to the
+ * connection's pooled write buffers; only after all ready connections have been read are the
+ * acks flushed, one gathering write per connection. A connection whose socket cannot take all
+ * of its acks keeps the rest and is flushed again when it becomes writable.
+ * <p>
+ * A client that sends orders but does not read its acks would otherwise make the gateway
+ * queue acks without bound. Once a connection has 8 write buffers of acks pending, 1,024
+ * acks, the gateway stops reading it, leaving further orders in the socket so TCP flow
+ * control pushes back on the client, and reads it again once its acks have drained below 2
+ * buffers.
+ * <p>
+ * Thread safety: {@link #run()} runs on one thread; {@link #halt()} and the statistics may
+ * be called from any thread.
+ */
+public class OrderGateway implements Runnable, Closeable {
+
+    public static final byte ACK_ACCEPTED = 'A';
+    public static final byte ACK_REJECTED = 'R';
+
+    public static final int RECORD_SIZE = DirectBufferDemo.ORDER_SIZE;
+
+    // A multiple of the record size, so a drained read buffer always has room for a whole record
+    private static final int READ_BUFFER_SIZE = 256 * RECORD_SIZE;
+    private static final int WRITE_BUFFER_SIZE = 128 * RECORD_SIZE;
+    // Pending acks per connection are bounded by these plus the acks of one full read buffer
+    private static final int MAX_PENDING_WRITE_BUFFERS = 8;
+    private static final int RESUME_READ_WRITE_BUFFERS = 2;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final OrderEntryHandler handler;
+    private final BufferPool readBuffers;
+    private final BufferPool writeBuffers;
+    private final DirectBufferDemo.OrderFlyweight order = new DirectBufferDemo.OrderFlyweight();
+    private final DirectBufferDemo.OrderFlyweight ack = new DirectBufferDemo.OrderFlyweight();
+    private final Consumer<SelectionKey> onReady = this::onReady;
+
+    // Connections with acks appended during the current wake-up
+    private Connection[] dirty;
+    private int dirtyCount;
+    private long wakeupOrders;
+
+    private volatile boolean running = true;
+    // Written by the selector thread only
+    private volatile int connectionCount;
+    private volatile long ordersReceived;
+    private volatile long wakeups;
+
+    /**
+     * @param address        Address to listen on, port 0 for any free port
+     * @param maxConnections Connections whose buffers are allocated up front
+     */
+    public OrderGateway(InetSocketAddress address, OrderEntryHandler handler, int maxConnections) throws IOException {
+        this.handler = handler;
+        this.readBuffers = new BufferPool(READ_BUFFER_SIZE, maxConnections);
+        this.writeBuffers = new BufferPool(WRITE_BUFFER_SIZE, maxConnections);
+        this.dirty = new Connection[Math.max(1, maxConnections)];
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, maxConnections);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public InetSocketAddress localAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select(onReady);
+                if (wakeupOrders > 0) {
+                    // One volatile write per wake-up rather than per order, made before the
+                    // acks go out so a client that has its acks also sees them counted
+                    ordersReceived += wakeupOrders;
+                    wakeups++;
+                    wakeupOrders = 0;
+                }
+                for (int i = 0; i < dirtyCount; i++) {
+                    Connection connection = dirty[i];
+                    connection.dirty = false;
+                    flush(connection);
+                    dirty[i] = null;
+                }
+                dirtyCount = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Order gateway selector failed", e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * Stop the selector thread, which then closes every connection.
+     */
+    public void halt() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void close() {
+        halt();
+    }
+
+    /**
+     * @return Orders received so far
+     */
+    public long getOrdersReceived() {
+        return ordersReceived;
+    }
+
+    /**
+     * @return Selector wake-ups that received at least one order
+     */
+    public long getWakeups() {
+        return wakeups;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    private void onReady(SelectionKey key) {
+        try {
+            if (key.isAcceptable()) {
+                accept();
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(connection);
+            }
+        } catch (IOException e) {
+            // The client went away or misbehaved; the gateway carries on with the others
+            close((Connection) key.attachment());
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key, readBuffers.acquire()));
+            connectionCount++;
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        ByteBuffer buffer = connection.readBuffer;
+        int read;
+        while ((read = connection.channel.read(buffer)) > 0 || buffer.position() >= RECORD_SIZE) {
+            buffer.flip();
+            int offset = buffer.position();
+            int end = buffer.limit();
+            for (; end - offset >= RECORD_SIZE; offset += RECORD_SIZE) {
+                handleOrder(connection, buffer, offset);
+            }
+            buffer.position(offset);
+            buffer.compact();
+            if (connection.pendingWriteBuffers() >= MAX_PENDING_WRITE_BUFFERS) {
+                // Leave the rest in the socket until flush has drained the acks
+                connection.readPaused = true;
+                connection.key.interestOps(SelectionKey.OP_WRITE);
+                break;
+            }
+            if (read == 0) {
+                break;
+            }
+        }
+        if (read < 0) {
+            close(connection);
+        }
+    }
+
+    private void handleOrder(Connection connection, ByteBuffer buffer, int offset) {
+        order.wrap(buffer, offset);
+        ByteBuffer out = connection.appendBuffer(writeBuffers, RECORD_SIZE);
+        int ackOffset = out.position();
+        ack.wrap(out, ackOffset)
+                .orderId(order.orderId())
+                .price(order.price())
+                .symbolCode(order.symbolCode())
+                .quantity(0)
+                .clientCode(order.clientCode())
+                .type(ACK_ACCEPTED)
+                .side(order.side());
+        out.put(ackOffset + DirectBufferDemo.STATE_OFFSET, (byte) 0);
+        for (int pad = DirectBufferDemo.SIDE_OFFSET + 1; pad < RECORD_SIZE; pad++) {
+            out.put(ackOffset + pad, (byte) 0);
+        }
+        try {
+            handler.onOrder(order, ack);
+        } catch (RuntimeException e) {
+            // A bad order must not take down the selector thread and every other client with it
+            ack.quantity(0).type(ACK_REJECTED);
+        }
+        out.position(ackOffset + RECORD_SIZE);
+        wakeupOrders++;
+        if (!connection.dirty) {
+            connection.dirty = true;
+            if (dirtyCount == dirty.length) {
+                Connection[] grown = new Connection[dirty.length * 2];
+                System.arraycopy(dirty, 0, grown, 0, dirtyCount);
+                dirty = grown;
+            }
+            dirty[dirtyCount++] = connection;
+        }
+    }
+
+    /**
+     * Write every pending ack of the connection with one gathering write.
+     */
+    private void flush(Connection connection) {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        ByteBuffer[] buffers = connection.writeBuffers;
+        int first = connection.firstWriteBuffer;
+        int count = connection.writeBufferCount;
+        for (int i = first; i < count; i++) {
+            buffers[i].flip();
+        }
+        try {
+            connection.channel.write(buffers, first, count - first);
+        } catch (IOException e) {
+            close(connection);
+            return;
+        }
+        // Hand drained buffers back, and put the rest back into append mode
+        while (first < count && !buffers[first].hasRemaining()) {
+            writeBuffers.release(buffers[first]);
+            buffers[first++] = null;
+        }
+        for (int i = first; i < count; i++) {
+            buffers[i].compact();
+        }
+        if (first == count) {
+            first = 0;
+            count = 0;
+        }
+        connection.firstWriteBuffer = first;
+        connection.writeBufferCount = count;
+        if (connection.readPaused && count - first < RESUME_READ_WRITE_BUFFERS) {
+            connection.readPaused = false;
+        }
+        int interest = (connection.readPaused ? 0 : SelectionKey.OP_READ)
+                | (connection.hasPendingWrites() ? SelectionKey.OP_WRITE : 0);
+        if (connection.key.interestOps() != interest) {
+            connection.key.interestOps(interest);
+        }
+    }
+
+    private void close(Connection connection) {
+        if (connection == null || !connection.channel.isOpen()) {
+            return;
+        }
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Already closing, nothing more to do
+        }
+        readBuffers.release(connection.readBuffer);
+        for (int i = connection.firstWriteBuffer; i < connection.writeBufferCount; i++) {
+            writeBuffers.release(connection.writeBuffers[i]);
+            connection.writeBuffers[i] = null;
+        }
+        connection.firstWriteBuffer = 0;
+        connection.writeBufferCount = 0;
+        connectionCount--;
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection) {
+                close(connection);
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            // Shutting down anyway
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Non-blocking TCP order entry: orders arrive as 40-byte binary records in the
+ * {@code DirectBufferDemo} layout and are handed to the router straight from pooled direct
+ * buffers, with acks sent back in the same layout.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>OrderGateway - Selector loop that reads, dispatches and acks orders in batches per wake-up</li>
+ *   <li>OrderEntryHandler - Callback that processes one order and completes its ack</li>
+ *   <li>BufferPool - Reused direct buffers for connection reads and writes</li>
+ *   <li>LoopbackClient - Closed-loop load client measuring order round-trip latency</li>
+ * </ul>
+ * <p>
+ * These classes have no external dependencies and are used by SimpleMain's gateway mode.
+ */
+package com.trading.gateway;
@@ -0,0 +1,60 @@
+package com.trading.gc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Garbage collectors a benchmark JVM can be started with, and the options that select them.
+ */
+public enum GcCollector {
+    G1("G1", "-XX:+UseG1GC"),
+    PARALLEL("Parallel", "-XX:+UseParallelGC"),
+    ZGC("Gen ZGC", "-XX:+UseZGC", "-XX:+ZGenerational"),
+    SHENANDOAH("Shenandoah", "-XX:+UseShenandoahGC"),
+    // Allocates until the heap is exhausted and never collects, so a run only survives if
+    // everything it allocates fits the heap it was given
+    EPSILON("Epsilon", "-XX:+UnlockExperimentalVMOptions", "-XX:+UseEpsilonGC");
+
+    private final String displayName;
+    private final List<String> options;
+
+    GcCollector(String displayName, String... options) {
+        this.displayName = displayName;
+        this.options = List.of(options);
+    }
+
+    public String displayName() {
+        return displayName;
+    }
+
+    /**
+     * @return JVM options that select this collector
+     */
+    public List<String> options() {
+        return options;
+    }
+
+    /**
+     * Check whether a JVM accepts this collector's options; not every build includes every
+     * collector, Shenandoah in particular.
+     *
+     * @param javaCommand Path of the {@code java} launcher to check
+     */
+    public boolean isAvailable(String javaCommand) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(javaCommand);
+        command.addAll(options);
+        command.add("-version");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            return false;
+        }
+        return process.exitValue() == 0;
+    }
+}
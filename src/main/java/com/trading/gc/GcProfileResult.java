@@ -0,0 +1,79 @@
+package com.trading.gc;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Latency and GC figures of one benchmark run, passed from the child JVM that measured them
+ * to the {@link GcProfileRunner} through a properties file.
+ * <p>
+ * Latencies are per order, in nanoseconds. Pause figures are -1 when JFR was unavailable, and
+ * {@code orderPathAllocatedBytes} is -1 for modes that do not account for the allocation of
+ * the order path on its own.
+ *
+ * @param allocatedBytes          Bytes allocated by the benchmark thread during measurement,
+ *                                including the harness around the order path
+ * @param orderPathAllocatedBytes Bytes allocated by the order path alone in steady state
+ */
+public record GcProfileResult(long orders, long elapsedNanos,
+                              long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos,
+                              long collections, long pauseTotalNanos, long pauseMaxNanos,
+                              long allocatedBytes, long orderPathAllocatedBytes) {
+
+    public double ordersPerSecond() {
+        return orders / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public void store(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("orders", Long.toString(orders));
+        properties.setProperty("elapsedNanos", Long.toString(elapsedNanos));
+        properties.setProperty("p50Nanos", Long.toString(p50Nanos));
+        properties.setProperty("p99Nanos", Long.toString(p99Nanos));
+        properties.setProperty("p999Nanos", Long.toString(p999Nanos));
+        properties.setProperty("maxNanos", Long.toString(maxNanos));
+        properties.setProperty("collections", Long.toString(collections));
+        properties.setProperty("pauseTotalNanos", Long.toString(pauseTotalNanos));
+        properties.setProperty("pauseMaxNanos", Long.toString(pauseMaxNanos));
+        properties.setProperty("allocatedBytes", Long.toString(allocatedBytes));
+        properties.setProperty("orderPathAllocatedBytes", Long.toString(orderPathAllocatedBytes));
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "GC profile result");
+        }
+    }
+
+    public static GcProfileResult load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        try {
+            return new GcProfileResult(
+                    longProperty(properties, "orders"),
+                    longProperty(properties, "elapsedNanos"),
+                    longProperty(properties, "p50Nanos"),
+                    longProperty(properties, "p99Nanos"),
+                    longProperty(properties, "p999Nanos"),
+                    longProperty(properties, "maxNanos"),
+                    longProperty(properties, "collections"),
+                    longProperty(properties, "pauseTotalNanos"),
+                    longProperty(properties, "pauseMaxNanos"),
+                    longProperty(properties, "allocatedBytes"),
+                    longProperty(properties, "orderPathAllocatedBytes"));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed GC profile result " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static long longProperty(Properties properties, String name) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            throw new NumberFormatException("missing " + name);
+        }
+        return Long.parseLong(value);
+    }
+}
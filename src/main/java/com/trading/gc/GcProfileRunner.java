@@ -0,0 +1,129 @@
+package com.trading.gc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs a benchmark mode in a fresh child JVM per collector and heap size, so every run starts
+ * from a clean heap with its own collector, and gathers what each run measured.
+ * <p>
+ * The child is the same main class on the same class path, started with the collector's
+ * options, a fixed heap ({@code -Xms} equal to {@code -Xmx}) that is pre-touched so page
+ * faults do not land in the measurement, and the system property {@value #RESULTS_PROPERTY}
+ * naming the file it should {@link GcProfileResult#store store} its result in. Each child's
+ * output goes to a log file next to the results.
+ * <p>
+ * A run that exits normally is {@link Status#OK}. One that writes its result and then exits
+ * with an error, such as the zerogc mode failing its allocation check, keeps the result but
+ * is {@link Status#FAILED}. A run that dies with an {@code OutOfMemoryError} is
+ * {@link Status#OUT_OF_MEMORY}, which under Epsilon means it allocated more than the heap
+ * holds.
+ */
+public class GcProfileRunner {
+
+    public static final String RESULTS_PROPERTY = "gcprofile.results";
+
+    public enum Status { OK, FAILED, OUT_OF_MEMORY, TIMED_OUT, UNSUPPORTED }
+
+    /**
+     * @param result Null if the run did not get as far as storing it
+     * @param log    Null if the run was not started
+     */
+    public record Outcome(String mode, GcCollector collector, String heap, Status status, int exitCode,
+                          GcProfileResult result, Path log) {
+    }
+
+    private final String mainClass;
+    private final Path directory;
+    private final long timeoutSeconds;
+    private final String javaCommand = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final String classPath = System.getProperty("java.class.path");
+    private final Map<GcCollector, Boolean> available = new EnumMap<>(GcCollector.class);
+
+    /**
+     * @param mainClass Class whose {@code main} takes the mode as its only argument
+     * @param directory Where the logs and result files are written
+     */
+    public GcProfileRunner(String mainClass, Path directory, long timeoutSeconds) throws IOException {
+        this.mainClass = mainClass;
+        this.directory = Files.createDirectories(directory);
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Run one mode under one collector and wait for it to finish.
+     *
+     * @param heap Heap size in {@code -Xmx} syntax, for example {@code 512m}
+     */
+    public Outcome run(String mode, GcCollector collector, String heap) throws IOException, InterruptedException {
+        if (!isAvailable(collector)) {
+            return new Outcome(mode, collector, heap, Status.UNSUPPORTED, -1, null, null);
+        }
+        String name = mode + "-" + collector.name().toLowerCase();
+        Path log = directory.resolve(name + ".log");
+        Path results = directory.resolve(name + ".properties");
+        Files.deleteIfExists(results);
+
+        List<String> command = new ArrayList<>();
+        command.add(javaCommand);
+        command.addAll(collector.options());
+        command.add("-Xms" + heap);
+        command.add("-Xmx" + heap);
+        command.add("-XX:+AlwaysPreTouch");
+        command.add("-D" + RESULTS_PROPERTY + "=" + results);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(mainClass);
+        command.add(mode);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+            return new Outcome(mode, collector, heap, Status.TIMED_OUT, -1, null, log);
+        }
+
+        int exitCode = process.exitValue();
+        GcProfileResult result = Files.exists(results) ? GcProfileResult.load(results) : null;
+        Status status;
+        if (exitCode == 0 && result != null) {
+            status = Status.OK;
+        } else if (logMentions(log, "OutOfMemoryError")) {
+            status = Status.OUT_OF_MEMORY;
+        } else {
+            status = Status.FAILED;
+        }
+        return new Outcome(mode, collector, heap, status, exitCode, result, log);
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    private boolean isAvailable(GcCollector collector) throws IOException, InterruptedException {
+        Boolean known = available.get(collector);
+        if (known == null) {
+            known = collector.isAvailable(javaCommand);
+            available.put(collector, known);
+        }
+        return known;
+    }
+
+    private static boolean logMentions(Path log, String text) throws IOException {
+        try (Stream<String> lines = Files.lines(log)) {
+            return lines.anyMatch(line -> line.contains(text));
+        } catch (UncheckedIOException e) {
+            // Not valid text, so not a JVM error message either
+            return false;
+        }
+    }
+}
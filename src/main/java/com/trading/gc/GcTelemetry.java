@@ -0,0 +1,196 @@
+package com.trading.gc;
+
+import com.trading.util.JfrEventCollector;
+import jdk.jfr.consumer.RecordedEvent;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records garbage collector activity for each benchmark iteration so latency spikes can be
+ * correlated with collector work.
+ * <p>
+ * For every iteration it captures:
+ * <ul>
+ *   <li>Collection count and accumulated collection time from the {@link GarbageCollectorMXBean}s</li>
+ *   <li>Total and longest pause of the JFR {@code jdk.GarbageCollection} events that started in it</li>
+ *   <li>Bytes allocated by the benchmark thread</li>
+ *   <li>Peak heap usage, as the sum of the peak usage of every heap memory pool</li>
+ * </ul>
+ * JFR events are only attributed to iterations once the recording is {@link #stop() stopped},
+ * so read pause figures after that.
+ */
+public class GcTelemetry {
+
+    private static final String GC_EVENT = "jdk.GarbageCollection";
+    private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<IterationSample> samples = new ArrayList<>();
+
+    private final JfrEventCollector collector = new JfrEventCollector(GC_EVENT);
+    private boolean jfrAvailable;
+    private IterationSample current;
+    private long gcCountAtStart;
+    private long gcTimeAtStart;
+    private long allocatedAtStart;
+
+    public GcTelemetry() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                heapPools.add(pool);
+            }
+        }
+    }
+
+    /**
+     * Start the JFR recording of GC events. Telemetry from the MXBeans is still collected
+     * if JFR cannot be started.
+     */
+    public void start() {
+        try {
+            collector.start();
+            jfrAvailable = true;
+        } catch (RuntimeException e) {
+            System.err.println("JFR unavailable, GC pause durations will not be reported: " + e.getMessage());
+            jfrAvailable = false;
+        }
+    }
+
+    public void beginIteration() {
+        current = new IterationSample(samples.size() + 1);
+        for (MemoryPoolMXBean pool : heapPools) {
+            pool.resetPeakUsage();
+        }
+        gcCountAtStart = totalCollectionCount();
+        gcTimeAtStart = totalCollectionTime();
+        allocatedAtStart = threadMXBean.getCurrentThreadAllocatedBytes();
+        current.start = Instant.now();
+    }
+
+    public IterationSample endIteration() {
+        IterationSample sample = current;
+        sample.end = Instant.now();
+        sample.allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedAtStart;
+        sample.collectionCount = totalCollectionCount() - gcCountAtStart;
+        sample.collectionTimeMillis = totalCollectionTime() - gcTimeAtStart;
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        sample.peakHeapBytes = peakHeap;
+        samples.add(sample);
+        current = null;
+        return sample;
+    }
+
+    /**
+     * Stop the JFR recording and attribute the recorded GC pauses to the iterations
+     * in which they started.
+     */
+    public void stop() {
+        try {
+            collector.stop(this::attributePause);
+        } catch (IOException e) {
+            System.err.println("Could not read JFR GC events: " + e.getMessage());
+            jfrAvailable = false;
+        }
+    }
+
+    /**
+     * Force a full collection and return the heap still in use, to estimate live memory.
+     * <p>
+     * {@code System.gc()} is a no-op under {@code -XX:+DisableExplicitGC}, so this asks for a
+     * class histogram through the diagnostic command MBean, which always collects first.
+     *
+     * @return Used heap bytes after the collection, or -1 if the command is unavailable
+     */
+    public static long heapUsedAfterFullGc() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().invoke(new ObjectName(DIAGNOSTIC_COMMAND),
+                    "gcClassHistogram", new Object[] {new String[0]}, new String[] {String[].class.getName()});
+        } catch (JMException e) {
+            return -1;
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public List<IterationSample> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    public boolean isJfrAvailable() {
+        return jfrAvailable;
+    }
+
+    private void attributePause(RecordedEvent event) {
+        Instant startTime = event.getStartTime();
+        for (IterationSample sample : samples) {
+            if (!startTime.isBefore(sample.start) && !startTime.isAfter(sample.end)) {
+                long pauseNanos = event.getDuration("sumOfPauses").toNanos();
+                long longestNanos = event.getDuration("longestPause").toNanos();
+                sample.jfrCollections++;
+                sample.pauseTotalNanos += pauseNanos;
+                sample.pauseMaxNanos = Math.max(sample.pauseMaxNanos, longestNanos);
+                return;
+            }
+        }
+    }
+
+    private long totalCollectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private long totalCollectionTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+
+    /**
+     * GC activity observed during a single benchmark iteration.
+     */
+    public static class IterationSample {
+        private final int iteration;
+        private Instant start;
+        private Instant end;
+        private long collectionCount;
+        private long collectionTimeMillis;
+        private long jfrCollections;
+        private long pauseTotalNanos;
+        private long pauseMaxNanos;
+        private long allocatedBytes;
+        private long peakHeapBytes;
+
+        IterationSample(int iteration) {
+            this.iteration = iteration;
+        }
+
+        public int getIteration() { return iteration; }
+        public long getCollectionCount() { return collectionCount; }
+        public long getCollectionTimeMillis() { return collectionTimeMillis; }
+        public long getJfrCollections() { return jfrCollections; }
+        public long getPauseTotalNanos() { return pauseTotalNanos; }
+        public long getPauseMaxNanos() { return pauseMaxNanos; }
+        public long getAllocatedBytes() { return allocatedBytes; }
+        public long getPeakHeapBytes() { return peakHeapBytes; }
+    }
+}
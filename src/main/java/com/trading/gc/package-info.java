@@ -1,18 +1,20 @@
 /**
- * EDUCATIONAL RESOURCE - NOT REQUIRED FOR SIMPLE DEMO
- * 
- * Classes representing different garbage collection strategies for the trading demo.
+ * Garbage collection telemetry and collector comparison for the trading demo.
  * <p>
- * The GCMode interface defines the contract for GC strategies, with two implementations:
+ * The classes in this package include:
  * <ul>
- *   <li>StandardGCMode - Uses standard allocation patterns with default GC settings</li>
- *   <li>ZeroGCMode - Configures ZGC and uses allocation reduction techniques</li>
+ *   <li>GcTelemetry - Records, for every benchmark iteration, the collection count and time from
+ *   the GarbageCollectorMXBeans, the JFR {@code jdk.GarbageCollection} pause durations, the bytes
+ *   allocated and the peak heap usage</li>
+ *   <li>GcCollector - The collectors a benchmark JVM can run with: G1, Parallel, generational ZGC,
+ *   Shenandoah and the no-op Epsilon</li>
+ *   <li>GcProfileRunner - Forks a child JVM per mode, collector and heap size and collects the
+ *   result of each run</li>
+ *   <li>GcProfileResult - Latency and GC figures of one run, stored by the child for the runner</li>
  * </ul>
  * <p>
- * Note: These classes are not used by SimpleMain and are kept for educational purposes.
- * The GC strategies are now implemented directly within SimpleMain.
- * <p>
- * These classes allow the benchmark to compare how different GC strategies
- * impact latency and throughput in a high-frequency trading system.
+ * GcTelemetry is used by SimpleMain's standard and zerogc modes, which also store a
+ * GcProfileResult when started by the runner; the runner is used by SimpleMain's gcprofile
+ * mode to compare both modes across every collector in one matrix.
  */
 package com.trading.gc;
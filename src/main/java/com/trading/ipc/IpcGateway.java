@@ -0,0 +1,169 @@
+package com.trading.ipc;
+
+import com.trading.benchmark.DirectBufferDemo;
+import com.trading.util.LatencyHistogram;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gateway side of an IPC link: publishes orders into the orders ring and drains the acks
+ * that an {@link IpcMatching} process publishes into the acks ring.
+ * <p>
+ * Every wait fails with an {@link IllegalStateException} once the matching process has
+ * exited, rather than spin forever on a ring nobody serves.
+ * <p>
+ * Thread safety: used by one thread; {@link #publishConcurrently} starts its own producer
+ * threads and waits for them before it returns.
+ */
+public final class IpcGateway {
+
+    public static final int RECORD_ORDER = 1;
+    public static final int RECORD_ACK = 2;
+    public static final int RECORD_STOP = 3;
+
+    private static final int POLL_LIMIT = 256;
+    private static final IpcRecordHandler IGNORE_ACK = (position, recordType, ack) -> { };
+
+    /**
+     * Fills in the orders the gateway publishes.
+     */
+    @FunctionalInterface
+    public interface OrderSource {
+        /**
+         * Fill in every field of {@code order} other than its id, which is already set. Called
+         * from several threads at once by {@link #publishConcurrently}.
+         */
+        void next(long orderId, DirectBufferDemo.OrderFlyweight order);
+    }
+
+    private final IpcRing orders;
+    private final IpcSubscriber acks;
+    private final Process matching;
+    private final OrderSource source;
+    private IpcPublisher publisher;
+    private final DirectBufferDemo.OrderFlyweight order = new DirectBufferDemo.OrderFlyweight();
+
+    /**
+     * @param matching The process serving the rings, started with {@link IpcMatching#start}
+     */
+    public IpcGateway(IpcRing orders, IpcRing acks, Process matching, OrderSource source) {
+        this.orders = orders;
+        this.acks = new IpcSubscriber(acks);
+        this.matching = matching;
+        this.source = source;
+        this.publisher = new IpcPublisher(orders, false);
+    }
+
+    /**
+     * Send one order at a time and wait for its ack before sending the next, recording each
+     * round trip.
+     */
+    public void roundTrips(int count, LatencyHistogram latencies) {
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            int idle = 0;
+            while (!publisher.tryClaim(RECORD_ORDER, order)) {
+                IpcIdle.idle(idle++, matching);
+            }
+            order.orderId(i);
+            source.next(i, order);
+            publisher.commit();
+            idle = 0;
+            while (acks.poll(IGNORE_ACK, 1) == 0) {
+                IpcIdle.idle(idle++, matching);
+            }
+            latencies.recordValue(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Publish orders from several threads at once, each through its own multi-producer
+     * publisher, while this thread drains the acks. Order ids restart at zero for every
+     * thread.
+     *
+     * @param orderCount Orders across all threads
+     * @return The time until the last ack arrived
+     */
+    public long publishConcurrently(int producerCount, int orderCount) throws InterruptedException {
+        int ordersPerProducer = orderCount / producerCount;
+        Thread[] producers = new Thread[producerCount];
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < producerCount; t++) {
+            producers[t] = new Thread(() -> {
+                IpcPublisher producer = new IpcPublisher(orders, true);
+                DirectBufferDemo.OrderFlyweight record = new DirectBufferDemo.OrderFlyweight();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < ordersPerProducer; i++) {
+                    int idle = 0;
+                    while (!producer.tryClaim(RECORD_ORDER, record)) {
+                        if (idle >= IpcIdle.SPINS_BEFORE_YIELD && !matching.isAlive()) {
+                            // The ack loop reports the exit
+                            return;
+                        }
+                        IpcIdle.idle(idle++);
+                    }
+                    record.orderId(i);
+                    source.next(i, record);
+                    producer.commit();
+                }
+            }, "ipc-producer-" + t);
+            producers[t].start();
+        }
+        long total = (long) ordersPerProducer * producerCount;
+        long startTime = System.nanoTime();
+        start.countDown();
+        long acked = 0;
+        int idle = 0;
+        while (acked < total) {
+            int polled = acks.poll(IGNORE_ACK, POLL_LIMIT);
+            if (polled > 0) {
+                acked += polled;
+                idle = 0;
+            } else {
+                IpcIdle.idle(idle++, matching);
+            }
+        }
+        long elapsed = System.nanoTime() - startTime;
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        // The producers moved the ring on, so a single producer takes over from where they left it
+        publisher = new IpcPublisher(orders, false);
+        return elapsed;
+    }
+
+    /**
+     * Send the stop record and wait for the matching process to exit.
+     *
+     * @return False if the matching process is still running after the timeout
+     */
+    public boolean stop(long timeout, TimeUnit unit) throws InterruptedException {
+        int idle = 0;
+        while (!publisher.offer(RECORD_STOP, 0, 0, (byte) 0, (byte) 0, 0, 0, 0)) {
+            IpcIdle.idle(idle++, matching);
+        }
+        return matching.waitFor(timeout, unit);
+    }
+
+    /**
+     * Where to put ring files: -Dipc.dir if set, otherwise /dev/shm where it exists, otherwise
+     * the temporary directory.
+     */
+    public static Path defaultDirectory() {
+        String configured = System.getProperty("ipc.dir");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        // Files on /dev/shm are backed by memory only; elsewhere the kernel may write them back
+        Path shm = Path.of("/dev/shm");
+        return Files.isDirectory(shm) && Files.isWritable(shm) ? shm : Path.of(System.getProperty("java.io.tmpdir"));
+    }
+}
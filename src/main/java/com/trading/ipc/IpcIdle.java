@@ -0,0 +1,44 @@
+package com.trading.ipc;
+
+/**
+ * How both sides of an IPC link wait while a ring is empty or full: spin briefly, then
+ * yield, so the two processes make progress even when they share a CPU. The overloads that
+ * take the other process fail once it has gone, rather than wait forever for a record it
+ * will never write.
+ */
+final class IpcIdle {
+
+    // Waiting sides spin this often before yielding
+    static final int SPINS_BEFORE_YIELD = 100;
+    // The matching process checks this often while idle whether the gateway process is still
+    // running, as each check is a system call
+    private static final int PARENT_CHECK_INTERVAL = 1_000;
+
+    private IpcIdle() {
+    }
+
+    static void idle(int idleCount) {
+        if (idleCount < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    // Idle on the gateway side, failing once the matching process is gone
+    static void idle(int idleCount, Process matching) {
+        if (idleCount >= SPINS_BEFORE_YIELD && !matching.isAlive()) {
+            throw new IllegalStateException("Matching process exited with code " + matching.exitValue());
+        }
+        idle(idleCount);
+    }
+
+    // Idle on the matching side, failing once the gateway process is gone
+    static void idle(int idleCount, ProcessHandle gateway) {
+        if (idleCount >= SPINS_BEFORE_YIELD && idleCount % PARENT_CHECK_INTERVAL == 0
+                && !gateway.isAlive()) {
+            throw new IllegalStateException("Gateway process " + gateway.pid() + " exited without a stop record");
+        }
+        idle(idleCount);
+    }
+}
@@ -0,0 +1,94 @@
+package com.trading.ipc;
+
+import com.trading.benchmark.DirectBufferDemo;
+import com.trading.gateway.OrderEntryHandler;
+import com.trading.gateway.OrderGateway;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The matching side of an IPC link, run in its own process: takes every order from the
+ * orders ring, hands it to an {@link OrderEntryHandler} and publishes its ack into the acks
+ * ring, until the gateway process sends {@link IpcGateway#RECORD_STOP} or exits without one.
+ * <p>
+ * Acks are pre-filled and completed by the handler exactly as in the TCP
+ * {@link OrderGateway}, so the same handler serves both; an order the handler throws on is
+ * rejected and matching carries on.
+ */
+public final class IpcMatching {
+
+    private static final int POLL_LIMIT = 256;
+
+    private IpcMatching() {
+    }
+
+    /**
+     * Start a JVM with the same options and class path as this one, running the given main
+     * class with the given arguments, typically a mode that calls {@link #run}.
+     */
+    public static Process start(Class<?> mainClass, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        // Same JVM options, so both sides run with the same collector and heap settings
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Process orders until the gateway sends a stop record.
+     *
+     * @param gateway The gateway process, watched while idle
+     * @throws IllegalStateException If the gateway process exits without a stop record, or a
+     *                               ring file is not ready
+     */
+    public static void run(Path ordersFile, Path acksFile, ProcessHandle gateway, OrderEntryHandler handler)
+            throws IOException {
+        IpcSubscriber orders = new IpcSubscriber(IpcRing.open(ordersFile));
+        IpcPublisher acks = new IpcPublisher(IpcRing.open(acksFile), false);
+        DirectBufferDemo.OrderFlyweight ack = new DirectBufferDemo.OrderFlyweight();
+        boolean[] stopped = new boolean[1];
+        IpcRecordHandler onRecord = (position, recordType, request) -> {
+            if (recordType == IpcGateway.RECORD_STOP) {
+                stopped[0] = true;
+                return;
+            }
+            int idle = 0;
+            while (!acks.tryClaim(IpcGateway.RECORD_ACK, ack)) {
+                IpcIdle.idle(idle++, gateway);
+            }
+            ack.orderId(request.orderId())
+                    .price(request.price())
+                    .symbolCode(request.symbolCode())
+                    .quantity(0)
+                    .clientCode(request.clientCode())
+                    .type(OrderGateway.ACK_ACCEPTED)
+                    .side(request.side());
+            try {
+                handler.onOrder(request, ack);
+            } catch (RuntimeException e) {
+                // A bad record must not take down the matching process
+                ack.quantity(0).type(OrderGateway.ACK_REJECTED);
+            }
+            acks.commit();
+        };
+        int idle = 0;
+        while (!stopped[0]) {
+            if (orders.poll(onRecord, POLL_LIMIT) > 0) {
+                idle = 0;
+            } else {
+                IpcIdle.idle(idle++, gateway);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.trading.ipc;
+
+import com.trading.benchmark.DirectBufferDemo;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Publishes order records into an {@link IpcRing}, writing them in place in shared memory.
+ * <p>
+ * A record is published in two steps: {@link #tryClaim} reserves the next slot and points a
+ * flyweight at its body, the caller fills it in, and {@link #commit()} makes it visible to
+ * the subscriber. {@link #offer} does both for a record given field by field.
+ * <p>
+ * A single-producer publisher owns the producer position and advances it with a plain
+ * ordered store. A multi-producer publisher claims positions with a compare-and-set on the
+ * shared producer position, so any number of them, in any number of processes, may publish
+ * into the same ring; records are consumed in claim order, and a claimed but uncommitted slot
+ * holds back the records behind it until it is committed.
+ * <p>
+ * Either way the producers only read the consumer position when their cached copy says the
+ * ring is full, so while there is room they never touch the consumer's cache line.
+ * <p>
+ * Thread safety: a publisher is used by one thread. At any one time a ring has either one
+ * single-producer publisher or any number of multi-producer ones, never both.
+ */
+public class IpcPublisher {
+
+    private final IpcRing ring;
+    private final MappedByteBuffer buffer;
+    private final boolean multiProducer;
+    private final int capacity;
+    private final DirectBufferDemo.OrderFlyweight body = new DirectBufferDemo.OrderFlyweight();
+
+    private long nextPosition;
+    private long cachedConsumerPosition;
+    private long claimedPosition = -1;
+    private int claimedOffset;
+
+    /**
+     * @param multiProducer Whether other publishers share the ring
+     */
+    public IpcPublisher(IpcRing ring, boolean multiProducer) {
+        this.ring = ring;
+        this.buffer = ring.buffer();
+        this.multiProducer = multiProducer;
+        this.capacity = ring.capacity();
+        this.nextPosition = ring.producerPosition();
+        this.cachedConsumerPosition = ring.consumerPosition();
+    }
+
+    /**
+     * Reserve the next slot and point {@code record} at its body.
+     *
+     * @return False if the ring is full, in which case nothing is claimed
+     */
+    public boolean tryClaim(int recordType, DirectBufferDemo.OrderFlyweight record) {
+        if (claimedPosition >= 0) {
+            throw new IllegalStateException("Previous claim at " + claimedPosition + " is not committed");
+        }
+        long position;
+        if (multiProducer) {
+            do {
+                position = ring.producerPosition();
+                if (isFull(position)) {
+                    return false;
+                }
+            } while (!ring.claimProducerPosition(position, position + 1));
+        } else {
+            position = nextPosition;
+            if (isFull(position)) {
+                return false;
+            }
+            nextPosition = position + 1;
+        }
+        int offset = ring.slotOffset(position);
+        buffer.putInt(offset + IpcRing.TYPE_OFFSET, recordType);
+        record.wrap(buffer, offset + IpcRing.BODY_OFFSET);
+        claimedPosition = position;
+        claimedOffset = offset;
+        return true;
+    }
+
+    /**
+     * Publish the record filled in since the last {@link #tryClaim}.
+     */
+    public void commit() {
+        if (claimedPosition < 0) {
+            throw new IllegalStateException("Nothing is claimed");
+        }
+        ring.publishSlot(claimedOffset, claimedPosition);
+        if (!multiProducer) {
+            ring.producerPosition(claimedPosition + 1);
+        }
+        claimedPosition = -1;
+    }
+
+    /**
+     * Claim, fill in and commit one record.
+     *
+     * @return False if the ring is full
+     */
+    public boolean offer(int recordType, long orderId, long symbolCode, byte type, byte side,
+                         long price, int quantity, int clientCode) {
+        if (!tryClaim(recordType, body)) {
+            return false;
+        }
+        body.orderId(orderId)
+                .price(price)
+                .symbolCode(symbolCode)
+                .quantity(quantity)
+                .clientCode(clientCode)
+                .type(type)
+                .side(side);
+        commit();
+        return true;
+    }
+
+    public boolean isMultiProducer() {
+        return multiProducer;
+    }
+
+    private boolean isFull(long position) {
+        if (position - cachedConsumerPosition < capacity) {
+            return false;
+        }
+        cachedConsumerPosition = ring.consumerPosition();
+        return position - cachedConsumerPosition >= capacity;
+    }
+}
@@ -0,0 +1,18 @@
+package com.trading.ipc;
+
+import com.trading.benchmark.DirectBufferDemo;
+
+/**
+ * Receives records polled from an {@link IpcRing} by an {@link IpcSubscriber}.
+ */
+@FunctionalInterface
+public interface IpcRecordHandler {
+
+    /**
+     * @param position   Position of the record in the ring, starting at 0
+     * @param recordType Type given by the publisher
+     * @param record     Flyweight over the record body in shared memory; only valid for the
+     *                   duration of the call
+     */
+    void onRecord(long position, int recordType, DirectBufferDemo.OrderFlyweight record);
+}
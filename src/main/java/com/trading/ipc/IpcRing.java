@@ -0,0 +1,169 @@
+package com.trading.ipc;
+
+import com.trading.benchmark.DirectBufferDemo;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Ring of fixed-size order records in a memory-mapped file, shared by the processes that map
+ * the same file. On Linux the file belongs on {@code /dev/shm}, so the pages are plain shared
+ * memory that never reaches a disk.
+ * <p>
+ * The file starts with a header holding the ring's capacity, then the producer and consumer
+ * positions a cache line pair apart so that the two sides do not invalidate each other's
+ * line. Positions only ever grow; position {@code p} lives in slot {@code p & (capacity - 1)}.
+ * <p>
+ * Every slot is {@value #SLOT_SIZE} bytes: sequence(8) + recordType(4) + reserved(4) +
+ * body(40), where the body is a {@link DirectBufferDemo} order record, as in the order
+ * journal. A producer writes the body and then stores {@code p + 1} into the slot's sequence
+ * with release semantics; the consumer takes the slot only once it reads that value, so it
+ * never sees a partly written record, and a slot left over from the previous lap is never
+ * mistaken for a new one.
+ * <p>
+ * Use {@link IpcPublisher} and {@link IpcSubscriber} rather than this class directly.
+ */
+public class IpcRing {
+
+    static final int MAGIC = 0x4F524452;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int CAPACITY_OFFSET = 4;
+    static final int SLOT_SIZE_OFFSET = 8;
+    // Two cache lines apart, so the adjacent-line prefetcher does not pair them either
+    static final int PRODUCER_POSITION_OFFSET = 128;
+    static final int CONSUMER_POSITION_OFFSET = 256;
+    static final int HEADER_SIZE = 384;
+
+    static final int SEQUENCE_OFFSET = 0;
+    static final int TYPE_OFFSET = 8;
+    static final int BODY_OFFSET = 16;
+    public static final int SLOT_SIZE = BODY_OFFSET + DirectBufferDemo.ORDER_SIZE;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+
+    private IpcRing(Path file, MappedByteBuffer buffer, int capacity) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Create the ring file, replacing any existing one, and map it. Processes that
+     * {@link #open} the file before this returns are told it is not ready yet.
+     *
+     * @param capacity Number of record slots, a power of two
+     */
+    public static IpcRing create(Path file, int capacity) throws IOException {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        Files.deleteIfExists(file);
+        MappedByteBuffer buffer = map(file, HEADER_SIZE + (long) capacity * SLOT_SIZE,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(SLOT_SIZE_OFFSET, SLOT_SIZE);
+        // The magic number goes last, so a process that sees it also sees the layout
+        INTS.setRelease(buffer, MAGIC_OFFSET, MAGIC);
+        return new IpcRing(file, buffer, capacity);
+    }
+
+    /**
+     * Map a ring file created by another process.
+     *
+     * @throws IllegalStateException If the file has not been fully created yet, or was
+     *                               created with a different record layout
+     */
+    public static IpcRing open(Path file) throws IOException {
+        long size = Files.size(file);
+        if (size < HEADER_SIZE) {
+            throw new IllegalStateException("Ring file is not initialised yet: " + file);
+        }
+        MappedByteBuffer buffer = map(file, size, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if ((int) INTS.getAcquire(buffer, MAGIC_OFFSET) != MAGIC) {
+            throw new IllegalStateException("Ring file is not initialised yet: " + file);
+        }
+        int slotSize = buffer.getInt(SLOT_SIZE_OFFSET);
+        if (slotSize != SLOT_SIZE) {
+            throw new IllegalStateException("Ring file " + file + " has " + slotSize
+                    + "-byte slots, expected " + SLOT_SIZE);
+        }
+        return new IpcRing(file, buffer, buffer.getInt(CAPACITY_OFFSET));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * @return Records published but not yet consumed, as seen from this process
+     */
+    public long size() {
+        return producerPosition() - consumerPosition();
+    }
+
+    MappedByteBuffer buffer() {
+        return buffer;
+    }
+
+    int slotOffset(long position) {
+        return HEADER_SIZE + (int) (position & mask) * SLOT_SIZE;
+    }
+
+    long slotSequence(int slotOffset) {
+        return (long) LONGS.getAcquire(buffer, slotOffset + SEQUENCE_OFFSET);
+    }
+
+    void publishSlot(int slotOffset, long position) {
+        LONGS.setRelease(buffer, slotOffset + SEQUENCE_OFFSET, position + 1);
+    }
+
+    long producerPosition() {
+        return (long) LONGS.getVolatile(buffer, PRODUCER_POSITION_OFFSET);
+    }
+
+    void producerPosition(long position) {
+        LONGS.setRelease(buffer, PRODUCER_POSITION_OFFSET, position);
+    }
+
+    boolean claimProducerPosition(long expected, long position) {
+        return LONGS.compareAndSet(buffer, PRODUCER_POSITION_OFFSET, expected, position);
+    }
+
+    long consumerPosition() {
+        return (long) LONGS.getAcquire(buffer, CONSUMER_POSITION_OFFSET);
+    }
+
+    void consumerPosition(long position) {
+        LONGS.setRelease(buffer, CONSUMER_POSITION_OFFSET, position);
+    }
+
+    private static MappedByteBuffer map(Path file, long size, StandardOpenOption... options) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Ring file is larger than 2GB: " + size);
+        }
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            // Mapping extends a new file to the full size, zero-filled; the mapping stays
+            // valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.trading.ipc;
+
+import com.trading.benchmark.DirectBufferDemo;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Consumes records from an {@link IpcRing} in position order, straight from shared memory
+ * through a single reused flyweight.
+ * <p>
+ * A poll hands over every consecutive published record, up to a limit, and only then
+ * releases their slots to the producers with one store of the consumer position, so a busy
+ * ring costs the consumer one shared write per batch rather than per record. Polling stops
+ * at the first slot that is not published yet, even if a multi-producer ring has later ones.
+ * <p>
+ * Thread safety: a ring has exactly one subscriber, used by one thread.
+ */
+public class IpcSubscriber {
+
+    private final IpcRing ring;
+    private final MappedByteBuffer buffer;
+    private final DirectBufferDemo.OrderFlyweight record = new DirectBufferDemo.OrderFlyweight();
+
+    private long position;
+
+    public IpcSubscriber(IpcRing ring) {
+        this.ring = ring;
+        this.buffer = ring.buffer();
+        this.position = ring.consumerPosition();
+    }
+
+    /**
+     * @param limit Most records to hand over in this call
+     * @return The number of records handed over, zero if none was ready
+     */
+    public int poll(IpcRecordHandler handler, int limit) {
+        int count = 0;
+        while (count < limit) {
+            int offset = ring.slotOffset(position);
+            if (ring.slotSequence(offset) != position + 1) {
+                break;
+            }
+            handler.onRecord(position, buffer.getInt(offset + IpcRing.TYPE_OFFSET),
+                    record.wrap(buffer, offset + IpcRing.BODY_OFFSET));
+            position++;
+            count++;
+        }
+        if (count > 0) {
+            // The handler is done with the slots, so the producers may reuse them
+            ring.consumerPosition(position);
+        }
+        return count;
+    }
+
+    /**
+     * @return Position of the next record to consume
+     */
+    public long position() {
+        return position;
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * Shared-memory transport between processes on the same host, in the style of Aeron IPC.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>IpcRing - Lock-free ring of fixed-size order records in a memory-mapped file</li>
+ *   <li>IpcPublisher - Claims and commits records, for one producer or several</li>
+ *   <li>IpcSubscriber - Polls published records in batches through a flyweight</li>
+ *   <li>IpcRecordHandler - Callback that receives each polled record</li>
+ *   <li>IpcGateway - Gateway side of a link: publishes orders and drains their acks</li>
+ *   <li>IpcMatching - Matching side of a link, run in its own process</li>
+ * </ul>
+ * <p>
+ * Records use the binary order layout of {@code com.trading.benchmark.DirectBufferDemo},
+ * prefixed with a sequence number and record type, as in the order journal. Publishing and
+ * polling are plain loads and stores into the mapped pages, with no system call and no
+ * allocation, so the cost of a hop between processes is that of moving a few cache lines.
+ * <p>
+ * The matching side completes acks with the same {@code com.trading.gateway.OrderEntryHandler}
+ * as the TCP gateway. These classes have no external dependencies and are used by
+ * SimpleMain's ipc mode.
+ */
+package com.trading.ipc;
@@ -0,0 +1,93 @@
+package com.trading.journal;
+
+import com.trading.benchmark.DirectBufferDemo;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Replays an {@link OrderJournal} from its first segment, handing every record to a
+ * {@link RecordHandler} through a single reused flyweight.
+ * <p>
+ * Segments are mapped read-only and scanned sequentially, so replay runs at memory speed.
+ * Replay stops at the first record whose sequence number is not the next expected one,
+ * which is where the writer stopped or crashed.
+ */
+public class JournalReader {
+
+    private final Path directory;
+    private final DirectBufferDemo.OrderFlyweight record = new DirectBufferDemo.OrderFlyweight();
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return The number of records replayed
+     */
+    public long replay(RecordHandler handler) throws IOException {
+        long expectedSequence = 1;
+        for (Path file : listSegments(directory)) {
+            MappedByteBuffer segment = mapReadOnly(file);
+            int limit = segment.capacity() - (segment.capacity() % OrderJournal.RECORD_SIZE);
+            for (int offset = 0; offset < limit; offset += OrderJournal.RECORD_SIZE) {
+                long sequence = (long) OrderJournal.SEQUENCE.getAcquire(segment, offset + OrderJournal.SEQUENCE_OFFSET);
+                if (sequence == 0) {
+                    // End of the written part of this segment
+                    break;
+                }
+                if (sequence != expectedSequence) {
+                    return expectedSequence - 1;
+                }
+                int recordType = segment.getInt(offset + OrderJournal.TYPE_OFFSET);
+                handler.onRecord(sequence, recordType, record.wrap(segment, offset + OrderJournal.BODY_OFFSET));
+                expectedSequence++;
+            }
+        }
+        return expectedSequence - 1;
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(OrderJournal.SEGMENT_SUFFIX))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    static int segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(0, name.length() - OrderJournal.SEGMENT_SUFFIX.length()));
+    }
+
+    static long lastSequenceIn(Path file) throws IOException {
+        MappedByteBuffer segment = mapReadOnly(file);
+        long lastSequence = 0;
+        for (int offset = 0; offset + OrderJournal.RECORD_SIZE <= segment.capacity(); offset += OrderJournal.RECORD_SIZE) {
+            long sequence = segment.getLong(offset + OrderJournal.SEQUENCE_OFFSET);
+            if (sequence == 0) {
+                break;
+            }
+            lastSequence = sequence;
+        }
+        return lastSequence;
+    }
+
+    private static MappedByteBuffer mapReadOnly(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
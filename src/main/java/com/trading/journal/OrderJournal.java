@@ -0,0 +1,187 @@
+package com.trading.journal;
+
+import com.trading.benchmark.DirectBufferDemo;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal of accepted orders and executions, written into memory-mapped
+ * segment files that roll over when full.
+ * <p>
+ * Every record is {@value #RECORD_SIZE} bytes:
+ * sequence(8) + recordType(4) + reserved(4) + body(40), where the body is a
+ * {@link DirectBufferDemo} order record. The body is written first and the sequence
+ * number last with release semantics, so a reader that sees a non-zero sequence also sees
+ * the complete record, and a torn record after a crash simply ends the journal.
+ * <p>
+ * Appending is a handful of stores into the mapped page cache, with no system call and no
+ * allocation; only rolling to a new segment maps a file. The data survives a process crash
+ * as soon as it is written, and {@link #flush()} forces it to disk for power-loss durability.
+ * Rolling does not force the full segment itself, so the writer never waits on the device;
+ * the next {@link #flush()} forces it along with the current one.
+ * <p>
+ * Thread safety: there must be a single writer thread per journal.
+ */
+public class OrderJournal implements AutoCloseable {
+
+    public static final int RECORD_ORDER = 1;
+    public static final int RECORD_EXECUTION = 2;
+
+    static final int SEQUENCE_OFFSET = 0;
+    static final int TYPE_OFFSET = 8;
+    static final int BODY_OFFSET = 16;
+    public static final int RECORD_SIZE = BODY_OFFSET + DirectBufferDemo.ORDER_SIZE;
+
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    static final VarHandle SEQUENCE =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final DirectBufferDemo.OrderFlyweight body = new DirectBufferDemo.OrderFlyweight();
+    // Full segments rolled away from since the last flush, not yet forced
+    private final List<MappedByteBuffer> unforcedSegments = new ArrayList<>();
+
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private int position;
+    private long nextSequence = 1;
+
+    /**
+     * Open the journal in the given directory, continuing after the last complete record
+     * if segments already exist.
+     *
+     * @param segmentSize Size of each segment file in bytes, rounded down to whole records
+     */
+    public OrderJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("Segment size must hold at least one record: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize - (segmentSize % RECORD_SIZE);
+        Files.createDirectories(directory);
+
+        List<Path> segments = JournalReader.listSegments(directory);
+        if (segments.isEmpty()) {
+            mapSegment(0);
+        } else {
+            recover(segments);
+        }
+    }
+
+    public long appendOrder(long orderId, long symbolCode, byte type, byte side,
+                            long price, int quantity, int clientCode) {
+        return append(RECORD_ORDER, orderId, symbolCode, type, side, price, quantity, clientCode);
+    }
+
+    public long appendExecution(long orderId, long symbolCode, byte type, byte side,
+                                long price, int quantity, int clientCode) {
+        return append(RECORD_EXECUTION, orderId, symbolCode, type, side, price, quantity, clientCode);
+    }
+
+    /**
+     * @return The sequence number assigned to the record
+     */
+    private long append(int recordType, long orderId, long symbolCode, byte type, byte side,
+                        long price, int quantity, int clientCode) {
+        if (position == segmentSize) {
+            rollSegment();
+        }
+        int offset = position;
+        body.wrap(segment, offset + BODY_OFFSET)
+                .orderId(orderId)
+                .price(price)
+                .symbolCode(symbolCode)
+                .quantity(quantity)
+                .clientCode(clientCode)
+                .type(type)
+                .side(side);
+        segment.putInt(offset + TYPE_OFFSET, recordType);
+
+        // Publish the record by writing its sequence last
+        long sequence = nextSequence++;
+        SEQUENCE.setRelease(segment, offset + SEQUENCE_OFFSET, sequence);
+        position = offset + RECORD_SIZE;
+        return sequence;
+    }
+
+    /**
+     * Force every segment written since the last flush to the storage device.
+     */
+    public void flush() {
+        for (MappedByteBuffer rolled : unforcedSegments) {
+            rolled.force();
+        }
+        unforcedSegments.clear();
+        segment.force();
+    }
+
+    public long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void rollSegment() {
+        unforcedSegments.add(segment);
+        try {
+            mapSegment(segmentIndex + 1);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not roll journal segment in " + directory, e);
+        }
+    }
+
+    private void mapSegment(int index) throws IOException {
+        Path file = directory.resolve(segmentName(index));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segmentIndex = index;
+        position = 0;
+    }
+
+    private void recover(List<Path> segments) throws IOException {
+        Path last = segments.get(segments.size() - 1);
+        int index = JournalReader.segmentIndex(last);
+        mapSegment(index);
+
+        long lastSequence = 0;
+        while (position < segmentSize) {
+            long sequence = (long) SEQUENCE.getAcquire(segment, position + SEQUENCE_OFFSET);
+            if (sequence == 0) {
+                break;
+            }
+            lastSequence = sequence;
+            position += RECORD_SIZE;
+        }
+        if (lastSequence == 0 && segments.size() > 1) {
+            // Rolled to a new segment but crashed before writing to it
+            lastSequence = JournalReader.lastSequenceIn(segments.get(segments.size() - 2));
+        }
+        nextSequence = lastSequence + 1;
+    }
+
+    static String segmentName(int index) {
+        return String.format("%010d%s", index, SEGMENT_SUFFIX);
+    }
+}
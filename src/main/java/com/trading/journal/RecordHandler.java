@@ -0,0 +1,17 @@
+package com.trading.journal;
+
+import com.trading.benchmark.DirectBufferDemo;
+
+/**
+ * Receives records replayed from an {@link OrderJournal}.
+ */
+@FunctionalInterface
+public interface RecordHandler {
+
+    /**
+     * @param sequence   Sequence number of the record, starting at 1
+     * @param recordType {@link OrderJournal#RECORD_ORDER} or {@link OrderJournal#RECORD_EXECUTION}
+     * @param record     Flyweight over the record body; only valid for the duration of the call
+     */
+    void onRecord(long sequence, int recordType, DirectBufferDemo.OrderFlyweight record);
+}
@@ -0,0 +1,15 @@
+/**
+ * Memory-mapped, append-only order journal.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>OrderJournal - Single-writer journal that appends sequenced records to rolling mapped segments</li>
+ *   <li>JournalReader - Replays the journal segments in order after a restart</li>
+ *   <li>RecordHandler - Callback that receives each replayed record through a flyweight</li>
+ * </ul>
+ * <p>
+ * Records use the binary order layout of {@code com.trading.benchmark.DirectBufferDemo},
+ * prefixed with a sequence number and record type. Appends are plain memory writes into the
+ * page cache, so there is no system call per message on the hot path.
+ */
+package com.trading.journal;
@@ -0,0 +1,26 @@
+package com.trading.load;
+
+/**
+ * When each order of an open-loop run is due, as an offset from the start of the run.
+ * <p>
+ * Schedules are stateful and walk forward one order per call, so use a new one per run.
+ */
+public interface ArrivalSchedule {
+
+    /**
+     * @return Offset in nanoseconds from the start of the run at which the next order is due
+     */
+    long nextOffsetNanos();
+
+    /**
+     * Create a schedule from its name: {@code constant} or {@code poisson}.
+     */
+    static ArrivalSchedule of(String arrivals, double ratePerSecond) {
+        return switch (arrivals) {
+            case "constant" -> new ConstantArrivals(ratePerSecond);
+            case "poisson" -> new PoissonArrivals(ratePerSecond);
+            default -> throw new IllegalArgumentException(
+                    "Unknown arrivals: " + arrivals + ". Please use 'constant' or 'poisson'");
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.trading.load;
+
+/**
+ * Evenly spaced arrivals. Offsets are computed from the order count rather than accumulated,
+ * so rates that do not divide a second evenly do not drift.
+ */
+public class ConstantArrivals implements ArrivalSchedule {
+
+    private final double intervalNanos;
+    private long count;
+
+    public ConstantArrivals(double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + ratePerSecond);
+        }
+        this.intervalNanos = 1_000_000_000.0 / ratePerSecond;
+    }
+
+    @Override
+    public long nextOffsetNanos() {
+        return (long) (count++ * intervalNanos);
+    }
+}
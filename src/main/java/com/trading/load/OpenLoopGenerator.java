@@ -0,0 +1,54 @@
+package com.trading.load;
+
+import com.trading.util.LatencyHistogram;
+
+/**
+ * Issues orders on a fixed schedule, whether or not earlier orders have finished, and times
+ * every order from when it was due rather than from when it was actually sent.
+ * <p>
+ * A closed loop only starts the next order when the previous one is done, so a GC pause or
+ * other stall delays every order behind it without any of them being timed as slow: the
+ * loop coordinates with the system it measures and omits exactly the bad samples. Here a
+ * stall leaves orders overdue and they are sent back to back as soon as it ends, each
+ * charged with the time it spent waiting, as a real client's orders would be.
+ * <p>
+ * Both views are recorded: latency from the intended send time, and service time from the
+ * actual send time, which is what a closed loop reports. The gap between them is the
+ * queueing a closed loop hides. Orders are processed on the calling thread, which spins
+ * until each one is due.
+ */
+public class OpenLoopGenerator {
+
+    private final LatencyHistogram latencies;
+    private final LatencyHistogram serviceTimes;
+
+    /**
+     * @param latencies    Records each order's time from its intended send time to completion
+     * @param serviceTimes Records each order's time from its actual send time to completion
+     */
+    public OpenLoopGenerator(LatencyHistogram latencies, LatencyHistogram serviceTimes) {
+        this.latencies = latencies;
+        this.serviceTimes = serviceTimes;
+    }
+
+    /**
+     * Process the orders as they fall due on the schedule.
+     *
+     * @return The time from the start of the run until the last order completed
+     */
+    public long run(ArrivalSchedule schedule, int orderCount, OrderTask task) {
+        long start = System.nanoTime();
+        for (int i = 0; i < orderCount; i++) {
+            long intended = start + schedule.nextOffsetNanos();
+            long sent;
+            while ((sent = System.nanoTime()) < intended) {
+                Thread.onSpinWait();
+            }
+            task.execute(i);
+            long completed = System.nanoTime();
+            latencies.recordValue(completed - intended);
+            serviceTimes.recordValue(completed - sent);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,13 @@
+package com.trading.load;
+
+/**
+ * Callback that processes one order for the {@link OpenLoopGenerator}.
+ */
+@FunctionalInterface
+public interface OrderTask {
+
+    /**
+     * Process the order with the given sequence number, counting from 0.
+     */
+    void execute(int sequence);
+}
@@ -0,0 +1,44 @@
+package com.trading.load;
+
+/**
+ * Arrivals of a Poisson process: exponentially distributed gaps with the given mean rate.
+ * Bursts and lulls like these are closer to real order flow than even spacing.
+ * <p>
+ * Gaps are drawn with an xorshift generator from a fixed seed, so runs are repeatable and
+ * drawing never allocates.
+ */
+public class PoissonArrivals implements ArrivalSchedule {
+
+    private static final long DEFAULT_SEED = 0x9E3779B97F4A7C15L;
+
+    private final double meanIntervalNanos;
+    private long random;
+    private double offsetNanos;
+
+    public PoissonArrivals(double ratePerSecond) {
+        this(ratePerSecond, DEFAULT_SEED);
+    }
+
+    public PoissonArrivals(double ratePerSecond, long seed) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + ratePerSecond);
+        }
+        if (seed == 0) {
+            throw new IllegalArgumentException("Seed must not be 0");
+        }
+        this.meanIntervalNanos = 1_000_000_000.0 / ratePerSecond;
+        this.random = seed;
+    }
+
+    @Override
+    public long nextOffsetNanos() {
+        long offset = (long) offsetNanos;
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        // Uniform in (0, 1] from the top 53 bits, so the logarithm is finite
+        double uniform = ((random >>> 11) + 1) * 0x1.0p-53;
+        offsetNanos += -Math.log(uniform) * meanIntervalNanos;
+        return offset;
+    }
+}
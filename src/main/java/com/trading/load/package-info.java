@@ -0,0 +1,16 @@
+/**
+ * Open-loop load generation with latency measured from each order's intended send time,
+ * which corrects for coordinated omission.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>OpenLoopGenerator - Issues orders on a schedule and records latency and service time</li>
+ *   <li>ArrivalSchedule - When each order is due</li>
+ *   <li>ConstantArrivals - Evenly spaced arrivals at a target rate</li>
+ *   <li>PoissonArrivals - Exponentially distributed gaps at a target mean rate</li>
+ *   <li>OrderTask - Callback that processes one order</li>
+ * </ul>
+ * <p>
+ * These classes have no external dependencies and are used by SimpleMain's openloop mode.
+ */
+package com.trading.load;
@@ -0,0 +1,73 @@
+package com.trading.marketdata;
+
+/**
+ * Reusable, consistent copy of one symbol's depth, filled in by
+ * {@link MarketDataCache#readSnapshot(int, BookSnapshot)}, or built with {@link #addBid} and
+ * {@link #addAsk} to replace a whole book with {@link MarketDataCache#apply(int, BookSnapshot)}.
+ * <p>
+ * Levels are best first. The arrays are sized once for the cache's depth and reused for
+ * every read; {@code ValueClassDemo} converts from and to the immutable
+ * {@code MarketDataUpdate} record for code outside the hot path.
+ */
+public class BookSnapshot {
+
+    final long[] bidPrices;
+    final long[] bidSizes;
+    final long[] askPrices;
+    final long[] askSizes;
+    int symbolId;
+    int bidCount;
+    int askCount;
+    long timestamp;
+    long version;
+
+    public BookSnapshot(int depth) {
+        this.bidPrices = new long[depth];
+        this.bidSizes = new long[depth];
+        this.askPrices = new long[depth];
+        this.askSizes = new long[depth];
+    }
+
+    public int getSymbolId() { return symbolId; }
+    public int getBidCount() { return bidCount; }
+    public int getAskCount() { return askCount; }
+    public long bidPrice(int level) { return bidPrices[level]; }
+    public long bidSize(int level) { return bidSizes[level]; }
+    public long askPrice(int level) { return askPrices[level]; }
+    public long askSize(int level) { return askSizes[level]; }
+    public long getTimestamp() { return timestamp; }
+
+    /**
+     * @return Number of updates the symbol had received when this copy was taken
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * Remove every level, before adding a new book's levels best first.
+     */
+    public void clear(long timestamp) {
+        this.bidCount = 0;
+        this.askCount = 0;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Append a bid level below the ones already added.
+     */
+    public void addBid(long price, long size) {
+        bidPrices[bidCount] = price;
+        bidSizes[bidCount++] = size;
+    }
+
+    /**
+     * Append an ask level above the ones already added.
+     */
+    public void addAsk(long price, long size) {
+        askPrices[askCount] = price;
+        askSizes[askCount++] = size;
+    }
+
+    public int getDepth() {
+        return bidPrices.length;
+    }
+}
@@ -0,0 +1,62 @@
+package com.trading.marketdata;
+
+/**
+ * Conflating view of a {@link MarketDataCache} for a consumer slower than the feed.
+ * <p>
+ * Each {@link #poll} delivers one snapshot per symbol whose version moved since the
+ * consumer last saw it, however many updates it received in between. The feed thread does
+ * no work per reader and never waits for one, so a slow consumer costs it nothing; the
+ * consumer only ever falls behind by a single, current snapshot per symbol instead of an
+ * unbounded queue of stale ticks.
+ * <p>
+ * Thread safety: each reader belongs to one consumer thread.
+ */
+public class ConflatedReader {
+
+    private final MarketDataCache cache;
+    private final long[] lastVersions;
+    private final BookSnapshot snapshot;
+    private long delivered;
+    private long conflated;
+
+    public ConflatedReader(MarketDataCache cache) {
+        this.cache = cache;
+        this.lastVersions = new long[cache.getSymbolCapacity()];
+        this.snapshot = new BookSnapshot(cache.getDepth());
+    }
+
+    /**
+     * Deliver the latest snapshot of every symbol that changed since the previous poll.
+     *
+     * @return The number of snapshots delivered
+     */
+    public int poll(SnapshotHandler handler) {
+        int count = 0;
+        for (int symbolId = 0; symbolId < lastVersions.length; symbolId++) {
+            if (cache.version(symbolId) == lastVersions[symbolId]) {
+                continue;
+            }
+            cache.readSnapshot(symbolId, snapshot);
+            conflated += snapshot.version - lastVersions[symbolId] - 1;
+            lastVersions[symbolId] = snapshot.version;
+            handler.onSnapshot(snapshot);
+            count++;
+        }
+        delivered += count;
+        return count;
+    }
+
+    /**
+     * @return Snapshots delivered so far
+     */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * @return Updates that were superseded before this reader saw them
+     */
+    public long getConflated() {
+        return conflated;
+    }
+}
@@ -0,0 +1,286 @@
+package com.trading.marketdata;
+
+import com.trading.model.Side;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Latest depth of book per symbol, updated in place by a feed thread and read from any
+ * number of other threads without locks.
+ * <p>
+ * Each symbol's levels live in pre-allocated primitive arrays, best first, indexed by the
+ * dense symbol id from {@code SymbolDictionary}, with fixed-point prices
+ * ({@code com.trading.model.Price}). Incremental updates from {@link #updateLevel} insert,
+ * resize or remove a single level in place, so applying a tick never allocates, unlike
+ * building a new {@code ValueClassDemo.MarketDataUpdate} with its {@code PriceLevel} arrays.
+ * <p>
+ * Every symbol has its own seqlock: the writer makes the sequence odd, changes the levels
+ * and makes it even again. Readers copy the levels and keep the copy only if the sequence
+ * was even and unchanged around it, so the writer never waits for readers and readers never
+ * see a half-applied update. Sequences are spread a cache line apart so symbols updated by
+ * the feed do not slow down readers of other symbols.
+ * <ul>
+ *   <li>{@link #readTopOfBook} makes a bounded number of attempts and so is wait-free: if the
+ *   feed is in the middle of every attempt it leaves the previous copy and returns false</li>
+ *   <li>{@link #readSnapshot} retries until it gets a consistent copy of the whole depth</li>
+ *   <li>{@link ConflatedReader} gives slow consumers only the latest state of each symbol
+ *   that changed since they last looked</li>
+ * </ul>
+ * <p>
+ * Thread safety: all updates of one cache must come from a single feed thread. Reads are
+ * safe from any thread.
+ */
+public class MarketDataCache {
+
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    // Attempts at a consistent top of book before giving up, which bounds the router's read
+    private static final int TOP_OF_BOOK_ATTEMPTS = 16;
+
+    // Eight longs are one 64-byte cache line; the first slot is skipped so that no
+    // sequence shares a line with the array header
+    private static final int SEQUENCE_STRIDE = 8;
+
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int depth;
+    private final int symbolCapacity;
+    private final long[] sequences;
+    private final long[] bidPrices;
+    private final long[] bidSizes;
+    private final long[] askPrices;
+    private final long[] askSizes;
+    private final int[] bidCounts;
+    private final int[] askCounts;
+    private final long[] timestamps;
+
+    /**
+     * @param depth Price levels kept per side for each symbol
+     */
+    public MarketDataCache(int symbolCapacity, int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Depth must be positive: " + depth);
+        }
+        this.depth = depth;
+        this.symbolCapacity = symbolCapacity;
+        this.sequences = new long[(symbolCapacity + 1) * SEQUENCE_STRIDE];
+        this.bidPrices = new long[symbolCapacity * depth];
+        this.bidSizes = new long[symbolCapacity * depth];
+        this.askPrices = new long[symbolCapacity * depth];
+        this.askSizes = new long[symbolCapacity * depth];
+        this.bidCounts = new int[symbolCapacity];
+        this.askCounts = new int[symbolCapacity];
+        this.timestamps = new long[symbolCapacity];
+        Arrays.fill(bidPrices, NO_PRICE);
+        Arrays.fill(askPrices, NO_PRICE);
+    }
+
+    /**
+     * Apply one incremental change to a symbol's book: set the size at a price level, adding
+     * the level if it is new, or remove it if the size is zero. A new level worse than the
+     * last kept level is ignored when the side is already at full depth.
+     *
+     * @param price     Fixed-point price of the level
+     * @param size      New total size at the level, zero to remove it
+     * @param timestamp Feed timestamp of the change
+     */
+    public void updateLevel(int symbolId, Side side, long price, long size, long timestamp) {
+        beginWrite(symbolId);
+        if (side == Side.BUY) {
+            bidCounts[symbolId] = updateLevel(bidPrices, bidSizes, symbolId * depth, bidCounts[symbolId],
+                    price, size, true);
+        } else {
+            askCounts[symbolId] = updateLevel(askPrices, askSizes, symbolId * depth, askCounts[symbolId],
+                    price, size, false);
+        }
+        timestamps[symbolId] = timestamp;
+        endWrite(symbolId);
+    }
+
+    /**
+     * Replace a symbol's whole book with a full refresh, keeping at most the cache's depth
+     * per side. Readers see either the old book or the new one, never a mix.
+     */
+    public void apply(int symbolId, BookSnapshot book) {
+        beginWrite(symbolId);
+        bidCounts[symbolId] = copyLevels(book.bidPrices, book.bidSizes, book.bidCount, bidPrices, bidSizes,
+                symbolId * depth);
+        askCounts[symbolId] = copyLevels(book.askPrices, book.askSizes, book.askCount, askPrices, askSizes,
+                symbolId * depth);
+        timestamps[symbolId] = book.timestamp;
+        endWrite(symbolId);
+    }
+
+    /**
+     * Remove every level of a symbol, for example when its feed is reset.
+     */
+    public void clear(int symbolId, long timestamp) {
+        beginWrite(symbolId);
+        int offset = symbolId * depth;
+        Arrays.fill(bidPrices, offset, offset + depth, NO_PRICE);
+        Arrays.fill(bidSizes, offset, offset + depth, 0);
+        Arrays.fill(askPrices, offset, offset + depth, NO_PRICE);
+        Arrays.fill(askSizes, offset, offset + depth, 0);
+        bidCounts[symbolId] = 0;
+        askCounts[symbolId] = 0;
+        timestamps[symbolId] = timestamp;
+        endWrite(symbolId);
+    }
+
+    /**
+     * Copy the best bid and offer of a symbol. Wait-free: gives up after a fixed number of
+     * attempts that each overlapped an update, leaving {@code topOfBook} unchanged.
+     *
+     * @return Whether {@code topOfBook} now holds a consistent copy of the latest update
+     */
+    public boolean readTopOfBook(int symbolId, TopOfBook topOfBook) {
+        int index = sequenceIndex(symbolId);
+        int offset = symbolId * depth;
+        for (int attempt = 0; attempt < TOP_OF_BOOK_ATTEMPTS; attempt++) {
+            long sequence = (long) SEQUENCES.getAcquire(sequences, index);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            // Copy into locals first, so a torn attempt never reaches the caller's holder
+            long bidPrice = bidPrices[offset];
+            long bidSize = bidSizes[offset];
+            long askPrice = askPrices[offset];
+            long askSize = askSizes[offset];
+            long timestamp = timestamps[symbolId];
+            VarHandle.loadLoadFence();
+            if ((long) SEQUENCES.getOpaque(sequences, index) == sequence) {
+                topOfBook.bidPrice = bidPrice;
+                topOfBook.bidSize = bidSize;
+                topOfBook.askPrice = askPrice;
+                topOfBook.askSize = askSize;
+                topOfBook.timestamp = timestamp;
+                topOfBook.version = sequence >>> 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy the full depth of a symbol, retrying until the copy did not overlap an update.
+     * Lock-free: the feed is never held up, but under a continuous stream of updates to the
+     * same symbol this may take several attempts.
+     *
+     * @param snapshot Must have at least this cache's {@link #getDepth() depth}
+     */
+    public void readSnapshot(int symbolId, BookSnapshot snapshot) {
+        if (snapshot.bidPrices.length < depth) {
+            throw new IllegalArgumentException("Snapshot depth " + snapshot.bidPrices.length
+                    + " is less than the cache depth " + depth);
+        }
+        int index = sequenceIndex(symbolId);
+        int offset = symbolId * depth;
+        while (true) {
+            long sequence = (long) SEQUENCES.getAcquire(sequences, index);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            System.arraycopy(bidPrices, offset, snapshot.bidPrices, 0, depth);
+            System.arraycopy(bidSizes, offset, snapshot.bidSizes, 0, depth);
+            System.arraycopy(askPrices, offset, snapshot.askPrices, 0, depth);
+            System.arraycopy(askSizes, offset, snapshot.askSizes, 0, depth);
+            int bidCount = bidCounts[symbolId];
+            int askCount = askCounts[symbolId];
+            long timestamp = timestamps[symbolId];
+            VarHandle.loadLoadFence();
+            if ((long) SEQUENCES.getOpaque(sequences, index) == sequence) {
+                snapshot.symbolId = symbolId;
+                snapshot.bidCount = bidCount;
+                snapshot.askCount = askCount;
+                snapshot.timestamp = timestamp;
+                snapshot.version = sequence >>> 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Number of updates applied to the symbol so far
+     */
+    public long version(int symbolId) {
+        return (long) SEQUENCES.getAcquire(sequences, sequenceIndex(symbolId)) >>> 1;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSymbolCapacity() {
+        return symbolCapacity;
+    }
+
+    private void beginWrite(int symbolId) {
+        int index = sequenceIndex(symbolId);
+        SEQUENCES.setOpaque(sequences, index, sequences[index] + 1);
+        // The odd sequence must be visible before any of the level changes
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite(int symbolId) {
+        int index = sequenceIndex(symbolId);
+        SEQUENCES.setRelease(sequences, index, sequences[index] + 1);
+    }
+
+    private static int sequenceIndex(int symbolId) {
+        return (symbolId + 1) * SEQUENCE_STRIDE;
+    }
+
+    /**
+     * @return The new number of levels on the side
+     */
+    private int updateLevel(long[] prices, long[] sizes, int offset, int count, long price, long size,
+                            boolean descending) {
+        // Find the level, or where it would go; sides are short, so a linear scan is fastest
+        int i = 0;
+        while (i < count && (descending ? prices[offset + i] > price : prices[offset + i] < price)) {
+            i++;
+        }
+        boolean exists = i < count && prices[offset + i] == price;
+        if (size == 0) {
+            if (!exists) {
+                return count;
+            }
+            System.arraycopy(prices, offset + i + 1, prices, offset + i, count - i - 1);
+            System.arraycopy(sizes, offset + i + 1, sizes, offset + i, count - i - 1);
+            prices[offset + count - 1] = NO_PRICE;
+            sizes[offset + count - 1] = 0;
+            return count - 1;
+        }
+        if (exists) {
+            sizes[offset + i] = size;
+            return count;
+        }
+        if (i == depth) {
+            return count;
+        }
+        // Shift worse levels down, dropping the worst one if the side is full
+        int kept = Math.min(count, depth - 1);
+        System.arraycopy(prices, offset + i, prices, offset + i + 1, kept - i);
+        System.arraycopy(sizes, offset + i, sizes, offset + i + 1, kept - i);
+        prices[offset + i] = price;
+        sizes[offset + i] = size;
+        return kept + 1;
+    }
+
+    /**
+     * @return The number of levels copied
+     */
+    private int copyLevels(long[] fromPrices, long[] fromSizes, int fromCount, long[] prices, long[] sizes,
+                           int offset) {
+        int count = Math.min(fromCount, depth);
+        System.arraycopy(fromPrices, 0, prices, offset, count);
+        System.arraycopy(fromSizes, 0, sizes, offset, count);
+        Arrays.fill(prices, offset + count, offset + depth, NO_PRICE);
+        Arrays.fill(sizes, offset + count, offset + depth, 0);
+        return count;
+    }
+}
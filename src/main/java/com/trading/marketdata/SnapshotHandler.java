@@ -0,0 +1,14 @@
+package com.trading.marketdata;
+
+/**
+ * Receives the latest state of each symbol that changed, from a {@link ConflatedReader}.
+ */
+@FunctionalInterface
+public interface SnapshotHandler {
+
+    /**
+     * @param snapshot Consistent copy of the symbol's depth; reused for the next symbol, so
+     *                 only valid for the duration of the call
+     */
+    void onSnapshot(BookSnapshot snapshot);
+}
@@ -0,0 +1,44 @@
+package com.trading.marketdata;
+
+import com.trading.model.Price;
+
+/**
+ * Reusable holder for one symbol's best bid and offer, filled in by
+ * {@link MarketDataCache#readTopOfBook(int, TopOfBook)}.
+ * <p>
+ * An empty side has price {@link MarketDataCache#NO_PRICE} and size zero.
+ */
+public class TopOfBook {
+
+    long bidPrice = MarketDataCache.NO_PRICE;
+    long bidSize;
+    long askPrice = MarketDataCache.NO_PRICE;
+    long askSize;
+    long timestamp;
+    long version;
+
+    public long getBidPrice() { return bidPrice; }
+    public long getBidSize() { return bidSize; }
+    public long getAskPrice() { return askPrice; }
+    public long getAskSize() { return askSize; }
+
+    /**
+     * @return Feed timestamp of the update this copy was taken from
+     */
+    public long getTimestamp() { return timestamp; }
+
+    /**
+     * @return Number of updates the symbol had received when this copy was taken
+     */
+    public long getVersion() { return version; }
+
+    @Override
+    public String toString() {
+        return "TopOfBook[" + bidSize + " @ " + priceString(bidPrice) + " / " + askSize + " @ "
+                + priceString(askPrice) + "]";
+    }
+
+    private static String priceString(long price) {
+        return price == MarketDataCache.NO_PRICE ? "-" : Price.toString(price);
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Market data cache with per-symbol seqlocks, read by the router and by slower consumers.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>MarketDataCache - Depth of book per symbol in primitive arrays, updated in place</li>
+ *   <li>TopOfBook - Reusable best bid and offer, read wait-free on every order</li>
+ *   <li>BookSnapshot - Reusable consistent copy of a symbol's full depth</li>
+ *   <li>ConflatedReader - Latest snapshot of each changed symbol for slow consumers</li>
+ *   <li>SnapshotHandler - Callback for each conflated snapshot</li>
+ * </ul>
+ * <p>
+ * The feed thread never blocks and never allocates; prices are fixed-point longs. The
+ * immutable {@code ValueClassDemo.MarketDataUpdate} record is only built at the edges.
+ */
+package com.trading.marketdata;
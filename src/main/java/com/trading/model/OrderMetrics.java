@@ -0,0 +1,37 @@
+package com.trading.model;
+
+/**
+ * Per-symbol running metrics over processed orders.
+ * <p>
+ * Prices and values are fixed-point {@link Price}s. Until the first order is recorded the
+ * minimum price is {@code Long.MAX_VALUE} and the maximum {@code Long.MIN_VALUE}, so any
+ * price replaces them.
+ */
+public class OrderMetrics {
+    private final String symbol;
+    private int count;
+    private long totalValue;
+    private long minPrice;
+    private long maxPrice;
+
+    public OrderMetrics(String symbol) {
+        this.symbol = symbol;
+        this.count = 0;
+        this.totalValue = 0;
+        this.minPrice = Long.MAX_VALUE;
+        this.maxPrice = Long.MIN_VALUE;
+    }
+
+    public void updateWith(OrderSimulation order) {
+        count++;
+        totalValue += order.getExecutedValue();
+        minPrice = Math.min(minPrice, order.getPrice());
+        maxPrice = Math.max(maxPrice, order.getPrice());
+    }
+
+    public String getSymbol() { return symbol; }
+    public int getCount() { return count; }
+    public long getTotalValue() { return totalValue; }
+    public long getMinPrice() { return minPrice; }
+    public long getMaxPrice() { return maxPrice; }
+}
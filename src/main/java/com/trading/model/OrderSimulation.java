@@ -0,0 +1,55 @@
+package com.trading.model;
+
+/**
+ * Mutable order used by the router's order paths.
+ * <p>
+ * Identifiers are primitives: the order id is a {@code long} and the instrument is the dense
+ * id handed out by {@link SymbolDictionary}, so an order can be reset and reused without
+ * building any Strings. Prices are fixed-point {@link Price}s and the executed value is the
+ * sum of price times quantity over the fills, in the same scale.
+ */
+public class OrderSimulation {
+    private long id;
+    private int symbolId;
+    private Side side = Side.BUY;
+    private long price;
+    private int quantity;
+    private int filledQuantity;
+    private long executedValue;
+    private long timestamp;
+    
+    public OrderSimulation() {
+    }
+    
+    public OrderSimulation(long id) {
+        this.id = id;
+    }
+    
+    public void reset(long id, int symbolId, Side side, long price, int quantity) {
+        this.id = id;
+        this.symbolId = symbolId;
+        this.side = side;
+        this.price = price;
+        this.quantity = quantity;
+        this.filledQuantity = 0;
+        this.executedValue = 0;
+    }
+    
+    // Getters and setters
+    public void setId(long id) { this.id = id; }
+    public long getId() { return id; }
+    public void setSymbolId(int symbolId) { this.symbolId = symbolId; }
+    public int getSymbolId() { return symbolId; }
+    public void setSide(Side side) { this.side = side; }
+    public Side getSide() { return side; }
+    public void setPrice(long price) { this.price = price; }
+    public long getPrice() { return price; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public int getQuantity() { return quantity; }
+    public void setFilledQuantity(int filledQuantity) { this.filledQuantity = filledQuantity; }
+    public int getFilledQuantity() { return filledQuantity; }
+    public void setExecutedValue(long value) { this.executedValue = value; }
+    public long getExecutedValue() { return executedValue; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+    public long getTimestamp() { return timestamp; }
+}
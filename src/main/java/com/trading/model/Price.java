@@ -0,0 +1,82 @@
+package com.trading.model;
+
+import com.trading.util.NumericCodec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-point prices, carried as {@code long}s scaled by {@value #SCALE}, so 150.25 is
+ * {@code 1_502_500}.
+ * <p>
+ * Every price on the order path is such a scaled {@code long}: comparisons are exact, sums
+ * of fills cannot drift, and a price minus a book's lowest price divided by the symbol's
+ * tick size is directly an array index. The tick size of each instrument is itself a price,
+ * held by {@link SymbolDictionary}. Conversion from and to {@code double} or text is only
+ * meant for the edges, such as configuration and reporting.
+ * <p>
+ * This is a static utility over primitives rather than a value class, so prices never
+ * allocate.
+ */
+public final class Price {
+
+    public static final int DECIMALS = 4;
+    public static final long SCALE = 10_000L;
+
+    // One hundredth, the most common equity tick size
+    public static final long CENT = SCALE / 100;
+
+    private Price() {
+    }
+
+    /**
+     * @return The price of a whole number of units, for example {@code of(150)} is 150.0000
+     */
+    public static long of(long units) {
+        return Math.multiplyExact(units, SCALE);
+    }
+
+    /**
+     * Convert a decimal price, rounding to the nearest {@code 1 / SCALE}.
+     */
+    public static long fromDouble(double price) {
+        return Math.round(price * SCALE);
+    }
+
+    public static double toDouble(long price) {
+        return (double) price / SCALE;
+    }
+
+    /**
+     * @return Whether the price is a whole number of ticks
+     */
+    public static boolean isOnTick(long price, long tickSize) {
+        return price % tickSize == 0;
+    }
+
+    /**
+     * @return The value of {@code quantity} units traded at {@code price}, as a scaled long
+     */
+    public static long notional(long price, long quantity) {
+        return price * quantity;
+    }
+
+    /**
+     * Format with all {@value #DECIMALS} decimals, for reporting.
+     */
+    public static String toString(long price) {
+        byte[] text = new byte[NumericCodec.decimalLength(price, DECIMALS)];
+        NumericCodec.putDecimal(text, 0, price, DECIMALS);
+        return new String(text, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Parse a decimal such as {@code "150.25"}. More than {@value #DECIMALS} decimals are
+     * only accepted if the extra digits are zeros.
+     *
+     * @throws NumberFormatException If the text is not a decimal or does not fit
+     */
+    public static long parse(CharSequence text) {
+        byte[] bytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+        return NumericCodec.parseDecimal(bytes, 0, bytes.length, DECIMALS);
+    }
+}
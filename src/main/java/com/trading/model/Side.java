@@ -0,0 +1,31 @@
+package com.trading.model;
+
+/**
+ * Side of an order. The codes follow FIX tag 54 and are what the binary order layout stores.
+ */
+public enum Side {
+    BUY((byte) 1),
+    SELL((byte) 2);
+
+    private final byte code;
+
+    Side(byte code) {
+        this.code = code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public Side opposite() {
+        return this == BUY ? SELL : BUY;
+    }
+
+    public static Side fromCode(byte code) {
+        return switch (code) {
+            case 1 -> BUY;
+            case 2 -> SELL;
+            default -> throw new IllegalArgumentException("Unknown side code: " + code);
+        };
+    }
+}
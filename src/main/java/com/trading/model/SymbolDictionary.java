@@ -0,0 +1,133 @@
+package com.trading.model;
+
+import com.trading.util.LongIntHashMap;
+
+/**
+ * Resolves instrument symbols to dense {@code int} ids once, so the hot path can index
+ * plain arrays by symbol instead of hashing Strings.
+ * <p>
+ * Symbols are packed into a {@code long} as up to eight big-endian ASCII bytes, the
+ * eight-byte {@code symbolCode} of the binary order layout in
+ * {@code com.trading.benchmark.DirectBufferDemo}. The packed code is what travels on the
+ * wire; the dictionary maps it to an id with a primitive hash map, and keeps the String name
+ * only for reporting.
+ * <p>
+ * Each symbol also has a tick size, the minimum price increment of the instrument as a
+ * {@link Price}, kept in an array by id so order books can turn prices into ladder indices.
+ * <p>
+ * Registration is expected at start-up from a single thread. Lookups never allocate.
+ */
+public class SymbolDictionary {
+
+    public static final int MAX_SYMBOL_LENGTH = 8;
+    public static final int UNKNOWN_SYMBOL = -1;
+    public static final long DEFAULT_TICK_SIZE = Price.CENT;
+
+    private final LongIntHashMap idsByCode;
+    private final long[] codes;
+    private final String[] names;
+    private final long[] tickSizes;
+    private int size;
+
+    public SymbolDictionary(int capacity) {
+        this.idsByCode = new LongIntHashMap(capacity, UNKNOWN_SYMBOL);
+        this.codes = new long[capacity];
+        this.names = new String[capacity];
+        this.tickSizes = new long[capacity];
+    }
+
+    /**
+     * Register a symbol with the {@link #DEFAULT_TICK_SIZE}, or return its id if it is
+     * already registered.
+     *
+     * @return The dense id of the symbol, between 0 and {@link #capacity()} - 1
+     */
+    public int register(CharSequence symbol) {
+        return register(symbol, DEFAULT_TICK_SIZE);
+    }
+
+    /**
+     * Register a symbol, or return its id if it is already registered. The tick size of an
+     * existing symbol is not changed.
+     *
+     * @param tickSize Minimum price increment as a {@link Price}
+     * @return The dense id of the symbol, between 0 and {@link #capacity()} - 1
+     */
+    public int register(CharSequence symbol, long tickSize) {
+        if (tickSize <= 0) {
+            throw new IllegalArgumentException("Tick size must be positive: " + tickSize);
+        }
+        long code = encode(symbol);
+        int id = idsByCode.get(code);
+        if (id != UNKNOWN_SYMBOL) {
+            return id;
+        }
+        if (size == codes.length) {
+            throw new IllegalStateException("Symbol dictionary is full: " + codes.length + " symbols");
+        }
+        id = size++;
+        codes[id] = code;
+        names[id] = symbol.toString();
+        tickSizes[id] = tickSize;
+        idsByCode.put(code, id);
+        return id;
+    }
+
+    /**
+     * @return The id registered for the packed symbol code, or {@link #UNKNOWN_SYMBOL}
+     */
+    public int lookup(long symbolCode) {
+        return idsByCode.get(symbolCode);
+    }
+
+    /**
+     * @return The id registered for the symbol, or {@link #UNKNOWN_SYMBOL}
+     */
+    public int lookup(CharSequence symbol) {
+        return idsByCode.get(encode(symbol));
+    }
+
+    public long code(int id) {
+        return codes[id];
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * @return The tick size of the symbol as a {@link Price}
+     */
+    public long tickSize(int id) {
+        return tickSizes[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return codes.length;
+    }
+
+    /**
+     * Pack up to {@link #MAX_SYMBOL_LENGTH} ASCII characters into a long, first character
+     * in the most significant byte.
+     */
+    public static long encode(CharSequence symbol) {
+        int length = symbol.length();
+        if (length == 0 || length > MAX_SYMBOL_LENGTH) {
+            throw new IllegalArgumentException("Symbol must have 1 to " + MAX_SYMBOL_LENGTH
+                    + " characters: " + symbol);
+        }
+        long code = 0;
+        for (int i = 0; i < length; i++) {
+            char c = symbol.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Symbol must be ASCII: " + symbol);
+            }
+            code = (code << 8) | c;
+        }
+        return code;
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * Domain model shared by the router's order paths.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>OrderSimulation - Mutable, reusable order with primitive identifiers</li>
+ *   <li>Side - Buy or sell, with the FIX side codes stored in binary records</li>
+ *   <li>OrderMetrics - Per-symbol running metrics over processed orders</li>
+ *   <li>SymbolDictionary - Resolves packed ASCII symbol codes to dense int ids and tick sizes</li>
+ *   <li>Price - Fixed-point prices as scaled longs, converted only at the edges</li>
+ * </ul>
+ * <p>
+ * These classes have no external dependencies and are used directly by SimpleMain.
+ */
+package com.trading.model;
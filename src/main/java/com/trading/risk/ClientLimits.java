@@ -0,0 +1,19 @@
+package com.trading.risk;
+
+/**
+ * Pre-trade limits of one client, checked by {@link PreTradeRiskEngine}.
+ *
+ * @param maxOrderNotional   Largest price times quantity of a single order, as a fixed-point value
+ * @param maxOpenNotional    Largest total notional of the client's working orders across symbols
+ * @param maxPosition        Largest long or short position per symbol, counting working orders on that side
+ * @param maxOrdersPerSecond Orders accepted per one-second window
+ */
+public record ClientLimits(long maxOrderNotional, long maxOpenNotional, long maxPosition, int maxOrdersPerSecond) {
+
+    public ClientLimits {
+        if (maxOrderNotional <= 0 || maxOpenNotional <= 0 || maxPosition <= 0 || maxOrdersPerSecond <= 0) {
+            throw new IllegalArgumentException("Limits must be positive: " + maxOrderNotional + ", "
+                    + maxOpenNotional + ", " + maxPosition + ", " + maxOrdersPerSecond);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.trading.risk;
+
+import com.trading.benchmark.DirectBufferDemo;
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.util.LongIntHashMap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Pre-trade risk checks that every order passes before it reaches the matching engine.
+ * <p>
+ * Per order, in this order, it checks:
+ * <ul>
+ *   <li>Order: quantity and price are positive</li>
+ *   <li>Price band: the price is within the symbol's band around its reference price, which
+ *   catches fat-finger prices</li>
+ *   <li>Order notional: price times quantity is within the client's single-order limit</li>
+ *   <li>Order rate: the client has orders left in the current one-second window</li>
+ *   <li>Position: the client's filled position in the symbol plus its working orders on the
+ *   order's side stays within limit, long or short</li>
+ *   <li>Open notional: the client's working notional across symbols stays within limit</li>
+ * </ul>
+ * The first three need no state. The others reserve what the order uses, so an accepted order
+ * counts against the limits until it is reported with {@link #onFill} or {@link #onCancel}.
+ * A later check that fails undoes the reservations made before it.
+ * <p>
+ * Working buys and working sells are kept apart rather than netted, as either side may fill
+ * without the other: only filled quantity offsets working orders on the other side, so an
+ * order reduces exposure only against what has actually traded.
+ * <p>
+ * Clients are found by the {@code clientCode} of the order record layout in
+ * {@link DirectBufferDemo}. All limit state is primitive: the filled position, working long
+ * and working short quantity in three {@code long[]} cells per client and symbol, and each
+ * client's rate window and open notional in
+ * {@code long}s a cache line apart from other clients'. Every update is a compare-and-set
+ * retry loop on one cell, so any number of gateway threads can check orders for the same
+ * client concurrently without locks, and a check never allocates.
+ * <p>
+ * Thread safety: clients, limits and price bands are registered at start-up from a single
+ * thread, before gateway threads start. Reference prices may be moved at any time by one
+ * market data thread. Checks and fill and cancel reports are safe from any thread.
+ */
+public class PreTradeRiskEngine {
+
+    public static final int ACCEPTED = 0;
+    public static final int REJECT_INVALID_ORDER = 1;
+    public static final int REJECT_UNKNOWN_CLIENT = 2;
+    public static final int REJECT_PRICE_BAND = 3;
+    public static final int REJECT_ORDER_NOTIONAL = 4;
+    public static final int REJECT_ORDER_RATE = 5;
+    public static final int REJECT_POSITION = 6;
+    public static final int REJECT_OPEN_NOTIONAL = 7;
+    public static final int RESULT_COUNT = 8;
+
+    public static final long NO_REFERENCE_PRICE = 0;
+
+    private static final int UNKNOWN_CLIENT = -1;
+    private static final long BASIS_POINTS = 10_000;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Client state is spread a 64-byte cache line apart, so gateway threads working for
+    // different clients do not contend; the rate window is one slot, open notional the next
+    private static final int CLIENT_STRIDE = 8;
+    private static final int RATE_SLOT = 0;
+    private static final int OPEN_NOTIONAL_SLOT = 1;
+
+    // Position cells of one client and symbol
+    private static final int POSITION_CELLS = 3;
+    private static final int FILLED = 0;
+    private static final int WORKING_LONG = 1;
+    private static final int WORKING_SHORT = 2;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int symbolCapacity;
+    private final LongIntHashMap clientIds;
+    private final long[] maxOrderNotionals;
+    private final long[] maxOpenNotionals;
+    private final long[] maxPositions;
+    private final int[] maxOrdersPerSecond;
+    private final long[] clientState;
+    private final long[] positions;
+    private final long[] referencePrices;
+    private final long[] bandBasisPoints;
+    private int clientCount;
+
+    public PreTradeRiskEngine(int clientCapacity, int symbolCapacity) {
+        this.symbolCapacity = symbolCapacity;
+        this.clientIds = new LongIntHashMap(clientCapacity, UNKNOWN_CLIENT);
+        this.maxOrderNotionals = new long[clientCapacity];
+        this.maxOpenNotionals = new long[clientCapacity];
+        this.maxPositions = new long[clientCapacity];
+        this.maxOrdersPerSecond = new int[clientCapacity];
+        // One spare line in front, so no client shares a line with the array header
+        this.clientState = new long[(clientCapacity + 1) * CLIENT_STRIDE];
+        this.positions = new long[clientCapacity * symbolCapacity * POSITION_CELLS];
+        this.referencePrices = new long[symbolCapacity];
+        this.bandBasisPoints = new long[symbolCapacity];
+    }
+
+    /**
+     * Register a client with its limits, or replace the limits of a registered client.
+     */
+    public void registerClient(int clientCode, ClientLimits limits) {
+        int id = clientIds.get(clientCode);
+        if (id == UNKNOWN_CLIENT) {
+            if (clientCount == maxPositions.length) {
+                throw new IllegalStateException("Risk engine is full: " + clientCount + " clients");
+            }
+            id = clientCount++;
+            clientIds.put(clientCode, id);
+        }
+        maxOrderNotionals[id] = limits.maxOrderNotional();
+        maxOpenNotionals[id] = limits.maxOpenNotional();
+        maxPositions[id] = limits.maxPosition();
+        maxOrdersPerSecond[id] = limits.maxOrdersPerSecond();
+    }
+
+    /**
+     * Set the fat-finger band of a symbol. Until a reference price is set, orders in the
+     * symbol are not checked against a band.
+     *
+     * @param bandBasisPoints Largest distance from the reference price, in hundredths of a percent
+     */
+    public void setPriceBand(int symbolId, long referencePrice, int bandBasisPoints) {
+        this.bandBasisPoints[symbolId] = bandBasisPoints;
+        setReferencePrice(symbolId, referencePrice);
+    }
+
+    /**
+     * Move the reference price of a symbol, for example to the last trade.
+     */
+    public void setReferencePrice(int symbolId, long referencePrice) {
+        LONGS.setRelease(referencePrices, symbolId, referencePrice);
+    }
+
+    /**
+     * Check an order record in the {@link DirectBufferDemo} layout.
+     *
+     * @param symbolId The dense id of the record's symbol code
+     * @return {@link #ACCEPTED} or the reason for the rejection
+     */
+    public int check(DirectBufferDemo.OrderFlyweight order, int symbolId, long nowNanos) {
+        return check(order.clientCode(), symbolId, Side.fromCode(order.side()), order.price(), order.quantity(), nowNanos);
+    }
+
+    /**
+     * Check an order, reserving its position, open notional and rate if it is accepted.
+     *
+     * @param price    Fixed-point limit price
+     * @param nowNanos {@link System#nanoTime()} at the check, which places it in a rate window
+     * @return {@link #ACCEPTED} or the reason for the rejection
+     */
+    public int check(int clientCode, int symbolId, Side side, long price, int quantity, long nowNanos) {
+        if (quantity <= 0 || price <= 0) {
+            return REJECT_INVALID_ORDER;
+        }
+        int client = clientIds.get(clientCode);
+        if (client == UNKNOWN_CLIENT) {
+            return REJECT_UNKNOWN_CLIENT;
+        }
+        long referencePrice = (long) LONGS.getAcquire(referencePrices, symbolId);
+        if (referencePrice != NO_REFERENCE_PRICE
+                && Math.abs(price - referencePrice) * BASIS_POINTS > referencePrice * bandBasisPoints[symbolId]) {
+            return REJECT_PRICE_BAND;
+        }
+        long notional = Price.notional(price, quantity);
+        if (notional > maxOrderNotionals[client]) {
+            return REJECT_ORDER_NOTIONAL;
+        }
+        if (!takeRate(client, nowNanos)) {
+            return REJECT_ORDER_RATE;
+        }
+        int position = positionBase(client, symbolId);
+        if (!reserveWorking(position, side, quantity, maxPositions[client])) {
+            releaseRate(client, nowNanos);
+            return REJECT_POSITION;
+        }
+        if (!reserveOpenNotional(client, notional)) {
+            LONGS.getAndAdd(positions, position + workingCell(side), (long) -quantity);
+            releaseRate(client, nowNanos);
+            return REJECT_OPEN_NOTIONAL;
+        }
+        return ACCEPTED;
+    }
+
+    /**
+     * Report a fill of an accepted order. The filled quantity moves from working to the filled
+     * position and no longer counts as working notional.
+     *
+     * @param price The order's limit price, as checked
+     */
+    public void onFill(int clientCode, int symbolId, Side side, long price, int quantity) {
+        int client = clientIds.get(clientCode);
+        if (client != UNKNOWN_CLIENT) {
+            int position = positionBase(client, symbolId);
+            // Filled first, so a concurrent check sees the quantity on both sides for a moment
+            // rather than on neither, and can only be too strict
+            LONGS.getAndAdd(positions, position + FILLED, side == Side.BUY ? (long) quantity : -quantity);
+            LONGS.getAndAdd(positions, position + workingCell(side), (long) -quantity);
+            LONGS.getAndAdd(clientState, clientSlot(client, OPEN_NOTIONAL_SLOT), -Price.notional(price, quantity));
+        }
+    }
+
+    /**
+     * Report that the unfilled remainder of an accepted order was cancelled or rejected
+     * downstream, which releases everything it reserved.
+     *
+     * @param price The order's limit price, as checked
+     */
+    public void onCancel(int clientCode, int symbolId, Side side, long price, int quantity) {
+        int client = clientIds.get(clientCode);
+        if (client != UNKNOWN_CLIENT) {
+            LONGS.getAndAdd(positions, positionBase(client, symbolId) + workingCell(side), (long) -quantity);
+            LONGS.getAndAdd(clientState, clientSlot(client, OPEN_NOTIONAL_SLOT), -Price.notional(price, quantity));
+        }
+    }
+
+    /**
+     * @return The client's filled position in the symbol, positive when long
+     */
+    public long position(int clientCode, int symbolId) {
+        int client = clientIds.get(clientCode);
+        return client == UNKNOWN_CLIENT ? 0 : (long) LONGS.getVolatile(positions, positionBase(client, symbolId) + FILLED);
+    }
+
+    /**
+     * @return The unfilled quantity of the client's accepted orders on one side of the symbol
+     */
+    public long workingQuantity(int clientCode, int symbolId, Side side) {
+        int client = clientIds.get(clientCode);
+        return client == UNKNOWN_CLIENT ? 0
+                : (long) LONGS.getVolatile(positions, positionBase(client, symbolId) + workingCell(side));
+    }
+
+    /**
+     * @return The fixed-point notional of the client's working orders
+     */
+    public long openNotional(int clientCode) {
+        int client = clientIds.get(clientCode);
+        return client == UNKNOWN_CLIENT ? 0 : (long) LONGS.getVolatile(clientState, clientSlot(client, OPEN_NOTIONAL_SLOT));
+    }
+
+    public static String resultName(int result) {
+        return switch (result) {
+            case ACCEPTED -> "accepted";
+            case REJECT_INVALID_ORDER -> "invalid order";
+            case REJECT_UNKNOWN_CLIENT -> "unknown client";
+            case REJECT_PRICE_BAND -> "price band";
+            case REJECT_ORDER_NOTIONAL -> "order notional";
+            case REJECT_ORDER_RATE -> "order rate";
+            case REJECT_POSITION -> "position";
+            case REJECT_OPEN_NOTIONAL -> "open notional";
+            default -> throw new IllegalArgumentException("Unknown risk result: " + result);
+        };
+    }
+
+    /**
+     * Count the order in the client's current one-second window. The window number and the
+     * count share one long, upper and lower 32 bits, so both move with a single CAS.
+     */
+    private boolean takeRate(int client, long nowNanos) {
+        int slot = clientSlot(client, RATE_SLOT);
+        long window = (nowNanos / NANOS_PER_SECOND) & 0xFFFF_FFFFL;
+        int limit = maxOrdersPerSecond[client];
+        while (true) {
+            long current = (long) LONGS.getVolatile(clientState, slot);
+            long next;
+            if ((current >>> 32) != window) {
+                next = (window << 32) | 1;
+            } else if ((int) current >= limit) {
+                return false;
+            } else {
+                next = current + 1;
+            }
+            if (LONGS.compareAndSet(clientState, slot, current, next)) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Give back the order counted by {@link #takeRate} for a check that failed later. Nothing
+     * to give back if the window has moved on since.
+     */
+    private void releaseRate(int client, long nowNanos) {
+        int slot = clientSlot(client, RATE_SLOT);
+        long window = (nowNanos / NANOS_PER_SECOND) & 0xFFFF_FFFFL;
+        while (true) {
+            long current = (long) LONGS.getVolatile(clientState, slot);
+            if ((current >>> 32) != window || (int) current == 0) {
+                return;
+            }
+            if (LONGS.compareAndSet(clientState, slot, current, current - 1)) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Reserve the order on its side if the exposure on that side, the filled position plus
+     * every working order on the side, stays within the limit. A buy against a short filled
+     * position reduces its exposure, working sells do not.
+     */
+    private boolean reserveWorking(int position, Side side, long quantity, long maxPosition) {
+        int cell = position + workingCell(side);
+        while (true) {
+            long filled = (long) LONGS.getVolatile(positions, position + FILLED);
+            long working = (long) LONGS.getVolatile(positions, cell);
+            long exposure = (side == Side.BUY ? filled : -filled) + working + quantity;
+            if (exposure > maxPosition) {
+                return false;
+            }
+            if (LONGS.compareAndSet(positions, cell, working, working + quantity)) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private boolean reserveOpenNotional(int client, long notional) {
+        int slot = clientSlot(client, OPEN_NOTIONAL_SLOT);
+        long limit = maxOpenNotionals[client];
+        while (true) {
+            long current = (long) LONGS.getVolatile(clientState, slot);
+            if (current + notional > limit) {
+                return false;
+            }
+            if (LONGS.compareAndSet(clientState, slot, current, current + notional)) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private int positionBase(int client, int symbolId) {
+        return (client * symbolCapacity + symbolId) * POSITION_CELLS;
+    }
+
+    private static int workingCell(Side side) {
+        return side == Side.BUY ? WORKING_LONG : WORKING_SHORT;
+    }
+
+    private static int clientSlot(int client, int slot) {
+        return (client + 1) * CLIENT_STRIDE + slot;
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * Pre-trade risk checks run on every order ahead of {@code processOrder}.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>PreTradeRiskEngine - Price band, notional, rate and position checks with lock-free limit state</li>
+ *   <li>ClientLimits - One client's limits</li>
+ * </ul>
+ * <p>
+ * Checks take no locks and never allocate; prices and notionals are fixed-point longs.
+ * These classes have no external dependencies and are used by SimpleMain's risk mode.
+ */
+package com.trading.risk;
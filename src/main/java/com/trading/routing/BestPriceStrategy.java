@@ -0,0 +1,34 @@
+package com.trading.routing;
+
+import com.trading.model.Side;
+
+/**
+ * Steers the whole order to the venue quoting the best price, preferring the faster venue
+ * on a tie. If no venue is marketable the order rests on the fastest venue.
+ */
+public class BestPriceStrategy implements RoutingStrategy {
+
+    @Override
+    public void route(int symbolId, Side side, long limitPrice, long quantity, VenueCache[] venues, RoutingDecision decision) {
+        int best = -1;
+        long bestPrice = VenueCache.NO_PRICE;
+        for (int v = 0; v < venues.length; v++) {
+            long price = RoutingStrategy.takePrice(venues[v], symbolId, side);
+            if (!RoutingStrategy.isMarketable(side, price, limitPrice)) {
+                continue;
+            }
+            boolean better = best == -1
+                    || (side == Side.BUY ? price < bestPrice : price > bestPrice)
+                    || (price == bestPrice && venues[v].getLatencyNanos() < venues[best].getLatencyNanos());
+            if (better) {
+                best = v;
+                bestPrice = price;
+            }
+        }
+        if (best == -1) {
+            decision.addLeg(venues[RoutingStrategy.fastestVenue(venues)].getVenueId(), quantity, limitPrice);
+        } else {
+            decision.addLeg(venues[best].getVenueId(), quantity, limitPrice);
+        }
+    }
+}
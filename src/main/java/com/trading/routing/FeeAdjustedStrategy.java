@@ -0,0 +1,65 @@
+package com.trading.routing;
+
+import com.trading.model.Side;
+
+import java.util.Arrays;
+
+/**
+ * Sweeps venues in order of fee-adjusted price, taking the displayed size at each until the
+ * order is filled or no venue is marketable. A buy pays the quoted price plus the fee and a
+ * sell receives the quoted price minus the fee. Any remainder rests on the venue with the
+ * lowest fee.
+ */
+public class FeeAdjustedStrategy implements RoutingStrategy {
+
+    private final boolean[] swept;
+
+    /**
+     * @param maxVenues Largest number of venues the strategy will be asked to route across
+     */
+    public FeeAdjustedStrategy(int maxVenues) {
+        this.swept = new boolean[maxVenues];
+    }
+
+    @Override
+    public void route(int symbolId, Side side, long limitPrice, long quantity, VenueCache[] venues, RoutingDecision decision) {
+        Arrays.fill(swept, 0, venues.length, false);
+        long open = quantity;
+        while (open > 0) {
+            // Selection over a handful of venues is cheaper than sorting them
+            int best = -1;
+            long bestCost = 0;
+            for (int v = 0; v < venues.length; v++) {
+                long price = RoutingStrategy.takePrice(venues[v], symbolId, side);
+                if (swept[v] || !RoutingStrategy.isMarketable(side, price, limitPrice)) {
+                    continue;
+                }
+                long cost = side == Side.BUY ? price + venues[v].getFee() : -(price - venues[v].getFee());
+                if (best == -1 || cost < bestCost) {
+                    best = v;
+                    bestCost = cost;
+                }
+            }
+            if (best == -1) {
+                break;
+            }
+            swept[best] = true;
+            long take = Math.min(open, RoutingStrategy.takeSize(venues[best], symbolId, side));
+            decision.addLeg(venues[best].getVenueId(), take, RoutingStrategy.takePrice(venues[best], symbolId, side));
+            open -= take;
+        }
+        if (open > 0) {
+            decision.addLeg(venues[cheapestVenue(venues)].getVenueId(), open, limitPrice);
+        }
+    }
+
+    private static int cheapestVenue(VenueCache[] venues) {
+        int cheapest = 0;
+        for (int v = 1; v < venues.length; v++) {
+            if (venues[v].getFee() < venues[cheapest].getFee()) {
+                cheapest = v;
+            }
+        }
+        return cheapest;
+    }
+}
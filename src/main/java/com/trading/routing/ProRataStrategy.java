@@ -0,0 +1,49 @@
+package com.trading.routing;
+
+import com.trading.model.Side;
+
+/**
+ * Splits the marketable part of an order across every venue that can fill it, in
+ * proportion to the size each displays. Rounding leftovers go to the venue with the most
+ * size, and any quantity beyond the total displayed size rests there as well, or on the
+ * fastest venue if none is marketable.
+ */
+public class ProRataStrategy implements RoutingStrategy {
+
+    @Override
+    public void route(int symbolId, Side side, long limitPrice, long quantity, VenueCache[] venues, RoutingDecision decision) {
+        long displayed = 0;
+        int largest = -1;
+        for (int v = 0; v < venues.length; v++) {
+            long price = RoutingStrategy.takePrice(venues[v], symbolId, side);
+            if (!RoutingStrategy.isMarketable(side, price, limitPrice)) {
+                continue;
+            }
+            long size = RoutingStrategy.takeSize(venues[v], symbolId, side);
+            displayed += size;
+            if (largest == -1 || size > RoutingStrategy.takeSize(venues[largest], symbolId, side)) {
+                largest = v;
+            }
+        }
+        if (largest == -1) {
+            decision.addLeg(venues[RoutingStrategy.fastestVenue(venues)].getVenueId(), quantity, limitPrice);
+            return;
+        }
+
+        long take = Math.min(quantity, displayed);
+        long allocated = 0;
+        for (int v = 0; v < venues.length; v++) {
+            long price = RoutingStrategy.takePrice(venues[v], symbolId, side);
+            if (v == largest || !RoutingStrategy.isMarketable(side, price, limitPrice)) {
+                continue;
+            }
+            long share = take * RoutingStrategy.takeSize(venues[v], symbolId, side) / displayed;
+            if (share > 0) {
+                decision.addLeg(venues[v].getVenueId(), share, price);
+                allocated += share;
+            }
+        }
+        long rest = quantity - take;
+        decision.addLeg(venues[largest].getVenueId(), take - allocated + rest, limitPrice);
+    }
+}
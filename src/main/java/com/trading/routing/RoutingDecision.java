@@ -0,0 +1,49 @@
+package com.trading.routing;
+
+/**
+ * Result of routing one order: the child orders ("legs") to send, each a venue, a quantity
+ * and a fixed-point limit price.
+ * <p>
+ * A router owns one decision and clears and refills it for every order, so routing never
+ * allocates. The contents are only valid until the next order is routed.
+ */
+public class RoutingDecision {
+
+    private final int[] venueIds;
+    private final long[] quantities;
+    private final long[] prices;
+    private int legCount;
+
+    public RoutingDecision(int maxLegs) {
+        this.venueIds = new int[maxLegs];
+        this.quantities = new long[maxLegs];
+        this.prices = new long[maxLegs];
+    }
+
+    public void clear() {
+        legCount = 0;
+    }
+
+    public void addLeg(int venueId, long quantity, long price) {
+        if (legCount == venueIds.length) {
+            throw new IllegalStateException("Routing decision is full: " + legCount + " legs");
+        }
+        venueIds[legCount] = venueId;
+        quantities[legCount] = quantity;
+        prices[legCount] = price;
+        legCount++;
+    }
+
+    public int getLegCount() { return legCount; }
+    public int venueId(int leg) { return venueIds[leg]; }
+    public long quantity(int leg) { return quantities[leg]; }
+    public long price(int leg) { return prices[leg]; }
+
+    public long totalQuantity() {
+        long total = 0;
+        for (int leg = 0; leg < legCount; leg++) {
+            total += quantities[leg];
+        }
+        return total;
+    }
+}
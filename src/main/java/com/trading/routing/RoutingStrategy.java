@@ -0,0 +1,53 @@
+package com.trading.routing;
+
+import com.trading.model.Side;
+
+/**
+ * Decides how an order is split or steered across venues, from the router's cached venue state.
+ * <p>
+ * Implementations must fill the decision without allocating; any scratch state they need is
+ * allocated when the strategy is created. The legs must add up to the order quantity, with
+ * anything that cannot be taken from displayed liquidity sent to rest at the limit price.
+ */
+public interface RoutingStrategy {
+
+    /**
+     * @param limitPrice Order limit price as a fixed-point price
+     * @param decision   Cleared decision to add legs to
+     */
+    void route(int symbolId, Side side, long limitPrice, long quantity, VenueCache[] venues, RoutingDecision decision);
+
+    /**
+     * @return The price an order on the given side would trade at on the venue, or
+     *         {@link VenueCache#NO_PRICE} if the venue has nothing to trade against
+     */
+    static long takePrice(VenueCache venue, int symbolId, Side side) {
+        long price = side == Side.BUY ? venue.askPrice(symbolId) : venue.bidPrice(symbolId);
+        long size = side == Side.BUY ? venue.askSize(symbolId) : venue.bidSize(symbolId);
+        return size > 0 ? price : VenueCache.NO_PRICE;
+    }
+
+    static long takeSize(VenueCache venue, int symbolId, Side side) {
+        return side == Side.BUY ? venue.askSize(symbolId) : venue.bidSize(symbolId);
+    }
+
+    /**
+     * @return Whether an order on the given side with the given limit can trade at the price
+     */
+    static boolean isMarketable(Side side, long price, long limitPrice) {
+        return price != VenueCache.NO_PRICE && (side == Side.BUY ? price <= limitPrice : price >= limitPrice);
+    }
+
+    /**
+     * @return The venue with the lowest latency, where unfilled quantity is sent to rest
+     */
+    static int fastestVenue(VenueCache[] venues) {
+        int fastest = 0;
+        for (int v = 1; v < venues.length; v++) {
+            if (venues[v].getLatencyNanos() < venues[fastest].getLatencyNanos()) {
+                fastest = v;
+            }
+        }
+        return fastest;
+    }
+}
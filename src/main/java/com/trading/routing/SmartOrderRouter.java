@@ -0,0 +1,44 @@
+package com.trading.routing;
+
+import com.trading.model.OrderSimulation;
+
+/**
+ * Routes orders across venues with a pluggable {@link RoutingStrategy}, working only from
+ * the router's local {@link VenueCache}s.
+ * <p>
+ * Every order is routed into the same pre-allocated {@link RoutingDecision}, so a routing
+ * decision takes no locks and allocates nothing.
+ * <p>
+ * Thread safety: a router and its venue caches must only be used by a single thread.
+ */
+public class SmartOrderRouter {
+
+    private final VenueCache[] venues;
+    private final RoutingStrategy strategy;
+    private final RoutingDecision decision;
+
+    public SmartOrderRouter(VenueCache[] venues, RoutingStrategy strategy) {
+        this.venues = venues;
+        this.strategy = strategy;
+        // One leg per venue taken, plus one for a remainder left to rest
+        this.decision = new RoutingDecision(venues.length + 1);
+    }
+
+    /**
+     * @return The decision for this order, valid until the next call
+     */
+    public RoutingDecision route(OrderSimulation order) {
+        decision.clear();
+        strategy.route(order.getSymbolId(), order.getSide(), order.getPrice(), order.getQuantity(),
+                venues, decision);
+        return decision;
+    }
+
+    public VenueCache venue(int index) {
+        return venues[index];
+    }
+
+    public int getVenueCount() {
+        return venues.length;
+    }
+}
@@ -0,0 +1,65 @@
+package com.trading.routing;
+
+import java.util.Arrays;
+
+/**
+ * Local cache of one venue's state as seen by the router: top of book per symbol, the
+ * venue's fee and its round-trip latency.
+ * <p>
+ * Quotes are kept in primitive arrays indexed by the dense symbol id from
+ * {@code SymbolDictionary}, with fixed-point prices ({@code com.trading.model.Price}), so
+ * updating and reading a quote never allocates. An empty side has price {@link #NO_PRICE} and size zero.
+ * <p>
+ * Thread safety: the cache is updated and read by the routing thread only.
+ */
+public class VenueCache {
+
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    private final int venueId;
+    private final String name;
+    private final long fee;
+    private final long latencyNanos;
+
+    private final long[] bidPrices;
+    private final long[] bidSizes;
+    private final long[] askPrices;
+    private final long[] askSizes;
+
+    /**
+     * @param fee          Fee charged per unit traded, as a price
+     * @param latencyNanos Round-trip latency to the venue
+     */
+    public VenueCache(int venueId, String name, int symbolCapacity, long fee, long latencyNanos) {
+        this.venueId = venueId;
+        this.name = name;
+        this.fee = fee;
+        this.latencyNanos = latencyNanos;
+        this.bidPrices = new long[symbolCapacity];
+        this.bidSizes = new long[symbolCapacity];
+        this.askPrices = new long[symbolCapacity];
+        this.askSizes = new long[symbolCapacity];
+        Arrays.fill(bidPrices, NO_PRICE);
+        Arrays.fill(askPrices, NO_PRICE);
+    }
+
+    /**
+     * Replace the top of book for one symbol.
+     */
+    public void updateQuote(int symbolId, long bidPrice, long bidSize, long askPrice, long askSize) {
+        bidPrices[symbolId] = bidPrice;
+        bidSizes[symbolId] = bidSize;
+        askPrices[symbolId] = askPrice;
+        askSizes[symbolId] = askSize;
+    }
+
+    public long bidPrice(int symbolId) { return bidPrices[symbolId]; }
+    public long bidSize(int symbolId) { return bidSizes[symbolId]; }
+    public long askPrice(int symbolId) { return askPrices[symbolId]; }
+    public long askSize(int symbolId) { return askSizes[symbolId]; }
+
+    public int getVenueId() { return venueId; }
+    public String getName() { return name; }
+    public long getFee() { return fee; }
+    public long getLatencyNanos() { return latencyNanos; }
+}
@@ -0,0 +1,17 @@
+/**
+ * Smart order routing across simulated in-process venues.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>SmartOrderRouter - Routes each order with a strategy into a pre-allocated decision</li>
+ *   <li>VenueCache - The router's copy of a venue's top of book, fee and latency</li>
+ *   <li>RoutingDecision - Reusable list of child orders produced for one order</li>
+ *   <li>RoutingStrategy - How an order is split or steered across venues</li>
+ *   <li>BestPriceStrategy - Whole order to the best quoting venue</li>
+ *   <li>FeeAdjustedStrategy - Sweeps venues by price including fees</li>
+ *   <li>ProRataStrategy - Splits by displayed size across marketable venues</li>
+ * </ul>
+ * <p>
+ * Routing decisions take no locks and never allocate; prices are fixed-point longs.
+ */
+package com.trading.routing;
@@ -0,0 +1,114 @@
+package com.trading.session;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A simulated client session, meant to run on its own virtual thread.
+ * <p>
+ * The session keeps at most one live order: it submits one, then amends or cancels it after
+ * each think time, and hands every request to the router core through a bounded queue. A
+ * full queue blocks the session, which is how router back-pressure reaches clients.
+ * <p>
+ * Sessions that {@code holdMonitorWhileSending} put their request while holding their own
+ * monitor, like a {@code synchronized} send method. On Java 21 a virtual thread that blocks
+ * inside {@code synchronized} pins its carrier thread, which shows up as JFR
+ * {@code jdk.VirtualThreadPinned} events.
+ */
+public class ClientSession implements Runnable {
+
+    private static final long NO_ORDER = -1;
+
+    // Buys between 100 and 104, sells between 102 and 106, so some orders cross
+    private static final int BUY_PRICE_UNITS = 100;
+    private static final int SELL_PRICE_UNITS = 102;
+    private static final int PRICE_RANGE_UNITS = 5;
+    private static final int MIN_QUANTITY = 100;
+    private static final int QUANTITY_RANGE = 400;
+
+    private final int sessionId;
+    private final int symbolId;
+    private final long thinkNanos;
+    private final BlockingQueue<SessionRequest> router;
+    private final AtomicBoolean running;
+    private final boolean holdMonitorWhileSending;
+    private final SplittableRandom random;
+
+    private int ordersSent;
+    private long liveOrderId = NO_ORDER;
+    private Side liveSide;
+
+    /**
+     * @param thinkNanos Average pause between requests; each pause is drawn uniformly from
+     *                   half to one and a half times this
+     */
+    public ClientSession(int sessionId, int symbolId, long thinkNanos, BlockingQueue<SessionRequest> router,
+                         AtomicBoolean running, boolean holdMonitorWhileSending) {
+        this.sessionId = sessionId;
+        this.symbolId = symbolId;
+        this.thinkNanos = thinkNanos;
+        this.router = router;
+        this.running = running;
+        this.holdMonitorWhileSending = holdMonitorWhileSending;
+        this.random = new SplittableRandom(sessionId);
+    }
+
+    @Override
+    public void run() {
+        // Stagger the first request so sessions started together do not send together
+        LockSupport.parkNanos(random.nextLong(thinkNanos));
+        try {
+            while (running.get() && !Thread.currentThread().isInterrupted()) {
+                send(nextRequest());
+                LockSupport.parkNanos(thinkNanos / 2 + random.nextLong(thinkNanos));
+            }
+        } catch (InterruptedException e) {
+            // Stopped while waiting for space in the router queue
+        }
+    }
+
+    private SessionRequest nextRequest() {
+        long now = System.nanoTime();
+        if (liveOrderId == NO_ORDER) {
+            liveSide = random.nextBoolean() ? Side.BUY : Side.SELL;
+            liveOrderId = nextOrderId();
+            return newOrder(SessionRequest.Type.NEW, liveOrderId, NO_ORDER, now);
+        }
+        if (random.nextInt(3) == 0) {
+            long cancelled = liveOrderId;
+            liveOrderId = NO_ORDER;
+            return new SessionRequest(SessionRequest.Type.CANCEL, sessionId, symbolId, cancelled, NO_ORDER,
+                    liveSide, 0, 0, now);
+        }
+        long original = liveOrderId;
+        liveOrderId = nextOrderId();
+        return newOrder(SessionRequest.Type.AMEND, liveOrderId, original, now);
+    }
+
+    private SessionRequest newOrder(SessionRequest.Type type, long orderId, long originalOrderId, long now) {
+        int units = (liveSide == Side.BUY ? BUY_PRICE_UNITS : SELL_PRICE_UNITS) + random.nextInt(PRICE_RANGE_UNITS);
+        int quantity = MIN_QUANTITY + random.nextInt(QUANTITY_RANGE);
+        return new SessionRequest(type, sessionId, symbolId, orderId, originalOrderId, liveSide,
+                Price.of(units), quantity, now);
+    }
+
+    // Unique across sessions: the session id in the high bits, a per-session counter below
+    private long nextOrderId() {
+        return (long) sessionId << 32 | ordersSent++;
+    }
+
+    private void send(SessionRequest request) throws InterruptedException {
+        if (holdMonitorWhileSending) {
+            synchronized (this) {
+                router.put(request);
+            }
+        } else {
+            router.put(request);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.trading.session;
+
+import com.trading.util.JfrEventCollector;
+
+import java.io.IOException;
+
+/**
+ * Counts the JFR {@code jdk.VirtualThreadPinned} events of a run: a virtual thread blocked
+ * while it could not unmount from its carrier thread, for example inside {@code synchronized}.
+ * <p>
+ * Every pin is recorded, not only those above JFR's default 20 ms threshold. Results are
+ * available once the recording is {@link #stop() stopped}.
+ */
+public class PinningRecorder {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final JfrEventCollector collector = new JfrEventCollector(PINNED_EVENT);
+    private boolean jfrAvailable;
+    private long pinnedCount;
+    private long pinnedTotalNanos;
+    private long pinnedMaxNanos;
+
+    public void start() {
+        try {
+            collector.start();
+            jfrAvailable = true;
+        } catch (RuntimeException e) {
+            System.err.println("JFR unavailable, carrier pinning will not be reported: " + e.getMessage());
+            jfrAvailable = false;
+        }
+    }
+
+    public void stop() {
+        try {
+            collector.stop(event -> {
+                long nanos = event.getDuration().toNanos();
+                pinnedCount++;
+                pinnedTotalNanos += nanos;
+                pinnedMaxNanos = Math.max(pinnedMaxNanos, nanos);
+            });
+        } catch (IOException e) {
+            System.err.println("Could not read JFR pinning events: " + e.getMessage());
+            jfrAvailable = false;
+        }
+    }
+
+    public boolean isJfrAvailable() { return jfrAvailable; }
+    public long getPinnedCount() { return pinnedCount; }
+    public long getPinnedTotalNanos() { return pinnedTotalNanos; }
+    public long getPinnedMaxNanos() { return pinnedMaxNanos; }
+}
@@ -0,0 +1,27 @@
+package com.trading.session;
+
+import com.trading.model.Side;
+
+/**
+ * One instruction from a client session to the router core.
+ *
+ * @param type            What the session asks for
+ * @param sessionId       Session that sent the request
+ * @param symbolId        Dense symbol id of the order's instrument
+ * @param orderId         Id of the new order, or of the order to cancel
+ * @param originalOrderId For an amend, the order being replaced; otherwise unused
+ * @param side            Side of a new or replacing order
+ * @param price           Fixed-point limit price of a new or replacing order
+ * @param quantity        Quantity of a new or replacing order
+ * @param sentAt          {@link System#nanoTime()} when the session handed the request over
+ */
+public record SessionRequest(Type type, int sessionId, int symbolId, long orderId, long originalOrderId,
+                             Side side, long price, int quantity, long sentAt) {
+
+    public enum Type {
+        NEW,
+        /** Cancel/replace: the original order loses its place and a new one is submitted */
+        AMEND,
+        CANCEL
+    }
+}
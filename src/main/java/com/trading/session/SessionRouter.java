@@ -0,0 +1,116 @@
+package com.trading.session;
+
+import com.trading.book.MatchingEngine;
+import com.trading.model.OrderSimulation;
+import com.trading.util.LatencyHistogram;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The router core behind the client sessions: a single platform thread that drains the
+ * sessions' shared queue and applies each request to the matching engine.
+ * <p>
+ * For every request sent at or after {@link #beginMeasurement(long)} it records the time
+ * from the session handing it over until it has been applied, so queueing behind other
+ * sessions is included. Amends and cancels of orders that have already traded are counted
+ * as late rather than failing.
+ * <p>
+ * Thread safety: the statistics may only be read after the router thread has finished.
+ */
+public class SessionRouter implements Runnable {
+
+    private static final long POLL_MILLIS = 1;
+
+    private final BlockingQueue<SessionRequest> queue;
+    private final MatchingEngine engine;
+    private final LatencyHistogram latencies;
+    private final OrderSimulation order = new OrderSimulation();
+    private volatile long measureFrom = Long.MAX_VALUE;
+    private volatile boolean running = true;
+
+    private long measuredRequests;
+    private long lateRequests;
+
+    public SessionRouter(BlockingQueue<SessionRequest> queue, MatchingEngine engine, LatencyHistogram latencies) {
+        this.queue = queue;
+        this.engine = engine;
+        this.latencies = latencies;
+    }
+
+    /**
+     * Record requests sent at or after the given {@link System#nanoTime()}.
+     */
+    public void beginMeasurement(long from) {
+        measureFrom = from;
+    }
+
+    /**
+     * Stop once the requests already queued have been applied.
+     */
+    public void halt() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running || !queue.isEmpty()) {
+                SessionRequest request = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (request != null) {
+                    boolean applied = apply(request);
+                    if (request.sentAt() >= measureFrom) {
+                        latencies.recordValue(System.nanoTime() - request.sentAt());
+                        measuredRequests++;
+                        if (!applied) {
+                            lateRequests++;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Requests recorded since the measurement began
+     */
+    public long getMeasuredRequests() {
+        return measuredRequests;
+    }
+
+    /**
+     * @return Recorded amends and cancels whose order had already traded or been rejected
+     */
+    public long getLateRequests() {
+        return lateRequests;
+    }
+
+    /**
+     * @return Whether the request took effect, false for an amend or cancel of an order
+     *         that is no longer resting
+     */
+    private boolean apply(SessionRequest request) {
+        return switch (request.type()) {
+            case NEW -> {
+                submit(request);
+                yield true;
+            }
+            case AMEND -> {
+                if (!engine.cancel(request.symbolId(), request.originalOrderId())) {
+                    yield false;
+                }
+                submit(request);
+                yield true;
+            }
+            case CANCEL -> engine.cancel(request.symbolId(), request.orderId());
+        };
+    }
+
+    private void submit(SessionRequest request) {
+        order.reset(request.orderId(), request.symbolId(), request.side(), request.price(), request.quantity());
+        order.setTimestamp(request.sentAt());
+        engine.submit(order);
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Simulated client sessions that feed the router core, one virtual thread per session.
+ * <p>
+ * The classes in this package include:
+ * <ul>
+ *   <li>ClientSession - Submits, amends and cancels orders after randomised think times</li>
+ *   <li>SessionRequest - One new order, cancel/replace or cancel from a session</li>
+ *   <li>SessionRouter - Single router thread that applies queued requests to the matching engine</li>
+ *   <li>PinningRecorder - Counts JFR carrier-thread pinning events</li>
+ * </ul>
+ * <p>
+ * These classes have no external dependencies and are used by SimpleMain's sessions mode.
+ */
+package com.trading.session;
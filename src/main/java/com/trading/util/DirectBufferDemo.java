@@ -1,5 +1,6 @@
 package com.trading.util;
 
+import com.trading.model.Price;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +9,7 @@ import java.nio.ByteBuffer;
 /**
  * Demonstrates using DirectByteBuffer for off-heap memory access.
  * This is another zero-GC technique for handling large data without GC pressure.
+ * Prices are stored as fixed-point {@link Price} longs.
  */
 public class DirectBufferDemo {
     private static final Logger LOG = LoggerFactory.getLogger(DirectBufferDemo.class);
@@ -28,7 +30,7 @@ public class DirectBufferDemo {
     }
     
     public void writeOrder(int index, long orderId, int symbolCode, byte type, 
-                           double price, int quantity, int clientCode) {
+                           long price, int quantity, int clientCode) {
         if (index >= capacity) {
             throw new IndexOutOfBoundsException("Buffer index out of bounds: " + index);
         }
@@ -40,7 +42,7 @@ public class DirectBufferDemo {
         buffer.putLong(orderId);
         buffer.putInt(symbolCode);
         buffer.put(type);
-        buffer.putDouble(price);
+        buffer.putLong(price);
         buffer.putInt(quantity);
         buffer.putInt(clientCode);
     }
@@ -57,12 +59,12 @@ public class DirectBufferDemo {
         long orderId = buffer.getLong();
         int symbolCode = buffer.getInt();
         byte type = buffer.get();
-        double price = buffer.getDouble();
+        long price = buffer.getLong();
         int quantity = buffer.getInt();
         int clientCode = buffer.getInt();
         
         LOG.info("Read order - id: {}, symbol: {}, type: {}, price: {}, qty: {}, client: {}",
-                orderId, symbolCode, type, price, quantity, clientCode);
+                orderId, symbolCode, type, Price.toString(price), quantity, clientCode);
     }
     
     public static void main(String[] args) {
@@ -73,7 +75,7 @@ public class DirectBufferDemo {
         for (int i = 0; i < 10; i++) {
             // Use an int code to represent the symbol (e.g., first 4 bytes of ASCII)
             int symbolCode = ('A' << 24) | ('A' << 16) | ('P' << 8) | 'L';
-            demo.writeOrder(i, 1000 + i, symbolCode, (byte)1, 150.0 + i, 100 + i, 42);
+            demo.writeOrder(i, 1000 + i, symbolCode, (byte)1, Price.of(150 + i), 100 + i, 42);
         }
         
         // Read back a few orders
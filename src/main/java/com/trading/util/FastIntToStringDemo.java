@@ -7,10 +7,16 @@ import org.slf4j.LoggerFactory;
  * Demonstrates fast int to string conversion without allocations.
  * This is useful in trading systems where you frequently need to convert
  * numeric values to strings for FIX messages without creating garbage.
+ * <p>
+ * For {@code long}s, fixed-point prices and writing straight into wire buffers, see
+ * {@link NumericCodec}.
  */
 public class FastIntToStringDemo {
     private static final Logger LOG = LoggerFactory.getLogger(FastIntToStringDemo.class);
     
+    // Sign plus the 10 digits of Integer.MIN_VALUE
+    public static final int MAX_INT_LENGTH = 11;
+    
     // Pre-allocated buffer for conversions
     private final char[] buffer;
     
@@ -31,25 +37,26 @@ public class FastIntToStringDemo {
             return 1;
         }
         
-        // Handle negative numbers
+        // Work with the negative value: -Integer.MIN_VALUE does not fit in an int
         boolean negative = value < 0;
         if (negative) {
-            value = -value;
             target[offset++] = '-';
+        } else {
+            value = -value;
         }
         
         // Find number of digits
         int temp = value;
         int numDigits = 0;
-        while (temp > 0) {
+        while (temp < 0) {
             temp /= 10;
             numDigits++;
         }
         
         // Convert digits from right to left
         int index = offset + numDigits - 1;
-        while (value > 0) {
-            int digit = value % 10;
+        while (value < 0) {
+            int digit = -(value % 10);
             target[index--] = (char) ('0' + digit);
             value /= 10;
         }
@@ -58,28 +65,29 @@ public class FastIntToStringDemo {
     }
     
     /**
-     * Convert integer to char array without allocations.
-     * Uses internal buffer.
+     * Convert integer into the internal buffer without allocations.
+     * The characters are valid in {@link #buffer()} until the next call.
+     *
+     * @return The number of characters written
      */
-    public char[] intToChars(int value) {
-        int length = intToString(value, buffer, 0);
-        // In a real zero-GC application, you'd use the buffer directly
-        // rather than copying to a new array
-        char[] result = new char[length];
-        System.arraycopy(buffer, 0, result, 0, length);
-        return result;
+    public int intToChars(int value) {
+        return intToString(value, buffer, 0);
+    }
+    
+    public char[] buffer() {
+        return buffer;
     }
     
     public static void main(String[] args) {
-        FastIntToStringDemo demo = new FastIntToStringDemo(10);
+        FastIntToStringDemo demo = new FastIntToStringDemo(MAX_INT_LENGTH);
         
         // Test some conversions
         LOG.info("Converting integers to strings without allocations");
         
         int[] testValues = {0, 42, 12345, -789, Integer.MAX_VALUE, Integer.MIN_VALUE};
         for (int value : testValues) {
-            char[] chars = demo.intToChars(value);
-            String str = new String(chars);
+            int length = demo.intToChars(value);
+            String str = new String(demo.buffer(), 0, length);
             LOG.info("{} -> {}", value, str);
             
             // Verify against standard conversion
@@ -0,0 +1,77 @@
+package com.trading.util;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Records every event of one JFR event type in this JVM, with no duration threshold and no
+ * stack traces, and hands the recorded events over once the recording is stopped.
+ * <p>
+ * The recording is dumped to a temporary file that is deleted again after it has been read.
+ */
+public class JfrEventCollector {
+
+    private final String eventName;
+    private Recording recording;
+
+    /**
+     * @param eventName JFR event type, for example {@code jdk.GarbageCollection}
+     */
+    public JfrEventCollector(String eventName) {
+        this.eventName = eventName;
+    }
+
+    /**
+     * @throws RuntimeException If JFR is not available in this JVM
+     */
+    public void start() {
+        Recording started = new Recording();
+        try {
+            started.enable(eventName).withThreshold(Duration.ZERO).withoutStackTrace();
+            started.setToDisk(true);
+            started.start();
+        } catch (RuntimeException e) {
+            started.close();
+            throw e;
+        }
+        recording = started;
+    }
+
+    /**
+     * Stop the recording and pass each recorded event to {@code onEvent}, in the order they
+     * were written. Does nothing if the recording was not started.
+     */
+    public void stop(Consumer<RecordedEvent> onEvent) throws IOException {
+        if (recording == null) {
+            return;
+        }
+        Path file = null;
+        try {
+            recording.stop();
+            file = Files.createTempFile("jfr-events", ".jfr");
+            recording.dump(file);
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals(eventName)) {
+                    onEvent.accept(event);
+                }
+            }
+        } finally {
+            recording.close();
+            recording = null;
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // Temporary file, nothing else to do
+                }
+            }
+        }
+    }
+}
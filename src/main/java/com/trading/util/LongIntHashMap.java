@@ -0,0 +1,164 @@
+package com.trading.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to primitive {@code int} values.
+ * <p>
+ * Unlike {@code HashMap<Long, Integer>} there is no boxing and no entry object per mapping:
+ * keys and values live in two parallel arrays that are only reallocated when the map grows
+ * past its load factor. Size the map up front and lookups, inserts and removals never allocate.
+ * <p>
+ * A slot is empty when its value equals the {@code missingValue} chosen at construction,
+ * so that value cannot be stored. Instances are not thread-safe.
+ */
+public class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final int missingValue;
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    /**
+     * @param initialCapacity Number of mappings the map can hold before it grows
+     * @param missingValue    Value returned by {@link #get(long)} for absent keys
+     */
+    public LongIntHashMap(int initialCapacity, int missingValue) {
+        this.missingValue = missingValue;
+        allocate(tableSizeFor(initialCapacity));
+    }
+
+    public int get(long key) {
+        int index = hash(key) & mask;
+        int value;
+        while ((value = values[index]) != missingValue) {
+            if (keys[index] == key) {
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != missingValue;
+    }
+
+    /**
+     * @return The previous value for the key, or the missing value if there was none
+     */
+    public int put(long key, int value) {
+        if (value == missingValue) {
+            throw new IllegalArgumentException("Cannot store the missing value: " + value);
+        }
+        int index = hash(key) & mask;
+        int existing;
+        while ((existing = values[index]) != missingValue) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return existing;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return missingValue;
+    }
+
+    /**
+     * @return The removed value, or the missing value if the key was absent
+     */
+    public int remove(long key) {
+        int index = hash(key) & mask;
+        int value;
+        while ((value = values[index]) != missingValue) {
+            if (keys[index] == key) {
+                values[index] = missingValue;
+                size--;
+                compactChain(index);
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public void clear() {
+        Arrays.fill(values, missingValue);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMissingValue() {
+        return missingValue;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void compactChain(int deleteIndex) {
+        int index = deleteIndex;
+        while (true) {
+            index = (index + 1) & mask;
+            int value = values[index];
+            if (value == missingValue) {
+                return;
+            }
+            long key = keys[index];
+            int home = hash(key) & mask;
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, index]
+            boolean movable = (index > deleteIndex)
+                    ? (home <= deleteIndex || home > index)
+                    : (home <= deleteIndex && home > index);
+            if (movable) {
+                keys[deleteIndex] = key;
+                values[deleteIndex] = value;
+                values[index] = missingValue;
+                deleteIndex = index;
+            }
+        }
+    }
+
+    private void rehash(int newTableSize) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newTableSize);
+        for (int i = 0; i < oldValues.length; i++) {
+            int value = oldValues[i];
+            if (value != missingValue) {
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != missingValue) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = value;
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new int[tableSize];
+        Arrays.fill(values, missingValue);
+        mask = tableSize - 1;
+        resizeThreshold = (int) (tableSize * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int required = (int) Math.ceil(Math.max(capacity, 1) / LOAD_FACTOR);
+        return Math.max(8, Integer.highestOneBit(required - 1) << 1);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,285 @@
+package com.trading.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats and parses {@code long}s and fixed-point decimals as ASCII, directly in a
+ * {@code byte[]} or a {@link ByteBuffer}, without allocating.
+ * <p>
+ * A fixed-point decimal is a scaled {@code long} with a number of implied decimals, for
+ * example the price 150.25 with 4 decimals is {@code 1_502_500} and is written as
+ * {@code 150.2500}. Formatting always writes exactly that many decimals, so the length of
+ * a value is known before it is written.
+ * <p>
+ * Digits are produced two at a time from a digit-pair lookup table, right to left. Values
+ * are handled as negatives internally, so the full range including {@code Long.MIN_VALUE}
+ * works without overflow. Buffer access uses absolute indices and never moves the position.
+ * Parsing rejects malformed input and overflow with a {@link NumberFormatException}; the
+ * message is only built on that error path.
+ */
+public final class NumericCodec {
+
+    public static final int MAX_LONG_LENGTH = 20;
+    public static final int MAX_DECIMALS = 18;
+
+    private static final byte[] DIGIT_TENS = new byte[100];
+    private static final byte[] DIGIT_ONES = new byte[100];
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (byte) ('0' + i / 10);
+            DIGIT_ONES[i] = (byte) ('0' + i % 10);
+        }
+        long power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private NumericCodec() {
+    }
+
+    /**
+     * @return The number of bytes {@link #putLong} writes for the value
+     */
+    public static int longLength(long value) {
+        return value < 0 ? 1 + negativeDigitCount(value) : negativeDigitCount(-value);
+    }
+
+    /**
+     * @return The number of bytes {@link #putDecimal} writes for the scaled value
+     */
+    public static int decimalLength(long scaledValue, int decimals) {
+        checkDecimals(decimals);
+        long units = scaledValue / POWERS_OF_TEN[decimals];
+        int sign = scaledValue < 0 ? 1 : 0;
+        int unitDigits = negativeDigitCount(units < 0 ? units : -units);
+        return sign + unitDigits + (decimals > 0 ? 1 + decimals : 0);
+    }
+
+    /**
+     * @return The number of bytes written
+     */
+    public static int putLong(byte[] target, int index, long value) {
+        return putLong(target, null, index, value);
+    }
+
+    /**
+     * @return The number of bytes written
+     */
+    public static int putLong(ByteBuffer target, int index, long value) {
+        return putLong(null, target, index, value);
+    }
+
+    /**
+     * Write a scaled value as {@code units.fraction} with exactly {@code decimals} fraction
+     * digits, or as a plain integer when {@code decimals} is 0.
+     *
+     * @return The number of bytes written
+     */
+    public static int putDecimal(byte[] target, int index, long scaledValue, int decimals) {
+        return putDecimal(target, null, index, scaledValue, decimals);
+    }
+
+    /**
+     * @see #putDecimal(byte[], int, long, int)
+     */
+    public static int putDecimal(ByteBuffer target, int index, long scaledValue, int decimals) {
+        return putDecimal(null, target, index, scaledValue, decimals);
+    }
+
+    public static long parseLong(byte[] source, int index, int length) {
+        return parseDecimal(source, null, index, length, 0);
+    }
+
+    public static long parseLong(ByteBuffer source, int index, int length) {
+        return parseDecimal(null, source, index, length, 0);
+    }
+
+    /**
+     * Parse a decimal into a value scaled by {@code decimals}. Fewer fraction digits are
+     * padded; more are accepted only if the extra digits are zeros. At least one digit is
+     * required.
+     */
+    public static long parseDecimal(byte[] source, int index, int length, int decimals) {
+        return parseDecimal(source, null, index, length, decimals);
+    }
+
+    /**
+     * @see #parseDecimal(byte[], int, int, int)
+     */
+    public static long parseDecimal(ByteBuffer source, int index, int length, int decimals) {
+        return parseDecimal(null, source, index, length, decimals);
+    }
+
+    // The implementations below work on either an array or a buffer: exactly one of the two
+    // is non-null, so the choice is a well-predicted branch per byte and nothing is allocated
+
+    private static int putLong(byte[] array, ByteBuffer buffer, int index, long value) {
+        int length = longLength(value);
+        if (value < 0) {
+            put(array, buffer, index, (byte) '-');
+            putNegativeDigits(array, buffer, index + length, value);
+        } else {
+            putNegativeDigits(array, buffer, index + length, -value);
+        }
+        return length;
+    }
+
+    private static int putDecimal(byte[] array, ByteBuffer buffer, int index, long scaledValue, int decimals) {
+        int length = decimalLength(scaledValue, decimals);
+        long scale = POWERS_OF_TEN[decimals];
+        // Work on the negative magnitude so Long.MIN_VALUE is covered
+        long negative = scaledValue < 0 ? scaledValue : -scaledValue;
+        int end = index + length;
+        if (decimals > 0) {
+            putNegativeFraction(array, buffer, end, negative % scale, decimals);
+            put(array, buffer, end - decimals - 1, (byte) '.');
+            end -= decimals + 1;
+        }
+        putNegativeDigits(array, buffer, end, negative / scale);
+        if (scaledValue < 0) {
+            put(array, buffer, index, (byte) '-');
+        }
+        return length;
+    }
+
+    private static long parseDecimal(byte[] array, ByteBuffer buffer, int index, int length, int decimals) {
+        checkDecimals(decimals);
+        if (length <= 0) {
+            throw invalid(array, buffer, index, length);
+        }
+        int i = index;
+        int end = index + length;
+        boolean negative = get(array, buffer, i) == '-';
+        if (negative) {
+            i++;
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        // Accumulate negatively, like Long.parseLong, so Long.MIN_VALUE parses
+        long value = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = get(array, buffer, i);
+            if (b == '.' && fractionDigits < 0 && decimals > 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(array, buffer, index, length);
+            }
+            digits++;
+            if (fractionDigits >= decimals) {
+                if (digit != 0) {
+                    throw invalid(array, buffer, index, length);
+                }
+                continue;
+            }
+            if (value < multiplyLimit || value * 10 < limit + digit) {
+                throw invalid(array, buffer, index, length);
+            }
+            value = value * 10 - digit;
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        // A sign or a decimal point alone is not a number
+        if (digits == 0) {
+            throw invalid(array, buffer, index, length);
+        }
+        for (int d = Math.max(fractionDigits, 0); d < decimals; d++) {
+            if (value < multiplyLimit) {
+                throw invalid(array, buffer, index, length);
+            }
+            value *= 10;
+        }
+        return negative ? value : -value;
+    }
+
+    // Number of digits of a value <= 0
+    private static int negativeDigitCount(long negative) {
+        for (int digits = 1; digits < POWERS_OF_TEN.length; digits++) {
+            if (negative > -POWERS_OF_TEN[digits]) {
+                return digits;
+            }
+        }
+        return 19;
+    }
+
+    // Write the digits of a value <= 0 so that the last digit is at end - 1. Long division
+    // is only used until the rest fits in an int, as int division is considerably cheaper.
+    private static void putNegativeDigits(byte[] array, ByteBuffer buffer, int end, long negative) {
+        int position = end;
+        while (negative < Integer.MIN_VALUE) {
+            long quotient = negative / 100;
+            int pair = (int) (quotient * 100 - negative);
+            negative = quotient;
+            put(array, buffer, --position, DIGIT_ONES[pair]);
+            put(array, buffer, --position, DIGIT_TENS[pair]);
+        }
+        int rest = (int) negative;
+        while (rest <= -100) {
+            int quotient = rest / 100;
+            int pair = quotient * 100 - rest;
+            rest = quotient;
+            put(array, buffer, --position, DIGIT_ONES[pair]);
+            put(array, buffer, --position, DIGIT_TENS[pair]);
+        }
+        put(array, buffer, --position, DIGIT_ONES[-rest]);
+        if (rest <= -10) {
+            put(array, buffer, --position, DIGIT_TENS[-rest]);
+        }
+    }
+
+    // Write exactly `digits` digits of a fraction <= 0, zero-padded on the left
+    private static void putNegativeFraction(byte[] array, ByteBuffer buffer, int end, long negative, int digits) {
+        int position = end;
+        int start = end - digits;
+        while (position - start >= 2) {
+            long quotient = negative / 100;
+            int pair = (int) (quotient * 100 - negative);
+            negative = quotient;
+            put(array, buffer, --position, DIGIT_ONES[pair]);
+            put(array, buffer, --position, DIGIT_TENS[pair]);
+        }
+        if (position > start) {
+            put(array, buffer, --position, (byte) ('0' - negative));
+        }
+    }
+
+    private static byte get(byte[] array, ByteBuffer buffer, int index) {
+        return array != null ? array[index] : buffer.get(index);
+    }
+
+    private static void put(byte[] array, ByteBuffer buffer, int index, byte value) {
+        if (array != null) {
+            array[index] = value;
+        } else {
+            buffer.put(index, value);
+        }
+    }
+
+    private static void checkDecimals(int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Decimals must be between 0 and " + MAX_DECIMALS + ": " + decimals);
+        }
+    }
+
+    private static NumberFormatException invalid(byte[] array, ByteBuffer buffer, int index, int length) {
+        byte[] bytes = array;
+        int from = index;
+        if (bytes == null) {
+            bytes = new byte[Math.max(length, 0)];
+            buffer.get(index, bytes);
+            from = 0;
+        }
+        return new NumberFormatException("Invalid number: "
+                + new String(bytes, from, Math.max(length, 0), StandardCharsets.US_ASCII));
+    }
+}
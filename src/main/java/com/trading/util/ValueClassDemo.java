@@ -1,18 +1,37 @@
 package com.trading.util;
 
+import com.trading.book.OrderBook;
+import com.trading.book.TradeListener;
+import com.trading.marketdata.BookSnapshot;
+import com.trading.marketdata.MarketDataCache;
+import com.trading.marketdata.TopOfBook;
+import com.trading.model.Price;
+import com.trading.model.Side;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Demonstrates using Java 21 features like record classes
  * to create more efficient immutable data objects.
+ * <p>
+ * The records are the immutable snapshot published from a live
+ * {@link OrderBook}, whose mutable state stays in primitive arrays on the matching path.
+ * Market data takes the same split: {@link MarketDataCache} applies ticks in place, and the
+ * records are only built or consumed at its edges through {@link BookSnapshot}.
  */
 public class ValueClassDemo {
     private static final Logger LOG = LoggerFactory.getLogger(ValueClassDemo.class);
     
-    // Record class for price levels in an order book
-    public record PriceLevel(double price, int quantity) {
-        // Records provide built-in equals, hashCode, and toString
+    private static final long TICK_SIZE = Price.fromDouble(0.05);
+    private static final int DEPTH = 3;
+    
+    // Record class for price levels in an order book, the price is a fixed-point Price
+    public record PriceLevel(long price, long quantity) {
+        // Records provide built-in equals and hashCode; toString shows the decimal price
+        @Override
+        public String toString() {
+            return "PriceLevel[price=" + Price.toString(price) + ", quantity=" + quantity + "]";
+        }
     }
     
     // Record for market data updates
@@ -23,29 +42,87 @@ public class ValueClassDemo {
             PriceLevel[] asks) {
     }
     
+    /**
+     * Take an immutable snapshot of the top levels of a book.
+     */
+    public static MarketDataUpdate snapshot(String symbol, OrderBook book, int depth) {
+        return new MarketDataUpdate(symbol, System.nanoTime(),
+                levels(book, Side.BUY, depth), levels(book, Side.SELL, depth));
+    }
+    
+    private static PriceLevel[] levels(OrderBook book, Side side, int depth) {
+        long[] prices = new long[depth];
+        long[] quantities = new long[depth];
+        int count = book.depth(side, prices, quantities);
+        PriceLevel[] levels = new PriceLevel[count];
+        for (int i = 0; i < count; i++) {
+            levels[i] = new PriceLevel(prices[i], quantities[i]);
+        }
+        return levels;
+    }
+    
+    /**
+     * Fill a reusable snapshot from an update, for {@link MarketDataCache#apply(int, BookSnapshot)}.
+     * Levels beyond the snapshot's depth are dropped.
+     */
+    public static void toSnapshot(MarketDataUpdate update, BookSnapshot snapshot) {
+        snapshot.clear(update.timestamp());
+        int bids = Math.min(update.bids().length, snapshot.getDepth());
+        for (int i = 0; i < bids; i++) {
+            snapshot.addBid(update.bids()[i].price(), update.bids()[i].quantity());
+        }
+        int asks = Math.min(update.asks().length, snapshot.getDepth());
+        for (int i = 0; i < asks; i++) {
+            snapshot.addAsk(update.asks()[i].price(), update.asks()[i].quantity());
+        }
+    }
+    
+    /**
+     * Copy a snapshot into a newly allocated, immutable update.
+     */
+    public static MarketDataUpdate fromSnapshot(String symbol, BookSnapshot snapshot) {
+        PriceLevel[] bids = new PriceLevel[snapshot.getBidCount()];
+        for (int i = 0; i < bids.length; i++) {
+            bids[i] = new PriceLevel(snapshot.bidPrice(i), snapshot.bidSize(i));
+        }
+        PriceLevel[] asks = new PriceLevel[snapshot.getAskCount()];
+        for (int i = 0; i < asks.length; i++) {
+            asks[i] = new PriceLevel(snapshot.askPrice(i), snapshot.askSize(i));
+        }
+        return new MarketDataUpdate(symbol, snapshot.getTimestamp(), bids, asks);
+    }
+    
     public static void main(String[] args) {
         LOG.info("Demonstrating Java 21 records for efficient value objects");
         
-        // Create some price levels
-        PriceLevel[] bids = {
-            new PriceLevel(150.25, 100),
-            new PriceLevel(150.20, 200),
-            new PriceLevel(150.15, 300)
-        };
-        
-        PriceLevel[] asks = {
-            new PriceLevel(150.30, 150),
-            new PriceLevel(150.35, 250),
-            new PriceLevel(150.40, 350)
-        };
+        // Build a book for prices 100.00 to 200.00 in 0.05 ticks
+        OrderBook book = new OrderBook(0, Price.of(100), TICK_SIZE, 2_001, 64, TradeListener.NONE);
+        book.submit(1, Side.BUY, Price.fromDouble(150.25), 100);
+        book.submit(2, Side.BUY, Price.fromDouble(150.20), 200);
+        book.submit(3, Side.BUY, Price.fromDouble(150.15), 300);
+        book.submit(4, Side.SELL, Price.fromDouble(150.30), 150);
+        book.submit(5, Side.SELL, Price.fromDouble(150.35), 250);
+        book.submit(6, Side.SELL, Price.fromDouble(150.40), 350);
         
         // Create a market data update
-        MarketDataUpdate update = new MarketDataUpdate("AAPL", System.nanoTime(), bids, asks);
+        MarketDataUpdate update = snapshot("AAPL", book, DEPTH);
         
         LOG.info("Market data update: {}", update);
         LOG.info("Best bid: {}", update.bids()[0]);
         LOG.info("Best ask: {}", update.asks()[0]);
-        LOG.info("Spread: {}", update.asks()[0].price() - update.bids()[0].price());
+        LOG.info("Spread: {}", Price.toString(update.asks()[0].price() - update.bids()[0].price()));
+        
+        // Load it into a market data cache, then change the best bid in place without a new record
+        MarketDataCache cache = new MarketDataCache(1, DEPTH);
+        BookSnapshot snapshot = new BookSnapshot(DEPTH);
+        toSnapshot(update, snapshot);
+        cache.apply(0, snapshot);
+        cache.updateLevel(0, Side.BUY, Price.fromDouble(150.25), 400, System.nanoTime());
+        TopOfBook topOfBook = new TopOfBook();
+        cache.readTopOfBook(0, topOfBook);
+        LOG.info("Top of book after an incremental update: {}", topOfBook);
+        cache.readSnapshot(0, snapshot);
+        LOG.info("Cached book: {}", fromSnapshot("AAPL", snapshot));
         
         LOG.info("Value class demo completed");
         LOG.info("Benefits in low latency trading:");
@@ -6,7 +6,11 @@
  * <ul>
  *   <li>Off-heap memory with DirectByteBuffer</li>
  *   <li>Fast integer to string conversion without allocations</li>
+ *   <li>ASCII formatting and parsing of longs and fixed-point prices straight in wire buffers</li>
  *   <li>Using Java 21 record classes for efficient immutable objects</li>
+ *   <li>Fixed-memory latency histograms that record without allocating</li>
+ *   <li>Primitive hash maps that avoid boxing and per-entry objects</li>
+ *   <li>Collecting the JFR events of one type over a run</li>
  * </ul>
  * <p>
  * These techniques help reduce or eliminate garbage creation which
@@ -0,0 +1,63 @@
+package com.trading.affinity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PinnedThreadFactoryTest {
+
+    @Test
+    void cpuListsExpandRangesAndSingleCpus() {
+        assertArrayEquals(new int[] {0}, PinnedThreadFactory.parseCpuList("0"));
+        assertArrayEquals(new int[] {2, 3, 4, 5, 8, 10, 11}, PinnedThreadFactory.parseCpuList("2-5,8,10-11"));
+        assertEquals(40, PinnedThreadFactory.parseCpuList("0-39").length);
+    }
+
+    @Test
+    void allowedCpusAreDistinctAndAscending() {
+        int[] cpus = PinnedThreadFactory.allowedCpus();
+
+        assertTrue(cpus.length > 0);
+        for (int i = 1; i < cpus.length; i++) {
+            assertTrue(cpus[i] > cpus[i - 1], "CPU " + cpus[i] + " after " + cpus[i - 1]);
+        }
+    }
+
+    @Test
+    void threadsCycleThroughTheGivenCpus() throws InterruptedException {
+        int[] requested = new int[4];
+        int[] calls = new int[1];
+        AffinityProvider recording = new AffinityProvider() {
+            @Override
+            public boolean pin(int cpu) {
+                synchronized (requested) {
+                    requested[calls[0]++] = cpu;
+                }
+                return cpu != 7;
+            }
+
+            @Override
+            public int currentCpu() {
+                return -1;
+            }
+
+            @Override
+            public String name() {
+                return "recording";
+            }
+        };
+        PinnedThreadFactory factory = new PinnedThreadFactory(recording, new int[] {5, 7}, "worker-");
+
+        for (int i = 0; i < 4; i++) {
+            Thread thread = factory.newThread(() -> { });
+            assertEquals("worker-" + i, thread.getName());
+            thread.start();
+            thread.join();
+        }
+
+        assertArrayEquals(new int[] {5, 7, 5, 7}, requested);
+        assertEquals(2, factory.getPinnedThreads());
+    }
+}
@@ -0,0 +1,150 @@
+package com.trading.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjectPoolDemoTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    void releasedObjectsAreReusedWithoutAllocating() {
+        ObjectPoolDemo<Item> pool = pool(0, 64, false);
+
+        Item first = pool.borrow();
+        pool.release(first);
+        for (int i = 0; i < 1_000; i++) {
+            Item item = pool.borrow();
+            assertSame(first, item);
+            pool.release(item);
+        }
+
+        assertEquals(1, created.get());
+        assertEquals(0, pool.outstandingCount());
+    }
+
+    @Test
+    void preallocatedObjectsAreHandedOutFirst() {
+        ObjectPoolDemo<Item> pool = pool(20, 64, false);
+        assertEquals(20, created.get());
+
+        List<Item> borrowed = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            borrowed.add(pool.borrow());
+        }
+        assertEquals(20, created.get());
+        pool.borrow();
+        assertEquals(21, created.get());
+        assertEquals(21, pool.outstandingCount());
+    }
+
+    @Test
+    void cacheOfAnEndedThreadIsDrainedBackToTheDepot() throws InterruptedException {
+        ObjectPoolDemo<Item> pool = pool(0, 64, false);
+        Thread worker = new Thread(() -> {
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                items.add(pool.borrow());
+            }
+            // Fewer than a magazine, so they all stay in the worker's own cache
+            items.forEach(pool::release);
+        });
+        worker.start();
+        worker.join();
+        assertEquals(10, created.get());
+
+        // Reporting notices the ended thread and hands its cache to the depot
+        assertEquals(0, pool.outstandingCount());
+        for (int i = 0; i < 10; i++) {
+            pool.borrow();
+        }
+        assertEquals(10, created.get());
+    }
+
+    @Test
+    void leakDetectionRejectsDoubleAndForeignReleases() {
+        ObjectPoolDemo<Item> pool = pool(4, 64, true);
+        Item item = pool.borrow();
+        pool.release(item);
+
+        assertThrows(IllegalStateException.class, () -> pool.release(item));
+        assertThrows(IllegalStateException.class, () -> pool.release(new Item()));
+        assertEquals(0, pool.outstandingCount());
+    }
+
+    @Test
+    void objectsBorrowedOnOneThreadAndReleasedOnAnotherAreNeverSharedTwice() throws InterruptedException {
+        int producers = 3;
+        int ordersPerProducer = 50_000;
+        ObjectPoolDemo<Item> pool = pool(64, 256, false);
+        BlockingQueue<Item> handoff = new ArrayBlockingQueue<>(128);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread consumer = new Thread(() -> {
+            try {
+                for (int i = 0; i < producers * ordersPerProducer; i++) {
+                    Item item = handoff.take();
+                    // Only the borrower may hold an item, so it must still be marked as ours
+                    if (!item.inUse.compareAndSet(true, false)) {
+                        failure.compareAndSet(null, "released an item that was not in use");
+                    }
+                    pool.release(item);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread producer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < ordersPerProducer; i++) {
+                        Item item = pool.borrow();
+                        if (!item.inUse.compareAndSet(false, true)) {
+                            failure.compareAndSet(null, "borrowed an item that was still in use");
+                        }
+                        handoff.put(item);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(producer);
+            producer.start();
+        }
+        for (Thread producer : threads) {
+            producer.join();
+        }
+        consumer.join();
+
+        assertNull(failure.get(), failure.get());
+        assertEquals(0, pool.outstandingCount());
+        // Most borrows were served by objects the consumer released back through the depot
+        assertTrue(created.get() < producers * ordersPerProducer / 10, created.get() + " objects created");
+    }
+
+    private ObjectPoolDemo<Item> pool(int initialSize, int maxPoolSize, boolean leakDetection) {
+        return new ObjectPoolDemo<>(() -> {
+            created.incrementAndGet();
+            return new Item();
+        }, initialSize, maxPoolSize, 16, leakDetection);
+    }
+
+    private static final class Item {
+        final AtomicBoolean inUse = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,109 @@
+package com.trading.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StringInternDemoTest {
+
+    @Test
+    void everyInputFormResolvesToTheSameInstance() {
+        StringInternDemo interner = new StringInternDemo(64);
+        String canonical = interner.intern(new String("AAPL"));
+        byte[] wire = "35=D|55=AAPL|".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(wire.length).put(0, wire);
+
+        assertSame(canonical, interner.intern(new String("AAPL")));
+        assertSame(canonical, interner.intern(new StringBuilder("AAPL")));
+        assertSame(canonical, interner.intern(wire, 8, 4));
+        assertSame(canonical, interner.intern(direct, 8, 4));
+        assertEquals(1, interner.getMisses());
+        assertEquals(4, interner.getHits());
+        assertEquals(1, interner.getPoolSize());
+    }
+
+    @Test
+    void bytesAreReadAsLatin1() {
+        StringInternDemo interner = new StringInternDemo(64);
+        byte[] bytes = {'C', 'A', 'F', (byte) 0xC9};
+
+        String value = interner.intern(bytes, 0, bytes.length);
+
+        assertEquals("CAF\u00C9", value);
+        assertSame(value, interner.intern("CAF\u00C9"));
+    }
+
+    @Test
+    void uniqueValuesChurnThroughAFixedCapacity() {
+        StringInternDemo interner = new StringInternDemo(64);
+        for (int i = 0; i < 10_000; i++) {
+            interner.intern("ORDER-" + i);
+        }
+
+        assertEquals(64, interner.getCapacity());
+        assertTrue(interner.getPoolSize() <= interner.getCapacity(), "pool grew to " + interner.getPoolSize());
+        assertEquals(10_000, interner.getMisses());
+        assertEquals(interner.getMisses() - interner.getPoolSize(), interner.getEvictions());
+    }
+
+    @Test
+    void recentlyHitValuesGetASecondChance() {
+        // Four entries make a single set, so every value competes for the same ways
+        StringInternDemo interner = new StringInternDemo(4);
+        String a = interner.intern(new String("A"));
+        String b = interner.intern(new String("B"));
+        interner.intern("C");
+        interner.intern("D");
+        assertSame(a, interner.intern(new String("A")));
+
+        interner.intern("E");
+
+        assertEquals(1, interner.getEvictions());
+        assertSame(a, interner.intern(new String("A")));
+        assertNotSame(b, interner.intern(new String("B")));
+    }
+
+    @Test
+    void concurrentInternersAgreeOnOneInstancePerValue() throws InterruptedException {
+        int threads = 4;
+        int values = 200;
+        StringInternDemo interner = new StringInternDemo(4096);
+        byte[][] wire = new byte[values][];
+        for (int v = 0; v < values; v++) {
+            wire[v] = ("SYM" + v).getBytes(StandardCharsets.US_ASCII);
+        }
+        String[][] seen = new String[threads][values];
+        Thread[] interners = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            interners[t] = new Thread(() -> {
+                for (int round = 0; round < 100; round++) {
+                    for (int v = 0; v < values; v++) {
+                        // Each thread walks the values from a different start so they race on misses
+                        int value = (v + thread * values / threads) % values;
+                        seen[thread][value] = interner.intern(wire[value], 0, wire[value].length);
+                    }
+                }
+            });
+            interners[t].start();
+        }
+        for (Thread thread : interners) {
+            thread.join();
+        }
+
+        for (int v = 0; v < values; v++) {
+            String canonical = interner.intern("SYM" + v);
+            for (int t = 0; t < threads; t++) {
+                assertSame(canonical, seen[t][v], "thread " + t + " holds another instance of SYM" + v);
+            }
+        }
+        assertEquals(values, interner.getPoolSize());
+        assertEquals(0, interner.getEvictions());
+    }
+}
@@ -0,0 +1,57 @@
+package com.trading.book;
+
+import com.trading.model.OrderSimulation;
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.model.SymbolDictionary;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchingEngineTest {
+
+    private static final long MIN_PRICE = Price.of(50);
+    private static final long MAX_PRICE = Price.of(150);
+
+    @Test
+    void fillsAreRecordedOnTheIncomingOrder() {
+        SymbolDictionary symbols = new SymbolDictionary(4);
+        int aapl = symbols.register("AAPL");
+        MatchingEngine engine = new MatchingEngine(symbols, MIN_PRICE, MAX_PRICE, 16, TradeListener.NONE);
+
+        engine.submit(order(1, aapl, Side.SELL, Price.of(100), 30));
+        engine.submit(order(2, aapl, Side.SELL, Price.of(101), 30));
+        OrderSimulation buy = order(3, aapl, Side.BUY, Price.of(101), 50);
+        engine.submit(buy);
+
+        assertEquals(50, buy.getFilledQuantity());
+        assertEquals(Price.notional(Price.of(100), 30) + Price.notional(Price.of(101), 20), buy.getExecutedValue());
+        assertEquals(10, engine.book(aapl).quantityAt(Side.SELL, Price.of(101)));
+    }
+
+    @Test
+    void booksAreKeptPerSymbol() {
+        SymbolDictionary symbols = new SymbolDictionary(4);
+        int aapl = symbols.register("AAPL");
+        int msft = symbols.register("MSFT", Price.of(1) / 20);
+        MatchingEngine engine = new MatchingEngine(symbols, MIN_PRICE, MAX_PRICE, 16, TradeListener.NONE);
+
+        engine.submit(order(1, aapl, Side.SELL, Price.of(100), 30));
+        OrderSimulation buy = order(2, msft, Side.BUY, Price.of(100), 30);
+        engine.submit(buy);
+
+        assertEquals(0, buy.getFilledQuantity());
+        assertEquals(Price.of(100), engine.book(msft).bestBid());
+        assertEquals(Price.of(1) / 20, engine.book(msft).getTickSize());
+        assertFalse(engine.cancel(msft, 1));
+        assertTrue(engine.cancel(aapl, 1));
+    }
+
+    private static OrderSimulation order(long id, int symbolId, Side side, long price, int quantity) {
+        OrderSimulation order = new OrderSimulation();
+        order.reset(id, symbolId, side, price, quantity);
+        return order;
+    }
+}
@@ -0,0 +1,186 @@
+package com.trading.book;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookTest {
+
+    private static final int SYMBOL_ID = 3;
+    private static final long MIN_PRICE = Price.of(100);
+    private static final long TICK = Price.CENT;
+    private static final int LEVELS = 100;
+
+    private final List<long[]> trades = new ArrayList<>();
+
+    @Test
+    void buyFillsAcrossAskLevelsBestPriceFirst() {
+        OrderBook book = book(16);
+        book.submit(1, Side.SELL, price(2), 100);
+        book.submit(2, Side.SELL, price(1), 50);
+        book.submit(3, Side.SELL, price(3), 100);
+
+        long filled = book.submit(10, Side.BUY, price(2), 120);
+
+        assertEquals(120, filled);
+        assertEquals(2, trades.size());
+        assertTrade(trades.get(0), 2, 10, price(1), 50);
+        assertTrade(trades.get(1), 1, 10, price(2), 70);
+        assertEquals(price(2), book.bestAsk());
+        assertEquals(30, book.quantityAt(Side.SELL, price(2)));
+        assertEquals(OrderBook.NO_PRICE, book.bestBid());
+        assertEquals(2, book.getRestingOrders());
+    }
+
+    @Test
+    void remainderRestsAtLimitPriceAfterSweepingTheBook() {
+        OrderBook book = book(16);
+        book.submit(1, Side.BUY, price(5), 40);
+        book.submit(2, Side.BUY, price(4), 40);
+
+        long filled = book.submit(10, Side.SELL, price(4), 100);
+
+        assertEquals(80, filled);
+        assertEquals(OrderBook.NO_PRICE, book.bestBid());
+        assertEquals(price(4), book.bestAsk());
+        assertEquals(20, book.quantityAt(Side.SELL, price(4)));
+        assertEquals(1, book.getRestingOrders());
+    }
+
+    @Test
+    void ordersAtOneLevelFillInArrivalOrder() {
+        OrderBook book = book(16);
+        book.submit(1, Side.BUY, price(10), 30);
+        book.submit(2, Side.BUY, price(10), 30);
+        book.submit(3, Side.BUY, price(10), 30);
+
+        book.submit(10, Side.SELL, price(10), 45);
+
+        assertEquals(2, trades.size());
+        assertTrade(trades.get(0), 1, 10, price(10), 30);
+        assertTrade(trades.get(1), 2, 10, price(10), 15);
+
+        // Order 2 keeps its place ahead of order 3
+        book.submit(11, Side.SELL, price(10), 20);
+        assertTrade(trades.get(2), 2, 11, price(10), 15);
+        assertTrade(trades.get(3), 3, 11, price(10), 5);
+        assertEquals(25, book.quantityAt(Side.BUY, price(10)));
+    }
+
+    @Test
+    void cancelRemovesThePartiallyFilledRemainder() {
+        OrderBook book = book(16);
+        book.submit(1, Side.SELL, price(7), 100);
+        book.submit(2, Side.SELL, price(8), 100);
+        book.submit(10, Side.BUY, price(7), 60);
+
+        assertTrue(book.cancel(1));
+
+        assertEquals(0, book.quantityAt(Side.SELL, price(7)));
+        assertEquals(price(8), book.bestAsk());
+        assertEquals(1, book.getRestingOrders());
+        assertFalse(book.cancel(1));
+
+        // The cancelled order no longer trades
+        trades.clear();
+        book.submit(11, Side.BUY, price(8), 10);
+        assertTrade(trades.get(0), 2, 11, price(8), 10);
+    }
+
+    @Test
+    void cancelOfUnknownOrderIsIgnored() {
+        OrderBook book = book(16);
+        book.submit(1, Side.BUY, price(1), 10);
+
+        assertFalse(book.cancel(99));
+        assertEquals(10, book.quantityAt(Side.BUY, price(1)));
+    }
+
+    @Test
+    void remainderIsRejectedWhenTheBookIsFull() {
+        OrderBook book = book(2);
+        book.submit(1, Side.BUY, price(1), 10);
+        book.submit(2, Side.BUY, price(2), 10);
+
+        long filled = book.submit(3, Side.BUY, price(3), 25);
+
+        assertEquals(0, filled);
+        assertEquals(25, book.getRejectedQuantity());
+        assertEquals(2, book.getRestingOrders());
+        assertEquals(price(2), book.bestBid());
+        assertFalse(book.cancel(3));
+
+        // A fill that frees a slot makes room again
+        book.submit(4, Side.SELL, price(2), 10);
+        book.submit(5, Side.BUY, price(3), 5);
+        assertEquals(price(3), book.bestBid());
+        assertEquals(25, book.getRejectedQuantity());
+    }
+
+    @Test
+    void duplicateOrderIdIsRejectedWhole() {
+        OrderBook book = book(16);
+        book.submit(1, Side.BUY, price(5), 10);
+        book.submit(2, Side.SELL, price(8), 10);
+
+        // Would cross the resting ask if it were accepted
+        long filled = book.submit(1, Side.BUY, price(8), 30);
+
+        assertEquals(0, filled);
+        assertTrue(trades.isEmpty());
+        assertEquals(1, book.getDuplicateOrders());
+        assertEquals(30, book.getRejectedQuantity());
+        assertEquals(10, book.quantityAt(Side.BUY, price(5)));
+        assertEquals(10, book.quantityAt(Side.SELL, price(8)));
+
+        // The original order keeps its id and can still be cancelled
+        assertTrue(book.cancel(1));
+        assertEquals(OrderBook.NO_PRICE, book.bestBid());
+
+        // Once gone, the id may be used again
+        book.submit(1, Side.SELL, price(8), 5);
+        assertEquals(15, book.quantityAt(Side.SELL, price(8)));
+        assertEquals(1, book.getDuplicateOrders());
+    }
+
+    @Test
+    void depthListsLevelsBestFirst() {
+        OrderBook book = book(16);
+        book.submit(1, Side.BUY, price(3), 10);
+        book.submit(2, Side.BUY, price(5), 20);
+        book.submit(3, Side.BUY, price(5), 5);
+        book.submit(4, Side.BUY, price(1), 30);
+
+        long[] prices = new long[2];
+        long[] quantities = new long[2];
+        int count = book.depth(Side.BUY, prices, quantities);
+
+        assertEquals(2, count);
+        assertArrayEquals(new long[] {price(5), price(3)}, prices);
+        assertArrayEquals(new long[] {25, 10}, quantities);
+    }
+
+    private OrderBook book(int maxOrders) {
+        return new OrderBook(SYMBOL_ID, MIN_PRICE, TICK, LEVELS, maxOrders,
+                (symbolId, makerOrderId, takerOrderId, price, quantity) -> {
+                    assertEquals(SYMBOL_ID, symbolId);
+                    trades.add(new long[] {makerOrderId, takerOrderId, price, quantity});
+                });
+    }
+
+    private static long price(int ticks) {
+        return MIN_PRICE + ticks * TICK;
+    }
+
+    private static void assertTrade(long[] trade, long makerOrderId, long takerOrderId, long price, long quantity) {
+        assertArrayEquals(new long[] {makerOrderId, takerOrderId, price, quantity}, trade);
+    }
+}
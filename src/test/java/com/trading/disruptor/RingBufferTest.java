@@ -0,0 +1,126 @@
+package com.trading.disruptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    @Test
+    void bufferSizeMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(Event::new, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(Event::new, 12));
+        assertEquals(16, new RingBuffer<>(Event::new, 16).getBufferSize());
+    }
+
+    @Test
+    void barrierWaitsForTheSlowestUpstreamStage() {
+        RingBuffer<Event> ring = new RingBuffer<>(Event::new, 8);
+        Sequence first = new Sequence(5);
+        Sequence second = new Sequence(3);
+        SequenceBarrier barrier = ring.newBarrier(first, second);
+
+        publish(ring, 7);
+
+        assertEquals(6, ring.getCursor());
+        assertEquals(3, barrier.availableSequence());
+        assertEquals(3, barrier.waitFor(2));
+        second.set(6);
+        assertEquals(5, barrier.waitFor(5));
+    }
+
+    @Test
+    void stagesSeeEveryEventInOrderWithEachWaitStrategy() throws InterruptedException {
+        for (String strategy : new String[] {"busy-spin", "yielding", "backoff", "blocking"}) {
+            runPipeline(WaitStrategy.fromName(strategy), 20_000);
+        }
+    }
+
+    @Test
+    void haltedProcessorDrainsWhatIsAvailableAndStops() throws InterruptedException {
+        RingBuffer<Event> ring = new RingBuffer<>(Event::new, 16, new BlockingWaitStrategy());
+        long[] handled = new long[1];
+        BatchEventProcessor<Event> processor = new BatchEventProcessor<>(ring, ring.newBarrier(),
+                (event, sequence, endOfBatch) -> handled[0]++);
+        ring.addGatingSequences(processor.getSequence());
+        Thread thread = new Thread(processor);
+        thread.start();
+
+        publish(ring, 10);
+        while (processor.getSequence().get() < 9) {
+            Thread.onSpinWait();
+        }
+        // Now blocked waiting for an event that never comes
+        processor.halt();
+        thread.join(TIMEOUT_MILLIS);
+
+        assertFalse(thread.isAlive(), "processor did not stop after halt");
+        assertEquals(10, handled[0]);
+    }
+
+    // Producer -> validator -> journaller, the final stage gating the producer. The producer
+    // wraps the ring many times, so an overwritten event or a stage running ahead of the one
+    // it depends on shows up as a value that does not match its sequence.
+    private static void runPipeline(WaitStrategy waitStrategy, int events) throws InterruptedException {
+        RingBuffer<Event> ring = new RingBuffer<>(Event::new, 64, waitStrategy);
+        AtomicReference<String> failure = new AtomicReference<>();
+        long[] lastSeen = {Sequence.INITIAL_VALUE};
+
+        BatchEventProcessor<Event> validator = new BatchEventProcessor<>(ring, ring.newBarrier(),
+                (event, sequence, endOfBatch) -> event.validated = event.value + 1);
+        BatchEventProcessor<Event> journaller = new BatchEventProcessor<>(ring,
+                ring.newBarrier(validator.getSequence()),
+                (event, sequence, endOfBatch) -> {
+                    if (event.value != sequence || event.validated != sequence + 1
+                            || sequence != lastSeen[0] + 1) {
+                        failure.compareAndSet(null, waitStrategy.name() + ": event " + sequence + " has value "
+                                + event.value + ", validated " + event.validated + " after " + lastSeen[0]);
+                    }
+                    lastSeen[0] = sequence;
+                });
+        ring.addGatingSequences(journaller.getSequence());
+
+        Thread[] threads = {new Thread(validator), new Thread(journaller)};
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        publish(ring, events);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (journaller.getSequence().get() < events - 1 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        validator.halt();
+        journaller.halt();
+        for (Thread thread : threads) {
+            thread.join(TIMEOUT_MILLIS);
+            assertFalse(thread.isAlive(), waitStrategy.name() + ": stage did not stop after halt");
+        }
+
+        assertNull(failure.get(), failure.get());
+        assertEquals(events - 1, journaller.getSequence().get(), waitStrategy.name());
+        assertTrue(validator.getSequence().get() >= journaller.getSequence().get(), waitStrategy.name());
+    }
+
+    private static void publish(RingBuffer<Event> ring, int events) {
+        for (int i = 0; i < events; i++) {
+            long sequence = ring.next();
+            Event event = ring.get(sequence);
+            event.value = sequence;
+            event.validated = 0;
+            ring.publish(sequence);
+        }
+    }
+
+    private static final class Event {
+        long value;
+        long validated;
+    }
+}
@@ -0,0 +1,195 @@
+package com.trading.fix;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.model.SymbolDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class FixCodecTest {
+
+    private static final long AAPL = SymbolDictionary.encode("AAPL");
+
+    private final FixCodec codec = new FixCodec("GATEWAY", "VENUE");
+    private final ByteBuffer buffer = ByteBuffer.allocate(512);
+
+    @Test
+    void newOrderSingleRoundTrip() {
+        int length = codec.encodeNewOrderSingle(buffer, 7, 42, 123_456_789L, 1001, AAPL, Side.SELL,
+                Price.fromDouble(150.25), 300);
+
+        long[] fields = new long[8];
+        int decoded = codec.decode(buffer, 7, length, new ExpectingHandler() {
+            @Override
+            public void onNewOrderSingle(NewOrderSingle order) {
+                fields[0] = order.msgSeqNum();
+                fields[1] = order.clOrdId();
+                fields[2] = order.account();
+                fields[3] = order.symbolCode();
+                fields[4] = order.side().code();
+                fields[5] = order.ordType();
+                fields[6] = order.price();
+                fields[7] = order.orderQty();
+            }
+        });
+
+        assertEquals(length, decoded);
+        assertEquals(42, fields[0]);
+        assertEquals(123_456_789L, fields[1]);
+        assertEquals(1001, fields[2]);
+        assertEquals(AAPL, fields[3]);
+        assertEquals(Side.SELL.code(), fields[4]);
+        assertEquals(MessageCodec.ORD_TYPE_LIMIT, fields[5]);
+        assertEquals(Price.fromDouble(150.25), fields[6]);
+        assertEquals(300, fields[7]);
+    }
+
+    @Test
+    void executionReportRoundTrip() {
+        int length = codec.encodeExecutionReport(buffer, 0, Long.MAX_VALUE, 9, 10, AAPL, Side.BUY,
+                MessageCodec.ORD_STATUS_PARTIALLY_FILLED, Price.of(99) + 1, 25, 75, 25);
+
+        long[] fields = new long[10];
+        int decoded = codec.decode(buffer, 0, length, new ExpectingHandler() {
+            @Override
+            public void onExecutionReport(ExecutionReport report) {
+                fields[0] = report.msgSeqNum();
+                fields[1] = report.orderId();
+                fields[2] = report.execId();
+                fields[3] = report.symbolCode();
+                fields[4] = report.side().code();
+                fields[5] = report.ordStatus();
+                fields[6] = report.lastPx();
+                fields[7] = report.lastQty();
+                fields[8] = report.leavesQty();
+                fields[9] = report.cumQty();
+            }
+        });
+
+        assertEquals(length, decoded);
+        assertEquals(Long.MAX_VALUE, fields[0]);
+        assertEquals(9, fields[1]);
+        assertEquals(10, fields[2]);
+        assertEquals(AAPL, fields[3]);
+        assertEquals(Side.BUY.code(), fields[4]);
+        assertEquals(MessageCodec.ORD_STATUS_PARTIALLY_FILLED, fields[5]);
+        assertEquals(Price.of(99) + 1, fields[6]);
+        assertEquals(25, fields[7]);
+        assertEquals(75, fields[8]);
+        assertEquals(25, fields[9]);
+    }
+
+    @Test
+    void consecutiveMessagesDecodeOneAtATime() {
+        int first = codec.encodeNewOrderSingle(buffer, 0, 1, 1, 1, AAPL, Side.BUY, Price.of(100), 10);
+        int second = codec.encodeNewOrderSingle(buffer, first, 2, 2, 1, AAPL, Side.BUY, Price.of(101), 20);
+
+        long[] quantities = new long[2];
+        int[] count = new int[1];
+        MessageHandler handler = new ExpectingHandler() {
+            @Override
+            public void onNewOrderSingle(NewOrderSingle order) {
+                quantities[count[0]++] = order.orderQty();
+            }
+        };
+
+        assertEquals(first, codec.decode(buffer, 0, first + second, handler));
+        assertEquals(second, codec.decode(buffer, first, second, handler));
+        assertEquals(10, quantities[0]);
+        assertEquals(20, quantities[1]);
+    }
+
+    @Test
+    void truncatedFrameWaitsForMoreBytes() {
+        int length = codec.encodeNewOrderSingle(buffer, 0, 1, 1, 1, AAPL, Side.BUY, Price.of(100), 10);
+
+        for (int available = 0; available < length; available++) {
+            assertEquals(0, codec.decode(buffer, 0, available, new ExpectingHandler()),
+                    "decoded with only " + available + " of " + length + " bytes");
+        }
+    }
+
+    @Test
+    void checksumMismatchIsRejected() {
+        int length = codec.encodeNewOrderSingle(buffer, 0, 1, 1, 1, AAPL, Side.BUY, Price.of(100), 10);
+        // Change the last OrderQty digit, just before its SOH and the 7-byte CheckSum field
+        int quantityDigit = length - 9;
+        buffer.put(quantityDigit, (byte) (buffer.get(quantityDigit) == '1' ? '2' : '1'));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(buffer, 0, length, new ExpectingHandler()));
+        assertTrue(e.getMessage().contains("CheckSum"), e.getMessage());
+    }
+
+    @Test
+    void corruptChecksumFieldIsRejected() {
+        int length = codec.encodeNewOrderSingle(buffer, 0, 1, 1, 1, AAPL, Side.BUY, Price.of(100), 10);
+        buffer.put(length - 2, (byte) 'x');
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer, 0, length, new ExpectingHandler()));
+    }
+
+    @Test
+    void wrongBeginStringIsRejected() {
+        int length = codec.encodeNewOrderSingle(buffer, 0, 1, 1, 1, AAPL, Side.BUY, Price.of(100), 10);
+        buffer.put(6, (byte) '2');
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer, 0, length, new ExpectingHandler()));
+    }
+
+    @Test
+    void malformedTagsAreRejected() {
+        IllegalArgumentException nonDigit = assertThrows(IllegalArgumentException.class,
+                () -> decode("35=D\u0001x4=1\u0001", new ExpectingHandler()));
+        assertTrue(nonDigit.getMessage().contains("Invalid tag byte"), nonDigit.getMessage());
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> decode("35=D\u0001=1\u0001", new ExpectingHandler()));
+        assertTrue(missing.getMessage().contains("Missing tag"), missing.getMessage());
+    }
+
+    @Test
+    void unknownTagsAreSkipped() {
+        long[] fields = new long[2];
+        decode("35=D\u000134=5\u00019999=x\u000199999999999999999999=y\u000138=300\u0001", new ExpectingHandler() {
+            @Override
+            public void onNewOrderSingle(NewOrderSingle order) {
+                fields[0] = order.msgSeqNum();
+                fields[1] = order.orderQty();
+            }
+        });
+        assertEquals(5, fields[0]);
+        assertEquals(300, fields[1]);
+    }
+
+    // Frame a body with BeginString, BodyLength and a correct CheckSum and decode it
+    private int decode(String body, MessageHandler handler) {
+        String message = "8=FIX.4.4\u00019=" + body.length() + "\u0001" + body;
+        byte[] bytes = message.getBytes(StandardCharsets.US_ASCII);
+        int sum = 0;
+        for (byte b : bytes) {
+            sum += b;
+        }
+        String framed = message + String.format("10=%03d\u0001", sum & 0xFF);
+        ByteBuffer wire = ByteBuffer.wrap(framed.getBytes(StandardCharsets.US_ASCII));
+        return codec.decode(wire, 0, wire.capacity(), handler);
+    }
+
+    private static class ExpectingHandler implements MessageHandler {
+        @Override
+        public void onNewOrderSingle(NewOrderSingle order) {
+            fail("Unexpected NewOrderSingle");
+        }
+
+        @Override
+        public void onExecutionReport(ExecutionReport report) {
+            fail("Unexpected ExecutionReport");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.trading.ipc;
+
+import com.trading.gateway.OrderGateway;
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.model.SymbolDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IpcMatchingTest {
+
+    private static final long GOOGL = SymbolDictionary.encode("GOOGL");
+    private static final byte LIMIT = 1;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void everyOrderIsAckedAndAThrowingHandlerRejectsOnlyItsOrder() throws Exception {
+        Path ordersFile = directory.resolve("orders.ring");
+        Path acksFile = directory.resolve("acks.ring");
+        IpcPublisher orders = new IpcPublisher(IpcRing.create(ordersFile, 16), false);
+        IpcSubscriber acks = new IpcSubscriber(IpcRing.create(acksFile, 16));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread matching = new Thread(() -> {
+            try {
+                IpcMatching.run(ordersFile, acksFile, ProcessHandle.current(), (request, ack) -> {
+                    if (request.orderId() == 2) {
+                        throw new IllegalArgumentException("Bad side " + request.side());
+                    }
+                    ack.quantity(request.quantity() / 2);
+                });
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        matching.start();
+
+        for (int i = 1; i <= 3; i++) {
+            orders.offer(IpcGateway.RECORD_ORDER, i, GOOGL, LIMIT, Side.BUY.code(), Price.of(100), 10 * i, 7);
+        }
+        List<long[]> received = new ArrayList<>();
+        while (received.size() < 3) {
+            int polled = acks.poll((position, recordType, ack) -> {
+                assertEquals(IpcGateway.RECORD_ACK, recordType);
+                assertEquals(GOOGL, ack.symbolCode());
+                assertEquals(7, ack.clientCode());
+                received.add(new long[] {ack.orderId(), ack.type(), ack.quantity()});
+            }, 16);
+            if (polled == 0) {
+                Thread.yield();
+            }
+        }
+        orders.offer(IpcGateway.RECORD_STOP, 0, 0, (byte) 0, (byte) 0, 0, 0, 0);
+        matching.join(10_000);
+
+        assertFalse(matching.isAlive());
+        assertNull(failure.get());
+        assertAck(received.get(0), 1, OrderGateway.ACK_ACCEPTED, 5);
+        assertAck(received.get(1), 2, OrderGateway.ACK_REJECTED, 0);
+        assertAck(received.get(2), 3, OrderGateway.ACK_ACCEPTED, 15);
+    }
+
+    private static void assertAck(long[] ack, long orderId, byte type, int quantity) {
+        assertEquals(orderId, ack[0]);
+        assertEquals(type, ack[1]);
+        assertEquals(quantity, ack[2]);
+    }
+}
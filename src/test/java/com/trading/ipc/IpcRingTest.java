@@ -0,0 +1,165 @@
+package com.trading.ipc;
+
+import com.trading.benchmark.DirectBufferDemo;
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.model.SymbolDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IpcRingTest {
+
+    private static final long GOOGL = SymbolDictionary.encode("GOOGL");
+    private static final byte LIMIT = 1;
+    private static final int ORDER = 1;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsArriveInOrderAcrossWraparound() throws IOException {
+        IpcRing ring = IpcRing.create(directory.resolve("orders.ring"), 8);
+        IpcPublisher publisher = new IpcPublisher(ring, false);
+        IpcSubscriber subscriber = new IpcSubscriber(ring);
+        List<long[]> received = new ArrayList<>();
+        IpcRecordHandler handler = (position, recordType, record) -> {
+            assertEquals(GOOGL, record.symbolCode());
+            assertEquals(Side.SELL.code(), record.side());
+            received.add(new long[] {position, recordType, record.orderId(), record.price(), record.quantity()});
+        };
+
+        for (int batch = 0; batch < 20; batch++) {
+            for (int i = batch * 5; i < batch * 5 + 5; i++) {
+                assertTrue(publisher.offer(ORDER, i, GOOGL, LIMIT, Side.SELL.code(), Price.of(100) + i, i + 1, 7));
+            }
+            assertEquals(5, ring.size());
+            assertEquals(5, subscriber.poll(handler, 16));
+        }
+
+        assertEquals(100, received.size());
+        for (int i = 0; i < 100; i++) {
+            long[] record = received.get(i);
+            assertEquals(i, record[0]);
+            assertEquals(ORDER, record[1]);
+            assertEquals(i, record[2]);
+            assertEquals(Price.of(100) + i, record[3]);
+            assertEquals(i + 1, record[4]);
+        }
+        assertEquals(100, subscriber.position());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void fullRingRefusesClaimsUntilTheSubscriberPolls() throws IOException {
+        IpcRing ring = IpcRing.create(directory.resolve("orders.ring"), 4);
+        IpcPublisher publisher = new IpcPublisher(ring, false);
+        IpcSubscriber subscriber = new IpcSubscriber(ring);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(publisher.offer(ORDER, i, GOOGL, LIMIT, Side.BUY.code(), Price.of(100), 10, 7));
+        }
+
+        assertFalse(publisher.offer(ORDER, 4, GOOGL, LIMIT, Side.BUY.code(), Price.of(100), 10, 7));
+        assertEquals(1, subscriber.poll((position, recordType, record) -> { }, 1));
+        assertTrue(publisher.offer(ORDER, 4, GOOGL, LIMIT, Side.BUY.code(), Price.of(100), 10, 7));
+        assertEquals(4, ring.size());
+    }
+
+    @Test
+    void claimedRecordIsInvisibleUntilCommitted() throws IOException {
+        IpcRing ring = IpcRing.create(directory.resolve("orders.ring"), 4);
+        IpcPublisher publisher = new IpcPublisher(ring, false);
+        IpcSubscriber subscriber = new IpcSubscriber(ring);
+        DirectBufferDemo.OrderFlyweight record = new DirectBufferDemo.OrderFlyweight();
+
+        assertTrue(publisher.tryClaim(ORDER, record));
+        record.orderId(42).quantity(10);
+        assertThrows(IllegalStateException.class, () -> publisher.tryClaim(ORDER, record));
+        assertEquals(0, subscriber.poll((position, recordType, polled) -> { }, 4));
+
+        publisher.commit();
+        long[] orderId = new long[1];
+        assertEquals(1, subscriber.poll((position, recordType, polled) -> orderId[0] = polled.orderId(), 4));
+        assertEquals(42, orderId[0]);
+        assertThrows(IllegalStateException.class, publisher::commit);
+    }
+
+    @Test
+    void concurrentProducersPublishEveryRecordOnceAndInOrder() throws Exception {
+        int producerCount = 3;
+        int perProducer = 5_000;
+        IpcRing ring = IpcRing.create(directory.resolve("orders.ring"), 64);
+        Thread[] producers = new Thread[producerCount];
+        for (int t = 0; t < producerCount; t++) {
+            int client = t;
+            producers[t] = new Thread(() -> {
+                IpcPublisher publisher = new IpcPublisher(ring, true);
+                for (int i = 0; i < perProducer; i++) {
+                    while (!publisher.offer(ORDER, i, GOOGL, LIMIT, Side.BUY.code(), Price.of(100), 10, client)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers[t].start();
+        }
+
+        IpcSubscriber subscriber = new IpcSubscriber(ring);
+        long[] nextOrderId = new long[producerCount];
+        long received = 0;
+        while (received < (long) producerCount * perProducer) {
+            int polled = subscriber.poll((position, recordType, record) -> {
+                int client = record.clientCode();
+                assertEquals(nextOrderId[client]++, record.orderId(), "order of producer " + client);
+            }, 256);
+            if (polled == 0) {
+                Thread.yield();
+            }
+            received += polled;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        for (int t = 0; t < producerCount; t++) {
+            assertEquals(perProducer, nextOrderId[t]);
+        }
+        assertEquals(0, subscriber.poll((position, recordType, record) -> { }, 256));
+    }
+
+    @Test
+    void openedRingSharesRecordsWithTheCreator() throws IOException {
+        Path file = directory.resolve("orders.ring");
+        IpcRing created = IpcRing.create(file, 16);
+        IpcRing opened = IpcRing.open(file);
+        new IpcPublisher(created, false).offer(ORDER, 9, GOOGL, LIMIT, Side.BUY.code(), Price.of(100), 10, 7);
+
+        long[] orderId = new long[1];
+        assertEquals(16, opened.capacity());
+        assertEquals(1, new IpcSubscriber(opened).poll((position, recordType, record) -> orderId[0] = record.orderId(), 4));
+        assertEquals(9, orderId[0]);
+        assertEquals(0, created.size());
+    }
+
+    @Test
+    void openRejectsAFileThatIsNotInitialised() throws IOException {
+        Path file = directory.resolve("orders.ring");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(IpcRing.HEADER_SIZE + 4 * IpcRing.SLOT_SIZE));
+        }
+
+        assertThrows(IllegalStateException.class, () -> IpcRing.open(file));
+        assertThrows(IllegalArgumentException.class, () -> IpcRing.create(directory.resolve("other.ring"), 12));
+    }
+}
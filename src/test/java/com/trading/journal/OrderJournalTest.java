@@ -0,0 +1,141 @@
+package com.trading.journal;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+import com.trading.model.SymbolDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderJournalTest {
+
+    private static final int RECORDS_PER_SEGMENT = 3;
+    private static final int SEGMENT_SIZE = RECORDS_PER_SEGMENT * OrderJournal.RECORD_SIZE;
+    private static final long GOOGL = SymbolDictionary.encode("GOOGL");
+    private static final byte LIMIT = 1;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayReturnsEveryRecordInOrderAcrossSegments() throws IOException {
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 10; i++) {
+                appendOrder(journal, i);
+            }
+            assertEquals(11, journal.appendExecution(4, GOOGL, LIMIT, Side.SELL.code(), Price.of(101), 25, 7));
+        }
+
+        List<long[]> records = replay();
+
+        assertEquals(4, JournalReader.listSegments(directory).size());
+        assertEquals(11, records.size());
+        for (int i = 0; i < 10; i++) {
+            assertRecord(records.get(i), i + 1, OrderJournal.RECORD_ORDER, i, Price.of(100) + i, 100 + i);
+        }
+        assertRecord(records.get(10), 11, OrderJournal.RECORD_EXECUTION, 4, Price.of(101), 25);
+    }
+
+    @Test
+    void symbolCodesKeepAllEightBytes() throws IOException {
+        long longest = SymbolDictionary.encode("ABCDEFGH");
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_SIZE)) {
+            journal.appendOrder(1, GOOGL, LIMIT, Side.BUY.code(), Price.of(100), 10, 7);
+            journal.appendOrder(2, longest, LIMIT, Side.BUY.code(), Price.of(100), 10, 7);
+        }
+
+        List<Long> symbolCodes = new ArrayList<>();
+        new JournalReader(directory).replay((sequence, recordType, record) -> symbolCodes.add(record.symbolCode()));
+
+        assertEquals(List.of(GOOGL, longest), symbolCodes);
+    }
+
+    @Test
+    void reopenedJournalContinuesAfterTheLastRecord() throws IOException {
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 4; i++) {
+                appendOrder(journal, i);
+            }
+        }
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(4, journal.lastSequence());
+            assertEquals(5, appendOrder(journal, 4));
+            assertEquals(6, appendOrder(journal, 5));
+        }
+
+        List<long[]> records = replay();
+        assertEquals(6, records.size());
+        assertRecord(records.get(5), 6, OrderJournal.RECORD_ORDER, 5, Price.of(100) + 5, 105);
+    }
+
+    @Test
+    void reopenAfterRollingToAnEmptySegmentKeepsTheSequence() throws IOException {
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < RECORDS_PER_SEGMENT; i++) {
+                appendOrder(journal, i);
+            }
+        }
+        // The writer mapped the next segment and crashed before appending to it
+        try (FileChannel channel = FileChannel.open(directory.resolve(OrderJournal.segmentName(1)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(SEGMENT_SIZE));
+        }
+
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(RECORDS_PER_SEGMENT, journal.lastSequence());
+            assertEquals(RECORDS_PER_SEGMENT + 1, appendOrder(journal, RECORDS_PER_SEGMENT));
+        }
+        assertEquals(RECORDS_PER_SEGMENT + 1, replay().size());
+    }
+
+    @Test
+    void replayStopsAtASequenceGap() throws IOException {
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 8; i++) {
+                appendOrder(journal, i);
+            }
+        }
+        // Overwrite the sequence of the fifth record, the second in segment 1
+        try (FileChannel channel = FileChannel.open(directory.resolve(OrderJournal.segmentName(1)),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, 42),
+                    OrderJournal.RECORD_SIZE + OrderJournal.SEQUENCE_OFFSET);
+        }
+
+        assertEquals(4, replay().size());
+        assertEquals(4, new JournalReader(directory).replay((sequence, recordType, record) -> { }));
+    }
+
+    private static long appendOrder(OrderJournal journal, int i) {
+        return journal.appendOrder(i, GOOGL, LIMIT, Side.BUY.code(), Price.of(100) + i, 100 + i, 7);
+    }
+
+    // sequence, recordType, orderId, price, quantity of every record
+    private List<long[]> replay() throws IOException {
+        List<long[]> records = new ArrayList<>();
+        new JournalReader(directory).replay((sequence, recordType, record) -> {
+            assertEquals(GOOGL, record.symbolCode());
+            assertEquals(7, record.clientCode());
+            records.add(new long[] {sequence, recordType, record.orderId(), record.price(), record.quantity()});
+        });
+        return records;
+    }
+
+    private static void assertRecord(long[] record, long sequence, int recordType, long orderId, long price,
+                                     long quantity) {
+        assertEquals(sequence, record[0]);
+        assertEquals(recordType, record[1]);
+        assertEquals(orderId, record[2]);
+        assertEquals(price, record[3]);
+        assertEquals(quantity, record[4]);
+    }
+}
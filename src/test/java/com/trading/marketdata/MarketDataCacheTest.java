@@ -0,0 +1,174 @@
+package com.trading.marketdata;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class MarketDataCacheTest {
+
+    private static final int SYMBOL = 2;
+    private static final int DEPTH = 3;
+
+    private final MarketDataCache cache = new MarketDataCache(4, DEPTH);
+    private final BookSnapshot snapshot = new BookSnapshot(DEPTH);
+
+    @Test
+    void levelsStayBestFirstAsTheyAreAddedResizedAndRemoved() {
+        cache.updateLevel(SYMBOL, Side.BUY, price(10), 100, 1);
+        cache.updateLevel(SYMBOL, Side.BUY, price(12), 200, 2);
+        cache.updateLevel(SYMBOL, Side.BUY, price(11), 300, 3);
+        cache.updateLevel(SYMBOL, Side.SELL, price(14), 50, 4);
+        cache.updateLevel(SYMBOL, Side.SELL, price(13), 60, 5);
+        cache.updateLevel(SYMBOL, Side.BUY, price(11), 350, 6);
+        cache.updateLevel(SYMBOL, Side.SELL, price(13), 0, 7);
+
+        cache.readSnapshot(SYMBOL, snapshot);
+
+        assertEquals(SYMBOL, snapshot.getSymbolId());
+        assertEquals(3, snapshot.getBidCount());
+        assertLevel(price(12), 200, snapshot.bidPrice(0), snapshot.bidSize(0));
+        assertLevel(price(11), 350, snapshot.bidPrice(1), snapshot.bidSize(1));
+        assertLevel(price(10), 100, snapshot.bidPrice(2), snapshot.bidSize(2));
+        assertEquals(1, snapshot.getAskCount());
+        assertLevel(price(14), 50, snapshot.askPrice(0), snapshot.askSize(0));
+        assertEquals(7, snapshot.getTimestamp());
+        assertEquals(7, snapshot.getVersion());
+        assertEquals(7, cache.version(SYMBOL));
+        assertEquals(0, cache.version(SYMBOL + 1));
+    }
+
+    @Test
+    void aFullSideDropsItsWorstLevelForABetterOne() {
+        cache.updateLevel(SYMBOL, Side.SELL, price(1), 10, 1);
+        cache.updateLevel(SYMBOL, Side.SELL, price(2), 20, 2);
+        cache.updateLevel(SYMBOL, Side.SELL, price(3), 30, 3);
+
+        // Worse than every kept level, so ignored
+        cache.updateLevel(SYMBOL, Side.SELL, price(4), 40, 4);
+        cache.readSnapshot(SYMBOL, snapshot);
+        assertEquals(3, snapshot.getAskCount());
+        assertLevel(price(3), 30, snapshot.askPrice(2), snapshot.askSize(2));
+
+        cache.updateLevel(SYMBOL, Side.SELL, price(0), 5, 5);
+        cache.readSnapshot(SYMBOL, snapshot);
+        assertEquals(3, snapshot.getAskCount());
+        assertLevel(price(0), 5, snapshot.askPrice(0), snapshot.askSize(0));
+        assertLevel(price(2), 20, snapshot.askPrice(2), snapshot.askSize(2));
+    }
+
+    @Test
+    void fullRefreshReplacesTheBookUpToTheCacheDepth() {
+        cache.updateLevel(SYMBOL, Side.BUY, price(50), 1, 1);
+        BookSnapshot refresh = new BookSnapshot(5);
+        refresh.clear(9);
+        for (int level = 0; level < 5; level++) {
+            refresh.addAsk(price(20 + level), 10 * (level + 1));
+        }
+
+        cache.apply(SYMBOL, refresh);
+
+        TopOfBook top = new TopOfBook();
+        assertTrue(cache.readTopOfBook(SYMBOL, top));
+        assertEquals(MarketDataCache.NO_PRICE, top.getBidPrice());
+        assertEquals(0, top.getBidSize());
+        assertLevel(price(20), 10, top.getAskPrice(), top.getAskSize());
+        assertEquals(9, top.getTimestamp());
+        cache.readSnapshot(SYMBOL, snapshot);
+        assertEquals(DEPTH, snapshot.getAskCount());
+        assertLevel(price(22), 30, snapshot.askPrice(2), snapshot.askSize(2));
+    }
+
+    @Test
+    void conflatedReaderDeliversOnlyTheLatestStateOfChangedSymbols() {
+        ConflatedReader reader = new ConflatedReader(cache);
+        for (int i = 1; i <= 5; i++) {
+            cache.updateLevel(SYMBOL, Side.BUY, price(10), i, i);
+        }
+        cache.updateLevel(0, Side.SELL, price(30), 7, 6);
+
+        long[] bidSizes = new long[cache.getSymbolCapacity()];
+        int delivered = reader.poll(book ->
+                bidSizes[book.getSymbolId()] = book.getBidCount() > 0 ? book.bidSize(0) : -1);
+
+        assertEquals(2, delivered);
+        assertEquals(5, bidSizes[SYMBOL]);
+        assertEquals(-1, bidSizes[0]);
+        assertEquals(2, reader.getDelivered());
+        assertEquals(4, reader.getConflated());
+
+        assertEquals(0, reader.poll(book -> fail("Nothing changed since the last poll")));
+        cache.clear(SYMBOL, 7);
+        assertEquals(1, reader.poll(book -> assertEquals(0, book.getBidCount())));
+    }
+
+    @Test
+    void readersNeverSeeAHalfAppliedUpdate() throws InterruptedException {
+        // Deep enough that copies take long enough to overlap the feed's updates
+        int depth = 256;
+        int updates = 100_000;
+        MarketDataCache deepCache = new MarketDataCache(1, depth);
+        AtomicReference<String> torn = new AtomicReference<>();
+        Thread feed = new Thread(() -> {
+            BookSnapshot book = new BookSnapshot(depth);
+            for (int version = 1; version <= updates; version++) {
+                // Every size of update n is n, so a copy mixing two updates has unequal sizes
+                book.clear(version);
+                for (int level = 0; level < depth; level++) {
+                    book.addBid(price(-level), version);
+                    book.addAsk(price(1 + level), version);
+                }
+                deepCache.apply(0, book);
+            }
+        });
+        Thread snapshotReader = new Thread(() -> {
+            BookSnapshot copy = new BookSnapshot(depth);
+            while (deepCache.version(0) < updates && torn.get() == null) {
+                deepCache.readSnapshot(0, copy);
+                if (copy.getVersion() == 0) {
+                    continue;
+                }
+                for (int level = 0; level < depth; level++) {
+                    if (copy.bidSize(level) != copy.getVersion() || copy.askSize(level) != copy.getVersion()
+                            || copy.getTimestamp() != copy.getVersion()) {
+                        torn.set("snapshot of version " + copy.getVersion() + " has size " + copy.bidSize(level)
+                                + "/" + copy.askSize(level) + " at level " + level);
+                    }
+                }
+            }
+        });
+        Thread topReader = new Thread(() -> {
+            TopOfBook top = new TopOfBook();
+            while (deepCache.version(0) < updates && torn.get() == null) {
+                if (deepCache.readTopOfBook(0, top) && top.getVersion() > 0
+                        && (top.getBidSize() != top.getVersion() || top.getAskSize() != top.getVersion())) {
+                    torn.set("top of book of version " + top.getVersion() + " is " + top);
+                }
+            }
+        });
+        snapshotReader.start();
+        topReader.start();
+        feed.start();
+        feed.join();
+        snapshotReader.join();
+        topReader.join();
+
+        assertNull(torn.get(), torn.get());
+        assertEquals(updates, deepCache.version(0));
+    }
+
+    private static long price(int ticks) {
+        return Price.of(100) + ticks * Price.CENT;
+    }
+
+    private static void assertLevel(long expectedPrice, long expectedSize, long price, long size) {
+        assertEquals(expectedPrice, price);
+        assertEquals(expectedSize, size);
+    }
+}
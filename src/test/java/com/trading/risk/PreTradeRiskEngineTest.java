@@ -0,0 +1,111 @@
+package com.trading.risk;
+
+import com.trading.model.Price;
+import com.trading.model.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PreTradeRiskEngineTest {
+
+    private static final int CLIENT = 42;
+    private static final int SYMBOL = 1;
+    private static final long PRICE = Price.of(100);
+    private static final long NOW = 5_000_000_000L;
+
+    @Test
+    void workingOrdersOnOppositeSidesDoNotOffsetEachOther() {
+        PreTradeRiskEngine risk = engine(1_000, 1_000);
+
+        assertEquals(PreTradeRiskEngine.ACCEPTED, risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, 1_000, NOW));
+        assertEquals(PreTradeRiskEngine.ACCEPTED, risk.check(CLIENT, SYMBOL, Side.SELL, PRICE, 1_000, NOW));
+        assertEquals(PreTradeRiskEngine.REJECT_POSITION, risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, 1_000, NOW));
+
+        risk.onCancel(CLIENT, SYMBOL, Side.SELL, PRICE, 1_000);
+        assertEquals(1_000, risk.workingQuantity(CLIENT, SYMBOL, Side.BUY));
+        assertEquals(0, risk.workingQuantity(CLIENT, SYMBOL, Side.SELL));
+        assertEquals(PreTradeRiskEngine.REJECT_POSITION, risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, 1, NOW));
+    }
+
+    @Test
+    void filledPositionOffsetsTheOtherSide() {
+        PreTradeRiskEngine risk = engine(1_000, 1_000);
+        assertEquals(PreTradeRiskEngine.ACCEPTED, risk.check(CLIENT, SYMBOL, Side.SELL, PRICE, 800, NOW));
+        risk.onFill(CLIENT, SYMBOL, Side.SELL, PRICE, 800);
+
+        assertEquals(-800, risk.position(CLIENT, SYMBOL));
+        assertEquals(0, risk.workingQuantity(CLIENT, SYMBOL, Side.SELL));
+        // Short 800 filled, so buys of up to 1800 keep the long side within 1000
+        assertEquals(PreTradeRiskEngine.ACCEPTED, risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, 1_800, NOW));
+        assertEquals(PreTradeRiskEngine.REJECT_POSITION, risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, 1, NOW));
+        // The short side has 200 left
+        assertEquals(PreTradeRiskEngine.REJECT_POSITION, risk.check(CLIENT, SYMBOL, Side.SELL, PRICE, 201, NOW));
+        assertEquals(PreTradeRiskEngine.ACCEPTED, risk.check(CLIENT, SYMBOL, Side.SELL, PRICE, 200, NOW));
+    }
+
+    @Test
+    void rejectedChecksReleaseTheirReservations() {
+        PreTradeRiskEngine risk = engine(1_000, 2);
+        assertEquals(PreTradeRiskEngine.ACCEPTED, risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, 1_000, NOW));
+        assertEquals(PreTradeRiskEngine.REJECT_POSITION, risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, 1, NOW));
+
+        // The rejected order gave its rate slot back, so one more order fits in the window
+        assertEquals(PreTradeRiskEngine.ACCEPTED, risk.check(CLIENT, SYMBOL, Side.SELL, PRICE, 10, NOW));
+        assertEquals(PreTradeRiskEngine.REJECT_ORDER_RATE, risk.check(CLIENT, SYMBOL, Side.SELL, PRICE, 10, NOW));
+        assertEquals(Price.notional(PRICE, 1_010), risk.openNotional(CLIENT));
+    }
+
+    @Test
+    void nonPositiveQuantityOrPriceIsRejected() {
+        PreTradeRiskEngine risk = engine(1_000, 1_000);
+
+        assertEquals(PreTradeRiskEngine.REJECT_INVALID_ORDER, risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, -5, NOW));
+        assertEquals(PreTradeRiskEngine.REJECT_INVALID_ORDER, risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, 0, NOW));
+        assertEquals(PreTradeRiskEngine.REJECT_INVALID_ORDER, risk.check(CLIENT, SYMBOL, Side.SELL, 0, 10, NOW));
+        assertEquals(PreTradeRiskEngine.REJECT_INVALID_ORDER, risk.check(CLIENT, SYMBOL, Side.SELL, -PRICE, 10, NOW));
+        assertEquals(0, risk.openNotional(CLIENT));
+        assertEquals(0, risk.workingQuantity(CLIENT, SYMBOL, Side.BUY));
+    }
+
+    @Test
+    void concurrentChecksNeverReserveBeyondTheLimit() throws InterruptedException {
+        int threads = 4;
+        int checksPerThread = 10_000;
+        PreTradeRiskEngine risk = engine(1_000, Integer.MAX_VALUE);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] gateways = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            gateways[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < checksPerThread; i++) {
+                    if (risk.check(CLIENT, SYMBOL, Side.BUY, PRICE, 7, NOW) == PreTradeRiskEngine.ACCEPTED) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            gateways[t].start();
+        }
+        start.countDown();
+        for (Thread gateway : gateways) {
+            gateway.join();
+        }
+
+        assertEquals(1_000 / 7, accepted.get());
+        assertEquals(1_000 / 7 * 7, risk.workingQuantity(CLIENT, SYMBOL, Side.BUY));
+    }
+
+    private static PreTradeRiskEngine engine(long maxPosition, int maxOrdersPerSecond) {
+        PreTradeRiskEngine risk = new PreTradeRiskEngine(4, 4);
+        risk.registerClient(CLIENT, new ClientLimits(Long.MAX_VALUE / 4, Long.MAX_VALUE / 4,
+                maxPosition, maxOrdersPerSecond));
+        return risk;
+    }
+}
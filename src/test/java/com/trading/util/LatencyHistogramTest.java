@@ -0,0 +1,92 @@
+package com.trading.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    private static final long HIGHEST = 10_000_000_000L;
+
+    @Test
+    void percentilesStayWithinTheRequestedPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST, 3);
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.recordValue(value * 1_000);
+        }
+
+        assertEquals(100_000, histogram.getTotalCount());
+        assertEquals(1_000, histogram.getMinValue());
+        assertEquals(100_000_000, histogram.getMaxValue());
+        assertEquals(50_000_500.0, histogram.getMean(), 0.001);
+        assertWithinPrecision(50_000_000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(99_000_000, histogram.getValueAtPercentile(99));
+        assertWithinPrecision(99_900_000, histogram.getValueAtPercentile(99.9));
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST, 3);
+        for (long value = 0; value < 1_000; value++) {
+            histogram.recordValue(value);
+        }
+
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(499, histogram.getValueAtPercentile(50));
+        assertEquals(999, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void outOfRangeValuesAreClampedButTheMaximumIsExact() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000, 2);
+        histogram.recordValue(-5);
+        histogram.recordValue(5_000_000);
+
+        assertEquals(2, histogram.getTotalCount());
+        assertEquals(0, histogram.getMinValue());
+        assertEquals(5_000_000, histogram.getMaxValue());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertTrue(histogram.getValueAtPercentile(100) >= 1_000_000);
+    }
+
+    @Test
+    void addMergesAndResetEmpties() {
+        LatencyHistogram first = new LatencyHistogram(HIGHEST, 3);
+        LatencyHistogram second = new LatencyHistogram(HIGHEST, 3);
+        for (int i = 0; i < 100; i++) {
+            first.recordValue(10);
+            second.recordValue(1_000_000);
+        }
+
+        first.add(second);
+
+        assertEquals(200, first.getTotalCount());
+        assertEquals(10, first.getMinValue());
+        assertEquals(1_000_000, first.getMaxValue());
+        assertEquals(10, first.getValueAtPercentile(50));
+        assertWithinPrecision(1_000_000, first.getValueAtPercentile(51));
+
+        first.reset();
+
+        assertEquals(0, first.getTotalCount());
+        assertEquals(0, first.getMinValue());
+        assertEquals(0, first.getMaxValue());
+        assertEquals(0, first.getValueAtPercentile(99));
+    }
+
+    @Test
+    void invalidConfigurationsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(HIGHEST, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(HIGHEST, 6));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(1, 3));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LatencyHistogram(HIGHEST, 3).add(new LatencyHistogram(HIGHEST, 2)));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 1_000, "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,94 @@
+package com.trading.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntHashMapTest {
+
+    private static final int MISSING = -1;
+
+    @Test
+    void putGetAndRemove() {
+        LongIntHashMap map = new LongIntHashMap(4, MISSING);
+
+        assertEquals(MISSING, map.put(42, 1));
+        assertEquals(1, map.put(42, 2));
+        assertEquals(2, map.get(42));
+        assertTrue(map.containsKey(42));
+        assertEquals(MISSING, map.get(43));
+        assertEquals(2, map.remove(42));
+        assertEquals(MISSING, map.remove(42));
+        assertFalse(map.containsKey(42));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        LongIntHashMap map = new LongIntHashMap(2, MISSING);
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i * 1_000_003L, i);
+        }
+
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, map.get(i * 1_000_003L));
+        }
+    }
+
+    @Test
+    void removalsKeepEveryOtherKeyReachable() {
+        // Seven keys in a 16-slot table make long probe chains that wrap around its end, which
+        // the backward shift of a removal has to keep intact
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            LongIntHashMap map = new LongIntHashMap(8, MISSING);
+            Map<Long, Integer> expected = new HashMap<>();
+            long[] keys = random.longs(7).toArray();
+            for (int i = 0; i < 1_000; i++) {
+                long key = keys[random.nextInt(keys.length)];
+                if (random.nextBoolean()) {
+                    Integer previous = expected.put(key, i);
+                    assertEquals(previous == null ? MISSING : previous, map.put(key, i));
+                } else {
+                    Integer previous = expected.remove(key);
+                    assertEquals(previous == null ? MISSING : previous, map.remove(key));
+                }
+                for (long k : keys) {
+                    assertEquals((int) expected.getOrDefault(k, MISSING), map.get(k), "key " + k);
+                }
+            }
+            assertEquals(expected.size(), map.size());
+        }
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        LongIntHashMap map = new LongIntHashMap(16, MISSING);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertEquals(MISSING, map.get(3));
+        assertEquals(MISSING, map.put(3, 30));
+        assertEquals(30, map.get(3));
+    }
+
+    @Test
+    void theMissingValueCannotBeStored() {
+        LongIntHashMap map = new LongIntHashMap(16, MISSING);
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, MISSING));
+        assertEquals(MISSING, map.getMissingValue());
+    }
+}
@@ -0,0 +1,150 @@
+package com.trading.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NumericCodecTest {
+
+    private static final long[] EDGE_VALUES = {
+            0, 1, -1, 9, 10, 99, 100, -100, 12_345, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            (long) Integer.MIN_VALUE - 1, 999_999_999_999L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1
+    };
+
+    @Test
+    void longsMatchLongToString() {
+        for (long value : EDGE_VALUES) {
+            String expected = Long.toString(value);
+            assertEquals(expected.length(), NumericCodec.longLength(value));
+            assertEquals(expected, formatLong(value));
+            assertEquals(expected, formatLongInBuffer(value));
+            assertEquals(value, parseLong(expected));
+            assertEquals(value, parseLongInBuffer(expected));
+        }
+    }
+
+    @Test
+    void decimalsRoundTrip() {
+        for (long value : EDGE_VALUES) {
+            for (int decimals : new int[] {0, 1, 4, NumericCodec.MAX_DECIMALS}) {
+                String text = formatDecimal(value, decimals);
+                assertEquals(text.length(), NumericCodec.decimalLength(value, decimals));
+                assertEquals(text, formatDecimalInBuffer(value, decimals));
+                assertEquals(value, parseDecimal(text, decimals), text);
+            }
+        }
+    }
+
+    @Test
+    void decimalsAreWrittenWithExactlyTheirScale() {
+        assertEquals("150.2500", formatDecimal(1_502_500, 4));
+        assertEquals("0.0001", formatDecimal(1, 4));
+        assertEquals("-0.0001", formatDecimal(-1, 4));
+        assertEquals("-922337203685477.5808", formatDecimal(Long.MIN_VALUE, 4));
+        assertEquals("922337203685477.5807", formatDecimal(Long.MAX_VALUE, 4));
+    }
+
+    @Test
+    void shortFractionsArePadded() {
+        assertEquals(1_500_000, parseDecimal("150", 4));
+        assertEquals(1_502_500, parseDecimal("150.25", 4));
+        assertEquals(1_500_000, parseDecimal("150.", 4));
+        assertEquals(-5_000, parseDecimal("-.5", 4));
+    }
+
+    @Test
+    void moreThanFourDecimalsOnlyIfTrailingZeros() {
+        assertEquals(1_502_500, parseDecimal("150.250000", 4));
+        assertEquals(1, parseDecimal("0.00010", 4));
+        assertInvalid("150.25001", 4);
+        assertInvalid("0.00001", 4);
+    }
+
+    @Test
+    void overflowIsRejected() {
+        assertInvalid("9223372036854775808", 0);
+        assertInvalid("-9223372036854775809", 0);
+        assertInvalid("99999999999999999999", 0);
+        // Fits as a long, but not once scaled by four decimals
+        assertInvalid("922337203685478", 4);
+        assertInvalid("-922337203685477.5809", 4);
+        assertEquals(Long.MIN_VALUE, parseDecimal("-922337203685477.5808", 4));
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        for (String text : new String[] {"", "-", ".", "-.", "+1", "1-", "1.2.3", "1e5", " 1", "1 ", "0x10", "--1"}) {
+            assertInvalid(text, 4);
+        }
+        // Without decimals a decimal point is not allowed at all
+        assertInvalid("1.0", 0);
+    }
+
+    @Test
+    void parsingReadsOnlyTheGivenRange() {
+        byte[] bytes = "xx-1234yy".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(-1234, NumericCodec.parseLong(bytes, 2, 5));
+        assertEquals(-1234, NumericCodec.parseLong(ByteBuffer.wrap(bytes), 2, 5));
+    }
+
+    @Test
+    void decimalsOutOfRangeAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> NumericCodec.decimalLength(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> NumericCodec.decimalLength(1, NumericCodec.MAX_DECIMALS + 1));
+    }
+
+    private static void assertInvalid(String text, int decimals) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        assertThrows(NumberFormatException.class, () -> NumericCodec.parseDecimal(bytes, 0, bytes.length, decimals),
+                "'" + text + "'");
+        assertThrows(NumberFormatException.class,
+                () -> NumericCodec.parseDecimal(ByteBuffer.wrap(bytes), 0, bytes.length, decimals), "'" + text + "'");
+    }
+
+    private static String formatLong(long value) {
+        byte[] bytes = new byte[NumericCodec.MAX_LONG_LENGTH];
+        int length = NumericCodec.putLong(bytes, 0, value);
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private static String formatLongInBuffer(long value) {
+        ByteBuffer buffer = ByteBuffer.allocate(NumericCodec.MAX_LONG_LENGTH + 4);
+        int length = NumericCodec.putLong(buffer, 4, value);
+        byte[] bytes = new byte[length];
+        buffer.get(4, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static String formatDecimal(long value, int decimals) {
+        byte[] bytes = new byte[64];
+        int length = NumericCodec.putDecimal(bytes, 0, value, decimals);
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private static String formatDecimalInBuffer(long value, int decimals) {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        int length = NumericCodec.putDecimal(buffer, 0, value, decimals);
+        byte[] bytes = new byte[length];
+        buffer.get(0, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static long parseLong(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return NumericCodec.parseLong(bytes, 0, bytes.length);
+    }
+
+    private static long parseLongInBuffer(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return NumericCodec.parseLong(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private static long parseDecimal(String text, int decimals) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return NumericCodec.parseDecimal(bytes, 0, bytes.length, decimals);
+    }
+}